@@ -1,8 +1,8 @@
 package com.crio.codingame;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -11,9 +11,16 @@ import java.util.stream.Collectors;
 import com.crio.codingame.appConfig.ApplicationConfig;
 import com.crio.codingame.commands.CommandInvoker;
 import com.crio.codingame.exceptions.NoSuchCommandException;
+import com.crio.codingame.server.CommandServer;
+import com.crio.common.commands.BufferedOutputSink;
+import com.crio.common.commands.CommandLineReader;
+import com.crio.common.commands.CommandTokens;
 
 public class App {
+    private static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+
     // To run the application  ./gradlew run --args="INPUT_FILE=input.txt"
+    // To serve commands over a loopback socket  ./gradlew run --args="SERVER_PORT=7070 MAX_CONNECTIONS=10000"
     public static void main(String[] args) {
         List<String> commandLineArgs = new LinkedList<>(Arrays.asList(args));
         String expectedSequence = "INPUT_FILE";
@@ -23,26 +30,49 @@ public class App {
         if(expectedSequence.equals(actualSequence)){
             run(commandLineArgs);
         }
+        else if(actualSequence.equals("SERVER_PORT") || actualSequence.equals("SERVER_PORT$MAX_CONNECTIONS")){
+            serve(commandLineArgs);
+        }
     }
     public static void run(List<String> commandLineArgs) {
         ApplicationConfig applicationConfig = new ApplicationConfig();
         CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
-        BufferedReader reader;
+        CommandLineReader reader;
         String inputFile = commandLineArgs.get(0).split("=")[1];
         commandLineArgs.remove(0);
+        // Commands print to System.out, which collects their output and writes it to the console in batches
+        PrintStream console = System.out;
+        BufferedOutputSink outputSink = new BufferedOutputSink(console);
+        System.setOut(outputSink.printStream());
         try {
-            reader = new BufferedReader(new FileReader(inputFile));
-            String line = reader.readLine();
-            while (line != null) {
-                List<String> tokens = Arrays.asList(line.split(" "));
-                commandInvoker.executeCommand(tokens.get(0),tokens);
-                // read next line
-                line = reader.readLine();
+            reader = new CommandLineReader(new FileReader(inputFile));
+            // The same tokens are refilled for every line, so reading and dispatching allocate nothing
+            CommandTokens tokens = reader.tokens();
+            while (reader.readLine()) {
+                commandInvoker.executeCommand(tokens);
             }
             reader.close();
         } catch (IOException | NoSuchCommandException e) {
+            outputSink.flush();
             e.printStackTrace();
+        } finally {
+            outputSink.flush();
+            System.setOut(console);
         }
 
    }
+
+    public static void serve(List<String> commandLineArgs) {
+        ApplicationConfig applicationConfig = new ApplicationConfig();
+        CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
+        int port = Integer.parseInt(commandLineArgs.get(0).split("=")[1]);
+        int maxConnections = commandLineArgs.size() > 1
+                ? Integer.parseInt(commandLineArgs.get(1).split("=")[1]) : DEFAULT_MAX_CONNECTIONS;
+        try (CommandServer server = new CommandServer(commandInvoker, maxConnections)) {
+            System.out.println("Listening on port " + server.start(port));
+            server.awaitTermination();
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
 }
@@ -5,13 +5,23 @@ import java.util.List;
 import java.util.Map;
 
 import com.crio.codingame.exceptions.NoSuchCommandException;
+import com.crio.common.commands.CommandTokens;
 
 public class CommandInvoker {
+    private static final int MAX_SEED_ATTEMPTS = 64;
+
     private static final Map<String, ICommand> commandMap = new HashMap<>();
 
+    // Perfect hash of the registered names, rebuilt on register, so that a command line is dispatched
+    // by hashing its first token once and comparing it with a single name
+    private static String[] slotNames = new String[1];
+    private static ICommand[] slotCommands = new ICommand[1];
+    private static int seed;
+
     // Register the command into the HashMap
     public void register(String commandName, ICommand command){
         commandMap.put(commandName,command);
+        buildDispatchTable();
     }
 
     // Get the registered Command
@@ -29,4 +39,51 @@ public class CommandInvoker {
         command.execute(tokens);
     }
 
+    // Execute the Command named by the first token, without allocating to find it
+    public void executeCommand(CommandTokens tokens) throws NoSuchCommandException {
+        int slot = hash(tokens.chars(), tokens.start(0), tokens.length(0), seed) & (slotNames.length - 1);
+        if(slotNames[slot] == null || !tokens.tokenEquals(0, slotNames[slot])){
+            throw new NoSuchCommandException();
+        }
+        slotCommands[slot].execute(tokens);
+    }
+
+    // Finds a seed, and if need be a larger table, under which every registered name has its own slot
+    private static void buildDispatchTable(){
+        int size = Integer.highestOneBit(commandMap.size() * 2 - 1) << 1;
+        while (true) {
+            for (int candidate = 1; candidate <= MAX_SEED_ATTEMPTS; candidate++) {
+                String[] names = new String[size];
+                ICommand[] commands = new ICommand[size];
+                boolean perfect = true;
+                for (Map.Entry<String, ICommand> entry : commandMap.entrySet()) {
+                    char[] name = entry.getKey().toCharArray();
+                    int slot = hash(name, 0, name.length, candidate) & (size - 1);
+                    if (names[slot] != null) {
+                        perfect = false;
+                        break;
+                    }
+                    names[slot] = entry.getKey();
+                    commands[slot] = entry.getValue();
+                }
+                if (perfect) {
+                    slotNames = names;
+                    slotCommands = commands;
+                    seed = candidate;
+                    return;
+                }
+            }
+            size <<= 1;
+        }
+    }
+
+    private static int hash(char[] chars, int offset, int length, int seed){
+        // FNV-1a with the seed as the offset basis, then a final mix
+        int h = seed * 0x9E3779B9;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ chars[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
 }
@@ -0,0 +1,26 @@
+package com.crio.codingame.commands;
+
+import java.io.PrintStream;
+
+// Prints lists element by element, so commands with long results do not build the whole String just to print it
+final class CommandOutput {
+
+    private CommandOutput() {
+    }
+
+    // Prints what out.print(values) would: "[a, b, c]"
+    static void printList(PrintStream out, Iterable<?> values) {
+        if (values == null) {
+            out.print((Object) null);
+            return;
+        }
+        out.print('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) out.print(", ");
+            out.print(value);
+            first = false;
+        }
+        out.print(']');
+    }
+}
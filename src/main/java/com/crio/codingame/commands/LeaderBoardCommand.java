@@ -25,7 +25,8 @@ public class LeaderBoardCommand implements ICommand{
     public void execute(List<String> tokens) {
         ScoreOrder scoreOrder = ScoreOrder.valueOf(tokens.get(1).toUpperCase());
         List<User> allUserScoreOrderWise = userService.getAllUserScoreOrderWise(scoreOrder);
-        System.out.println(allUserScoreOrderWise);
+        CommandOutput.printList(System.out, allUserScoreOrderWise);
+        System.out.println();
     }
     
 }
@@ -25,7 +25,8 @@ public class ListContestCommand implements ICommand{
     public void execute(List<String> tokens) {
         Level level = tokens.size() == 2 ? Level.valueOf(tokens.get(1).toUpperCase()) : null;
         List<Contest> contestList = contestService.getAllContestLevelWise(level);
-        System.out.println(contestList);
+        CommandOutput.printList(System.out, contestList);
+        System.out.println();
     }
     
 }
@@ -25,12 +25,14 @@ public class ListQuestionCommand implements ICommand{
     public void execute(List<String> tokens) {
         if(tokens.size() == 1){
             List<Question> qList = questionService.getAllQuestionLevelWise(null);
-            System.out.println(qList);
+            CommandOutput.printList(System.out, qList);
+            System.out.println();
             return;
         }
         String level = tokens.get(1);
         List<Question> qList = questionService.getAllQuestionLevelWise(Level.valueOf(level));
-        System.out.println(qList);
+        CommandOutput.printList(System.out, qList);
+        System.out.println();
     }
     
 }
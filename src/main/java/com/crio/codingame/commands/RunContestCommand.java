@@ -1,9 +1,10 @@
 package com.crio.codingame.commands;
 
+import java.io.PrintStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.crio.codingame.dtos.ContestSummaryDto;
+import com.crio.codingame.entities.User;
 import com.crio.codingame.services.IContestService;
 
 public class RunContestCommand implements ICommand {
@@ -20,7 +21,16 @@ public class RunContestCommand implements ICommand {
         String contestCreator = tokens.get(2);
         try{
         ContestSummaryDto contestSummaryDto = contestService.runContest(contestId, contestCreator);
-        System.out.println(contestSummaryDto.getUsers().stream().map(u -> "[UserName:" + u.getName() + " [Questions: " + u.getQuestionsByContest(contestSummaryDto.getContest()) + "]" + "]" ).collect(Collectors.joining(", ")));
+        PrintStream out = System.out;
+        String separator = "";
+        for (User user : contestSummaryDto.getUsers()) {
+            out.print(separator);
+            out.print("[UserName:" + user.getName() + " [Questions: ");
+            CommandOutput.printList(out, user.getQuestionsByContest(contestSummaryDto.getContest()));
+            out.print("]]");
+            separator = ", ";
+        }
+        out.println();
         }catch(RuntimeException e){
             System.out.println(e.getMessage());
         }
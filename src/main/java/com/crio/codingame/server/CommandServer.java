@@ -0,0 +1,177 @@
+package com.crio.codingame.server;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.crio.codingame.commands.CommandInvoker;
+import com.crio.codingame.exceptions.NoSuchCommandException;
+import com.crio.common.commands.CommandLineReader;
+import com.crio.common.commands.CommandTokens;
+
+// Serves the input file's command protocol over a loopback TCP socket.
+// The client sends one command per line and gets back a header line, "OK n" or "ERROR n", followed by the n bytes
+// the command printed, or the error message, in UTF-8. Replies come back in the order the lines were sent.
+// Each connection runs on a virtual thread on Java 21 and later. Before that it holds a platform thread for as long
+// as it is open, so at most MAX_PLATFORM_THREADS connections are served at once and further clients wait in the
+// accept backlog until one closes.
+// The services keep plain collections, so the commands of all connections run one at a time.
+public class CommandServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(CommandServer.class.getName());
+
+    // Every platform thread reserves its own stack, so a large connection limit must not become that many threads
+    static final int MAX_PLATFORM_THREADS = 256;
+    // Command lines are short, and thousands of connections each keep a window
+    private static final int CONNECTION_WINDOW_SIZE = 1024;
+
+    private final CommandInvoker commandInvoker;
+    private final int maxConnections;
+    private Semaphore connectionPermits;
+    private final ReentrantLock commandLock = new ReentrantLock();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    private ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+    private OutputCapture capture;
+    private Thread acceptThread;
+
+    public CommandServer(CommandInvoker commandInvoker, int maxConnections) {
+        if (maxConnections < 1) throw new IllegalArgumentException("Max connections must be positive: " + maxConnections);
+        this.commandInvoker = commandInvoker;
+        this.maxConnections = maxConnections;
+    }
+
+    // Binds the loopback address, starts accepting connections and returns the port, which is any free one for 0
+    public synchronized int start(int port) throws IOException {
+        if (serverSocket != null) throw new IllegalStateException("Server already started");
+        serverSocket = new ServerSocket(port, maxConnections, InetAddress.getLoopbackAddress());
+        connectionExecutor = newConnectionExecutor(maxConnections);
+        // A pool of platform threads serves only as many connections as it has threads
+        connectionPermits = new Semaphore(connectionExecutor instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) connectionExecutor).getMaximumPoolSize() : maxConnections);
+        capture = OutputCapture.install(StandardCharsets.UTF_8.name());
+        acceptThread = new Thread(this::acceptConnections, "command-server-accept");
+        acceptThread.start();
+        return serverSocket.getLocalPort();
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = acceptThread;
+        }
+        if (thread != null) thread.join();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket == null) return;
+        serverSocket.close();
+        for (Socket socket : openSockets) socket.close();
+        connectionExecutor.shutdown();
+        capture.uninstall();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            connectionPermits.acquireUninterruptibly();
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+            } catch (IOException e) {
+                connectionPermits.release();
+                if (serverSocket.isClosed()) return;
+                continue;
+            }
+            openSockets.add(socket);
+            connectionExecutor.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             CommandLineReader reader = new CommandLineReader(
+                     new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8), CONNECTION_WINDOW_SIZE);
+             OutputStream out = new BufferedOutputStream(connection.getOutputStream())) {
+
+            CommandTokens tokens = reader.tokens();
+            while (reader.readLine()) {
+                reply(out, tokens);
+                // Replies to pipelined commands are sent together
+                if (!reader.ready()) out.flush();
+            }
+        } catch (SocketException e) {
+            // The client went away or the server is closing
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Connection from " + socket.getRemoteSocketAddress() + " failed", e);
+        } finally {
+            openSockets.remove(socket);
+            connectionPermits.release();
+        }
+    }
+
+    private void reply(OutputStream out, CommandTokens tokens) throws IOException {
+        String status = "OK";
+        byte[] body;
+        commandLock.lock();
+        capture.begin();
+        try {
+            commandInvoker.executeCommand(tokens);
+            body = capture.end();
+        } catch (NoSuchCommandException e) {
+            capture.end();
+            status = "ERROR";
+            body = ("No such Command: " + tokens.get(0)).getBytes(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            capture.end();
+            status = "ERROR";
+            body = String.valueOf(e).getBytes(StandardCharsets.UTF_8);
+        } finally {
+            commandLock.unlock();
+        }
+        // The reply is written outside the lock so that a slow client does not hold up the others
+        writeReply(out, status, body);
+    }
+
+    private static void writeReply(OutputStream out, String status, byte[] body) throws IOException {
+        out.write((status + " " + body.length + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+    }
+
+    private static ExecutorService newConnectionExecutor(int maxThreads) {
+        try {
+            // Java 21 and later: one virtual thread per connection
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21: a pool of at most MAX_PLATFORM_THREADS platform threads that shrinks when connections close
+            int threads = Math.min(maxThreads, MAX_PLATFORM_THREADS);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "command-server-connection");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+}
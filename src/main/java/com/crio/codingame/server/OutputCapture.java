@@ -0,0 +1,67 @@
+package com.crio.codingame.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+// Sends what a thread prints to System.out between begin and end to that thread's own buffer,
+// so that the output of a command can be returned to the connection that sent it
+final class OutputCapture {
+
+    private final PrintStream console;
+    private final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<>();
+
+    private OutputCapture(PrintStream console) {
+        this.console = console;
+    }
+
+    static OutputCapture install(String charsetName) throws UnsupportedEncodingException {
+        OutputCapture capture = new OutputCapture(System.out);
+        System.setOut(new PrintStream(capture.new CapturingOutputStream(), true, charsetName));
+        return capture;
+    }
+
+    void begin() {
+        buffers.set(new ByteArrayOutputStream());
+    }
+
+    byte[] end() {
+        ByteArrayOutputStream buffer = buffers.get();
+        buffers.remove();
+        return buffer == null ? new byte[0] : buffer.toByteArray();
+    }
+
+    void uninstall() {
+        System.setOut(console);
+        console.flush();
+    }
+
+    private final class CapturingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            ByteArrayOutputStream buffer = buffers.get();
+            if (buffer != null) {
+                buffer.write(b);
+            } else {
+                console.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ByteArrayOutputStream buffer = buffers.get();
+            if (buffer != null) {
+                buffer.write(b, off, len);
+            } else {
+                console.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (buffers.get() == null) console.flush();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.crio.common.commands;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+
+/**
+ * BufferedOutputSink collects command output in one large reusable buffer and writes it to the console in batches.
+ * Text is encoded by a PrintStream in the console's charset, so the bytes are those System.out would have written;
+ * they are only handed to the console when the buffer fills up or on flush, instead of once per line.
+ * printStream() writes into the same buffer, so installing it as System.out keeps anything else that prints in order
+ * with the commands' output.
+ * A thread can also capture what it writes between beginCapture and endCapture into a buffer of its own, so commands
+ * running on several threads can have their output ordered or sent elsewhere.
+ */
+public final class BufferedOutputSink implements IOutputSink {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 18;
+
+    private final PrintStream console;
+    private final Charset charset;
+    private final PrintStream printStream;
+    private final ThreadLocal<ByteArrayOutputStream> captures = new ThreadLocal<>();
+
+    // Guarded by this; bytes not yet written to the console are buffer[0, count)
+    private final byte[] buffer;
+    private int count;
+
+    public BufferedOutputSink(PrintStream console) {
+        this(console, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param console    The stream the output is written to in batches.
+     * @param bufferSize The number of bytes held before they are written to the console.
+     */
+    public BufferedOutputSink(PrintStream console, int bufferSize) {
+        if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        this.console = console;
+        this.charset = charsetOf(console);
+        this.buffer = new byte[bufferSize];
+        try {
+            this.printStream = new PrintStream(new SinkOutputStream(), false, charset.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void print(Object value) {
+        printStream.print(value);
+    }
+
+    @Override
+    public void println(Object value) {
+        printStream.println(value);
+    }
+
+    @Override
+    public synchronized void flush() {
+        drain();
+        console.flush();
+    }
+
+    /**
+     * Returns a PrintStream that writes into this sink, for use as System.out while the sink is in use.
+     */
+    public PrintStream printStream() {
+        return printStream;
+    }
+
+    /**
+     * Returns the charset text is encoded in.
+     */
+    public Charset charset() {
+        return charset;
+    }
+
+    /**
+     * Starts capturing what the current thread writes.
+     */
+    public void beginCapture() {
+        captures.set(new ByteArrayOutputStream());
+    }
+
+    /**
+     * Stops capturing what the current thread writes.
+     * @return The bytes written since beginCapture.
+     */
+    public byte[] endCapture() {
+        ByteArrayOutputStream capture = captures.get();
+        captures.remove();
+        return capture == null ? new byte[0] : capture.toByteArray();
+    }
+
+    /**
+     * Writes bytes already encoded in charset(), such as captured output, into the buffer.
+     */
+    public void write(byte[] bytes) {
+        append(bytes, 0, bytes.length);
+    }
+
+    private synchronized void append(byte[] bytes, int offset, int length) {
+        if (length > buffer.length - count) {
+            drain();
+            if (length > buffer.length) {
+                console.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    // Caller holds this
+    private void drain() {
+        if (count == 0) return;
+        console.write(buffer, 0, count);
+        count = 0;
+    }
+
+    private static Charset charsetOf(PrintStream console) {
+        try {
+            // Java 18 and later tell the charset of any PrintStream
+            return (Charset) PrintStream.class.getMethod("charset").invoke(console);
+        } catch (ReflectiveOperationException e) {
+            // Before that, System.out uses sun.stdout.encoding when the launcher sets it, and other streams the default
+            String encoding = System.getProperty("sun.stdout.encoding");
+            if (console == System.out && encoding != null && Charset.isSupported(encoding)) {
+                return Charset.forName(encoding);
+            }
+            return Charset.defaultCharset();
+        }
+    }
+
+    private final class SinkOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ByteArrayOutputStream capture = captures.get();
+            if (capture != null) {
+                capture.write(b, off, len);
+            } else {
+                append(b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.crio.common.commands;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * CommandLineReader reads command lines into a reusable CommandTokens without allocating per line.
+ * Characters are read in bulk into a window that is reused for the whole input; each line is split in place and the
+ * tokens point into the window. The window only grows when a single line does not fit. Lines end at "\n", "\r" or
+ * "\r\n", as with BufferedReader.readLine.
+ */
+public final class CommandLineReader implements Closeable {
+
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final CommandTokens tokens = new CommandTokens();
+
+    private char[] window;
+    // Characters not yet consumed are window[position, limit)
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    // The previous line ended with '\r', so a '\n' right after it belongs to the same line break
+    private boolean skipLineFeed;
+
+    public CommandLineReader(Reader in) {
+        this(in, DEFAULT_WINDOW_SIZE);
+    }
+
+    public CommandLineReader(Reader in, int windowSize) {
+        if (windowSize < 1) throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        this.in = in;
+        this.window = new char[windowSize];
+    }
+
+    /**
+     * Returns the tokens of the line last read. The same instance is refilled by every call to readLine.
+     */
+    public CommandTokens tokens() {
+        return tokens;
+    }
+
+    /**
+     * Reads the next line and splits it into tokens().
+     * @return False once the input is exhausted.
+     */
+    public boolean readLine() throws IOException {
+        int scan = position;
+        while (true) {
+            if (skipLineFeed && position < limit) {
+                skipLineFeed = false;
+                if (window[position] == '\n') scan = ++position;
+            }
+            for (; scan < limit; scan++) {
+                char c = window[scan];
+                if (c == '\n' || c == '\r') {
+                    tokens.set(window, position, scan);
+                    position = scan + 1;
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+            }
+            if (endOfInput) {
+                if (position == limit) return false;
+                tokens.set(window, position, limit);
+                position = limit;
+                return true;
+            }
+            scan -= position;
+            fill();
+        }
+    }
+
+    /**
+     * Returns whether a line can be read without blocking, as far as the underlying reader can tell.
+     */
+    public boolean ready() throws IOException {
+        return position < limit || in.ready();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Moves the unfinished line to the start of the window, growing it if the line fills it, and reads more
+    private void fill() throws IOException {
+        int pending = limit - position;
+        if (pending == window.length) {
+            window = Arrays.copyOf(window, window.length * 2);
+        } else if (position > 0) {
+            System.arraycopy(window, position, window, 0, pending);
+        }
+        position = 0;
+        limit = pending;
+        int read = in.read(window, limit, window.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
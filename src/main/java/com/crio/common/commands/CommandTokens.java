@@ -0,0 +1,127 @@
+package com.crio.common.commands;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * CommandTokens is the reusable token list of the command line most recently read by a CommandLineReader.
+ * Tokens are kept as offsets into the reader's character window, so splitting a line allocates nothing; a token
+ * becomes a String only when a command asks for it, and that String is reused until the next line is read.
+ * The tokens are those of line.split(" "): empty tokens between repeated spaces are kept, trailing ones are dropped.
+ * The list changes with every line read, so code that keeps tokens beyond the command's execution must copy them.
+ */
+public final class CommandTokens extends AbstractList<String> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private char[] chars;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int count;
+
+    CommandTokens() {
+    }
+
+    /**
+     * Splits chars[from, to) into tokens, replacing the previous line.
+     */
+    void set(char[] chars, int from, int to) {
+        Arrays.fill(strings, 0, count, null);
+        this.chars = chars;
+        count = 0;
+
+        boolean separated = false;
+        int tokenStart = from;
+        for (int i = from; i < to; i++) {
+            if (chars[i] == ' ') {
+                add(tokenStart, i);
+                tokenStart = i + 1;
+                separated = true;
+            }
+        }
+        add(tokenStart, to);
+        // Like String.split, a line without separators is one token even when empty; otherwise trailing empties go
+        if (separated) {
+            while (count > 0 && ends[count - 1] == starts[count - 1]) count--;
+        }
+        modCount++;
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        String token = strings[index];
+        if (token == null) {
+            token = new String(chars, starts[index], ends[index] - starts[index]);
+            strings[index] = token;
+        }
+        return token;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns a copy of the tokens that stays valid after the next line is read.
+     */
+    public List<String> copy() {
+        return Arrays.asList(toArray(new String[count]));
+    }
+
+    /**
+     * Returns whether the token at the given index consists of exactly the characters of the given string.
+     */
+    public boolean tokenEquals(int index, String value) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (length != value.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the character window the tokens point into, for dispatchers that hash a token without a String.
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    /**
+     * Returns the offset in chars() at which the token at the given index starts.
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Returns the number of characters of the token at the given index.
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return ends[index] - starts[index];
+    }
+
+    private void add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            strings = Arrays.copyOf(strings, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+    }
+}
@@ -0,0 +1,17 @@
+package com.crio.common.commands;
+
+/**
+ * IOutputSink is where commands write their results.
+ * Text is encoded and written exactly as System.out.print and System.out.println would write it; when it reaches the
+ * console is up to the sink, and flush forces everything written so far out.
+ */
+public interface IOutputSink {
+    void print(Object value);
+
+    void println(Object value);
+
+    /**
+     * Writes everything written so far through to its destination, blocking until it is written.
+     */
+    void flush();
+}
@@ -1,29 +1,58 @@
 package com.crio.jukebox;
 
+import com.crio.common.commands.BufferedOutputSink;
+import com.crio.common.commands.CommandLineReader;
+import com.crio.common.commands.CommandTokens;
 import com.crio.jukebox.commands.CommandInvoker;
+import com.crio.jukebox.commands.ParallelCommandExecutor;
 import com.crio.jukebox.config.ApplicationConfig;
 import com.crio.jukebox.exceptions.NoSuchCommandException;
+import com.crio.jukebox.server.CommandServer;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
 public class App {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+
+    // Options of the write-ahead log of users and playlists, which may follow the arguments of any mode
+    private static final String LOG_OPTION_PREFIX = "WAL_";
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 10;
+    private static final int DEFAULT_SYNC_EVERY_RECORDS = 1024;
+    private static final long DEFAULT_CHECKPOINT_AT_BYTES = 64L << 20;
+
     // To run the application  ./gradlew run --args="INPUT_FILE=jukebox-input.txt"
+    // To run the commands of different users in parallel  ./gradlew run --args="INPUT_FILE=jukebox-input.txt THREADS=4"
+    // To serve commands over a loopback socket  ./gradlew run --args="SERVER_PORT=7070 MAX_CONNECTIONS=10000"
+    // To recover users and playlists at startup and log their changes, add to any of these
+    //   WAL_FILE=jukebox.wal [WAL_SYNC_MILLIS=10] [WAL_SYNC_RECORDS=1024] [WAL_CHECKPOINT_BYTES=67108864]
+    // A log that has grown past WAL_CHECKPOINT_BYTES is rewritten from the recovered users and playlists at startup
 	public static void main(String[] args) {
 		List<String> commandLineArgs = new LinkedList<>(Arrays.asList(args));
         String expectedSequence = "INPUT_FILE";
+        String parallelSequence = "INPUT_FILE$THREADS";
         String actualSequence = commandLineArgs.stream()
                 .map(a -> a.split("=")[0])
+                .filter(name -> !name.startsWith(LOG_OPTION_PREFIX))
                 .collect(Collectors.joining("$"));
-        if(expectedSequence.equals(actualSequence)){
+        if(expectedSequence.equals(actualSequence) || parallelSequence.equals(actualSequence)){
             run(commandLineArgs);
         }
+        else if(actualSequence.equals("SERVER_PORT") || actualSequence.equals("SERVER_PORT$MAX_CONNECTIONS")){
+            serve(commandLineArgs);
+        }
 	}
 
     public static void run(List<String> commandLineArgs) {
@@ -31,17 +60,133 @@ public class App {
 
         ApplicationConfig applicationConfig = new ApplicationConfig();
         CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
+        Map<String, String> logOptions = removeLogOptions(commandLineArgs);
         String inputFile = commandLineArgs.get(0).split("=")[1];
+        int threads = commandLineArgs.size() > 1 ? Integer.parseInt(commandLineArgs.get(1).split("=")[1]) : 1;
+
+        if (!openMutationLog(applicationConfig, logOptions)) return;
+
+        // Anything else printed during the run goes through the sink too, so it stays in order with the commands
+        BufferedOutputSink outputSink = applicationConfig.getOutputSink();
+        PrintStream console = System.out;
+        System.setOut(outputSink.printStream());
+        try {
+            if (threads > 1) {
+                runParallel(commandInvoker, outputSink, inputFile, threads);
+            } else {
+                runSequential(commandInvoker, outputSink, inputFile);
+            }
+        } finally {
+            outputSink.flush();
+            System.setOut(console);
+            closeMutationLog(applicationConfig);
+        }
+    }
+
+    public static void serve(List<String> commandLineArgs) {
+        ApplicationConfig applicationConfig = new ApplicationConfig();
+        CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
+        Map<String, String> logOptions = removeLogOptions(commandLineArgs);
+        int port = Integer.parseInt(commandLineArgs.get(0).split("=")[1]);
+        int maxConnections = commandLineArgs.size() > 1
+                ? Integer.parseInt(commandLineArgs.get(1).split("=")[1]) : DEFAULT_MAX_CONNECTIONS;
+
+        if (!openMutationLog(applicationConfig, logOptions)) return;
+        // The server runs until the process is stopped, so sync what is still batched on the way out
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeMutationLog(applicationConfig)));
+
+        BufferedOutputSink outputSink = applicationConfig.getOutputSink();
+        PrintStream console = System.out;
+        System.setOut(outputSink.printStream());
+        try (CommandServer server = new CommandServer(commandInvoker, outputSink, maxConnections)) {
+            outputSink.println("Listening on port " + server.start(port));
+            outputSink.flush();
+            server.awaitTermination();
+        }
+        catch (IOException | InterruptedException e) {
+            outputSink.flush();
+            e.printStackTrace();
+        }
+        finally {
+            outputSink.flush();
+            System.setOut(console);
+        }
+    }
+
+    private static Map<String, String> removeLogOptions(List<String> commandLineArgs) {
+        Map<String, String> logOptions = new HashMap<>();
+        Iterator<String> iterator = commandLineArgs.iterator();
+        while (iterator.hasNext()) {
+            String[] option = iterator.next().split("=", 2);
+            if (option[0].startsWith(LOG_OPTION_PREFIX)) {
+                logOptions.put(option[0], option.length > 1 ? option[1] : "");
+                iterator.remove();
+            }
+        }
+        return logOptions;
+    }
+
+    // Replays the log given by WAL_FILE, if any, before the first command; returns false if it cannot be opened
+    private static boolean openMutationLog(ApplicationConfig applicationConfig, Map<String, String> logOptions) {
+        String logFile = logOptions.get("WAL_FILE");
+        if (logFile == null) return true;
+        long syncIntervalMillis = logOptions.containsKey("WAL_SYNC_MILLIS")
+                ? Long.parseLong(logOptions.get("WAL_SYNC_MILLIS")) : DEFAULT_SYNC_INTERVAL_MILLIS;
+        int syncEveryRecords = logOptions.containsKey("WAL_SYNC_RECORDS")
+                ? Integer.parseInt(logOptions.get("WAL_SYNC_RECORDS")) : DEFAULT_SYNC_EVERY_RECORDS;
+        long checkpointAtBytes = logOptions.containsKey("WAL_CHECKPOINT_BYTES")
+                ? Long.parseLong(logOptions.get("WAL_CHECKPOINT_BYTES")) : DEFAULT_CHECKPOINT_AT_BYTES;
+        try {
+            applicationConfig.openMutationLog(Paths.get(logFile), syncIntervalMillis, syncEveryRecords,
+                    checkpointAtBytes);
+            return true;
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void closeMutationLog(ApplicationConfig applicationConfig) {
+        try {
+            applicationConfig.closeMutationLog();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void runSequential(CommandInvoker commandInvoker, BufferedOutputSink outputSink, String inputFile) {
+        try (CommandLineReader reader = new CommandLineReader(new FileReader(inputFile))) {
+
+            // The reader refills the same tokens for every line, so reading and dispatching allocate nothing
+            CommandTokens tokens = reader.tokens();
+            while (reader.readLine()) {
+                commandInvoker.executeCommand(tokens);
+            }
+        }
+        catch (NoSuchCommandException | IOException | UncheckedIOException e) {
+            // The output of the commands before the error comes first. An UncheckedIOException means the mutation
+            // log could not be written: the last change is in memory but not durable, so the run stops there.
+            outputSink.flush();
+            e.printStackTrace();
+        }
+    }
 
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(inputFile))) {
+    // Runs the commands of different users on separate threads, with the same output as running them in order
+    private static void runParallel(CommandInvoker commandInvoker, BufferedOutputSink outputSink, String inputFile,
+                                    int threads) {
+        try (CommandLineReader reader = new CommandLineReader(new FileReader(inputFile));
+             ParallelCommandExecutor executor = new ParallelCommandExecutor(commandInvoker, outputSink, threads)) {
 
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                List<String> tokens = Arrays.asList(line.split(" "));
-                commandInvoker.executeCommand(tokens.get(0),tokens);
+            while (reader.readLine()) {
+                // Commands run after the next line is read, so they get their own copy of the tokens
+                List<String> tokens = reader.tokens().copy();
+                executor.submit(tokens.get(0), tokens);
             }
         }
-        catch (NoSuchCommandException | IOException e) {
+        catch (NoSuchCommandException | IOException | UncheckedIOException e) {
+            outputSink.flush();
             e.printStackTrace();
         }
     }
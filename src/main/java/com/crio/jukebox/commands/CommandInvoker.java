@@ -1,5 +1,6 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.CommandTokens;
 import com.crio.jukebox.exceptions.NoSuchCommandException;
 
 import java.util.HashMap;
@@ -13,9 +14,17 @@ import java.util.Objects;
  */
 public class CommandInvoker {
 
+    private static final int MAX_SEED_ATTEMPTS = 64;
+
     // A map to store command names and their corresponding ICommand implementations.
     private final Map<String, ICommand> commandMap = new HashMap<>();
 
+    // Dispatch table for lookups by the characters of a token: a perfect hash of the registered names, rebuilt on
+    // register, so a lookup hashes the token once and compares it with a single name.
+    private String[] slotNames = new String[1];
+    private ICommand[] slotCommands = new ICommand[1];
+    private int seed;
+
 
     /**
      * Registers a command with the specified command name.
@@ -25,6 +34,7 @@ public class CommandInvoker {
      */
     public void register(String commandName, ICommand command) {
         commandMap.put(commandName, command);
+        buildDispatchTable();
     }
 
 
@@ -41,6 +51,46 @@ public class CommandInvoker {
      * @throws NoSuchCommandException If no ICommand is registered with the provided command name.
      */
     public void executeCommand(String commandName, List<String> tokens) throws NoSuchCommandException {
+        // Execute the command with the given tokens
+        getCommand(commandName).execute(tokens);
+    }
+
+
+    /**
+     * Executes the command named by the first token of a command line, without allocating to find it.
+     *
+     * @param tokens The tokens of the command line, starting with the command name.
+     * @throws NoSuchCommandException If no ICommand is registered with the name in the first token.
+     */
+    public void executeCommand(CommandTokens tokens) throws NoSuchCommandException {
+        getCommand(tokens).execute(tokens);
+    }
+
+
+    /**
+     * Returns the command named by the first token of a command line.
+     *
+     * @param tokens The tokens of the command line, starting with the command name.
+     * @return The ICommand implementation for the command.
+     * @throws NoSuchCommandException If no ICommand is registered with the name in the first token.
+     */
+    public ICommand getCommand(CommandTokens tokens) throws NoSuchCommandException {
+        int slot = hash(tokens.chars(), tokens.start(0), tokens.length(0), seed) & (slotNames.length - 1);
+        if (slotNames[slot] == null || !tokens.tokenEquals(0, slotNames[slot])) {
+            throw new NoSuchCommandException("No such Command: " + tokens.get(0));
+        }
+        return slotCommands[slot];
+    }
+
+
+    /**
+     * Returns the command registered with the given command name.
+     *
+     * @param commandName The name of the command.
+     * @return The ICommand implementation for the command.
+     * @throws NoSuchCommandException If no ICommand is registered with the provided command name.
+     */
+    public ICommand getCommand(String commandName) throws NoSuchCommandException {
         // Validate if commandName is provided
         Objects.requireNonNull(commandName, "Command name must be provided.");
 
@@ -50,8 +100,45 @@ public class CommandInvoker {
             // Throw NoSuchCommandException if the command is not registered
             throw new NoSuchCommandException("No such Command: " + commandName);
         }
+        return command;
+    }
 
-        // Execute the command with the given tokens
-        command.execute(tokens);
+
+    // Finds a seed, and if need be a larger table, under which every registered name has its own slot
+    private void buildDispatchTable() {
+        int size = Integer.highestOneBit(commandMap.size() * 2 - 1) << 1;
+        while (true) {
+            for (int candidate = 1; candidate <= MAX_SEED_ATTEMPTS; candidate++) {
+                String[] names = new String[size];
+                ICommand[] commands = new ICommand[size];
+                boolean perfect = true;
+                for (Map.Entry<String, ICommand> entry : commandMap.entrySet()) {
+                    char[] name = entry.getKey().toCharArray();
+                    int slot = hash(name, 0, name.length, candidate) & (size - 1);
+                    if (names[slot] != null) {
+                        perfect = false;
+                        break;
+                    }
+                    names[slot] = entry.getKey();
+                    commands[slot] = entry.getValue();
+                }
+                if (perfect) {
+                    slotNames = names;
+                    slotCommands = commands;
+                    seed = candidate;
+                    return;
+                }
+            }
+            size <<= 1;
+        }
+    }
+
+    private static int hash(char[] chars, int offset, int length, int seed) {
+        // FNV-1a with the seed as the offset basis, then a final mix
+        int h = seed * 0x9E3779B9;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ chars[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.dtos.PlaylistDto;
 import com.crio.jukebox.exceptions.SongNotFoundException;
 import com.crio.jukebox.exceptions.UserNotFoundException;
@@ -10,9 +11,11 @@ import java.util.List;
 public class CreatePlaylistCommand implements ICommand {
 
     private final IPlaylistService playlistService;
+    private final IOutputSink outputSink;
 
-    public CreatePlaylistCommand(IPlaylistService playlistService) {
+    public CreatePlaylistCommand(IPlaylistService playlistService, IOutputSink outputSink) {
         this.playlistService = playlistService;
+        this.outputSink = outputSink;
     }
 
     @Override
@@ -24,13 +27,13 @@ public class CreatePlaylistCommand implements ICommand {
 
         try {
             PlaylistDto playlist = playlistService.createPlaylist(userId, playlistName, songIds);
-            System.out.println("Playlist ID - " + playlist.playlistId());
+            outputSink.println("Playlist ID - " + playlist.playlistId());
         }
         catch (SongNotFoundException e) {
-            System.out.println("Some Requested Songs Not Available. Please try again.");
+            outputSink.println("Some Requested Songs Not Available. Please try again.");
         }
         catch (UserNotFoundException e) {
-            System.out.println(e.getMessage());
+            outputSink.println(e.getMessage());
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.dtos.UserDto;
 import com.crio.jukebox.services.IUserService;
 
@@ -8,14 +9,16 @@ import java.util.List;
 public class CreateUserCommand implements ICommand{
 
     private final IUserService userService;
+    private final IOutputSink outputSink;
 
-    public CreateUserCommand(IUserService userService) {
+    public CreateUserCommand(IUserService userService, IOutputSink outputSink) {
         this.userService = userService;
+        this.outputSink = outputSink;
     }
 
     @Override
     public void execute(List<String> tokens) {
         UserDto user = userService.createUser(tokens.get(1));
-        System.out.println(user);
+        outputSink.println(user);
     }
 }
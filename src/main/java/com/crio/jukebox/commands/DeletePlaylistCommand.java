@@ -1,17 +1,21 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.exceptions.PlaylistNotFoundException;
 import com.crio.jukebox.exceptions.UserNotFoundException;
 import com.crio.jukebox.services.IPlaylistService;
 
 import java.util.List;
+import java.util.Optional;
 
 public class DeletePlaylistCommand implements ICommand {
 
     private final IPlaylistService playlistService;
+    private final IOutputSink outputSink;
 
-    public DeletePlaylistCommand(IPlaylistService playlistService) {
+    public DeletePlaylistCommand(IPlaylistService playlistService, IOutputSink outputSink) {
         this.playlistService = playlistService;
+        this.outputSink = outputSink;
     }
 
     @Override
@@ -22,13 +26,18 @@ public class DeletePlaylistCommand implements ICommand {
 
         try {
             playlistService.deletePlaylist(userId, playlistId);
-            System.out.println("Delete Successful");
+            outputSink.println("Delete Successful");
         }
         catch (PlaylistNotFoundException e) {
-            System.out.println("Playlist Not Found");
+            outputSink.println("Playlist Not Found");
         }
         catch (UserNotFoundException e) {
-            System.out.println(e.getMessage());
+            outputSink.println(e.getMessage());
         }
     }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(1));
+    }
 }
@@ -1,7 +1,19 @@
 package com.crio.jukebox.commands;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ICommand {
     void execute(List<String> tokens);
+
+    /**
+     * Returns the ID of the user whose state the command reads and changes, if it touches no other user's state.
+     * Commands with a partition key can run in parallel with the commands of other users; commands without one,
+     * such as those that load the catalog or allocate IDs, run on their own as barriers.
+     * @param tokens The tokens the command will be executed with.
+     * @return The partition key, or an empty Optional for a global command.
+     */
+    default Optional<String> partitionKey(List<String> tokens) {
+        return Optional.empty();
+    }
 }
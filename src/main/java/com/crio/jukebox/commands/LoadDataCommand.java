@@ -1,21 +1,70 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.dtos.CatalogReloadDto;
 import com.crio.jukebox.repositories.data.SongDataLoader;
 
+import java.io.IOException;
 import java.util.List;
 
 public class LoadDataCommand implements ICommand {
 
+    private static final String STREAM_USAGE = "Usage: LOAD-DATA {file} STREAM [threads]";
+
     private final SongDataLoader songDataLoader;
+    private final IOutputSink outputSink;
 
-    public LoadDataCommand(SongDataLoader songDataLoader) {
+    public LoadDataCommand(SongDataLoader songDataLoader, IOutputSink outputSink) {
         this.songDataLoader = songDataLoader;
+        this.outputSink = outputSink;
     }
 
     @Override
     public void execute(List<String> tokens) {
         String file = tokens.get(1);
-        songDataLoader.loadData(file);
-        System.out.println("Songs Loaded successfully");
+
+        // LOAD-DATA {file} INCREMENTAL applies only the differences against the loaded catalog
+        if (tokens.size() > 2 && tokens.get(2).equals("INCREMENTAL")) {
+            try {
+                CatalogReloadDto changes = songDataLoader.reloadData(file);
+                outputSink.println("Songs Reloaded successfully");
+                outputSink.println(changes);
+            } catch (IOException e) {
+                // The catalog is left as it was
+                outputSink.println("Songs are not loaded to Songs Repository");
+                outputSink.println("Error loading data from file: " + file);
+            }
+            return;
+        }
+
+        // LOAD-DATA {file} STREAM [threads] parses the file in parallel chunks instead of in one pass
+        if (tokens.size() > 2 && tokens.get(2).equals("STREAM")) {
+            // The thread count, when given, must be a positive number
+            if (tokens.size() > 4 || (tokens.size() == 4 && !isPositiveNumber(tokens.get(3)))) {
+                outputSink.println(STREAM_USAGE);
+                return;
+            }
+            int threads = tokens.size() > 3 ? Integer.parseInt(tokens.get(3)) : Runtime.getRuntime().availableProcessors();
+            try {
+                songDataLoader.loadDataStreaming(file, threads, SongDataLoader.DEFAULT_CHUNK_SIZE);
+            } catch (IOException e) {
+                // The songs of the records before a bad one are kept; the message names the bad record's line
+                outputSink.println("Songs are not fully loaded to Songs Repository");
+                outputSink.println(e.getMessage());
+                return;
+            }
+        }
+        else {
+            songDataLoader.loadData(file);
+        }
+        outputSink.println("Songs Loaded successfully");
+    }
+
+    private static boolean isPositiveNumber(String token) {
+        try {
+            return Integer.parseInt(token) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 }
@@ -1,19 +1,34 @@
 package com.crio.jukebox.commands;
 
-import com.crio.jukebox.dtos.PlaylistDto;
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.entities.ModificationAction;
+import com.crio.jukebox.entities.PlaylistMutation;
 import com.crio.jukebox.exceptions.SongNotFoundException;
 import com.crio.jukebox.exceptions.SongNotInPlaylistException;
 import com.crio.jukebox.services.IPlaylistService;
 
 import java.util.List;
+import java.util.Optional;
 
 public class ModifyPlaylistCommand implements ICommand {
 
+    private static final String MOVE_SONG_USAGE =
+            "Usage: MODIFY-PLAYLIST MOVE-SONG {user_id} {playlist_id} {song_id} {position}";
+
     private final IPlaylistService playlistService;
+    private final IOutputSink outputSink;
+
+    // Print only what changed instead of the whole playlist
+    private final boolean compact;
+
+    public ModifyPlaylistCommand(IPlaylistService playlistService, IOutputSink outputSink) {
+        this(playlistService, outputSink, false);
+    }
 
-    public ModifyPlaylistCommand(IPlaylistService playlistService) {
+    public ModifyPlaylistCommand(IPlaylistService playlistService, IOutputSink outputSink, boolean compact) {
         this.playlistService = playlistService;
+        this.outputSink = outputSink;
+        this.compact = compact;
     }
 
     @Override
@@ -24,24 +39,53 @@ public class ModifyPlaylistCommand implements ICommand {
         String playlistId = tokens.get(3);
         String[] songIds = tokens.subList(4, tokens.size()).toArray(new String[0]);
 
-        PlaylistDto playlist;
+        // MOVE-SONG takes exactly one song and its new position
+        if (action == ModificationAction.MOVE_SONG && (songIds.length != 2 || !isNumber(songIds[1]))) {
+            outputSink.println(MOVE_SONG_USAGE);
+            return;
+        }
+
         try {
 
+            // The whole command is one batch, validated and applied all-or-nothing
+            PlaylistMutation mutation = new PlaylistMutation();
             if(action == ModificationAction.ADD_SONG)
-                playlist = playlistService.addSongsToPlaylist(userId, playlistId, songIds);
+                mutation.addSongs(songIds);
+            else if(action == ModificationAction.DELETE_SONG)
+                mutation.deleteSongs(songIds);
             else
-                playlist = playlistService.deleteSongsFromPlaylist(userId, playlistId, songIds);
+                mutation.moveSong(songIds[0], Integer.parseInt(songIds[1]));
 
-            System.out.println(playlist);
+            if (compact)
+                outputSink.println(playlistService.modifyPlaylistDelta(userId, playlistId, mutation));
+            else
+                outputSink.println(playlistService.modifyPlaylist(userId, playlistId, mutation));
         }
         catch (SongNotFoundException e) {
-            System.out.println("Some Requested Songs Not Available. Please try again.");
+            outputSink.println("Some Requested Songs Not Available. Please try again.");
         }
         catch (SongNotInPlaylistException e) {
-            System.out.println("Some Requested Songs for Deletion are not present in the playlist. Please try again.");
+            if (action == ModificationAction.MOVE_SONG)
+                outputSink.println("Requested Song for Move is not present in the playlist. Please try again.");
+            else
+                outputSink.println("Some Requested Songs for Deletion are not present in the playlist. Please try again.");
         }
         catch (Exception e) {
-            System.out.println(e.getMessage());
+            outputSink.println(e.getMessage());
         }
     }
+
+    private static boolean isNumber(String token) {
+        try {
+            Integer.parseInt(token);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(2));
+    }
 }
@@ -0,0 +1,186 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.BufferedOutputSink;
+import com.crio.jukebox.exceptions.NoSuchCommandException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * ParallelCommandExecutor runs commands on a fixed set of worker threads, partitioned by user ID.
+ * Each command with a partition key goes to the single-threaded worker its key hashes to, so the commands of one user
+ * run in the order they were submitted while different users run in parallel. Commands without a partition key are
+ * barriers: they run on the submitting thread once every earlier command has finished, and no later command starts
+ * before they are done.
+ * What each command writes to the output sink is captured, and the captured output is written back to the sink in
+ * submission order, so the output is the same as running the commands one after another. If a command
+ * fails, the output up to and including that command is written and the failure is rethrown to the submitter.
+ */
+public class ParallelCommandExecutor implements AutoCloseable {
+
+    // Commands submitted but not yet written out, per worker; bounds the output held in memory
+    private static final int MAX_IN_FLIGHT_PER_WORKER = 1024;
+
+    private final CommandInvoker commandInvoker;
+    private final ExecutorService[] workers;
+    private final Semaphore inFlight;
+
+    private final BufferedOutputSink outputSink;
+
+    // Only used by the submitting thread
+    private long nextSequence;
+
+    // Guarded by this
+    private final Map<Long, Result> completed = new HashMap<>();
+    private long nextToWrite;
+    private Throwable failure;
+    private boolean failureThrown;
+
+    private volatile boolean failed;
+
+    /**
+     * Creates the workers.
+     * @param commandInvoker The invoker whose commands are executed.
+     * @param outputSink     The sink the commands write to.
+     * @param threads        The number of worker threads.
+     */
+    public ParallelCommandExecutor(CommandInvoker commandInvoker, BufferedOutputSink outputSink, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        this.commandInvoker = commandInvoker;
+        this.outputSink = outputSink;
+        this.workers = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++) {
+            String name = "command-worker-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.inFlight = new Semaphore(threads * MAX_IN_FLIGHT_PER_WORKER);
+    }
+
+    /**
+     * Submits a command for execution.
+     * @param commandName The name of the command.
+     * @param tokens      The tokens the command is executed with.
+     * @throws NoSuchCommandException If no command is registered with the name; the output of every earlier command
+     *                                has been written when it is thrown.
+     */
+    public void submit(String commandName, List<String> tokens) throws NoSuchCommandException {
+        rethrowFailure();
+
+        ICommand command;
+        try {
+            command = commandInvoker.getCommand(commandName);
+        } catch (NoSuchCommandException e) {
+            awaitWritten(nextSequence);
+            throw e;
+        }
+
+        Optional<String> partitionKey;
+        try {
+            partitionKey = command.partitionKey(tokens);
+        } catch (RuntimeException e) {
+            // A malformed command runs as a barrier, so it fails in execute just as it would sequentially
+            partitionKey = Optional.empty();
+        }
+
+        long sequence = nextSequence++;
+        if (!partitionKey.isPresent()) {
+            awaitWritten(sequence);
+            complete(sequence, run(command, tokens, false));
+            rethrowFailure();
+            return;
+        }
+
+        inFlight.acquireUninterruptibly();
+        workerFor(partitionKey.get()).execute(() -> complete(sequence, run(command, tokens, true)));
+    }
+
+    /**
+     * Waits for every submitted command and writes the remaining output.
+     * Rethrows the failure of a command if it has not been thrown from submit already.
+     */
+    @Override
+    public void close() {
+        awaitWritten(nextSequence);
+        for (ExecutorService worker : workers) worker.shutdown();
+        rethrowFailure();
+    }
+
+    private ExecutorService workerFor(String partitionKey) {
+        return workers[(partitionKey.hashCode() & Integer.MAX_VALUE) % workers.length];
+    }
+
+    private Result run(ICommand command, List<String> tokens, boolean onWorker) {
+        // Once a command has failed, nothing after it would have run sequentially
+        if (failed) return new Result(new byte[0], null, onWorker);
+        Throwable error = null;
+        outputSink.beginCapture();
+        try {
+            command.execute(tokens);
+        } catch (RuntimeException | Error e) {
+            error = e;
+        }
+        return new Result(outputSink.endCapture(), error, onWorker);
+    }
+
+    private synchronized void complete(long sequence, Result result) {
+        completed.put(sequence, result);
+        // Write out the longest run of finished commands that continues the output
+        Result next;
+        while ((next = completed.remove(nextToWrite)) != null) {
+            if (failure == null) {
+                outputSink.write(next.output);
+                if (next.error != null) {
+                    failure = next.error;
+                    failed = true;
+                }
+            }
+            nextToWrite++;
+            if (next.onWorker) inFlight.release();
+        }
+        notifyAll();
+    }
+
+    private synchronized void awaitWritten(long sequence) {
+        boolean interrupted = false;
+        while (nextToWrite < sequence) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void rethrowFailure() {
+        Throwable error;
+        synchronized (this) {
+            if (failure == null || failureThrown) return;
+            failureThrown = true;
+            error = failure;
+        }
+        if (error instanceof Error) throw (Error) error;
+        throw (RuntimeException) error;
+    }
+
+    private static final class Result {
+        private final byte[] output;
+        private final Throwable error;
+        private final boolean onWorker;
+
+        Result(byte[] output, Throwable error, boolean onWorker) {
+            this.output = output;
+            this.error = error;
+            this.onWorker = onWorker;
+        }
+    }
+}
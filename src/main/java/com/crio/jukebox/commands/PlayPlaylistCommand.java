@@ -1,17 +1,21 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.dtos.CurrentSongDto;
 import com.crio.jukebox.exceptions.EmptyPlaylistException;
 import com.crio.jukebox.services.IUserService;
 
 import java.util.List;
+import java.util.Optional;
 
 public class PlayPlaylistCommand implements ICommand {
 
     private final IUserService userService;
+    private final IOutputSink outputSink;
 
-    public PlayPlaylistCommand(IUserService userService) {
+    public PlayPlaylistCommand(IUserService userService, IOutputSink outputSink) {
         this.userService = userService;
+        this.outputSink = outputSink;
     }
 
     @Override
@@ -22,13 +26,18 @@ public class PlayPlaylistCommand implements ICommand {
 
         try {
             CurrentSongDto currentSong = userService.playPlaylist(userId, playlistId);
-            System.out.println(currentSong);
+            outputSink.println(currentSong);
         }
         catch (EmptyPlaylistException e) {
-            System.out.println("Playlist is empty.");
+            outputSink.println("Playlist is empty.");
         }
         catch (Exception e) {
-            System.out.println(e.getMessage());
+            outputSink.println(e.getMessage());
         }
     }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(1));
+    }
 }
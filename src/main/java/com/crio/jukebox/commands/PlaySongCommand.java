@@ -1,48 +1,71 @@
 package com.crio.jukebox.commands;
 
+import com.crio.common.commands.IOutputSink;
 import com.crio.jukebox.dtos.CurrentSongDto;
+import com.crio.jukebox.entities.PlaybackMode;
 import com.crio.jukebox.entities.SongPlaybackControl;
 import com.crio.jukebox.exceptions.*;
 import com.crio.jukebox.services.IUserService;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public class PlaySongCommand implements ICommand {
 
+    private static final Map<String, SongPlaybackControl> PLAYBACK_CONTROLS = new HashMap<>();
+    private static final Map<String, PlaybackMode> PLAYBACK_MODES = new HashMap<>();
+
+    static {
+        for (SongPlaybackControl control : SongPlaybackControl.values()) PLAYBACK_CONTROLS.put(control.name(), control);
+        for (PlaybackMode mode : PlaybackMode.values()) PLAYBACK_MODES.put(mode.name(), mode);
+    }
+
     private final IUserService userService;
+    private final IOutputSink outputSink;
 
-    public PlaySongCommand(IUserService userService) {
+    public PlaySongCommand(IUserService userService, IOutputSink outputSink) {
         this.userService = userService;
+        this.outputSink = outputSink;
     }
 
     @Override
     public void execute(List<String> tokens) {
 
         String userId = tokens.get(1);
-        SongPlaybackControl playbackControl = null;
-        String songId = null;
-        try {
-            playbackControl = SongPlaybackControl.valueOf(tokens.get(2));
-        } catch (IllegalArgumentException e) {
-            songId = tokens.get(2);
-        }
+        // Looked up rather than parsed with valueOf, which throws for every song ID
+        SongPlaybackControl playbackControl = PLAYBACK_CONTROLS.get(tokens.get(2));
+        PlaybackMode playbackMode = playbackControl == null ? PLAYBACK_MODES.get(tokens.get(2)) : null;
+        String songId = playbackControl == null && playbackMode == null ? tokens.get(2) : null;
 
 
         CurrentSongDto currentSong;
         try {
 
+            if (playbackMode != null) {
+                userService.setPlaybackMode(userId, playbackMode);
+                outputSink.println("Playback Mode - " + playbackMode);
+                return;
+            }
+
             if (playbackControl != null)
                 currentSong = userService.playSongInPlaylist(userId, playbackControl);
             else
                 currentSong = userService.playSongInPlaylist(userId, songId);
 
-            System.out.println(currentSong);
+            outputSink.println(currentSong);
         }
         catch (SongNotInPlaylistException e) {
-            System.out.println("Given song id is not a part of the active playlist");
+            outputSink.println("Given song id is not a part of the active playlist");
         }
         catch (Exception e) {
-            System.out.println(e.getMessage());
+            outputSink.println(e.getMessage());
         }
     }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(1));
+    }
 }
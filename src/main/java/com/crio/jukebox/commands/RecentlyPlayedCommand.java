@@ -0,0 +1,54 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.dtos.PlayedSongDto;
+import com.crio.jukebox.exceptions.UserNotFoundException;
+import com.crio.jukebox.services.IUserService;
+
+import java.util.List;
+import java.util.Optional;
+
+public class RecentlyPlayedCommand implements ICommand {
+
+    private static final int DEFAULT_COUNT = 10;
+
+    private final IUserService userService;
+    private final IOutputSink outputSink;
+
+    public RecentlyPlayedCommand(IUserService userService, IOutputSink outputSink) {
+        this.userService = userService;
+        this.outputSink = outputSink;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+
+        String userId = tokens.get(1);
+        int count = DEFAULT_COUNT;
+        if (tokens.size() > 2) {
+            try {
+                count = Integer.parseInt(tokens.get(2));
+            } catch (NumberFormatException e) {
+                outputSink.println("Number of songs must be a number");
+                return;
+            }
+        }
+
+        try {
+            List<PlayedSongDto> recentlyPlayed = userService.getRecentlyPlayed(userId, count);
+            if (recentlyPlayed.isEmpty()) {
+                outputSink.println("No Songs Played");
+                return;
+            }
+            recentlyPlayed.forEach(outputSink::println);
+        }
+        catch (UserNotFoundException | IllegalArgumentException e) {
+            outputSink.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(1));
+    }
+}
@@ -0,0 +1,30 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.repositories.data.SongDataLoader;
+
+import java.io.IOException;
+import java.util.List;
+
+public class SaveDataCommand implements ICommand {
+
+    private final SongDataLoader songDataLoader;
+    private final IOutputSink outputSink;
+
+    public SaveDataCommand(SongDataLoader songDataLoader, IOutputSink outputSink) {
+        this.songDataLoader = songDataLoader;
+        this.outputSink = outputSink;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        String file = tokens.get(1);
+        try {
+            songDataLoader.saveSnapshot(file);
+            outputSink.println("Songs Saved successfully");
+        }
+        catch (IOException e) {
+            outputSink.println("Error saving data to file: " + file);
+        }
+    }
+}
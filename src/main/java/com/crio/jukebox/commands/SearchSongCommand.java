@@ -0,0 +1,33 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.dtos.SongDto;
+import com.crio.jukebox.services.ISongService;
+
+import java.util.List;
+
+public class SearchSongCommand implements ICommand {
+
+    private static final int RESULT_LIMIT = 10;
+
+    private final ISongService songService;
+    private final IOutputSink outputSink;
+
+    public SearchSongCommand(ISongService songService, IOutputSink outputSink) {
+        this.songService = songService;
+        this.outputSink = outputSink;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+
+        String text = String.join(" ", tokens.subList(1, tokens.size()));
+
+        List<SongDto> songs = songService.searchSongs(text, RESULT_LIMIT);
+        if (songs.isEmpty()) {
+            outputSink.println("No Songs Found");
+            return;
+        }
+        songs.forEach(outputSink::println);
+    }
+}
@@ -0,0 +1,54 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.dtos.PlaylistPageDto;
+import com.crio.jukebox.exceptions.PlaylistNotFoundException;
+import com.crio.jukebox.exceptions.UserNotFoundException;
+import com.crio.jukebox.services.IPlaylistService;
+
+import java.util.List;
+import java.util.Optional;
+
+public class ShowPlaylistCommand implements ICommand {
+
+    private final IPlaylistService playlistService;
+    private final IOutputSink outputSink;
+
+    public ShowPlaylistCommand(IPlaylistService playlistService, IOutputSink outputSink) {
+        this.playlistService = playlistService;
+        this.outputSink = outputSink;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+
+        String userId = tokens.get(1);
+        String playlistId = tokens.get(2);
+
+        int offset;
+        int limit;
+        try {
+            offset = Integer.parseInt(tokens.get(3));
+            limit = Integer.parseInt(tokens.get(4));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            outputSink.println("Offset and limit must be provided as numbers");
+            return;
+        }
+
+        try {
+            PlaylistPageDto page = playlistService.getPlaylistPage(userId, playlistId, offset, limit);
+            outputSink.println(page);
+        }
+        catch (PlaylistNotFoundException e) {
+            outputSink.println("Playlist Not Found");
+        }
+        catch (UserNotFoundException | IllegalArgumentException e) {
+            outputSink.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<String> partitionKey(List<String> tokens) {
+        return Optional.of(tokens.get(1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import com.crio.jukebox.dtos.SongDto;
+import com.crio.jukebox.exceptions.SongNotFoundException;
+import com.crio.jukebox.services.ISongService;
+
+import java.util.List;
+
+public class SimilarSongsCommand implements ICommand {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final ISongService songService;
+    private final IOutputSink outputSink;
+
+    public SimilarSongsCommand(ISongService songService, IOutputSink outputSink) {
+        this.songService = songService;
+        this.outputSink = outputSink;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+
+        String songId = tokens.get(1);
+        int limit = DEFAULT_LIMIT;
+        if (tokens.size() > 2) {
+            try {
+                limit = Integer.parseInt(tokens.get(2));
+            } catch (NumberFormatException e) {
+                outputSink.println("Number of songs must be a number");
+                return;
+            }
+        }
+
+        try {
+            List<SongDto> songs = songService.findSimilarSongs(songId, limit);
+            if (songs.isEmpty()) {
+                outputSink.println("No Similar Songs Found");
+                return;
+            }
+            songs.forEach(outputSink::println);
+        }
+        catch (SongNotFoundException e) {
+            outputSink.println(e.getMessage());
+        }
+    }
+}
@@ -1,32 +1,79 @@
 package com.crio.jukebox.config;
 
+import com.crio.common.commands.BufferedOutputSink;
 import com.crio.jukebox.commands.*;
+import com.crio.jukebox.entities.Playlist;
 import com.crio.jukebox.repositories.*;
 import com.crio.jukebox.repositories.data.SongDataLoader;
 import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
+import com.crio.jukebox.repositories.log.MutationLog;
 import com.crio.jukebox.services.IPlaylistService;
+import com.crio.jukebox.services.ISongService;
 import com.crio.jukebox.services.IUserService;
 import com.crio.jukebox.services.PlaylistService;
+import com.crio.jukebox.services.SongService;
 import com.crio.jukebox.services.UserService;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 public class ApplicationConfig {
 
-    private final IUserRepository userRepository = new UserRepository();
-    private final IPlaylistRepository playlistRepository = new PlaylistRepository();
+    private static final int PLAYBACK_LOOKAHEAD = 3;
+
+    // Every mode uses the array-backed SongRepository rather than ConcurrentSongRepository. The parallel executor and
+    // the server run commands that write the catalog, such as LOAD-DATA, with no other command in flight, so commands
+    // never read it during a write. The playback prefetcher is the one reader on another thread: the loader holds the
+    // write side of catalogLock around every write, and the prefetcher only reads under the read side.
     private final ISongRepository songRepository = new SongRepository();
+    private final ReadWriteLock catalogLock = new ReentrantReadWriteLock();
+
+    // Saves and deletes of users and playlists are written ahead to the mutation log once it is opened
+    private final MutationLog mutationLog = new MutationLog(songRepository.getSymbolTable());
+    private final IUserRepository userRepository = new LoggedUserRepository(new UserRepository(), mutationLog);
+    private final IPlaylistRepository playlistRepository =
+            new LoggedPlaylistRepository(new PlaylistRepository(), mutationLog);
+
+    private final SongDataLoader songDataLoader = new SongDataLoader(songRepository,
+            new SongFromCsvStrategy(songRepository.getSymbolTable()), catalogLock.writeLock());
+
+    // Single daemon thread that resolves upcoming songs while the next command is read
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "playback-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IUserService userService = new UserService(userRepository, songRepository, new Random(),
+            prefetchExecutor, PLAYBACK_LOOKAHEAD, catalogLock.readLock());
+    private final SongCooccurrenceIndex cooccurrenceIndex = new SongCooccurrenceIndex();
 
-    private final SongDataLoader songDataLoader = new SongDataLoader(songRepository, new SongFromCsvStrategy());
+    private final IPlaylistService playlistService = new PlaylistService(playlistRepository, userRepository, songRepository,
+            cooccurrenceIndex);
+    private final ISongService songService = new SongService(songRepository, cooccurrenceIndex);
 
-    private final IUserService userService = new UserService(userRepository, songRepository);
-    private final IPlaylistService playlistService = new PlaylistService(playlistRepository, userRepository, songRepository);
+    // Commands print into one buffer that is written to the console in batches
+    private final BufferedOutputSink outputSink = new BufferedOutputSink(System.out);
 
-    private final ICommand createUserCommand= new CreateUserCommand(userService);
-    private final ICommand createPlaylistCommand = new CreatePlaylistCommand(playlistService);
-    private final ICommand deletePlaylistCommand = new DeletePlaylistCommand(playlistService);
-    private final ICommand modifyPlaylistCommand = new ModifyPlaylistCommand(playlistService);
-    private final ICommand playPlaylistCommand = new PlayPlaylistCommand(userService);
-    private  final ICommand playSongCommand = new PlaySongCommand(userService);
-    private final ICommand loadData = new LoadDataCommand(songDataLoader);
+    private final ICommand createUserCommand= new CreateUserCommand(userService, outputSink);
+    private final ICommand createPlaylistCommand = new CreatePlaylistCommand(playlistService, outputSink);
+    private final ICommand deletePlaylistCommand = new DeletePlaylistCommand(playlistService, outputSink);
+    private final ICommand modifyPlaylistCommand = new ModifyPlaylistCommand(playlistService, outputSink);
+    private final ICommand modifyPlaylistCompactCommand = new ModifyPlaylistCommand(playlistService, outputSink, true);
+    private final ICommand showPlaylistCommand = new ShowPlaylistCommand(playlistService, outputSink);
+    private final ICommand recentlyPlayedCommand = new RecentlyPlayedCommand(userService, outputSink);
+    private final ICommand similarSongsCommand = new SimilarSongsCommand(songService, outputSink);
+    private final ICommand playPlaylistCommand = new PlayPlaylistCommand(userService, outputSink);
+    private  final ICommand playSongCommand = new PlaySongCommand(userService, outputSink);
+    private final ICommand loadData = new LoadDataCommand(songDataLoader, outputSink);
+    private final ICommand saveData = new SaveDataCommand(songDataLoader, outputSink);
+    private final ICommand searchSongCommand = new SearchSongCommand(songService, outputSink);
 
     private final CommandInvoker commandInvoker = new CommandInvoker();
 
@@ -35,9 +82,46 @@ public class ApplicationConfig {
         commandInvoker.register("CREATE-PLAYLIST", createPlaylistCommand);
         commandInvoker.register("DELETE-PLAYLIST", deletePlaylistCommand);
         commandInvoker.register("MODIFY-PLAYLIST", modifyPlaylistCommand);
+        commandInvoker.register("MODIFY-PLAYLIST-COMPACT", modifyPlaylistCompactCommand);
+        commandInvoker.register("SHOW-PLAYLIST", showPlaylistCommand);
+        commandInvoker.register("RECENTLY-PLAYED", recentlyPlayedCommand);
         commandInvoker.register("PLAY-PLAYLIST", playPlaylistCommand);
         commandInvoker.register("PLAY-SONG", playSongCommand);
         commandInvoker.register("LOAD-DATA", loadData);
+        commandInvoker.register("SAVE-DATA", saveData);
+        commandInvoker.register("SEARCH-SONG", searchSongCommand);
+        commandInvoker.register("SIMILAR-SONGS", similarSongsCommand);
         return commandInvoker;
     }
+
+    public BufferedOutputSink getOutputSink() {
+        return outputSink;
+    }
+
+    /**
+     * Recovers the users and playlists recorded in the mutation log, then logs every later save and delete to it.
+     * @param logFile            The log file, created if it does not exist.
+     * @param syncIntervalMillis The longest a mutation waits before it is synced; 0 syncs every mutation.
+     * @param syncEveryRecords   The number of mutations synced together without waiting longer.
+     * @param checkpointAtBytes  The log size above which it is rewritten from the recovered users and playlists.
+     * @return The number of records replayed.
+     */
+    public long openMutationLog(Path logFile, long syncIntervalMillis, int syncEveryRecords, long checkpointAtBytes)
+            throws IOException {
+        long records = mutationLog.open(logFile, syncIntervalMillis, syncEveryRecords, checkpointAtBytes,
+                userRepository, playlistRepository);
+        // The co-occurrence index is kept up to date by the playlist service, so rebuild it from the recovered playlists
+        for (Playlist playlist : playlistRepository.findAll()) {
+            Set<String> members = playlist.getDistinctSongIds();
+            cooccurrenceIndex.addSongs(members, members);
+        }
+        return records;
+    }
+
+    /**
+     * Syncs and closes the mutation log, if it is open.
+     */
+    public void closeMutationLog() throws IOException {
+        mutationLog.close();
+    }
 }
@@ -0,0 +1,56 @@
+package com.crio.jukebox.dtos;
+
+import java.util.Objects;
+
+public final class CatalogReloadDto {
+    private final long inserted;
+    private final long updated;
+    private final long deleted;
+    private final long unchanged;
+
+    public CatalogReloadDto(long inserted, long updated, long deleted, long unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CatalogReloadDto)) return false;
+        CatalogReloadDto that = (CatalogReloadDto) o;
+        return inserted == that.inserted && updated == that.updated
+                && deleted == that.deleted && unchanged == that.unchanged;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(inserted, updated, deleted, unchanged);
+    }
+
+    @Override
+    public String toString() {
+        return "Songs Inserted - " + inserted + "\n" +
+                "Songs Updated - " + updated + "\n" +
+                "Songs Deleted - " + deleted + "\n" +
+                "Songs Unchanged - " + unchanged;
+    }
+
+    public long inserted() {
+        return inserted;
+    }
+
+    public long updated() {
+        return updated;
+    }
+
+    public long deleted() {
+        return deleted;
+    }
+
+    public long unchanged() {
+        return unchanged;
+    }
+
+}
@@ -7,6 +7,9 @@ public final class CurrentSongDto {
     private final String album;
     private final String[] artists;
 
+    // Rendered on first use, possibly ahead of time by the playback prefetcher
+    private volatile String rendered;
+
     public CurrentSongDto(String songName, String album, String[] artists) {
         this.songName = songName;
         this.album = album;
@@ -28,11 +31,16 @@ public final class CurrentSongDto {
 
     @Override
     public String toString() {
-        String artists = String.join(",", this.artists);
-        return "Current Song Playing\n" +
-                "Song - " + songName + "\n" +
-                "Album - " + album + "\n" +
-                "Artists - " + artists;
+        String result = rendered;
+        if (result == null) {
+            String artists = String.join(",", this.artists);
+            result = "Current Song Playing\n" +
+                    "Song - " + songName + "\n" +
+                    "Album - " + album + "\n" +
+                    "Artists - " + artists;
+            rendered = result;
+        }
+        return result;
     }
 
     public String songName() {
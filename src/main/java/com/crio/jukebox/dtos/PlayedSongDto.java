@@ -0,0 +1,47 @@
+package com.crio.jukebox.dtos;
+
+import java.time.Instant;
+import java.util.Objects;
+
+public final class PlayedSongDto {
+    private final String songId;
+    private final String songName;
+    private final long playedAt;
+
+    public PlayedSongDto(String songId, String songName, long playedAt) {
+        this.songId = songId;
+        this.songName = songName;
+        this.playedAt = playedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlayedSongDto)) return false;
+        PlayedSongDto that = (PlayedSongDto) o;
+        return Objects.equals(songId, that.songId) && playedAt == that.playedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(songId, playedAt);
+    }
+
+    @Override
+    public String toString() {
+        return songId + " - " + songName + " - " + Instant.ofEpochMilli(playedAt);
+    }
+
+    public String songId() {
+        return songId;
+    }
+
+    public String songName() {
+        return songName;
+    }
+
+    public long playedAt() {
+        return playedAt;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.crio.jukebox.dtos;
+
+import java.util.Objects;
+
+public final class PlaylistDeltaDto {
+    private final String playlistId;
+    private final String[] addedSongIds;
+    private final String[] removedSongIds;
+    private final String[] movedSongIds;
+    private final int songCount;
+    private final int version;
+
+    public PlaylistDeltaDto(String playlistId, String[] addedSongIds, String[] removedSongIds, String[] movedSongIds,
+            int songCount, int version) {
+        this.playlistId = playlistId;
+        this.addedSongIds = addedSongIds;
+        this.removedSongIds = removedSongIds;
+        this.movedSongIds = movedSongIds;
+        this.songCount = songCount;
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlaylistDeltaDto)) return false;
+        PlaylistDeltaDto that = (PlaylistDeltaDto) o;
+        return Objects.equals(playlistId, that.playlistId) && version == that.version;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playlistId, version);
+    }
+
+    @Override
+    public String toString() {
+        return "Playlist ID - " + playlistId + "\n" +
+                "Added Song IDs - " + String.join(" ", addedSongIds) + "\n" +
+                "Removed Song IDs - " + String.join(" ", removedSongIds) + "\n" +
+                "Moved Song IDs - " + String.join(" ", movedSongIds) + "\n" +
+                "Playlist Size - " + songCount + "\n" +
+                "Playlist Version - " + version;
+    }
+
+    public String playlistId() {
+        return playlistId;
+    }
+
+    public String[] addedSongIds() {
+        return addedSongIds;
+    }
+
+    public String[] removedSongIds() {
+        return removedSongIds;
+    }
+
+    public String[] movedSongIds() {
+        return movedSongIds;
+    }
+
+    public int songCount() {
+        return songCount;
+    }
+
+    public int version() {
+        return version;
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.crio.jukebox.dtos;
+
+import java.util.Objects;
+
+public final class PlaylistPageDto {
+    private final String playlistId;
+    private final String playlistName;
+    private final int offset;
+    private final String[] songIdList;
+    private final int songCount;
+    private final int version;
+
+    public PlaylistPageDto(String playlistId, String playlistName, int offset, String[] songIdList, int songCount,
+            int version) {
+        this.playlistId = playlistId;
+        this.playlistName = playlistName;
+        this.offset = offset;
+        this.songIdList = songIdList;
+        this.songCount = songCount;
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlaylistPageDto)) return false;
+        PlaylistPageDto that = (PlaylistPageDto) o;
+        return Objects.equals(playlistId, that.playlistId) && offset == that.offset && version == that.version;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playlistId, offset, version);
+    }
+
+    @Override
+    public String toString() {
+        String songIds = String.join(" ", songIdList);
+        return "Playlist ID - " + playlistId + "\n" +
+                "Playlist Name - " + playlistName + "\n" +
+                "Song IDs - " + songIds + "\n" +
+                "Offset - " + offset + "\n" +
+                "Playlist Size - " + songCount + "\n" +
+                "Playlist Version - " + version;
+    }
+
+    public String playlistId() {
+        return playlistId;
+    }
+
+    public String playlistName() {
+        return playlistName;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public String[] songIdList() {
+        return songIdList;
+    }
+
+    public int songCount() {
+        return songCount;
+    }
+
+    public int version() {
+        return version;
+    }
+
+}
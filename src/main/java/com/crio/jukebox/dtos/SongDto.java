@@ -0,0 +1,52 @@
+package com.crio.jukebox.dtos;
+
+import java.util.Objects;
+
+public final class SongDto {
+    private final String songId;
+    private final String songName;
+    private final String album;
+    private final String artist;
+
+    public SongDto(String songId, String songName, String album, String artist) {
+        this.songId = songId;
+        this.songName = songName;
+        this.album = album;
+        this.artist = artist;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SongDto)) return false;
+        SongDto that = (SongDto) o;
+        return Objects.equals(songId, that.songId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(songId);
+    }
+
+    @Override
+    public String toString() {
+        return songId + " - " + songName + " - " + album + " - " + artist;
+    }
+
+    public String songId() {
+        return songId;
+    }
+
+    public String songName() {
+        return songName;
+    }
+
+    public String album() {
+        return album;
+    }
+
+    public String artist() {
+        return artist;
+    }
+
+}
@@ -0,0 +1,425 @@
+package com.crio.jukebox.entities;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * IndexedIdList is an ordered list of entity IDs: the song IDs backing a Playlist, and the playlist IDs of a User
+ * and of each creator in PlaylistRepository.
+ * IDs are appended to slots in insertion order. A Fenwick tree counts the live slots, which gives positional
+ * access and indexOf in O(log n), and a hash map from ID to its slots gives O(1) membership and lets remove
+ * find its slot without a scan. Removing an ID only clears its slot; slots are compacted once more than half are
+ * dead, so removal is O(log n) amortised. Duplicate IDs are kept, and remove drops the first occurrence like
+ * List.remove(Object).
+ * <p>
+ * The rest of the List contract is supported too. Inserting at a position shifts the IDs between it and the
+ * nearest free slot by one, so moving an ID with remove and add(int, String) costs O(distance moved) rather than
+ * O(n). set replaces a slot in place.
+ */
+public class IndexedIdList extends AbstractList<String> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Slots of the same ID are chained in ascending order through nextSameSlot.
+     */
+    private static final class Occurrences {
+        int head;
+        int tail;
+        int count;
+    }
+
+    private String[] slots;
+    private int[] nextSameSlot;
+    private int[] tree;
+    private int slotCount;
+    private int size;
+    private final Map<String, Occurrences> occurrences = new HashMap<>();
+
+    public IndexedIdList() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public IndexedIdList(Collection<String> ids) {
+        allocate(Math.max(INITIAL_CAPACITY, ids.size()));
+        for (String id : ids) add(id);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object id) {
+        return occurrences.containsKey(id);
+    }
+
+    /**
+     * Returns how many times the ID occurs in the list.
+     */
+    public int occurrencesOf(String id) {
+        Occurrences occurrence = occurrences.get(id);
+        return occurrence == null ? 0 : occurrence.count;
+    }
+
+    /**
+     * Returns a read-only view of the distinct IDs in the list, in no particular order. It is not a copy, so
+     * it reflects later changes.
+     */
+    public Set<String> distinctIds() {
+        return Collections.unmodifiableSet(occurrences.keySet());
+    }
+
+    /**
+     * Returns a counter that changes on every modification, including set, so callers can tell the list changed.
+     */
+    public int getModificationCount() {
+        return modCount;
+    }
+
+    /**
+     * Replaces the IDs and sets the modification count, so a list rebuilt after a restart keeps the count it had.
+     */
+    public void restore(Collection<String> ids, int modificationCount) {
+        clear();
+        addAll(ids);
+        modCount = modificationCount;
+    }
+
+    /**
+     * Sets the modification count, for a list whose IDs were rebuilt after a restart.
+     */
+    public void restoreModificationCount(int modificationCount) {
+        modCount = modificationCount;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return slots[slotOf(index)];
+    }
+
+    @Override
+    public int indexOf(Object id) {
+        Occurrences occurrence = occurrences.get(id);
+        if (occurrence == null) return -1;
+        // Live slots before and including the first occurrence
+        return prefixCount(occurrence.head) - 1;
+    }
+
+    @Override
+    public boolean add(String id) {
+        if (id == null) throw new NullPointerException("ID must be provided");
+        if (slotCount == slots.length) grow();
+
+        int slot = slotCount++;
+        slots[slot] = id;
+        link(slot);
+        increment(slot, 1);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, String id) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (id == null) throw new NullPointerException("ID must be provided");
+        if (index == size) {
+            add(id);
+            return;
+        }
+
+        // The ID goes just before the slot now holding the index, so the live slots between there and the
+        // nearest free slot on either side move one step towards it
+        int target = slotOf(index);
+        int before = target - 1;
+        int after = target + 1;
+        while (true) {
+            if (before >= 0 && slots[before] == null) {
+                for (int slot = before + 1; slot < target; slot++) relocate(slot, slot - 1);
+                place(target - 1, before, id);
+                return;
+            }
+            if (after >= slotCount || slots[after] == null) break;
+            before--;
+            after++;
+        }
+        if (after >= slotCount) {
+            if (slotCount == slots.length) {
+                grow();
+                add(index, id);
+                return;
+            }
+            after = slotCount++;
+        }
+        for (int slot = after; slot > target; slot--) relocate(slot - 1, slot);
+        place(target, after, id);
+    }
+
+    @Override
+    public String set(int index, String id) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (id == null) throw new NullPointerException("ID must be provided");
+        int slot = slotOf(index);
+        String previous = slots[slot];
+        unlink(slot);
+        slots[slot] = id;
+        link(slot);
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public String remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int slot = slotOf(index);
+        String id = slots[slot];
+        removeSlot(slot);
+        return id;
+    }
+
+    @Override
+    public boolean remove(Object id) {
+        Occurrences occurrence = occurrences.get(id);
+        if (occurrence == null) return false;
+        removeSlot(occurrence.head);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        occurrences.clear();
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int slot = advance(0);
+            private int lastSlot = -1;
+            private int nextIndex;
+
+            private int advance(int from) {
+                while (from < slotCount && slots[from] == null) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < slotCount;
+            }
+
+            @Override
+            public String next() {
+                if (slot >= slotCount) throw new NoSuchElementException();
+                String id = slots[slot];
+                lastSlot = slot;
+                nextIndex++;
+                slot = advance(slot + 1);
+                return id;
+            }
+
+            @Override
+            public void remove() {
+                if (lastSlot < 0) throw new IllegalStateException();
+                String[] current = slots;
+                removeSlot(lastSlot);
+                lastSlot = -1;
+                nextIndex--;
+                // Compaction moved the slots, so find the next ID again by position
+                if (slots != current) slot = nextIndex < size ? slotOf(nextIndex) : slotCount;
+            }
+        };
+    }
+
+    /**
+     * Clears a live slot and compacts once more than half of the slots are dead.
+     */
+    private void removeSlot(int slot) {
+        unlink(slot);
+        slots[slot] = null;
+        increment(slot, -1);
+        size--;
+        modCount++;
+
+        if (slotCount > INITIAL_CAPACITY && size < slotCount / 2) compact(slots.length);
+    }
+
+    /**
+     * Puts an ID into a free slot that keeps the order, after the slots up to freed have been shifted into it.
+     * @param slot  The slot to put the ID in.
+     * @param freed The free slot that became live through the shift, or the slot itself.
+     */
+    private void place(int slot, int freed, String id) {
+        slots[slot] = id;
+        link(slot);
+        // Every slot between freed and slot was already live, so only freed changes in the tree
+        increment(freed, 1);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Moves a live slot's ID to the free slot next to it. The live slots keep their order, so the chains stay
+     * ascending.
+     */
+    private void relocate(int from, int to) {
+        String id = slots[from];
+        Occurrences occurrence = occurrences.get(id);
+        if (occurrence.head == from) {
+            occurrence.head = to;
+        } else {
+            int previous = occurrence.head;
+            while (nextSameSlot[previous] != from) previous = nextSameSlot[previous];
+            nextSameSlot[previous] = to;
+        }
+        if (occurrence.tail == from) occurrence.tail = to;
+        nextSameSlot[to] = nextSameSlot[from];
+        slots[to] = id;
+        slots[from] = null;
+    }
+
+    /**
+     * Adds the slot's ID to its chain, in slot order.
+     */
+    private void link(int slot) {
+        String id = slots[slot];
+        Occurrences occurrence = occurrences.get(id);
+        if (occurrence == null) {
+            occurrence = new Occurrences();
+            occurrence.head = slot;
+            occurrence.tail = slot;
+            nextSameSlot[slot] = -1;
+            occurrences.put(id, occurrence);
+        } else if (slot > occurrence.tail) {
+            nextSameSlot[occurrence.tail] = slot;
+            nextSameSlot[slot] = -1;
+            occurrence.tail = slot;
+        } else if (slot < occurrence.head) {
+            nextSameSlot[slot] = occurrence.head;
+            occurrence.head = slot;
+        } else {
+            int previous = occurrence.head;
+            while (nextSameSlot[previous] < slot) previous = nextSameSlot[previous];
+            nextSameSlot[slot] = nextSameSlot[previous];
+            nextSameSlot[previous] = slot;
+        }
+        occurrence.count++;
+    }
+
+    /**
+     * Removes the slot's ID from its chain.
+     */
+    private void unlink(int slot) {
+        String id = slots[slot];
+        Occurrences occurrence = occurrences.get(id);
+        if (--occurrence.count == 0) {
+            occurrences.remove(id);
+        } else if (occurrence.head == slot) {
+            occurrence.head = nextSameSlot[slot];
+        } else {
+            int previous = occurrence.head;
+            while (nextSameSlot[previous] != slot) previous = nextSameSlot[previous];
+            nextSameSlot[previous] = nextSameSlot[slot];
+            if (occurrence.tail == slot) occurrence.tail = previous;
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new String[capacity];
+        nextSameSlot = new int[capacity];
+        tree = new int[capacity + 1];
+        slotCount = 0;
+    }
+
+    private void grow() {
+        // Reclaim dead slots first if that frees enough room, otherwise double
+        int capacity = size < slots.length / 2 ? slots.length : slots.length * 2;
+        compact(capacity);
+    }
+
+    /**
+     * Moves the live slots to the front of arrays of the given capacity and rebuilds the chains and the tree.
+     */
+    private void compact(int capacity) {
+        String[] live = new String[capacity];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) live[count++] = slots[slot];
+        }
+
+        slots = live;
+        nextSameSlot = new int[capacity];
+        tree = new int[capacity + 1];
+        slotCount = count;
+        occurrences.clear();
+
+        for (int slot = 0; slot < count; slot++) {
+            nextSameSlot[slot] = -1;
+            Occurrences occurrence = occurrences.get(live[slot]);
+            if (occurrence == null) {
+                occurrence = new Occurrences();
+                occurrence.head = slot;
+                occurrences.put(live[slot], occurrence);
+            } else {
+                nextSameSlot[occurrence.tail] = slot;
+            }
+            occurrence.tail = slot;
+            occurrence.count++;
+        }
+
+        // Linear-time Fenwick tree construction: each node passes its total up to its parent
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= count) tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= capacity) tree[parent] += tree[i];
+        }
+    }
+
+    private void increment(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /**
+     * Returns the number of live slots in [0, slot].
+     */
+    private int prefixCount(int slot) {
+        int count = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) count += tree[i];
+        return count;
+    }
+
+    /**
+     * Finds the slot holding the element at the given position by descending the Fenwick tree.
+     */
+    private int slotOf(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,86 @@
+package com.crio.jukebox.entities;
+
+/**
+ * ListeningHistory is a fixed-size ring buffer of a user's most recent plays.
+ * Each play is stored as a primitive song ID and timestamp in parallel arrays, so recording a play never allocates.
+ * The arrays are allocated on the first play, so users who never play anything cost nothing, and once full the
+ * oldest play is overwritten, so memory per user stays bounded by the capacity.
+ */
+public class ListeningHistory {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int capacity;
+    private int[] songIds;
+    private long[] playedAt;
+
+    // Index the next play is written to, and the number of plays held
+    private int head;
+    private int size;
+    // Plays recorded since the history was created, including overwritten ones
+    private long recordedCount;
+
+    public ListeningHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ListeningHistory(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a play, overwriting the oldest one when the buffer is full.
+     * @param songId   The numeric ID of the song played.
+     * @param playedAt The time of the play in epoch milliseconds.
+     */
+    public void record(int songId, long playedAt) {
+        if (songIds == null) {
+            songIds = new int[capacity];
+            this.playedAt = new long[capacity];
+        }
+        songIds[head] = songId;
+        this.playedAt[head] = playedAt;
+        head = (head + 1) % capacity;
+        if (size < capacity) size++;
+        recordedCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of plays recorded so far, including those the buffer no longer holds.
+     */
+    public long recordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * Returns the song ID of a recent play.
+     * @param age 0 for the latest play, 1 for the one before, and so on.
+     */
+    public int songIdAt(int age) {
+        return songIds[slotOf(age)];
+    }
+
+    /**
+     * Returns the time of a recent play in epoch milliseconds.
+     * @param age 0 for the latest play, 1 for the one before, and so on.
+     */
+    public long timestampAt(int age) {
+        return playedAt[slotOf(age)];
+    }
+
+    private int slotOf(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException("Age: " + age + ", Size: " + size);
+        }
+        return Math.floorMod(head - 1 - age, capacity);
+    }
+}
@@ -2,7 +2,8 @@ package com.crio.jukebox.entities;
 
 public enum ModificationAction {
     ADD_SONG,
-    DELETE_SONG;
+    DELETE_SONG,
+    MOVE_SONG;
 
     public static ModificationAction fromString(String token) {
         switch (token.toUpperCase()) {
@@ -10,6 +11,8 @@ public enum ModificationAction {
                 return ADD_SONG;
             case "DELETE-SONG":
                 return DELETE_SONG;
+            case "MOVE-SONG":
+                return MOVE_SONG;
             default:
                 throw new IllegalArgumentException(token + " Invalid operation (enum not found)");
         }
@@ -0,0 +1,7 @@
+package com.crio.jukebox.entities;
+
+public enum PlaybackMode {
+    SHUFFLE,
+    REPEAT_ONE,
+    REPEAT_ALL
+}
@@ -1,28 +1,30 @@
 package com.crio.jukebox.entities;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class Playlist extends BaseEntity {
 
     private String name;
     private final String creatorId;
-    private final List<String> songIdList;
+    private final IndexedIdList songIdList;
 
     public Playlist(String id, String name, String creatorId, List<String> songIdList) {
         super(id);
         this.name = name;
         this.creatorId = creatorId;
-        this.songIdList = songIdList;
+        this.songIdList = songIdList instanceof IndexedIdList
+                ? (IndexedIdList) songIdList
+                : new IndexedIdList(songIdList);
     }
 
     public Playlist(String name, String creatorId) {
-        this(null, name, creatorId, new LinkedList<>());
+        this(null, name, creatorId, new IndexedIdList());
     }
 
     public Playlist(String id, String name, String creatorId) {
-        this(id, name, creatorId, new LinkedList<>());
+        this(id, name, creatorId, new IndexedIdList());
     }
 
     public Playlist(String id, Playlist other) {
@@ -45,6 +47,13 @@ public class Playlist extends BaseEntity {
         return songIdList;
     }
 
+    /**
+     * Returns a read-only view of the distinct songs in the playlist, without copying them.
+     */
+    public Set<String> getDistinctSongIds() {
+        return songIdList.distinctIds();
+    }
+
     public boolean checkIfSongExist(String songId) {
         return this.songIdList.contains(songId);
     }
@@ -61,10 +70,82 @@ public class Playlist extends BaseEntity {
         this.songIdList.remove(songId);
     }
 
+    public int countSong(String songId) {
+        return songIdList.occurrencesOf(songId);
+    }
+
+    public void replaceSongs(List<String> songIds) {
+        this.songIdList.clear();
+        this.songIdList.addAll(songIds);
+    }
+
+    /**
+     * Applies an already validated batch in place on the indexed list. A move removes the song and inserts it at
+     * its new position, which costs O(distance moved). The version changes once for the whole batch.
+     * @return The operations that changed the playlist, in the order they ran; adding a song that is already in
+     *         the playlist changes nothing and is left out. Applying them to the playlist as it was gives the
+     *         same songs and version.
+     */
+    public PlaylistMutation apply(PlaylistMutation mutation) {
+        int version = getVersion();
+        PlaylistMutation applied = new PlaylistMutation();
+        for (PlaylistMutation.Operation operation : mutation.getOperations()) {
+            String songId = operation.getSongId();
+            switch (operation.getAction()) {
+                case ADD_SONG:
+                    if (!checkIfSongExist(songId)) {
+                        addSong(songId);
+                        applied.add(operation);
+                    }
+                    break;
+                case DELETE_SONG:
+                    deleteSong(songId);
+                    applied.add(operation);
+                    break;
+                case MOVE_SONG:
+                    songIdList.remove(songId);
+                    songIdList.add(operation.getToIndex(), songId);
+                    applied.add(operation);
+                    break;
+            }
+        }
+        if (!applied.isEmpty()) songIdList.restoreModificationCount(version + 1);
+        return applied;
+    }
+
+    /**
+     * Returns a version that changes whenever songs are added, removed or reordered.
+     */
+    public int getVersion() {
+        return songIdList.getModificationCount();
+    }
+
+    /**
+     * Replaces the songs and sets the version, for a playlist rebuilt after a restart.
+     */
+    public void restoreSongs(List<String> songIds, int version) {
+        songIdList.restore(songIds, version);
+    }
+
+    /**
+     * Sets the version, for a playlist whose songs were rebuilt after a restart.
+     */
+    public void restoreVersion(int version) {
+        songIdList.restoreModificationCount(version);
+    }
+
     public int getSongCount() {
         return songIdList.size();
     }
 
+    public String getSongIdAt(int index) {
+        return songIdList.get(index);
+    }
+
+    public int indexOfSong(String songId) {
+        return songIdList.indexOf(songId);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
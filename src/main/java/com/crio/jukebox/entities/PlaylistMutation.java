@@ -0,0 +1,101 @@
+package com.crio.jukebox.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * PlaylistMutation is an ordered batch of add, delete and move operations on one playlist.
+ * The batch is validated as a whole and applied all-or-nothing by the playlist service.
+ */
+public class PlaylistMutation {
+
+    public static final class Operation {
+        private final ModificationAction action;
+        private final String songId;
+        private final int toIndex;
+
+        private Operation(ModificationAction action, String songId, int toIndex) {
+            this.action = action;
+            this.songId = songId;
+            this.toIndex = toIndex;
+        }
+
+        public ModificationAction getAction() {
+            return action;
+        }
+
+        public String getSongId() {
+            return songId;
+        }
+
+        public int getToIndex() {
+            return toIndex;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    /**
+     * Appends the songs to the playlist. Songs already in the playlist are skipped.
+     */
+    public PlaylistMutation addSongs(String... songIds) {
+        for (String songId : songIds) {
+            operations.add(new Operation(ModificationAction.ADD_SONG, Objects.requireNonNull(songId), -1));
+        }
+        return this;
+    }
+
+    /**
+     * Removes the first occurrence of each song from the playlist.
+     */
+    public PlaylistMutation deleteSongs(String... songIds) {
+        for (String songId : songIds) {
+            operations.add(new Operation(ModificationAction.DELETE_SONG, Objects.requireNonNull(songId), -1));
+        }
+        return this;
+    }
+
+    /**
+     * Moves the first occurrence of the song to the given position.
+     */
+    public PlaylistMutation moveSong(String songId, int toIndex) {
+        operations.add(new Operation(ModificationAction.MOVE_SONG, Objects.requireNonNull(songId), toIndex));
+        return this;
+    }
+
+    // Used by Playlist to record the operations that took effect
+    PlaylistMutation add(Operation operation) {
+        operations.add(operation);
+        return this;
+    }
+
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * Returns the distinct IDs of the songs this batch adds.
+     */
+    public Set<String> getAddedSongIds() {
+        Set<String> songIds = new LinkedHashSet<>();
+        for (Operation operation : operations) {
+            if (operation.action == ModificationAction.ADD_SONG) songIds.add(operation.songId);
+        }
+        return songIds;
+    }
+
+    public boolean hasMoves() {
+        for (Operation operation : operations) {
+            if (operation.action == ModificationAction.MOVE_SONG) return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+}
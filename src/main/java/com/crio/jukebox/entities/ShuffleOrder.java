@@ -0,0 +1,179 @@
+package com.crio.jukebox.entities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ShuffleOrder is the shuffled play order of one playback session.
+ * The permutation is drawn lazily, one song per step, with an incremental Fisher-Yates over the songs not yet
+ * played in the current cycle, so NEXT and BACK are O(1) and no song repeats before the cycle ends. Songs drawn
+ * going forward and going back are kept on either side of the starting song, so moving back and forth replays the
+ * same order. The position of every played song is indexed, so jumping to a song is O(1) as well.
+ * <p>
+ * The pool is built from the playlist on the first draw of a cycle, so its O(n) cost is spread over the n steps of
+ * the cycle. The playlist does not say which songs a change added or removed, so after a change the played order is
+ * filtered in O(p) for p played songs and the pool is rebuilt in O(n) on the next draw, which picks up added songs.
+ * Any number of changes between two draws cost one rebuild; a session that alternates every change with a NEXT pays
+ * O(n) per step.
+ */
+public class ShuffleOrder {
+
+    private final Playlist playlist;
+    private final Random random;
+
+    // Songs at positions 0, 1, 2, ... and -1, -2, ... relative to the song the cycle started from
+    private final List<String> forward = new ArrayList<>();
+    private final List<String> backward = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private int cursor;
+
+    // Songs not yet played in this cycle; built on the first draw and after playlist changes
+    private List<String> pool;
+    private Map<String, Integer> poolIndex;
+    private int syncedVersion;
+
+    public ShuffleOrder(Playlist playlist, String currentSongId, Random random) {
+        this.playlist = playlist;
+        this.random = random;
+        this.syncedVersion = playlist.getVersion();
+        startCycle(currentSongId);
+    }
+
+    public Playlist getPlaylist() {
+        return playlist;
+    }
+
+    /**
+     * Moves to the next song in the shuffled order, starting a new cycle once every song has been played.
+     * @return The ID of the song to play.
+     */
+    public String next() {
+        sync();
+        if (cursor + 1 < forward.size()) return songAt(++cursor);
+        if (!hasUnplayed()) startCycle(songAt(cursor));
+        if (!hasUnplayed()) return songAt(cursor);
+        addForward(draw());
+        return songAt(++cursor);
+    }
+
+    /**
+     * Moves to the previous song in the shuffled order, starting a new cycle once every song has been played.
+     * @return The ID of the song to play.
+     */
+    public String back() {
+        sync();
+        if (cursor - 1 >= -backward.size()) return songAt(--cursor);
+        if (!hasUnplayed()) startCycle(songAt(cursor));
+        if (!hasUnplayed()) return songAt(cursor);
+        addBackward(draw());
+        return songAt(--cursor);
+    }
+
+    /**
+     * Moves the order to a song chosen directly, without ending the cycle.
+     */
+    public void jumpTo(String songId) {
+        sync();
+        Integer position = positions.get(songId);
+        if (position != null) {
+            cursor = position;
+            return;
+        }
+        // Not played yet in this cycle: take it out of the pool and continue the order from it
+        ensurePool();
+        removeFromPool(songId);
+        addForward(songId);
+        cursor = forward.size() - 1;
+    }
+
+    private String songAt(int position) {
+        return position >= 0 ? forward.get(position) : backward.get(-position - 1);
+    }
+
+    private void addForward(String songId) {
+        positions.put(songId, forward.size());
+        forward.add(songId);
+    }
+
+    private void addBackward(String songId) {
+        backward.add(songId);
+        positions.put(songId, -backward.size());
+    }
+
+    private void startCycle(String currentSongId) {
+        forward.clear();
+        backward.clear();
+        positions.clear();
+        addForward(currentSongId);
+        cursor = 0;
+        pool = null;
+        poolIndex = null;
+    }
+
+    private boolean hasUnplayed() {
+        ensurePool();
+        return !pool.isEmpty();
+    }
+
+    private String draw() {
+        int index = random.nextInt(pool.size());
+        String songId = pool.get(index);
+        removeFromPool(songId);
+        return songId;
+    }
+
+    private void removeFromPool(String songId) {
+        Integer index = poolIndex.remove(songId);
+        if (index == null) return;
+        String last = pool.remove(pool.size() - 1);
+        if (index < pool.size()) {
+            pool.set(index, last);
+            poolIndex.put(last, index);
+        }
+    }
+
+    private void ensurePool() {
+        if (pool != null) return;
+        pool = new ArrayList<>();
+        poolIndex = new HashMap<>();
+        for (String songId : playlist.getSongIdList()) {
+            if (!positions.containsKey(songId) && !poolIndex.containsKey(songId)) {
+                poolIndex.put(songId, pool.size());
+                pool.add(songId);
+            }
+        }
+    }
+
+    /**
+     * Drops removed songs from the played order and invalidates the pool after the playlist has changed.
+     * The current song is kept even if it was removed, so NEXT and BACK still have a place to move from.
+     */
+    private void sync() {
+        if (syncedVersion == playlist.getVersion()) return;
+        syncedVersion = playlist.getVersion();
+
+        // Flatten the played order, oldest first, and locate the current song in it
+        List<String> played = new ArrayList<>(backward.size() + forward.size());
+        for (int i = backward.size() - 1; i >= 0; i--) played.add(backward.get(i));
+        played.addAll(forward);
+        int currentPosition = cursor + backward.size();
+
+        // Keep the played songs still in the playlist, and re-centre the order on the current song
+        forward.clear();
+        backward.clear();
+        positions.clear();
+        for (int i = currentPosition - 1; i >= 0; i--) {
+            if (playlist.checkIfSongExist(played.get(i))) addBackward(played.get(i));
+        }
+        addForward(played.get(currentPosition));
+        for (int i = currentPosition + 1; i < played.size(); i++) {
+            if (playlist.checkIfSongExist(played.get(i))) addForward(played.get(i));
+        }
+        cursor = 0;
+        pool = null;
+        poolIndex = null;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 public class Song extends BaseEntity {
 
     private final String name;
+    // Songs read by the loaders share these Strings with the rest of their catalog through its SymbolTable
     private final String genre;
     private final String albumName;
     private final String artist;
@@ -19,6 +20,15 @@ public class Song extends BaseEntity {
         this.featuredArtists = featuredArtists;
     }
 
+    /**
+     * Constructs a Song whose repeated attributes are the canonical instances of the given SymbolTable.
+     */
+    public Song(String id, String name, String genre, String albumName, String artist, String[] featuredArtists,
+            SymbolTable symbols) {
+        this(id, name, symbols.intern(genre), symbols.intern(albumName), symbols.intern(artist),
+                symbols.internAll(featuredArtists));
+    }
+
     public Song(String id, Song other) {
         this(id, other.name, other.genre, other.albumName, other.artist, other.featuredArtists);
     }
@@ -27,6 +37,11 @@ public class Song extends BaseEntity {
         this(null, name, genre, albumName, artist, featuredArtists);
     }
 
+    public Song(String name, String genre, String albumName, String artist, String[] featuredArtists,
+            SymbolTable symbols) {
+        this(null, name, genre, albumName, artist, featuredArtists, symbols);
+    }
+
     public String getName() {
         return name;
     }
@@ -43,6 +58,9 @@ public class Song extends BaseEntity {
         return artist;
     }
 
+    /**
+     * Returns the featured artists. The array is shared by every caller and must not be modified.
+     */
     public String[] getFeaturedArtists() {
         return featuredArtists;
     }
@@ -0,0 +1,106 @@
+package com.crio.jukebox.entities;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SymbolTable keeps one canonical instance of every repeated string.
+ * Song attributes such as genre, album and artists repeat across thousands of songs, but a parser creates a new
+ * String for every row. Interning a value returns the instance seen first, so every Song of the catalog refers to
+ * the same String and the copies become garbage. Each song repository owns the table of its catalog, and the loaders
+ * intern into it. Interning is safe from parallel parser threads.
+ * <p>
+ * The table only holds its symbols weakly. Once no song refers to a symbol any more, for example after a reload or
+ * delete removed the last song of an album, the garbage collector clears it and the table drops its entry on the
+ * next intern, so the table shrinks with the catalog instead of pinning every value ever loaded.
+ */
+public final class SymbolTable {
+
+    /**
+     * A weak reference to a canonical String that compares by the String's value while it is alive, so that it can
+     * be both the key and the value of the map. A cleared Symbol only equals itself, so it can still be removed.
+     */
+    private static final class Symbol extends WeakReference<String> {
+        private final int hash;
+
+        Symbol(String value, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Symbol)) return false;
+            Symbol that = (Symbol) o;
+            if (hash != that.hash) return false;
+            String value = get();
+            return value != null && value.equals(that.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final ConcurrentHashMap<Symbol, Symbol> canonical = new ConcurrentHashMap<>();
+    private final ReferenceQueue<String> collected = new ReferenceQueue<>();
+
+    /**
+     * Returns the canonical instance of the given value, making the value canonical if it has not been seen before.
+     * @param value The string to intern.
+     * @return The canonical String equal to the value, or null for null.
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        expunge();
+        Symbol existing = canonical.get(new Symbol(value, null));
+        String instance = existing == null ? null : existing.get();
+        if (instance != null) return instance;
+
+        Symbol symbol = new Symbol(value, collected);
+        while (true) {
+            existing = canonical.putIfAbsent(symbol, symbol);
+            if (existing == null) return value;
+            instance = existing.get();
+            if (instance != null) return instance;
+            // The existing symbol was cleared after it was matched; drop it and try again
+            canonical.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Interns every value of the given array.
+     * @param values The strings to intern.
+     * @return A new array with the canonical Strings, or null if the array is null.
+     */
+    public String[] internAll(String[] values) {
+        if (values == null) return null;
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) result[i] = intern(values[i]);
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct strings interned and still in use. Symbols cleared since the last intern may
+     * still be counted.
+     * @return The number of symbols.
+     */
+    public int size() {
+        expunge();
+        return canonical.size();
+    }
+
+    /**
+     * Removes the entries of symbols the garbage collector has cleared.
+     */
+    private void expunge() {
+        Reference<? extends String> cleared;
+        while ((cleared = collected.poll()) != null) {
+            canonical.remove(cleared, cleared);
+        }
+    }
+}
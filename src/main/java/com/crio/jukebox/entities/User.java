@@ -1,31 +1,60 @@
 package com.crio.jukebox.entities;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 public class User extends BaseEntity {
 
     private String name;
+
+    // Playlists keyed by ID, and their IDs in creation order; playlistList is a List view over both
+    private final Map<String, Playlist> playlists;
+    private final IndexedIdList playlistIds;
     private final List<Playlist> playlistList;
     private Playlist activePlaylist;
     private Song activeSong;
 
+    // Position of activeSong in activePlaylist, so NEXT and BACK do not have to search for it
+    private int activeSongIndex = -1;
+
+    private PlaybackMode playbackMode = PlaybackMode.REPEAT_ALL;
+
+    // Shuffled order of the current session, created when shuffling starts on the active playlist
+    private ShuffleOrder shuffleOrder;
+
+    private ListeningHistory listeningHistory = new ListeningHistory();
+
     public User(String id, String name, List<Playlist> listOfPlaylist, Playlist activePlaylist, Song activeSong) {
+        this(id, name, new HashMap<>(), new IndexedIdList(), activePlaylist, activeSong);
+        for (Playlist playlist : listOfPlaylist) addPlaylist(playlist);
+    }
+
+    private User(String id, String name, Map<String, Playlist> playlists, IndexedIdList playlistIds,
+            Playlist activePlaylist, Song activeSong) {
         super(id);
         this.name = name;
-        this.playlistList = listOfPlaylist;
+        this.playlists = playlists;
+        this.playlistIds = playlistIds;
+        this.playlistList = new PlaylistListView();
         this.activePlaylist = activePlaylist;
         this.activeSong = activeSong;
     }
 
     public User(String id, String name) {
-        this(id, name, new ArrayList<>(), null, null);
+        this(id, name, new HashMap<>(), new IndexedIdList(), null, null);
     }
 
     public User(String id, User other) {
-        this(id, other.name, other.playlistList, other.activePlaylist, other.activeSong);
+        this(id, other.name, other.playlists, other.playlistIds, other.activePlaylist, other.activeSong);
+        this.activeSongIndex = other.activeSongIndex;
+        this.playbackMode = other.playbackMode;
+        this.shuffleOrder = other.shuffleOrder;
+        this.listeningHistory = other.listeningHistory;
     }
 
     public String getName() {
@@ -37,9 +66,7 @@ public class User extends BaseEntity {
     }
 
     public Optional<Playlist> getPlaylist(String playlistId) {
-        return playlistList.stream()
-                .filter(playlist -> playlist.getId().equals(playlistId))
-                .findFirst();
+        return Optional.ofNullable(playlists.get(playlistId));
     }
 
     public void setName(String name) {
@@ -60,18 +87,59 @@ public class User extends BaseEntity {
 
     public void setActiveSong(Song activeSong) {
         this.activeSong = activeSong;
+        this.activeSongIndex = -1;
+    }
+
+    /**
+     * Sets the active song together with its position in the active playlist.
+     * @param activeSong      The song now playing.
+     * @param activeSongIndex The index of the song in the active playlist.
+     */
+    public void setActiveSong(Song activeSong, int activeSongIndex) {
+        this.activeSong = activeSong;
+        this.activeSongIndex = activeSongIndex;
+    }
+
+    /**
+     * Returns the last known position of the active song in the active playlist.
+     * The playlist may have been modified since, so callers must check the song is still at this index.
+     * @return The index of the active song, or -1 if unknown.
+     */
+    public int getActiveSongIndex() {
+        return activeSongIndex;
+    }
+
+    public PlaybackMode getPlaybackMode() {
+        return playbackMode;
+    }
+
+    public void setPlaybackMode(PlaybackMode playbackMode) {
+        this.playbackMode = playbackMode;
+    }
+
+    public Optional<ShuffleOrder> getShuffleOrder() {
+        return Optional.ofNullable(shuffleOrder);
+    }
+
+    public void setShuffleOrder(ShuffleOrder shuffleOrder) {
+        this.shuffleOrder = shuffleOrder;
+    }
+
+    public ListeningHistory getListeningHistory() {
+        return listeningHistory;
     }
 
     public void addPlaylist(Playlist playlist) {
-        this.playlistList.add(playlist);
+        // A playlist saved again under the same ID keeps its position
+        if (this.playlists.put(playlist.getId(), playlist) == null) playlistIds.add(playlist.getId());
     }
 
     public  void deletePlaylist(Playlist playlist) {
-        this.playlistList.remove(playlist);
+        if (this.playlists.remove(playlist.getId()) != null) playlistIds.remove(playlist.getId());
     }
 
     public boolean checkIfPlaylistExist(Playlist playlist) {
-        return playlistList.contains(playlist);
+        return playlists.containsKey(playlist.getId());
     }
 
     @Override
@@ -95,4 +163,67 @@ public class User extends BaseEntity {
                 ", id='" + id + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+
+    /**
+     * List view over the playlists of the user in creation order. Positional access goes through the indexed list
+     * of IDs in O(log n); appending, removing and membership go through the map and that list without a scan.
+     */
+    private final class PlaylistListView extends AbstractList<Playlist> {
+
+        @Override
+        public Playlist get(int index) {
+            return playlists.get(playlistIds.get(index));
+        }
+
+        @Override
+        public int size() {
+            return playlistIds.size();
+        }
+
+        @Override
+        public void add(int index, Playlist playlist) {
+            if (index != playlistIds.size()) {
+                throw new UnsupportedOperationException("Playlists can only be appended");
+            }
+            addPlaylist(playlist);
+            modCount++;
+        }
+
+        @Override
+        public Playlist remove(int index) {
+            Playlist playlist = get(index);
+            deletePlaylist(playlist);
+            modCount++;
+            return playlist;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Playlist) || !playlists.containsKey(((Playlist) o).getId())) return false;
+            deletePlaylist((Playlist) o);
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Playlist && playlists.containsKey(((Playlist) o).getId());
+        }
+
+        @Override
+        public Iterator<Playlist> iterator() {
+            Iterator<String> ids = playlistIds.iterator();
+            return new Iterator<Playlist>() {
+                @Override
+                public boolean hasNext() {
+                    return ids.hasNext();
+                }
+
+                @Override
+                public Playlist next() {
+                    return playlists.get(ids.next());
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.crio.jukebox.repositories;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * ConcurrentSongRepository is a thread-safe implementation of the ISongRepository interface.
+ * Songs and every secondary index live in concurrent maps, so readers never take a lock and never block.
+ * Writers are serialised with a single monitor so that a song and its index entries change together, and IDs are
+ * allocated atomically. A reader racing a writer may briefly see an index entry whose song is not visible yet or
+ * has just changed; finders re-check each song against the requested attribute and skip such entries. An update
+ * indexes the new song before publishing it and un-indexes the old one after, so a reader finds the song under
+ * either its old or its new attributes throughout, never under neither.
+ * findAll returns songs in ID order, as SongRepository does. The finders return songs in no particular order, where
+ * SongRepository returns them in the order they were indexed.
+ */
+public class ConcurrentSongRepository implements ISongRepository {
+
+    /**
+     * A concurrent map to store Song entities with their IDs as keys.
+     */
+    private final Map<String, Song> songMap = new ConcurrentHashMap<>();
+
+    /**
+     * The highest ID allocated or stored so far.
+     */
+    private final AtomicInteger autoIncrement = new AtomicInteger();
+
+    private final Map<String, Set<String>> nameIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> artistIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> albumIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> genreIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> featuredArtistIndex = new ConcurrentHashMap<>();
+
+    private final SongSearchIndex searchIndex = new SongSearchIndex();
+
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    /**
+     * Incremented by writers under writeLock, after each change is complete.
+     */
+    private volatile long version;
+
+    /**
+     * Serialises writers. Readers never acquire it.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Default constructor to initialize an empty ConcurrentSongRepository.
+     */
+    public ConcurrentSongRepository() {
+    }
+
+    /**
+     * Constructor to initialize the ConcurrentSongRepository with an existing map of Song entities.
+     * @param songMap A map containing Song entities with their IDs as keys.
+     */
+    public ConcurrentSongRepository(Map<String, Song> songMap) {
+        songMap.values().forEach(this::save);
+    }
+
+    /**
+     * Generates an auto-incremented ID for new Song entities.
+     * @return The generated ID as a string.
+     */
+    private String generateId() {
+        return String.valueOf(autoIncrement.incrementAndGet());
+    }
+
+    private static int toIntId(String id) {
+        int intId = IntIdStore.parseId(id);
+        if (intId < 0) throw new IllegalArgumentException("Song ID must be a positive integer: " + id);
+        return intId;
+    }
+
+    /**
+     * Saves a Song entity to the repository. If the entity already has an ID, it updates the existing entity.
+     * Otherwise, it creates a new Song entity with a generated ID.
+     * @param entity The Song entity to be saved or updated.
+     * @return The previous Song entity for an update, or the newly created Song entity.
+     */
+    @Override
+    public Song save(Song entity) {
+        synchronized (writeLock) {
+            Song result;
+            if (entity.getId() != null) {
+                autoIncrement.accumulateAndGet(toIntId(entity.getId()), Math::max);
+
+                Song previous = songMap.get(entity.getId());
+                if (previous == null) {
+                    // Publish a new song before indexing it, so an index hit can always be resolved
+                    songMap.put(entity.getId(), entity);
+                    index(entity);
+                } else {
+                    // Index the update before publishing it, and drop the old entries only once it is visible
+                    index(entity);
+                    songMap.put(entity.getId(), entity);
+                    unindexReplaced(previous, entity);
+                }
+                result = previous;
+            } else {
+                Song song = new Song(generateId(), entity);
+                songMap.put(song.getId(), song);
+                index(song);
+                result = song;
+            }
+            // Bumped once the change is complete, as in deleteById
+            version++;
+            return result;
+        }
+    }
+
+    /**
+     * Returns a list of all Song entities in the repository.
+     * @return A list containing all Song entities at some point during the call, in ID order.
+     */
+    @Override
+    public List<Song> findAll() {
+        List<Song> songs = new ArrayList<>(songMap.values());
+        songs.sort(Comparator.comparingInt(song -> IntIdStore.parseId(song.getId())));
+        return songs;
+    }
+
+    @Override
+    public Optional<Song> findById(String id) {
+        return Optional.ofNullable(songMap.get(id));
+    }
+
+    @Override
+    public Optional<Song> findById(int id) {
+        return findById(String.valueOf(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return songMap.containsKey(id);
+    }
+
+    @Override
+    public boolean existsById(int id) {
+        return existsById(String.valueOf(id));
+    }
+
+    @Override
+    public List<String> findMissingIds(Collection<String> ids) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || !songMap.containsKey(id)) missing.add(id);
+        }
+        return new ArrayList<>(missing);
+    }
+
+    @Override
+    public void delete(Song entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        synchronized (writeLock) {
+            Song existing = songMap.get(id);
+            if (existing == null) return;
+            // Un-index before removing, so readers never resolve an index hit to a missing song
+            unindex(existing);
+            songMap.remove(id);
+            version++;
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    @Override
+    public long count() {
+        return songMap.size();
+    }
+
+    @Override
+    public List<Song> findByName(String songName) {
+        return findByIndex(nameIndex, songName, Song::getName);
+    }
+
+    @Override
+    public List<Song> findByArtist(String artist) {
+        return findByIndex(artistIndex, artist, Song::getArtist);
+    }
+
+    @Override
+    public List<Song> findByAlbum(String album) {
+        return findByIndex(albumIndex, album, Song::getAlbumName);
+    }
+
+    @Override
+    public List<Song> findByGenre(String genre) {
+        return findByIndex(genreIndex, genre, Song::getGenre);
+    }
+
+    @Override
+    public List<Song> findByFeaturedArtist(String artist) {
+        return findByAllFeaturedArtists(artist);
+    }
+
+    @Override
+    public List<Song> findByNaturalKey(String songName, String album, String artist) {
+        List<Song> songs = findByName(songName);
+        songs.removeIf(song -> !Objects.equals(album, song.getAlbumName()) || !Objects.equals(artist, song.getArtist()));
+        songs.sort(Comparator.comparingInt(song -> IntIdStore.parseId(song.getId())));
+        return songs;
+    }
+
+    @Override
+    public List<Song> findByAllFeaturedArtists(String... artists) {
+        if (artists.length == 0) return new ArrayList<>();
+
+        // Pick the shortest posting list to drive the intersection
+        Set<String> smallest = null;
+        for (String artist : artists) {
+            Set<String> ids = artist == null ? null : featuredArtistIndex.get(artist);
+            if (ids == null) return new ArrayList<>();
+            if (smallest == null || ids.size() < smallest.size()) smallest = ids;
+        }
+
+        List<Song> songs = new ArrayList<>();
+        for (String id : smallest) {
+            Song song = songMap.get(id);
+            if (song != null && featuresAll(song, artists)) songs.add(song);
+        }
+        return songs;
+    }
+
+    @Override
+    public List<Song> findByAnyFeaturedArtist(String... artists) {
+        Set<String> union = new LinkedHashSet<>();
+        for (String artist : artists) {
+            Set<String> ids = artist == null ? null : featuredArtistIndex.get(artist);
+            if (ids != null) union.addAll(ids);
+        }
+        List<Song> songs = new ArrayList<>(union.size());
+        for (String id : union) {
+            Song song = songMap.get(id);
+            if (song != null && featuresAny(song, artists)) songs.add(song);
+        }
+        return songs;
+    }
+
+    @Override
+    public List<Song> search(String text, int limit) {
+        List<String> ids = searchIndex.search(text, limit);
+        List<Song> songs = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Song song = songMap.get(id);
+            if (song != null) songs.add(song);
+        }
+        return songs;
+    }
+
+    private List<Song> findByIndex(Map<String, Set<String>> index, String key, Function<Song, String> attribute) {
+        if (key == null) return new ArrayList<>();
+        Set<String> ids = index.get(key);
+        if (ids == null) return new ArrayList<>();
+        List<Song> songs = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Song song = songMap.get(id);
+            // The song may have been updated since the index entry was read
+            if (song != null && key.equals(attribute.apply(song))) songs.add(song);
+        }
+        return songs;
+    }
+
+    private static boolean featuresAll(Song song, String[] artists) {
+        if (song.getFeaturedArtists() == null) return false;
+        List<String> featured = Arrays.asList(song.getFeaturedArtists());
+        for (String artist : artists) {
+            if (!featured.contains(artist)) return false;
+        }
+        return true;
+    }
+
+    private static boolean featuresAny(Song song, String[] artists) {
+        if (song.getFeaturedArtists() == null) return false;
+        List<String> featured = Arrays.asList(song.getFeaturedArtists());
+        for (String artist : artists) {
+            if (featured.contains(artist)) return true;
+        }
+        return false;
+    }
+
+    private void index(Song song) {
+        addToIndex(nameIndex, song.getName(), song.getId());
+        addToIndex(artistIndex, song.getArtist(), song.getId());
+        addToIndex(albumIndex, song.getAlbumName(), song.getId());
+        addToIndex(genreIndex, song.getGenre(), song.getId());
+        if (song.getFeaturedArtists() != null) {
+            for (String featured : song.getFeaturedArtists()) addToIndex(featuredArtistIndex, featured, song.getId());
+        }
+        searchIndex.add(song);
+    }
+
+    private void unindex(Song song) {
+        removeFromIndex(nameIndex, song.getName(), song.getId());
+        removeFromIndex(artistIndex, song.getArtist(), song.getId());
+        removeFromIndex(albumIndex, song.getAlbumName(), song.getId());
+        removeFromIndex(genreIndex, song.getGenre(), song.getId());
+        if (song.getFeaturedArtists() != null) {
+            for (String featured : song.getFeaturedArtists()) removeFromIndex(featuredArtistIndex, featured, song.getId());
+        }
+        searchIndex.remove(song.getId());
+    }
+
+    // Removes the entries of the old version of an updated song that the new version does not share
+    private void unindexReplaced(Song previous, Song song) {
+        removeReplaced(nameIndex, previous.getName(), song.getName(), song.getId());
+        removeReplaced(artistIndex, previous.getArtist(), song.getArtist(), song.getId());
+        removeReplaced(albumIndex, previous.getAlbumName(), song.getAlbumName(), song.getId());
+        removeReplaced(genreIndex, previous.getGenre(), song.getGenre(), song.getId());
+        if (previous.getFeaturedArtists() != null) {
+            List<String> featured = song.getFeaturedArtists() == null ? Collections.emptyList()
+                    : Arrays.asList(song.getFeaturedArtists());
+            for (String artist : previous.getFeaturedArtists()) {
+                if (!featured.contains(artist)) removeFromIndex(featuredArtistIndex, artist, song.getId());
+            }
+        }
+        // The search index dropped the terms the song lost when the new version was added
+    }
+
+    private static void removeReplaced(Map<String, Set<String>> index, String previousKey, String key, String id) {
+        if (!Objects.equals(previousKey, key)) removeFromIndex(index, previousKey, id);
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
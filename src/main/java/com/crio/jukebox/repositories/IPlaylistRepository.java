@@ -1,9 +1,34 @@
 package com.crio.jukebox.repositories;
 
 import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
 
 import java.util.List;
 
-public interface IPlaylistRepository extends CRUDRepository<Playlist, String> {
+public interface IPlaylistRepository extends CRUDRepository<Playlist, String>, IntIdRepository<Playlist> {
     public List<Playlist> findByUserId(String userId);
+
+    public List<Playlist> findByUserId(String userId, int offset, int limit);
+
+    /**
+     * Returns the highest ID allocated so far. IDs are never reused, so IDs up to it stay taken after a delete.
+     */
+    public int lastAllocatedId();
+
+    /**
+     * Makes sure no ID up to the given one is allocated, as when the entities that had them were deleted.
+     * @param id The highest ID not to allocate.
+     */
+    public void reserveIdsThrough(int id);
+
+    /**
+     * Saves an existing playlist that a batch has just changed.
+     * Repositories that record their changes can record the batch instead of every song of the playlist.
+     * @param playlist The changed playlist.
+     * @param applied  The operations that changed it, as returned by Playlist.apply.
+     * @return What save returns for the playlist.
+     */
+    default Playlist saveModified(Playlist playlist, PlaylistMutation applied) {
+        return save(playlist);
+    }
 }
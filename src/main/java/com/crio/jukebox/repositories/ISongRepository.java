@@ -1,12 +1,12 @@
 package com.crio.jukebox.repositories;
 
 import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
 
-import java.util.Optional;
-
+import java.util.Collection;
 import java.util.List;
 
-public interface ISongRepository extends CRUDRepository<Song, String> {
+public interface ISongRepository extends CRUDRepository<Song, String>, IntIdRepository<Song> {
     public List<Song> findByName(String songName);
 
     public List<Song> findByArtist(String artist);
@@ -14,4 +14,27 @@ public interface ISongRepository extends CRUDRepository<Song, String> {
     public List<Song> findByAlbum(String album);
 
     public List<Song> findByGenre(String genre);
+
+    public List<Song> findByFeaturedArtist(String artist);
+
+    /**
+     * Returns the songs with the given name, album and artist, the natural key a catalog file identifies songs by.
+     * @return The matching songs in ID order.
+     */
+    public List<Song> findByNaturalKey(String songName, String album, String artist);
+
+    public List<Song> findByAllFeaturedArtists(String... artists);
+
+    public List<Song> findByAnyFeaturedArtist(String... artists);
+
+    public List<Song> search(String text, int limit);
+
+    public List<String> findMissingIds(Collection<String> ids);
+
+    public long getVersion();
+
+    /**
+     * Returns the SymbolTable that the attributes of the songs read into this repository are interned in.
+     */
+    public SymbolTable getSymbolTable();
 }
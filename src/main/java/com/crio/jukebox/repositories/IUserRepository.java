@@ -4,6 +4,17 @@ import com.crio.jukebox.entities.User;
 
 import java.util.Optional;
 
-public interface IUserRepository extends CRUDRepository<User, String> {
+public interface IUserRepository extends CRUDRepository<User, String>, IntIdRepository<User> {
     public Optional<User> findByName(String name);
+
+    /**
+     * Returns the highest ID allocated so far. IDs are never reused, so IDs up to it stay taken after a delete.
+     */
+    public int lastAllocatedId();
+
+    /**
+     * Makes sure no ID up to the given one is allocated, as when the entities that had them were deleted.
+     * @param id The highest ID not to allocate.
+     */
+    public void reserveIdsThrough(int id);
 }
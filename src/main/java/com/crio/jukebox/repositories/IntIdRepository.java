@@ -0,0 +1,8 @@
+package com.crio.jukebox.repositories;
+
+import java.util.Optional;
+
+public interface IntIdRepository<T> {
+    public Optional<T> findById(int id);
+    boolean existsById(int id);
+}
@@ -0,0 +1,196 @@
+package com.crio.jukebox.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * IntIdStore keeps entities in a dense array indexed by their numeric ID.
+ * Lookups are a bounds check and an array read, with no String hashing or boxing. IDs are handed out in
+ * increasing order from a dense counter and never reused: commands and other entities refer to IDs after a delete,
+ * so a deleted slot simply stays empty. Externally assigned IDs are skipped when the counter reaches them, so one
+ * large ID does not make every later ID jump past it.
+ * <p>
+ * The array only grows to cover an ID while it would stay at least half full, so one externally assigned large ID,
+ * such as 2000000000 in a CSV file, does not allocate gigabytes of empty slots. IDs beyond the array are kept in a
+ * sorted side map, and move into the array once it has grown to cover them.
+ * <p>
+ * Only parseId is public, so code outside the repositories reads IDs the same way the stores do.
+ * @param <T> The entity type stored.
+ */
+public final class IntIdStore<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] slots = new Object[INITIAL_CAPACITY];
+    // IDs at or beyond slots.length
+    private final TreeMap<Integer, Object> outliers = new TreeMap<>();
+    // Every ID up to here has been allocated or reserved
+    private int counter;
+    // Reserved IDs beyond counter + 1
+    private final TreeSet<Integer> reservedAhead = new TreeSet<>();
+    private int size;
+
+    /**
+     * Allocates the next unused ID.
+     * @return The allocated ID.
+     * @throws IllegalStateException If every positive int has been used.
+     */
+    int nextId() {
+        if (counter == Integer.MAX_VALUE) throw new IllegalStateException("No unused IDs left");
+        int id = ++counter;
+        skipReserved();
+        return id;
+    }
+
+    /**
+     * Makes sure an externally assigned ID is never allocated again.
+     * @param id The ID in use.
+     */
+    void reserve(int id) {
+        if (id <= counter) return;
+        if (id == counter + 1) counter = id;
+        else reservedAhead.add(id);
+        skipReserved();
+    }
+
+    /**
+     * Returns the highest ID the counter has reached; no ID up to it is allocated again.
+     */
+    int lastId() {
+        return counter;
+    }
+
+    /**
+     * Makes sure no ID up to the given one is ever allocated, whether or not it is in use.
+     * @param id The highest ID not to allocate.
+     */
+    void reserveThrough(int id) {
+        if (id <= counter) return;
+        counter = id;
+        reservedAhead.headSet(id, true).clear();
+        skipReserved();
+    }
+
+    /**
+     * Moves the counter past reserved IDs that directly follow it.
+     */
+    private void skipReserved() {
+        while (!reservedAhead.isEmpty() && reservedAhead.first() == counter + 1) {
+            counter = reservedAhead.pollFirst();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        if (id <= 0) return null;
+        Object[] table = slots;
+        if (id < table.length) return (T) table[id];
+        return outliers.isEmpty() ? null : (T) outliers.get(id);
+    }
+
+    boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Stores an entity under the given ID.
+     * @param id     The ID of the entity.
+     * @param entity The entity to store.
+     * @return The entity previously stored under the ID, or null.
+     */
+    T put(int id, T entity) {
+        if (id <= 0) throw new IllegalArgumentException("Invalid ID: " + id);
+        reserve(id);
+        if (id >= slots.length) grow(id);
+        T previous;
+        if (id < slots.length) {
+            previous = get(id);
+            slots[id] = entity;
+        } else {
+            @SuppressWarnings("unchecked")
+            T outlier = (T) outliers.put(id, entity);
+            previous = outlier;
+        }
+        if (previous == null) size++;
+        return previous;
+    }
+
+    /**
+     * Grows the array to cover the ID if it would stay at least half full, and moves the outliers it now covers.
+     */
+    private void grow(int id) {
+        long length = Math.max((long) slots.length * 2, (long) id + 1);
+        if (length > 2L * (size + 1) + INITIAL_CAPACITY) return;
+        Object[] table = Arrays.copyOf(slots, (int) length);
+        Iterator<Map.Entry<Integer, Object>> covered = outliers.headMap((int) length).entrySet().iterator();
+        while (covered.hasNext()) {
+            Map.Entry<Integer, Object> outlier = covered.next();
+            table[outlier.getKey()] = outlier.getValue();
+            covered.remove();
+        }
+        slots = table;
+    }
+
+    /**
+     * Removes the entity stored under the given ID.
+     * @param id The ID of the entity.
+     * @return The removed entity, or null if there was none.
+     */
+    T remove(int id) {
+        T previous = get(id);
+        if (previous != null) {
+            if (id < slots.length) slots[id] = null;
+            else outliers.remove(id);
+            size--;
+        }
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns every stored entity in ID order.
+     * @return A new list of the stored entities.
+     */
+    List<T> values() {
+        List<T> values = new ArrayList<>(size);
+        forEach(values::add);
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super T> action) {
+        Object[] table = slots;
+        for (int id = 1; id < table.length; id++) {
+            if (table[id] != null) action.accept((T) table[id]);
+        }
+        for (Object outlier : outliers.values()) action.accept((T) outlier);
+    }
+
+    /**
+     * Parses the String form of an ID without throwing.
+     * Only the canonical form produced by String.valueOf is accepted, so "01" and "1" stay different IDs.
+     * @param id The String ID.
+     * @return The numeric ID, or -1 if the String is not a canonical positive integer.
+     */
+    public static int parseId(String id) {
+        if (id == null) return -1;
+        int length = id.length();
+        if (length == 0 || length > 10 || id.charAt(0) < '1' || id.charAt(0) > '9') return -1;
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+}
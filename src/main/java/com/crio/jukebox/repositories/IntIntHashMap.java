@@ -0,0 +1,118 @@
+package com.crio.jukebox.repositories;
+
+/**
+ * IntIntHashMap is an open-addressing hash map from positive int keys to int values.
+ * Keys and values live in two primitive arrays probed linearly, so an entry costs eight bytes plus load-factor slack
+ * instead of two boxed objects and a node. Key 0 marks an empty slot, which is why keys must be positive.
+ * Removal uses backward-shift deletion, so there are no tombstones and lookups stay short.
+ */
+final class IntIntHashMap {
+
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntIntHashMap() {
+        keys = new int[MIN_CAPACITY];
+        values = new int[MIN_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of key, treating a missing key as 0. Entries that drop to 0 are removed.
+     * @return The new value.
+     */
+    int addTo(int key, int delta) {
+        if (key <= 0) throw new IllegalArgumentException("Key must be positive: " + key);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int value = values[slot] + delta;
+                if (value == 0) {
+                    removeAt(slot);
+                } else {
+                    values[slot] = value;
+                }
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (delta == 0) return 0;
+
+        keys[slot] = key;
+        values[slot] = delta;
+        // Keep the load factor at or below one half
+        if (++size * 2 > keys.length) rehash(keys.length * 2);
+        return delta;
+    }
+
+    /**
+     * Calls the visitor with every key and value, in no particular order.
+     */
+    void forEach(IntIntVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) visitor.visit(keys[slot], values[slot]);
+        }
+    }
+
+    interface IntIntVisitor {
+        void visit(int key, int value);
+    }
+
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        size--;
+        // Shift later entries of the same probe run back into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+
+        // Shrink once mostly empty so removed songs give their memory back
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) rehash(keys.length / 2);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int hash(int key) {
+        // Spread sequential IDs across the table
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,122 @@
+package com.crio.jukebox.repositories;
+
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.repositories.log.MutationLog;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * LoggedPlaylistRepository records every save and delete of another IPlaylistRepository in a MutationLog.
+ * A playlist saved after a batch is recorded as the batch, so the record does not grow with the playlist.
+ * The mutation and its record happen under one lock, so the log holds the saves of a playlist in the order they
+ * were made; waiting for the record to be durable happens after the lock is released, so concurrent saves share an
+ * fsync. Lookups go straight to the wrapped repository.
+ */
+public class LoggedPlaylistRepository implements IPlaylistRepository {
+
+    private final IPlaylistRepository playlistRepository;
+    private final MutationLog mutationLog;
+
+    public LoggedPlaylistRepository(IPlaylistRepository playlistRepository, MutationLog mutationLog) {
+        this.playlistRepository = playlistRepository;
+        this.mutationLog = mutationLog;
+    }
+
+    @Override
+    public Playlist save(Playlist entity) {
+        Playlist saved;
+        long sequence;
+        synchronized (this) {
+            saved = playlistRepository.save(entity);
+            // For an existing playlist, save returns the playlist it replaced
+            sequence = mutationLog.playlistSaved(entity.getId() != null ? entity : saved);
+        }
+        mutationLog.awaitDurable(sequence);
+        return saved;
+    }
+
+    @Override
+    public Playlist saveModified(Playlist playlist, PlaylistMutation applied) {
+        if (playlist.getId() == null) return save(playlist);
+        Playlist saved;
+        long sequence;
+        synchronized (this) {
+            saved = playlistRepository.saveModified(playlist, applied);
+            sequence = mutationLog.playlistModified(playlist, applied);
+        }
+        mutationLog.awaitDurable(sequence);
+        return saved;
+    }
+
+    @Override
+    public List<Playlist> findAll() {
+        return playlistRepository.findAll();
+    }
+
+    @Override
+    public Optional<Playlist> findById(String id) {
+        return playlistRepository.findById(id);
+    }
+
+    @Override
+    public Optional<Playlist> findById(int id) {
+        return playlistRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return playlistRepository.existsById(id);
+    }
+
+    @Override
+    public boolean existsById(int id) {
+        return playlistRepository.existsById(id);
+    }
+
+    @Override
+    public void delete(Playlist entity) {
+        long sequence = 0;
+        synchronized (this) {
+            playlistRepository.delete(entity);
+            if (entity.getId() != null) sequence = mutationLog.playlistDeleted(entity.getId());
+        }
+        mutationLog.awaitDurable(sequence);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        long sequence;
+        synchronized (this) {
+            playlistRepository.deleteById(id);
+            sequence = mutationLog.playlistDeleted(id);
+        }
+        mutationLog.awaitDurable(sequence);
+    }
+
+    @Override
+    public long count() {
+        return playlistRepository.count();
+    }
+
+    @Override
+    public List<Playlist> findByUserId(String userId) {
+        return playlistRepository.findByUserId(userId);
+    }
+
+    @Override
+    public List<Playlist> findByUserId(String userId, int offset, int limit) {
+        return playlistRepository.findByUserId(userId, offset, limit);
+    }
+
+    @Override
+    public int lastAllocatedId() {
+        return playlistRepository.lastAllocatedId();
+    }
+
+    @Override
+    public void reserveIdsThrough(int id) {
+        playlistRepository.reserveIdsThrough(id);
+    }
+}
@@ -0,0 +1,102 @@
+package com.crio.jukebox.repositories;
+
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.log.MutationLog;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * LoggedUserRepository records every save and delete of another IUserRepository in a MutationLog.
+ * The mutation and its record happen under one lock, so the log holds the saves of a user in the order they were
+ * made; waiting for the record to be durable happens after the lock is released, so concurrent saves share an fsync.
+ * Lookups go straight to the wrapped repository.
+ */
+public class LoggedUserRepository implements IUserRepository {
+
+    private final IUserRepository userRepository;
+    private final MutationLog mutationLog;
+
+    public LoggedUserRepository(IUserRepository userRepository, MutationLog mutationLog) {
+        this.userRepository = userRepository;
+        this.mutationLog = mutationLog;
+    }
+
+    @Override
+    public User save(User entity) {
+        User saved;
+        long sequence;
+        synchronized (this) {
+            saved = userRepository.save(entity);
+            // For an existing user, save returns the user it replaced
+            sequence = mutationLog.userSaved(entity.getId() != null ? entity : saved);
+        }
+        mutationLog.awaitDurable(sequence);
+        return saved;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return userRepository.findAll();
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return userRepository.findById(id);
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        return userRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return userRepository.existsById(id);
+    }
+
+    @Override
+    public boolean existsById(int id) {
+        return userRepository.existsById(id);
+    }
+
+    @Override
+    public void delete(User entity) {
+        long sequence = 0;
+        synchronized (this) {
+            userRepository.delete(entity);
+            if (entity.getId() != null) sequence = mutationLog.userDeleted(entity.getId());
+        }
+        mutationLog.awaitDurable(sequence);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        long sequence;
+        synchronized (this) {
+            userRepository.deleteById(id);
+            sequence = mutationLog.userDeleted(id);
+        }
+        mutationLog.awaitDurable(sequence);
+    }
+
+    @Override
+    public long count() {
+        return userRepository.count();
+    }
+
+    @Override
+    public Optional<User> findByName(String name) {
+        return userRepository.findByName(name);
+    }
+
+    @Override
+    public int lastAllocatedId() {
+        return userRepository.lastAllocatedId();
+    }
+
+    @Override
+    public void reserveIdsThrough(int id) {
+        userRepository.reserveIdsThrough(id);
+    }
+}
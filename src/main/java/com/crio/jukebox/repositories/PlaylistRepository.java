@@ -1,27 +1,33 @@
 package com.crio.jukebox.repositories;
 
+import com.crio.jukebox.entities.IndexedIdList;
 import com.crio.jukebox.entities.Playlist;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
- * PlaylistRepository is an implementation of the IPlaylistRepository interface that uses a Map to store Playlist entities.
+ * PlaylistRepository is an implementation of the IPlaylistRepository interface that stores Playlist entities in an IntIdStore.
  * This class provides CRUD operations for Playlist entities and supports searching by user ID.
+ * Its methods are synchronized, so commands of different users can use it from parallel threads.
  */
 public class PlaylistRepository implements IPlaylistRepository {
 
     /**
-     * A map to store Playlist entities with their IDs as keys.
+     * A dense store of Playlist entities indexed by their numeric IDs, which also generates new IDs.
      */
-    private final Map<String, Playlist> playlistMap;
-    private Integer autoIncrement = 0;
+    private final IntIdStore<Playlist> playlistStore = new IntIdStore<>();
 
     /**
-     * Default constructor to initialize the PlaylistRepository with an empty HashMap.
+     * Index from a creator's user ID to the IDs of their playlists, in creation order.
+     * It is maintained by save, delete and deleteById so that findByUserId never scans the store, and its lists
+     * are indexed by position so that a page is found without walking the pages before it.
+     */
+    private final Map<String, IndexedIdList> creatorIndex = new HashMap<>();
+
+    /**
+     * Default constructor to initialize an empty PlaylistRepository.
      */
     public PlaylistRepository() {
-        playlistMap = new HashMap<>();
     }
 
     /**
@@ -29,8 +35,7 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @param playlistMap A map containing Playlist entities with their IDs as keys.
      */
     public PlaylistRepository(Map<String, Playlist> playlistMap) {
-        this.playlistMap = playlistMap;
-        autoIncrement = playlistMap.size();
+        playlistMap.values().forEach(this::save);
     }
 
     /**
@@ -38,7 +43,13 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return The generated ID as a string.
      */
     private String generateId() {
-        return String.valueOf(++autoIncrement);
+        return String.valueOf(playlistStore.nextId());
+    }
+
+    private static int toIntId(String id) {
+        int intId = IntIdStore.parseId(id);
+        if (intId < 0) throw new IllegalArgumentException("Playlist ID must be a positive integer: " + id);
+        return intId;
     }
 
     /**
@@ -48,14 +59,21 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return The saved or updated Playlist entity.
      */
     @Override
-    public Playlist save(Playlist entity) {
+    public synchronized Playlist save(Playlist entity) {
         if (entity.getId() != null) {
-            // Update the existing entity in the map.
-            return playlistMap.put(entity.getId(), entity);
+            // Update the existing entity in the store and re-index it.
+            Playlist previous = playlistStore.put(toIntId(entity.getId()), entity);
+            // Keep the playlist's position in its creator's index unless the creator changed.
+            if (previous == null || !Objects.equals(previous.getCreatorId(), entity.getCreatorId())) {
+                if (previous != null) unindex(previous);
+                index(entity);
+            }
+            return previous;
         } else {
-            // Create a new Playlist entity with a generated ID and save it to the map.
+            // Create a new Playlist entity with a generated ID and save it to the store.
             Playlist playlist = new Playlist(generateId(), entity);
-            playlistMap.put(playlist.getId(), playlist);
+            playlistStore.put(toIntId(playlist.getId()), playlist);
+            index(playlist);
             return playlist;
         }
     }
@@ -65,8 +83,8 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return A list containing all Playlist entities.
      */
     @Override
-    public List<Playlist> findAll() {
-        return new ArrayList<>(playlistMap.values());
+    public synchronized List<Playlist> findAll() {
+        return playlistStore.values();
     }
 
     /**
@@ -75,8 +93,18 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return An Optional containing the retrieved Playlist entity, or an empty Optional if not found.
      */
     @Override
-    public Optional<Playlist> findById(String id) {
-        return Optional.ofNullable(playlistMap.get(id));
+    public synchronized Optional<Playlist> findById(String id) {
+        return findById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Retrieves a Playlist entity by its numeric ID.
+     * @param id The numeric ID of the Playlist entity to retrieve.
+     * @return An Optional containing the retrieved Playlist entity, or an empty Optional if not found.
+     */
+    @Override
+    public synchronized Optional<Playlist> findById(int id) {
+        return Optional.ofNullable(playlistStore.get(id));
     }
 
     /**
@@ -85,8 +113,18 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return True if the Playlist entity exists, false otherwise.
      */
     @Override
-    public boolean existsById(String id) {
-        return playlistMap.containsKey(id);
+    public synchronized boolean existsById(String id) {
+        return existsById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Checks if a Playlist entity with the given numeric ID exists in the repository.
+     * @param id The numeric ID of the Playlist entity to check.
+     * @return True if the Playlist entity exists, false otherwise.
+     */
+    @Override
+    public synchronized boolean existsById(int id) {
+        return playlistStore.contains(id);
     }
 
     /**
@@ -94,10 +132,10 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @param entity The Playlist entity to be deleted.
      */
     @Override
-    public void delete(Playlist entity) {
+    public synchronized void delete(Playlist entity) {
         if (entity.getId() != null) {
-            // Remove the Playlist entity with the specified ID from the map.
-            playlistMap.remove(entity.getId());
+            // Remove the Playlist entity with the specified ID from the store.
+            deleteById(entity.getId());
         }
     }
 
@@ -106,8 +144,9 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @param id The ID of the Playlist entity to be deleted.
      */
     @Override
-    public void deleteById(String id) {
-        playlistMap.remove(id);
+    public synchronized void deleteById(String id) {
+        Playlist removed = playlistStore.remove(IntIdStore.parseId(id));
+        if (removed != null) unindex(removed);
     }
 
     /**
@@ -115,8 +154,8 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return The number of Playlist entities.
      */
     @Override
-    public long count() {
-        return playlistMap.size();
+    public synchronized long count() {
+        return playlistStore.size();
     }
 
     /**
@@ -125,9 +164,59 @@ public class PlaylistRepository implements IPlaylistRepository {
      * @return A list containing all Playlist entities created by the user.
      */
     @Override
-    public List<Playlist> findByUserId(String userId) {
-        return playlistMap.values().stream()
-                .filter(playlist -> playlist.getCreatorId().equals(userId))
-                .collect(Collectors.toList());
+    public synchronized List<Playlist> findByUserId(String userId) {
+        return findByUserId(userId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns one page of the playlists created by a user, in creation order.
+     * @param userId The ID of the user whose playlists are to be retrieved.
+     * @param offset The number of playlists to skip.
+     * @param limit  The maximum number of playlists to return.
+     * @return A list containing at most limit Playlist entities created by the user.
+     */
+    @Override
+    public synchronized List<Playlist> findByUserId(String userId, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        IndexedIdList ids = creatorIndex.get(userId);
+        if (ids == null || offset >= ids.size()) return new ArrayList<>();
+
+        // Each position is found in O(log n), so a page costs O(limit log n) however deep it is
+        int end = (int) Math.min(ids.size(), (long) offset + limit);
+        List<Playlist> playlists = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) playlists.add(playlistStore.get(IntIdStore.parseId(ids.get(i))));
+        return playlists;
+    }
+
+    private void index(Playlist playlist) {
+        if (playlist.getCreatorId() == null) return;
+        creatorIndex.computeIfAbsent(playlist.getCreatorId(), k -> new IndexedIdList()).add(playlist.getId());
+    }
+
+    private void unindex(Playlist playlist) {
+        IndexedIdList ids = creatorIndex.get(playlist.getCreatorId());
+        if (ids == null) return;
+        ids.remove(playlist.getId());
+        if (ids.isEmpty()) creatorIndex.remove(playlist.getCreatorId());
+    }
+
+    /**
+     * Returns the highest ID generated or stored so far.
+     * @return The highest Playlist ID taken, 0 if there is none.
+     */
+    @Override
+    public synchronized int lastAllocatedId() {
+        return playlistStore.lastId();
+    }
+
+    /**
+     * Makes sure no ID up to the given one is generated for a new Playlist.
+     * @param id The highest ID not to generate.
+     */
+    @Override
+    public synchronized void reserveIdsThrough(int id) {
+        playlistStore.reserveThrough(id);
     }
-}
\ No newline at end of file
+}
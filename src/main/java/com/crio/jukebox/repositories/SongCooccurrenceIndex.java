@@ -0,0 +1,119 @@
+package com.crio.jukebox.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * SongCooccurrenceIndex counts, for every pair of songs, the number of playlists that contain both.
+ * Counts are kept per song in a sparse IntIntHashMap from the other song's ID to the count, and the maps are held
+ * in an IntIdStore by song ID, so only pairs that actually share a playlist take memory. The counts are updated
+ * incrementally as songs join and leave playlists: a song joining a playlist of n songs costs O(n), and the members
+ * are only iterated, so callers can pass a view of the playlist instead of a copy.
+ * Top-k queries scan the song's own map with a k-sized heap. Counts of songs deleted from the catalog are not
+ * dropped, so queries take a filter for the songs that may be returned.
+ */
+public class SongCooccurrenceIndex {
+
+    private final IntIdStore<IntIntHashMap> counts = new IntIdStore<>();
+
+    /**
+     * Records songs that joined a playlist.
+     * @param added   The distinct songs that joined the playlist.
+     * @param members The distinct songs in the playlist afterwards, including the added ones.
+     */
+    public synchronized void addSongs(Collection<String> added, Iterable<String> members) {
+        update(added, members, 1);
+    }
+
+    /**
+     * Records songs that left a playlist.
+     * @param removed The distinct songs that left the playlist.
+     * @param members The distinct songs in the playlist before, including the removed ones.
+     */
+    public synchronized void removeSongs(Collection<String> removed, Iterable<String> members) {
+        update(removed, members, -1);
+    }
+
+    /**
+     * Returns the number of playlists containing both songs.
+     */
+    public synchronized int count(String songId, String otherSongId) {
+        IntIntHashMap songCounts = counts.get(IntIdStore.parseId(songId));
+        return songCounts == null ? 0 : songCounts.get(IntIdStore.parseId(otherSongId));
+    }
+
+    /**
+     * Returns the songs that share the most playlists with the given song.
+     * @param songId The ID of the song.
+     * @param k      The maximum number of songs to return.
+     * @return Song IDs ordered by shared playlist count, highest first, then by ID.
+     */
+    public List<String> findSimilar(String songId, int k) {
+        return findSimilar(songId, k, otherId -> true);
+    }
+
+    /**
+     * Returns the songs that share the most playlists with the given song, among those the filter accepts.
+     * @param songId  The ID of the song.
+     * @param k       The maximum number of songs to return.
+     * @param include Tells whether a song ID may be returned, such as whether the song is still in the catalog.
+     * @return Song IDs ordered by shared playlist count, highest first, then by ID.
+     */
+    public synchronized List<String> findSimilar(String songId, int k, IntPredicate include) {
+        IntIntHashMap songCounts = counts.get(IntIdStore.parseId(songId));
+        if (songCounts == null || k <= 0) return new ArrayList<>();
+
+        // Min-heap of (count, id) keeping the k best; the weakest entry is at the head
+        PriorityQueue<long[]> best = new PriorityQueue<>(Math.min(k, songCounts.size()) + 1, (a, b) ->
+                a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+        songCounts.forEach((otherId, count) -> {
+            if (!include.test(otherId)) return;
+            if (best.size() < k) {
+                best.add(new long[]{count, otherId});
+            } else {
+                long[] weakest = best.peek();
+                if (count > weakest[0] || (count == weakest[0] && otherId < weakest[1])) {
+                    best.poll();
+                    best.add(new long[]{count, otherId});
+                }
+            }
+        });
+
+        String[] ranked = new String[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = String.valueOf(best.poll()[1]);
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    private void update(Collection<String> changed, Iterable<String> members, int delta) {
+        // Each pair is counted once, also when both of its songs changed
+        Set<Integer> done = new HashSet<>();
+        for (String songId : changed) {
+            int id = IntIdStore.parseId(songId);
+            if (id <= 0) continue;
+            for (String memberId : members) {
+                int member = IntIdStore.parseId(memberId);
+                if (member <= 0 || member == id || done.contains(member)) continue;
+                addTo(id, member, delta);
+                addTo(member, id, delta);
+            }
+            done.add(id);
+        }
+    }
+
+    private void addTo(int songId, int otherSongId, int delta) {
+        IntIntHashMap songCounts = counts.get(songId);
+        if (songCounts == null) {
+            if (delta <= 0) return;
+            songCounts = new IntIntHashMap();
+            counts.put(songId, songCounts);
+        }
+        songCounts.addTo(otherSongId, delta);
+        if (songCounts.size() == 0) counts.remove(songId);
+    }
+}
@@ -1,27 +1,60 @@
 package com.crio.jukebox.repositories;
 
 import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
- * SongRepository is an implementation of the ISongRepository interface that uses a Map to store Song entities.
+ * SongRepository is an implementation of the ISongRepository interface that stores Song entities in an IntIdStore.
  * This class provides CRUD operations for Song entities and supports searching by various attributes.
  */
 public class SongRepository implements ISongRepository {
 
     /**
-     * A map to store Song entities with their IDs as keys.
+     * A dense store of Song entities indexed by their numeric IDs, which also generates new IDs.
      */
-    private final Map<String, Song> songMap;
-    private Integer autoIncrement = 0;
+    private final IntIdStore<Song> songStore = new IntIdStore<>();
 
     /**
-     * Default constructor to initialize the SongRepository with an empty HashMap.
+     * Secondary indexes from an attribute value to the IDs of the songs carrying it.
+     * They are maintained by save, delete and deleteById so that the finders never scan the store.
+     */
+    private final Map<String, Set<String>> nameIndex = new HashMap<>();
+    private final Map<String, Set<String>> artistIndex = new HashMap<>();
+    private final Map<String, Set<String>> albumIndex = new HashMap<>();
+    private final Map<String, Set<String>> genreIndex = new HashMap<>();
+
+    /**
+     * Index from a song's name, album and artist to the numeric IDs of the songs sharing them, in ascending order.
+     * Nearly every key has one song, so the IDs are kept in a plain sorted array.
+     */
+    private final Map<NaturalKey, int[]> naturalKeyIndex = new HashMap<>();
+
+    /**
+     * Inverted index from a featured artist to the IDs of the songs featuring them.
+     */
+    private final Map<String, Set<String>> featuredArtistIndex = new HashMap<>();
+
+    /**
+     * Full-text index over song names, album names and artists used by search.
+     */
+    private final SongSearchIndex searchIndex = new SongSearchIndex();
+
+    /**
+     * Dictionary of the repeating attributes of the songs read into this repository.
+     */
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    /**
+     * Incremented after every save and delete, so that caches of resolved songs can tell the catalog changed.
+     */
+    private volatile long version;
+
+    /**
+     * Default constructor to initialize an empty SongRepository.
      */
     public SongRepository() {
-        songMap = new HashMap<>();
     }
 
     /**
@@ -29,8 +62,7 @@ public class SongRepository implements ISongRepository {
      * @param songMap A map containing Song entities with their IDs as keys.
      */
     public SongRepository(Map<String, Song> songMap) {
-        this.songMap = songMap;
-        autoIncrement = songMap.size();
+        songMap.values().forEach(this::save);
     }
 
     /**
@@ -38,7 +70,13 @@ public class SongRepository implements ISongRepository {
      * @return The generated ID as a string.
      */
     private String generateId() {
-        return String.valueOf(++autoIncrement);
+        return String.valueOf(songStore.nextId());
+    }
+
+    private static int toIntId(String id) {
+        int intId = IntIdStore.parseId(id);
+        if (intId < 0) throw new IllegalArgumentException("Song ID must be a positive integer: " + id);
+        return intId;
     }
 
     /**
@@ -49,15 +87,22 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public Song save(Song entity) {
+        Song result;
         if (entity.getId() != null) {
-            // Update the existing entity in the map.
-            return songMap.put(entity.getId(), entity);
+            // Update the existing entity in the store and re-index it. The store never re-issues a stored ID.
+            Song previous = songStore.put(toIntId(entity.getId()), entity);
+            if (previous != null) unindex(previous);
+            index(entity);
+            result = previous;
         } else {
-            // Create a new Song entity with a generated ID and save it to the map.
+            // Create a new Song entity with a generated ID and save it to the store.
             Song song = new Song(generateId(), entity);
-            songMap.put(song.getId(), song);
-            return song;
+            songStore.put(toIntId(song.getId()), song);
+            index(song);
+            result = song;
         }
+        version++;
+        return result;
     }
 
     /**
@@ -66,7 +111,7 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public List<Song> findAll() {
-        return new ArrayList<>(songMap.values());
+        return songStore.values();
     }
 
     /**
@@ -76,7 +121,17 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public Optional<Song> findById(String id) {
-        return Optional.ofNullable(songMap.get(id));
+        return findById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Retrieves a Song entity by its numeric ID.
+     * @param id The numeric ID of the Song entity to retrieve.
+     * @return An Optional containing the retrieved Song entity, or an empty Optional if not found.
+     */
+    @Override
+    public Optional<Song> findById(int id) {
+        return Optional.ofNullable(songStore.get(id));
     }
 
     /**
@@ -86,7 +141,31 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public boolean existsById(String id) {
-        return songMap.containsKey(id);
+        return existsById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Checks if a Song entity with the given numeric ID exists in the repository.
+     * @param id The numeric ID of the Song entity to check.
+     * @return True if the Song entity exists, false otherwise.
+     */
+    @Override
+    public boolean existsById(int id) {
+        return songStore.contains(id);
+    }
+
+    /**
+     * Checks a whole set of IDs in one call.
+     * @param ids The IDs of the Song entities to check.
+     * @return The distinct IDs with no Song entity in the repository, in the order given.
+     */
+    @Override
+    public List<String> findMissingIds(Collection<String> ids) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (!songStore.contains(IntIdStore.parseId(id))) missing.add(id);
+        }
+        return new ArrayList<>(missing);
     }
 
     /**
@@ -96,8 +175,8 @@ public class SongRepository implements ISongRepository {
     @Override
     public void delete(Song entity) {
         if (entity.getId() != null) {
-            // Remove the Song entity with the specified ID from the map.
-            songMap.remove(entity.getId());
+            // Remove the Song entity with the specified ID from the store.
+            deleteById(entity.getId());
         }
     }
 
@@ -107,7 +186,25 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public void deleteById(String id) {
-        songMap.remove(id);
+        Song removed = songStore.remove(IntIdStore.parseId(id));
+        if (removed != null) {
+            unindex(removed);
+            version++;
+        }
+    }
+
+    /**
+     * Returns the catalog version, which changes whenever a Song entity is saved or deleted.
+     * @return The current version.
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
     }
 
     /**
@@ -116,7 +213,7 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public long count() {
-        return songMap.size();
+        return songStore.size();
     }
 
     /**
@@ -127,10 +224,7 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public List<Song> findByName(String songName) {
-        // Streams to filter songs by matching their names with the provided song name.
-        return songMap.values().stream()
-                .filter(song -> song.getName().equals(songName))
-                .collect(Collectors.toList());
+        return findByIndex(nameIndex, songName);
     }
 
     /**
@@ -140,9 +234,7 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public List<Song> findByArtist(String artist) {
-        return songMap.values().stream()
-                .filter(song -> song.getArtist().equals(artist))
-                .collect(Collectors.toList());
+        return findByIndex(artistIndex, artist);
     }
 
     /**
@@ -152,9 +244,7 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public List<Song> findByAlbum(String album) {
-        return songMap.values().stream()
-                .filter(song -> song.getAlbumName().equals(album))
-                .collect(Collectors.toList());
+        return findByIndex(albumIndex, album);
     }
 
     /**
@@ -164,8 +254,220 @@ public class SongRepository implements ISongRepository {
      */
     @Override
     public List<Song> findByGenre(String genre) {
-        return songMap.values().stream()
-                .filter(song -> song.getGenre().equals(genre))
-                .collect(Collectors.toList());
+        return findByIndex(genreIndex, genre);
+    }
+
+    /**
+     * Searches for Song entities featuring the given artist.
+     * @param artist The featured artist to search for.
+     * @return A list containing all Song entities featuring the artist.
+     */
+    @Override
+    public List<Song> findByFeaturedArtist(String artist) {
+        return findByIndex(featuredArtistIndex, artist);
+    }
+
+    /**
+     * Searches for Song entities by name, album and artist.
+     * @param songName The name of the song.
+     * @param album    The album name of the song.
+     * @param artist   The artist of the song.
+     * @return A list containing the Song entities with all three, in ID order.
+     */
+    @Override
+    public List<Song> findByNaturalKey(String songName, String album, String artist) {
+        int[] ids = naturalKeyIndex.get(new NaturalKey(songName, album, artist));
+        if (ids == null) return new ArrayList<>();
+        List<Song> songs = new ArrayList<>(ids.length);
+        for (int id : ids) songs.add(songStore.get(id));
+        return songs;
+    }
+
+    /**
+     * Searches for Song entities featuring every one of the given artists.
+     * The smallest posting list drives the intersection, so the cost depends on posting list sizes only.
+     * @param artists The featured artists that must all appear on a song.
+     * @return A list containing all Song entities featuring all the artists.
+     */
+    @Override
+    public List<Song> findByAllFeaturedArtists(String... artists) {
+        if (artists.length == 0) return new ArrayList<>();
+
+        // Pick the shortest posting list to drive the intersection
+        Set<String> smallest = null;
+        for (String artist : artists) {
+            Set<String> ids = featuredArtistIndex.get(artist);
+            if (ids == null) return new ArrayList<>();
+            if (smallest == null || ids.size() < smallest.size()) smallest = ids;
+        }
+
+        List<Song> songs = new ArrayList<>();
+        for (String id : smallest) {
+            boolean featuresAll = true;
+            for (String artist : artists) {
+                if (!featuredArtistIndex.get(artist).contains(id)) {
+                    featuresAll = false;
+                    break;
+                }
+            }
+            if (featuresAll) songs.add(songStore.get(IntIdStore.parseId(id)));
+        }
+        return songs;
+    }
+
+    /**
+     * Searches for Song entities featuring at least one of the given artists.
+     * @param artists The featured artists of which at least one must appear on a song.
+     * @return A list containing all Song entities featuring any of the artists, without duplicates.
+     */
+    @Override
+    public List<Song> findByAnyFeaturedArtist(String... artists) {
+        Set<String> union = new LinkedHashSet<>();
+        for (String artist : artists) {
+            Set<String> ids = featuredArtistIndex.get(artist);
+            if (ids != null) union.addAll(ids);
+        }
+        List<Song> songs = new ArrayList<>(union.size());
+        for (String id : union) songs.add(songStore.get(IntIdStore.parseId(id)));
+        return songs;
+    }
+
+    /**
+     * Searches for Song entities whose name, album or artist match the given text by word, prefix or
+     * approximate spelling.
+     * @param text  The text to search for.
+     * @param limit The maximum number of songs to return.
+     * @return A list containing the best matching Song entities, most relevant first.
+     */
+    @Override
+    public List<Song> search(String text, int limit) {
+        List<String> ids = searchIndex.search(text, limit);
+        List<Song> songs = new ArrayList<>(ids.size());
+        for (String id : ids) songs.add(songStore.get(IntIdStore.parseId(id)));
+        return songs;
+    }
+
+    /**
+     * Resolves the song IDs stored in an index under the given key.
+     * @param index The attribute index to look up.
+     * @param key The attribute value to search for.
+     * @return A list containing the Song entities indexed under the key, in insertion order.
+     */
+    private List<Song> findByIndex(Map<String, Set<String>> index, String key) {
+        Set<String> ids = index.get(key);
+        if (ids == null) return new ArrayList<>();
+        List<Song> songs = new ArrayList<>(ids.size());
+        for (String id : ids) songs.add(songStore.get(IntIdStore.parseId(id)));
+        return songs;
+    }
+
+    /**
+     * Adds a Song entity to every attribute index.
+     * @param song The Song entity to index.
+     */
+    private void index(Song song) {
+        addToIndex(nameIndex, song.getName(), song.getId());
+        addToIndex(artistIndex, song.getArtist(), song.getId());
+        addToIndex(albumIndex, song.getAlbumName(), song.getId());
+        addToIndex(genreIndex, song.getGenre(), song.getId());
+        if (song.getFeaturedArtists() != null) {
+            for (String featured : song.getFeaturedArtists()) addToIndex(featuredArtistIndex, featured, song.getId());
+        }
+        naturalKeyIndex.merge(NaturalKey.of(song), new int[]{toIntId(song.getId())}, SongRepository::insertId);
+        searchIndex.add(song);
+    }
+
+    /**
+     * Removes a Song entity from every attribute index.
+     * @param song The Song entity to un-index.
+     */
+    private void unindex(Song song) {
+        removeFromIndex(nameIndex, song.getName(), song.getId());
+        removeFromIndex(artistIndex, song.getArtist(), song.getId());
+        removeFromIndex(albumIndex, song.getAlbumName(), song.getId());
+        removeFromIndex(genreIndex, song.getGenre(), song.getId());
+        if (song.getFeaturedArtists() != null) {
+            for (String featured : song.getFeaturedArtists()) removeFromIndex(featuredArtistIndex, featured, song.getId());
+        }
+        int id = toIntId(song.getId());
+        naturalKeyIndex.computeIfPresent(NaturalKey.of(song), (key, ids) -> removeId(ids, id));
+        searchIndex.remove(song.getId());
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        Set<String> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(key);
+    }
+
+    /**
+     * Merges one ID into a sorted ID array.
+     */
+    private static int[] insertId(int[] ids, int[] added) {
+        int id = added[0];
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) return ids;
+        position = -position - 1;
+        int[] merged = new int[ids.length + 1];
+        System.arraycopy(ids, 0, merged, 0, position);
+        merged[position] = id;
+        System.arraycopy(ids, position, merged, position + 1, ids.length - position);
+        return merged;
+    }
+
+    /**
+     * Removes one ID from a sorted ID array, returning null once it is empty so that the key is dropped.
+     */
+    private static int[] removeId(int[] ids, int id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) return ids;
+        if (ids.length == 1) return null;
+        int[] remaining = new int[ids.length - 1];
+        System.arraycopy(ids, 0, remaining, 0, position);
+        System.arraycopy(ids, position + 1, remaining, position, ids.length - position - 1);
+        return remaining;
+    }
+
+    /**
+     * A song's name, album and artist. Attributes are compared with equals, so keys built from strings that were
+     * not interned still match.
+     */
+    private static final class NaturalKey {
+        private final String name;
+        private final String album;
+        private final String artist;
+        private final int hash;
+
+        NaturalKey(String name, String album, String artist) {
+            this.name = name;
+            this.album = album;
+            this.artist = artist;
+            this.hash = (31 * Objects.hashCode(name) + Objects.hashCode(album)) * 31 + Objects.hashCode(artist);
+        }
+
+        static NaturalKey of(Song song) {
+            return new NaturalKey(song.getName(), song.getAlbumName(), song.getArtist());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NaturalKey)) return false;
+            NaturalKey that = (NaturalKey) o;
+            return hash == that.hash && Objects.equals(name, that.name) && Objects.equals(album, that.album)
+                    && Objects.equals(artist, that.artist);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
-}
\ No newline at end of file
+}
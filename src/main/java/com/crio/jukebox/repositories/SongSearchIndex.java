@@ -0,0 +1,280 @@
+package com.crio.jukebox.repositories;
+
+import com.crio.jukebox.entities.Song;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * SongSearchIndex is a full-text index over the name, album name and artist of songs.
+ * Every field is split into lower-case words (terms). A sorted term dictionary answers prefix lookups for
+ * type-ahead, and a trigram index over the dictionary finds terms that are close to a misspelt query word.
+ * The index is updated incrementally as songs are added and removed.
+ * Writers must be serialised by the caller; searches may run concurrently with a writer and never block.
+ */
+final class SongSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int ARTIST_WEIGHT = 2;
+    private static final int ALBUM_WEIGHT = 1;
+
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.8;
+    private static final double FUZZY_SCORE = 0.6;
+    private static final double MIN_SIMILARITY = 0.34;
+
+    /**
+     * Upper bound on the dictionary terms a single query word expands to, which keeps short prefixes cheap.
+     */
+    private static final int MAX_EXPANSIONS = 64;
+
+    /**
+     * Trigrams shared by more dictionary terms than this are not scanned for fuzzy candidates, only looked up for
+     * the candidates the rarer trigrams found, so a common trigram such as "$th" costs one lookup per candidate.
+     */
+    private static final int MAX_TERMS_PER_TRIGRAM = 1024;
+
+    /**
+     * Upper bound on the postings a query reads for one matched term, highest field weight first, unless the query
+     * asks for more songs than this. A word as common as "love" then costs the same as a rare one.
+     */
+    static final int MAX_POSTINGS_PER_TERM = 1024;
+
+    /**
+     * Term -> the songs it appears in, kept sorted for prefix scans.
+     */
+    private final NavigableMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Trigram -> dictionary terms containing it.
+     */
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    /**
+     * Dictionary term -> number of distinct trigrams in it, so that similarity does not recompute them per query.
+     */
+    private final Map<String, Integer> trigramCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Song ID -> terms indexed for it, so removal does not need the original Song.
+     */
+    private final Map<String, Set<String>> songTerms = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes a song, or re-indexes it if it is indexed already. The terms it carries now are indexed before the terms
+     * it no longer carries are removed, so a concurrent search never misses it under a term it has kept.
+     */
+    void add(Song song) {
+        Map<String, Integer> weights = new HashMap<>();
+        collectTerms(song.getName(), NAME_WEIGHT, weights);
+        collectTerms(song.getArtist(), ARTIST_WEIGHT, weights);
+        collectTerms(song.getAlbumName(), ALBUM_WEIGHT, weights);
+        for (Map.Entry<String, Integer> term : weights.entrySet()) {
+            postingsOf(term.getKey()).put(song.getId(), term.getValue());
+        }
+        Set<String> previous = songTerms.put(song.getId(), new HashSet<>(weights.keySet()));
+        if (previous == null) return;
+        for (String term : previous) {
+            if (!weights.containsKey(term)) removePosting(term, song.getId());
+        }
+    }
+
+    void remove(String songId) {
+        Set<String> terms = songTerms.remove(songId);
+        if (terms == null) return;
+        for (String term : terms) removePosting(term, songId);
+    }
+
+    /**
+     * Ranks songs against the query text. Each query word matches dictionary terms exactly, by prefix or by
+     * trigram similarity; a song scores the best match of every query word, weighted by the field it was found in.
+     * @param text  The query text.
+     * @param limit The maximum number of song IDs to return.
+     * @return The IDs of the best matching songs, most relevant first.
+     */
+    List<String> search(String text, int limit) {
+        Map<String, Double> scores = score(text, limit);
+
+        // Keep the best `limit` songs in a min-heap
+        PriorityQueue<Map.Entry<String, Double>> top = new PriorityQueue<>(
+                Comparator.<Map.Entry<String, Double>>comparingDouble(Map.Entry::getValue)
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            top.add(entry);
+            if (top.size() > limit) top.poll();
+        }
+
+        // The heap yields the least relevant first
+        List<String> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) result.add(top.poll().getKey());
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Scores the candidate songs of a query. Every matched term contributes at most
+     * max(limit, MAX_POSTINGS_PER_TERM) songs, read from its highest field weight down, so the work per query is
+     * bounded by the number of expansions rather than by how many songs share a word. A song cut off one term can
+     * still be scored through the other words of the query.
+     * @return Song ID -> score, for the candidates read.
+     */
+    Map<String, Double> score(String text, int limit) {
+        int postingsPerTerm = Math.max(limit, MAX_POSTINGS_PER_TERM);
+        Map<String, Double> scores = new HashMap<>();
+
+        for (String word : tokenize(text)) {
+            Map<String, Double> wordScores = new HashMap<>();
+            for (Map.Entry<String, Double> match : matchTerms(word).entrySet()) {
+                // A concurrent writer may have dropped the term since it was matched
+                Postings songs = postings.get(match.getKey());
+                if (songs == null) continue;
+                int read = 0;
+                for (int weight = NAME_WEIGHT; weight >= ALBUM_WEIGHT && read < postingsPerTerm; weight--) {
+                    double score = match.getValue() * weight;
+                    for (String songId : songs.withWeight(weight)) {
+                        if (read++ == postingsPerTerm) break;
+                        wordScores.merge(songId, score, Math::max);
+                    }
+                }
+            }
+            wordScores.forEach((songId, score) -> scores.merge(songId, score, Double::sum));
+        }
+        return scores;
+    }
+
+    private Map<String, Double> matchTerms(String word) {
+        Map<String, Double> matches = new HashMap<>();
+
+        if (postings.containsKey(word)) matches.put(word, EXACT_SCORE);
+
+        // Prefix matches from the sorted dictionary
+        for (String term : postings.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+            if (matches.size() >= MAX_EXPANSIONS) break;
+            matches.put(term, PREFIX_SCORE);
+        }
+
+        // Typo-tolerant matches: dictionary terms sharing enough trigrams with the word
+        List<String> wordTrigrams = trigramsOf(word);
+        Map<String, Integer> shared = new HashMap<>();
+        List<Set<String>> commonTrigrams = new ArrayList<>();
+        for (String trigram : wordTrigrams) {
+            Set<String> terms = trigrams.get(trigram);
+            if (terms == null) continue;
+            if (terms.size() > MAX_TERMS_PER_TRIGRAM) {
+                commonTrigrams.add(terms);
+                continue;
+            }
+            for (String term : terms) shared.merge(term, 1, Integer::sum);
+        }
+        if (shared.isEmpty() && !commonTrigrams.isEmpty()) {
+            // Every trigram of the word is common: take a bounded sample of the rarest one as the candidates
+            Set<String> rarest = Collections.min(commonTrigrams, Comparator.comparingInt(Set::size));
+            commonTrigrams.remove(rarest);
+            Iterator<String> sample = rarest.iterator();
+            for (int i = 0; i < MAX_TERMS_PER_TRIGRAM && sample.hasNext(); i++) shared.put(sample.next(), 1);
+        }
+        List<Map.Entry<String, Double>> fuzzy = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String term = entry.getKey();
+            if (matches.containsKey(term)) continue;
+            // A concurrent writer may have dropped the term since its trigrams were read
+            Integer termTrigrams = trigramCounts.get(term);
+            if (termTrigrams == null) continue;
+            int common = entry.getValue();
+            for (Set<String> terms : commonTrigrams) {
+                if (terms.contains(term)) common++;
+            }
+            double similarity = (double) common / (wordTrigrams.size() + termTrigrams - common);
+            if (similarity >= MIN_SIMILARITY) fuzzy.add(new AbstractMap.SimpleEntry<>(term, similarity));
+        }
+        fuzzy.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (Map.Entry<String, Double> entry : fuzzy) {
+            if (matches.size() >= MAX_EXPANSIONS) break;
+            matches.put(entry.getKey(), FUZZY_SCORE * entry.getValue());
+        }
+
+        return matches;
+    }
+
+    private static void collectTerms(String value, int weight, Map<String, Integer> weights) {
+        for (String term : tokenize(value)) weights.merge(term, weight, Math::max);
+    }
+
+    private Postings postingsOf(String term) {
+        Postings songs = postings.get(term);
+        if (songs == null) {
+            songs = new Postings();
+            List<String> termTrigrams = trigramsOf(term);
+            trigramCounts.put(term, termTrigrams.size());
+            postings.put(term, songs);
+            for (String trigram : termTrigrams) {
+                trigrams.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+        return songs;
+    }
+
+    private void removePosting(String term, String songId) {
+        Postings songs = postings.get(term);
+        songs.remove(songId);
+        if (songs.isEmpty()) {
+            postings.remove(term);
+            trigramCounts.remove(term);
+            for (String trigram : trigramsOf(term)) {
+                Set<String> dictionary = trigrams.get(trigram);
+                dictionary.remove(term);
+                if (dictionary.isEmpty()) trigrams.remove(trigram);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String value) {
+        List<String> words = new ArrayList<>();
+        if (value == null) return words;
+        for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}']+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) result.add(padded.substring(i, i + 3));
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * The songs a term appears in, grouped by the highest field weight it has in each, so that a query can read the
+     * best postings first and stop.
+     */
+    private static final class Postings {
+        private final Map<String, Integer> weights = new ConcurrentHashMap<>();
+        private final List<Set<String>> byWeight = new ArrayList<>();
+
+        Postings() {
+            for (int weight = 0; weight <= NAME_WEIGHT; weight++) byWeight.add(ConcurrentHashMap.newKeySet());
+        }
+
+        void put(String songId, int weight) {
+            Integer previous = weights.put(songId, weight);
+            // Added under the new weight before it leaves the old one, so a concurrent query always sees it
+            byWeight.get(weight).add(songId);
+            if (previous != null && previous != weight) byWeight.get(previous).remove(songId);
+        }
+
+        void remove(String songId) {
+            Integer previous = weights.remove(songId);
+            if (previous != null) byWeight.get(previous).remove(songId);
+        }
+
+        boolean isEmpty() {
+            return weights.isEmpty();
+        }
+
+        Set<String> withWeight(int weight) {
+            return byWeight.get(weight);
+        }
+    }
+}
@@ -5,26 +5,21 @@ import com.crio.jukebox.entities.User;
 import java.util.*;
 
 /**
- * UserRepository is an implementation of the IUserRepository interface that uses a Map to store User entities.
+ * UserRepository is an implementation of the IUserRepository interface that stores User entities in an IntIdStore.
  * This class provides CRUD operations for User entities and supports searching by name and ID.
+ * Its methods are synchronized, so commands of different users can use it from parallel threads.
  */
 public class UserRepository implements IUserRepository {
 
     /**
-     * A map to store User entities with their IDs as keys.
+     * A dense store of User entities indexed by their numeric IDs, which also generates new IDs.
      */
-    private final Map<String, User> userMap;
+    private final IntIdStore<User> userStore = new IntIdStore<>();
 
     /**
-     * A counter to generate auto-incremented IDs for new User entities.
-     */
-    private Integer autoIncrement = 0;
-
-    /**
-     * Default constructor to initialize the UserRepository with an empty HashMap.
+     * Default constructor to initialize an empty UserRepository.
      */
     public UserRepository() {
-        userMap = new HashMap<>();
     }
 
     /**
@@ -32,8 +27,7 @@ public class UserRepository implements IUserRepository {
      * @param userMap A map containing User entities with their IDs as keys.
      */
     public UserRepository(Map<String, User> userMap) {
-        this.userMap = userMap;
-        autoIncrement = userMap.size();
+        userMap.values().forEach(this::save);
     }
 
     /**
@@ -41,7 +35,13 @@ public class UserRepository implements IUserRepository {
      * @return The generated ID as a string.
      */
     private String generateId() {
-        return String.valueOf(++autoIncrement);
+        return String.valueOf(userStore.nextId());
+    }
+
+    private static int toIntId(String id) {
+        int intId = IntIdStore.parseId(id);
+        if (intId < 0) throw new IllegalArgumentException("User ID must be a positive integer: " + id);
+        return intId;
     }
 
     /**
@@ -51,14 +51,14 @@ public class UserRepository implements IUserRepository {
      * @return The saved or updated User entity.
      */
     @Override
-    public User save(User entity) {
+    public synchronized User save(User entity) {
         if (entity.getId() != null) {
-            // Update the existing entity in the map.
-            return userMap.put(entity.getId(), entity);
+            // Update the existing entity in the store.
+            return userStore.put(toIntId(entity.getId()), entity);
         } else {
-            // Create a new User entity with a generated ID and save it to the map.
+            // Create a new User entity with a generated ID and save it to the store.
             User newUser = new User(generateId(), entity);
-            userMap.put(newUser.getId(), newUser);
+            userStore.put(toIntId(newUser.getId()), newUser);
             return newUser;
         }
     }
@@ -68,8 +68,8 @@ public class UserRepository implements IUserRepository {
      * @return A list containing all User entities.
      */
     @Override
-    public List<User> findAll() {
-        return new ArrayList<>(userMap.values());
+    public synchronized List<User> findAll() {
+        return userStore.values();
     }
 
     /**
@@ -78,8 +78,18 @@ public class UserRepository implements IUserRepository {
      * @return An Optional containing the retrieved User entity, or an empty Optional if not found.
      */
     @Override
-    public Optional<User> findById(String id) {
-        return Optional.ofNullable(userMap.get(id));
+    public synchronized Optional<User> findById(String id) {
+        return findById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Retrieves a User entity by its numeric ID.
+     * @param id The numeric ID of the User entity to retrieve.
+     * @return An Optional containing the retrieved User entity, or an empty Optional if not found.
+     */
+    @Override
+    public synchronized Optional<User> findById(int id) {
+        return Optional.ofNullable(userStore.get(id));
     }
 
     /**
@@ -88,8 +98,18 @@ public class UserRepository implements IUserRepository {
      * @return True if the User entity exists, false otherwise.
      */
     @Override
-    public boolean existsById(String id) {
-        return userMap.containsKey(id);
+    public synchronized boolean existsById(String id) {
+        return existsById(IntIdStore.parseId(id));
+    }
+
+    /**
+     * Checks if a User entity with the given numeric ID exists in the repository.
+     * @param id The numeric ID of the User entity to check.
+     * @return True if the User entity exists, false otherwise.
+     */
+    @Override
+    public synchronized boolean existsById(int id) {
+        return userStore.contains(id);
     }
 
     /**
@@ -97,10 +117,10 @@ public class UserRepository implements IUserRepository {
      * @param entity The User entity to be deleted.
      */
     @Override
-    public void delete(User entity) {
+    public synchronized void delete(User entity) {
         if (entity.getId() != null) {
-            // Remove the User entity with the specified ID from the map.
-            userMap.remove(entity.getId());
+            // Remove the User entity with the specified ID from the store.
+            deleteById(entity.getId());
         }
     }
 
@@ -109,8 +129,8 @@ public class UserRepository implements IUserRepository {
      * @param id The ID of the User entity to be deleted.
      */
     @Override
-    public void deleteById(String id) {
-        userMap.remove(id);
+    public synchronized void deleteById(String id) {
+        userStore.remove(IntIdStore.parseId(id));
     }
 
     /**
@@ -118,8 +138,8 @@ public class UserRepository implements IUserRepository {
      * @return The number of User entities.
      */
     @Override
-    public long count() {
-        return userMap.size();
+    public synchronized long count() {
+        return userStore.size();
     }
 
     /**
@@ -128,9 +148,27 @@ public class UserRepository implements IUserRepository {
      * @return An Optional containing the first User entity with the matching name, or an empty Optional if not found.
      */
     @Override
-    public Optional<User> findByName(String name) {
-        return userMap.values().stream()
+    public synchronized Optional<User> findByName(String name) {
+        return userStore.values().stream()
                 .filter(user -> user.getName().equals(name))
                 .findFirst();
     }
+
+    /**
+     * Returns the highest ID generated or stored so far.
+     * @return The highest User ID taken, 0 if there is none.
+     */
+    @Override
+    public synchronized int lastAllocatedId() {
+        return userStore.lastId();
+    }
+
+    /**
+     * Makes sure no ID up to the given one is generated for a new User.
+     * @param id The highest ID not to generate.
+     */
+    @Override
+    public synchronized void reserveIdsThrough(int id) {
+        userStore.reserveThrough(id);
+    }
 }
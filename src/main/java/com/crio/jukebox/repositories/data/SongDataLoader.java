@@ -1,21 +1,59 @@
 package com.crio.jukebox.repositories.data;
 
+import com.crio.jukebox.dtos.CatalogReloadDto;
 import com.crio.jukebox.entities.Song;
 import com.crio.jukebox.repositories.ISongRepository;
 import com.crio.jukebox.repositories.data.strategies.IParsingStrategy;
 import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class SongDataLoader {
 
+    /**
+     * Number of CSV records handed to a parser thread at a time in streaming mode.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
     private final ISongRepository songRepository;
 
     private IParsingStrategy<Song> strategy;
 
+    // Held while songs are written, so that readers on other threads can wait out a load
+    private final Lock catalogWriteLock;
+
     public SongDataLoader(ISongRepository songRepository, IParsingStrategy<Song> strategy) {
+        this(songRepository, strategy, new ReentrantReadWriteLock().writeLock());
+    }
+
+    /**
+     * @param catalogWriteLock The write side of the catalog lock, held around every write to songRepository.
+     */
+    public SongDataLoader(ISongRepository songRepository, IParsingStrategy<Song> strategy, Lock catalogWriteLock) {
         this.songRepository = songRepository;
         this.strategy = strategy;
+        this.catalogWriteLock = catalogWriteLock;
     }
 
     public void changeStrategy(IParsingStrategy<Song> strategy) {
@@ -23,7 +61,343 @@ public class SongDataLoader {
     }
 
     public void loadData(String filePath) {
-        List<Song> execute = strategy.execute(filePath);
-        execute.forEach(songRepository::save);
+        // Binary snapshots are recognised by their header and bulk-loaded instead of parsed
+        if (SongSnapshot.isSnapshot(filePath)) {
+            loadSnapshot(filePath);
+            return;
+        }
+        List<Song> execute;
+        try {
+            execute = strategy.execute(filePath);
+        } catch (UncheckedIOException e) {
+            System.out.println("Songs are not loaded to Songs Repository");
+            System.out.println("Error loading data from file: " + filePath);
+            return;
+        }
+        catalogWriteLock.lock();
+        try {
+            execute.forEach(songRepository::save);
+        } finally {
+            catalogWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the catalog from the given file, applying only what changed since the songs in the repository
+     * were loaded. Songs are matched on their natural key (name, album and artist): new keys are inserted,
+     * keys whose genre or featured artists differ are updated in place and keep their IDs, and keys missing
+     * from the file are deleted. Unchanged songs are not written at all. Songs sharing a key are matched in order,
+     * the n-th row with a key against the song with the n-th lowest ID, so rows added with a key already in the
+     * catalog are inserted and songs whose key now appears in fewer rows are deleted.
+     * The whole file is read before the repository is touched, so a file that cannot be read changes nothing.
+     * Each row is looked up in the repository's natural key index, so matching costs O(rows); only a reload that
+     * deletes songs goes through the catalog to find them.
+     *
+     * @param filePath The path of the CSV or snapshot file holding the full catalog.
+     * @return The number of songs inserted, updated, deleted and left unchanged.
+     * @throws IOException If the file cannot be read.
+     */
+    public CatalogReloadDto reloadData(String filePath) throws IOException {
+
+        List<Song> incoming;
+        if (SongSnapshot.isSnapshot(filePath)) {
+            incoming = SongSnapshot.read(filePath, songRepository.getSymbolTable());
+        } else {
+            try {
+                incoming = strategy.execute(filePath);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        catalogWriteLock.lock();
+        try {
+            return applyReload(incoming);
+        } finally {
+            catalogWriteLock.unlock();
+        }
+    }
+
+    private CatalogReloadDto applyReload(List<Song> incoming) {
+        long existing = songRepository.count();
+        // IDs of the songs matched or inserted so far; each song is matched at most once
+        Set<String> matched = new HashSet<>();
+        long inserted = 0, updated = 0, unchanged = 0;
+
+        for (Song song : incoming) {
+            Song match = null;
+            for (Song candidate : songRepository.findByNaturalKey(song.getName(), song.getAlbumName(), song.getArtist())) {
+                if (!matched.contains(candidate.getId())) {
+                    match = candidate;
+                    break;
+                }
+            }
+            if (match == null) {
+                matched.add(songRepository.save(new Song(null, song)).getId());
+                inserted++;
+            } else if (sameContent(match, song)) {
+                matched.add(match.getId());
+                unchanged++;
+            } else {
+                matched.add(match.getId());
+                songRepository.save(new Song(match.getId(), song));
+                updated++;
+            }
+        }
+
+        // Only a reload that leaves songs unmatched has to look through the catalog for them
+        long deleted = existing - (matched.size() - inserted);
+        if (deleted > 0) {
+            for (Song song : songRepository.findAll()) {
+                if (!matched.contains(song.getId())) songRepository.deleteById(song.getId());
+            }
+        }
+
+        return new CatalogReloadDto(inserted, updated, deleted, unchanged);
+    }
+
+    // Interned attributes are the same instance, which String.equals checks first
+    private static boolean sameContent(Song a, Song b) {
+        return Objects.equals(a.getGenre(), b.getGenre())
+                && Arrays.equals(a.getFeaturedArtists(), b.getFeaturedArtists());
+    }
+
+    /**
+     * Restores songs from a binary snapshot written by {@link #saveSnapshot(String)}, keeping their IDs.
+     * A snapshot is a whole catalog, so it is rejected without loading anything if any of its IDs is already in the
+     * repository; use reloadData to apply a snapshot over a loaded catalog.
+     * @param filePath The path of the snapshot file.
+     * @return The number of songs restored.
+     */
+    public long loadSnapshot(String filePath) {
+        List<Song> songs;
+        try {
+            songs = SongSnapshot.read(filePath, songRepository.getSymbolTable());
+        } catch (IOException e) {
+            System.out.println("Songs are not loaded to Songs Repository");
+            System.out.println("Error loading data from file: " + filePath);
+            return 0;
+        }
+        catalogWriteLock.lock();
+        try {
+            for (Song song : songs) {
+                if (songRepository.existsById(song.getId())) {
+                    System.out.println("Songs are not loaded to Songs Repository");
+                    System.out.println("Song for given ID: " + song.getId() + " is already loaded");
+                    return 0;
+                }
+            }
+            songs.forEach(songRepository::save);
+        } finally {
+            catalogWriteLock.unlock();
+        }
+        return songs.size();
+    }
+
+    /**
+     * Writes the songs currently in the repository to a binary snapshot.
+     * @param filePath The path of the snapshot file to create.
+     * @return The number of songs written.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public long saveSnapshot(String filePath) throws IOException {
+        return SongSnapshot.write(songRepository, filePath);
+    }
+
+    /**
+     * Streams the given file into the repository without materialising the whole catalog.
+     * Records are read in chunks, parsed in parallel and saved in file order, so generated song IDs
+     * match the ones {@link #loadData(String)} would assign. At most two chunks per parser thread
+     * are in flight; the reader blocks on the oldest chunk once that bound is reached.
+     * A record is one line, unless the strategy's records can span lines; then a line break inside a quoted
+     * field continues the record.
+     * If a record cannot be parsed, the songs of the records before it are kept and nothing after it is saved.
+     *
+     * @param filePath    The path of the file containing the song data.
+     * @param parallelism The number of parser threads.
+     * @param chunkSize   The number of records per parsed and saved batch.
+     * @return The number of songs saved to the repository.
+     * @throws IOException If the file cannot be read, or a record cannot be parsed; the message names its line.
+     */
+    public long loadDataStreaming(String filePath, int parallelism, int chunkSize) throws IOException {
+
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be provided");
+        }
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+
+        IParsingStrategy<Song> parser = this.strategy;
+        int maxInFlight = parallelism * 2;
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>(maxInFlight);
+        ExecutorService parserPool = Executors.newFixedThreadPool(parallelism);
+        long saved = 0;
+
+        try (RecordReader reader = new RecordReader(new FileReader(filePath), parser.recordsSpanLines())) {
+
+            Chunk chunk = new Chunk(chunkSize);
+            String record;
+            while ((record = reader.readRecord()) != null) {
+                chunk.add(record, reader.recordLine());
+                if (chunk.size() == chunkSize) {
+                    // Back-pressure: drain the oldest chunk before reading further
+                    if (inFlight.size() == maxInFlight) saved += saveBatch(inFlight.poll(), filePath);
+                    inFlight.add(parserPool.submit(parseChunk(parser, chunk)));
+                    chunk = new Chunk(chunkSize);
+                }
+            }
+            if (chunk.size() > 0) inFlight.add(parserPool.submit(parseChunk(parser, chunk)));
+
+            while (!inFlight.isEmpty()) saved += saveBatch(inFlight.poll(), filePath);
+
+        } finally {
+            parserPool.shutdownNow();
+        }
+
+        return saved;
+    }
+
+    private static Callable<ParsedChunk> parseChunk(IParsingStrategy<Song> parser, Chunk chunk) {
+        return () -> {
+            ParsedChunk parsed = new ParsedChunk(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    parsed.songs.add(parser.parseRecord(chunk.records.get(i)));
+                } catch (RuntimeException e) {
+                    // The songs before the bad record are still saved, in order
+                    parsed.failedLine = chunk.lines[i];
+                    parsed.failure = e;
+                    break;
+                }
+            }
+            return parsed;
+        };
+    }
+
+    private long saveBatch(Future<ParsedChunk> batch, String filePath) throws IOException {
+        ParsedChunk parsed;
+        try {
+            parsed = batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading songs from file: " + filePath);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse songs from file: " + filePath, e.getCause());
+        }
+        catalogWriteLock.lock();
+        try {
+            parsed.songs.forEach(songRepository::save);
+        } finally {
+            catalogWriteLock.unlock();
+        }
+        if (parsed.failure != null) {
+            throw new IOException("Song record at line " + parsed.failedLine + " of file: " + filePath
+                    + " could not be parsed: " + parsed.failure.getMessage(), parsed.failure);
+        }
+        return parsed.songs.size();
+    }
+
+    /**
+     * Records read for one parser task, with the line each record starts on.
+     */
+    private static final class Chunk {
+        private final List<String> records;
+        private final int[] lines;
+
+        Chunk(int capacity) {
+            records = new ArrayList<>(capacity);
+            lines = new int[capacity];
+        }
+
+        void add(String record, int line) {
+            lines[records.size()] = line;
+            records.add(record);
+        }
+
+        int size() {
+            return records.size();
+        }
+    }
+
+    private static final class ParsedChunk {
+        private final List<Song> songs;
+        private int failedLine;
+        private RuntimeException failure;
+
+        ParsedChunk(int capacity) {
+            songs = new ArrayList<>(capacity);
+        }
+    }
+
+    /**
+     * Reads a file one record at a time. Without spanning records a record is a line; with them, line breaks inside
+     * double quotes belong to the record and are kept as they are in the file.
+     */
+    private static final class RecordReader implements Closeable {
+        private final BufferedReader reader;
+        private final boolean recordsSpanLines;
+        private final StringBuilder record = new StringBuilder();
+        private int nextLine = 1;
+        private int recordLine;
+
+        RecordReader(Reader reader, boolean recordsSpanLines) {
+            this.reader = new BufferedReader(reader);
+            this.recordsSpanLines = recordsSpanLines;
+        }
+
+        /**
+         * Returns the next record without its terminator, or null at the end of the file.
+         */
+        String readRecord() throws IOException {
+            recordLine = nextLine;
+            if (!recordsSpanLines) {
+                String line = reader.readLine();
+                if (line != null) nextLine++;
+                return line;
+            }
+
+            // Blank lines are skipped, as the strategy's own execute does
+            String next;
+            do {
+                recordLine = nextLine;
+                next = readQuotedRecord();
+            } while (next != null && next.isEmpty());
+            return next;
+        }
+
+        private String readQuotedRecord() throws IOException {
+            record.setLength(0);
+            boolean quoted = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\n') {
+                    nextLine++;
+                    if (!quoted) return withoutCarriageReturn();
+                }
+                record.append((char) c);
+            }
+            return record.length() == 0 ? null : withoutCarriageReturn();
+        }
+
+        private String withoutCarriageReturn() {
+            int length = record.length();
+            if (length > 0 && record.charAt(length - 1) == '\r') record.setLength(length - 1);
+            return record.toString();
+        }
+
+        /**
+         * Returns the line the last record read starts on, counting from 1.
+         */
+        int recordLine() {
+            return recordLine;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
     }
 }
@@ -0,0 +1,218 @@
+package com.crio.jukebox.repositories.data;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+import com.crio.jukebox.repositories.ISongRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * SongSnapshot defines a compact binary image of the song catalog and reads and writes it.
+ * The layout is:
+ * <pre>
+ *   int    MAGIC, int VERSION
+ *   int    symbol count, then each symbol as (int length, UTF-8 bytes)
+ *   int    song count, then each song as
+ *          (string id, string name, int genre, int album, int artist, int featured count, int[] featured)
+ *   long   CRC32 of every preceding byte
+ * </pre>
+ * Attribute codes refer to the symbol section, which holds only the strings the written songs use, numbered in
+ * the order they are first used.
+ */
+public final class SongSnapshot {
+
+    public static final int MAGIC = 0x4A42534E; // "JBSN"
+    public static final int VERSION = 1;
+
+    // Symbol code written for a null attribute
+    private static final int NULL_SYMBOL = -1;
+
+    private SongSnapshot() {
+    }
+
+    /**
+     * Checks whether the given file starts with the snapshot magic number.
+     * @param filePath The path of the file to check.
+     * @return True if the file is a song snapshot, false otherwise or if it cannot be read.
+     */
+    public static boolean isSnapshot(String filePath) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(filePath))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes every song of the repository, together with the strings they use, to the given file.
+     * @param songRepository The repository to snapshot.
+     * @param filePath       The path of the snapshot file to create.
+     * @return The number of songs written.
+     * @throws IOException If the file cannot be written.
+     */
+    public static long write(ISongRepository songRepository, String filePath) throws IOException {
+
+        List<Song> songs = songRepository.findAll();
+
+        // Number the symbols the songs use densely, so symbols no stored song refers to are not written
+        Map<String, Integer> localCodes = new HashMap<>();
+        List<String> usedSymbols = new ArrayList<>();
+        for (Song song : songs) {
+            useSymbol(song.getGenre(), localCodes, usedSymbols);
+            useSymbol(song.getAlbumName(), localCodes, usedSymbols);
+            useSymbol(song.getArtist(), localCodes, usedSymbols);
+            String[] featured = song.getFeaturedArtists();
+            if (featured != null) {
+                for (String artist : featured) useSymbol(artist, localCodes, usedSymbols);
+            }
+        }
+
+        CRC32 checksum = new CRC32();
+
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(new FileOutputStream(filePath), 1 << 16), checksum))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(usedSymbols.size());
+            for (String symbol : usedSymbols) writeString(out, symbol);
+
+            out.writeInt(songs.size());
+            for (Song song : songs) {
+                writeString(out, song.getId());
+                writeString(out, song.getName());
+                out.writeInt(localCode(song.getGenre(), localCodes));
+                out.writeInt(localCode(song.getAlbumName(), localCodes));
+                out.writeInt(localCode(song.getArtist(), localCodes));
+                String[] featured = song.getFeaturedArtists();
+                if (featured == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(featured.length);
+                    for (String artist : featured) out.writeInt(localCode(artist, localCodes));
+                }
+            }
+
+            // The checksum is captured before the trailer itself goes through the checked stream
+            out.writeLong(checksum.getValue());
+        }
+
+        return songs.size();
+    }
+
+    /**
+     * Reads every song of the given snapshot file. The symbols of the snapshot are interned into the given
+     * SymbolTable, so the songs share their attribute Strings with the songs that are already present.
+     * @param filePath The path of the snapshot file.
+     * @param symbols  The SymbolTable of the catalog the songs are read into.
+     * @return The songs of the snapshot, with their original IDs.
+     * @throws IOException If the file cannot be read, has an unknown version or fails its checksum.
+     */
+    public static List<Song> read(String filePath, SymbolTable symbols) throws IOException {
+
+        CRC32 checksum = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(filePath), 1 << 16), checksum))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a song snapshot: " + filePath);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported song snapshot version " + version + ", expected " + VERSION);
+            }
+
+            // Counts and lengths are checked against the file size before anything is allocated for them, so a
+            // corrupt count fails like a bad checksum instead of exhausting memory
+            long fileSize = new File(filePath).length();
+
+            int symbolCount = readCount(in, fileSize);
+            String[] symbolValues = new String[symbolCount];
+            for (int code = 0; code < symbolCount; code++) {
+                symbolValues[code] = symbols.intern(readString(in, fileSize));
+            }
+
+            int songCount = readCount(in, fileSize);
+            List<Song> songs = new ArrayList<>(songCount);
+            for (int i = 0; i < songCount; i++) {
+                String id = readString(in, fileSize);
+                String name = readString(in, fileSize);
+                String genre = symbol(symbolValues, in.readInt());
+                String album = symbol(symbolValues, in.readInt());
+                String artist = symbol(symbolValues, in.readInt());
+                int featuredCount = in.readInt();
+                String[] featured = null;
+                if (featuredCount > fileSize) throw new IOException("Song snapshot is corrupt: " + filePath);
+                if (featuredCount >= 0) {
+                    featured = new String[featuredCount];
+                    for (int j = 0; j < featuredCount; j++) featured[j] = symbol(symbolValues, in.readInt());
+                }
+                songs.add(new Song(id, name, genre, album, artist, featured));
+            }
+
+            long expected = checksum.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Song snapshot checksum mismatch: " + filePath);
+            }
+            return songs;
+        }
+    }
+
+    private static void useSymbol(String symbol, Map<String, Integer> localCodes, List<String> usedSymbols) {
+        if (symbol == null || localCodes.containsKey(symbol)) return;
+        localCodes.put(symbol, usedSymbols.size());
+        usedSymbols.add(symbol);
+    }
+
+    private static int localCode(String symbol, Map<String, Integer> localCodes) {
+        return symbol == null ? NULL_SYMBOL : localCodes.get(symbol);
+    }
+
+    private static String symbol(String[] symbolValues, int code) throws IOException {
+        if (code == NULL_SYMBOL) return null;
+        if (code < 0 || code >= symbolValues.length) throw new IOException("Song snapshot refers to unknown symbol " + code);
+        return symbolValues[code];
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int readCount(DataInputStream in, long fileSize) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > fileSize) throw new IOException("Song snapshot is corrupt: count " + count);
+        return count;
+    }
+
+    private static String readString(DataInputStream in, long fileSize) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        if (length > fileSize) throw new IOException("Song snapshot is corrupt: string length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
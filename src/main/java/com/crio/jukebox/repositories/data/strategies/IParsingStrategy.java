@@ -3,5 +3,20 @@ package com.crio.jukebox.repositories.data.strategies;
 import java.util.List;
 
 public interface IParsingStrategy <T> {
+    /**
+     * Parses every record of the file.
+     * @throws java.io.UncheckedIOException If the file cannot be read; nothing is returned in that case.
+     */
     List<T> execute(String filePath);
+
+    T parseRecord(String record);
+
+    /**
+     * Tells whether a record can span several lines, as a quoted RFC-4180 field can contain line breaks.
+     * Readers that split the file into records for parseRecord only end a record at a line break outside quotes
+     * when this is true; otherwise every line is one record.
+     */
+    default boolean recordsSpanLines() {
+        return false;
+    }
 }
@@ -1,11 +1,12 @@
 package com.crio.jukebox.repositories.data.strategies;
 
 import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,16 +16,21 @@ import java.util.stream.Collectors;
  */
 public class SongFromCsvStrategy implements IParsingStrategy<Song> {
 
+    private final SymbolTable symbols;
+
     /**
-     * A list to store the newly parsed Song entities.
+     * Constructs a new SongFromCsvStrategy that interns into a SymbolTable of its own.
      */
-    private final List<Song> newSongList;
+    public SongFromCsvStrategy() {
+        this(new SymbolTable());
+    }
 
     /**
-     * Constructs a new SongFromCsvStrategy object with an empty list of songs.
+     * Constructs a new SongFromCsvStrategy.
+     * @param symbols The SymbolTable of the catalog the songs are read into.
      */
-    public SongFromCsvStrategy() {
-        newSongList = new ArrayList<>();
+    public SongFromCsvStrategy(SymbolTable symbols) {
+        this.symbols = symbols;
     }
 
     /**
@@ -32,6 +38,7 @@ public class SongFromCsvStrategy implements IParsingStrategy<Song> {
      * @param filePath The path of the CSV file containing the song data.
      * @return A list of Song entities parsed from the CSV file.
      * @throws IllegalArgumentException If the file path is null.
+     * @throws UncheckedIOException     If the file cannot be read, so a missing file is not taken for an empty one.
      */
     @Override
     public List<Song> execute(String filePath) {
@@ -42,19 +49,24 @@ public class SongFromCsvStrategy implements IParsingStrategy<Song> {
 
         try (BufferedReader bufferedReader = new BufferedReader(new FileReader(filePath))) {
 
-            String delimiter = ",";
-
             return bufferedReader.lines()
-                    .map(line -> line.split(delimiter))
-                    .map(this::csvToSong)
+                    .map(this::parseRecord)
                     .collect(Collectors.toList());
 
         } catch (IOException e) {
-            System.out.println("Songs are not loaded to Songs Repository");
-            System.out.println("Error loading data from file: " + filePath);
+            throw new UncheckedIOException("Error loading data from file: " + filePath, e);
         }
+    }
+
 
-        return newSongList;
+    /**
+     * Parses a single CSV line into a Song entity.
+     * @param record The CSV line representing one song.
+     * @return The Song entity created from the CSV line.
+     */
+    @Override
+    public Song parseRecord(String record) {
+        return csvToSong(record.split(","));
     }
 
 
@@ -69,6 +81,6 @@ public class SongFromCsvStrategy implements IParsingStrategy<Song> {
         String albumName = tokens[2];
         String artist = tokens[3];
         String[] featuredArtists = tokens[4].split("#");
-        return new Song(name, genre, albumName, artist, featuredArtists);
+        return new Song(name, genre, albumName, artist, featuredArtists, symbols);
     }
 }
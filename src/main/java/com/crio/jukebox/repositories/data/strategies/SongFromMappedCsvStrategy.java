@@ -0,0 +1,289 @@
+package com.crio.jukebox.repositories.data.strategies;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SongFromMappedCsvStrategy is an implementation of the IParsingStrategy interface that memory-maps the CSV file
+ * and scans its bytes directly for field and record boundaries. Only the final field values become Strings.
+ * Fields follow RFC-4180: a field may be wrapped in double quotes, in which case it can contain commas, line breaks
+ * and doubled quotes ("") standing for a literal quote.
+ */
+public class SongFromMappedCsvStrategy implements IParsingStrategy<Song> {
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte FEATURED_SEPARATOR = '#';
+    private static final int FIELD_COUNT = 5;
+
+    /**
+     * Size of each mapped region of the file. A record spanning two regions is re-read from the next one.
+     */
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final int windowSize;
+    private final SymbolTable symbols;
+
+    /**
+     * Constructs a new SongFromMappedCsvStrategy that maps the file in 64 MB regions and interns into a table of its own.
+     */
+    public SongFromMappedCsvStrategy() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Constructs a new SongFromMappedCsvStrategy that maps the file in 64 MB regions.
+     * @param symbols The SymbolTable of the catalog the songs are read into.
+     */
+    public SongFromMappedCsvStrategy(SymbolTable symbols) {
+        this(DEFAULT_WINDOW_SIZE, symbols);
+    }
+
+    /**
+     * Constructs a new SongFromMappedCsvStrategy that maps the file in regions of the given size and interns into a
+     * table of its own.
+     * @param windowSize The number of bytes mapped at a time.
+     */
+    public SongFromMappedCsvStrategy(int windowSize) {
+        this(windowSize, new SymbolTable());
+    }
+
+    /**
+     * Constructs a new SongFromMappedCsvStrategy that maps the file in regions of the given size.
+     * @param windowSize The number of bytes mapped at a time.
+     * @param symbols    The SymbolTable of the catalog the songs are read into.
+     */
+    public SongFromMappedCsvStrategy(int windowSize, SymbolTable symbols) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.windowSize = windowSize;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Parses song data from the specified CSV file and converts it into a list of Song entities.
+     * @param filePath The path of the CSV file containing the song data.
+     * @return A list of Song entities parsed from the CSV file.
+     * @throws IllegalArgumentException If the file path is null or a record is malformed.
+     * @throws UncheckedIOException     If the file cannot be read.
+     */
+    @Override
+    public List<Song> execute(String filePath) {
+
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be provided");
+        }
+
+        List<Song> songs = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+
+            RecordScanner scanner = new RecordScanner(symbols);
+            long size = channel.size();
+            long position = 0;
+            int window = windowSize;
+
+            while (position < size) {
+                int length = (int) Math.min(window, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int consumed = scanner.scanWindow(buffer, lastWindow, songs);
+                if (consumed == 0) {
+                    // A single record is larger than the window; widen it and map again
+                    window = (int) Math.min((long) window * 2, Integer.MAX_VALUE);
+                    continue;
+                }
+                position += consumed;
+                window = windowSize;
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading data from file: " + filePath, e);
+        }
+
+        return songs;
+    }
+
+    /**
+     * Parses a single CSV record into a Song entity.
+     * @param record The CSV record representing one song.
+     * @return The Song entity created from the CSV record.
+     */
+    @Override
+    public Song parseRecord(String record) {
+        List<Song> songs = new ArrayList<>(1);
+        new RecordScanner(symbols).scanWindow(ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8)), true, songs);
+        if (songs.isEmpty()) {
+            throw new IllegalArgumentException("Empty song record");
+        }
+        return songs.get(0);
+    }
+
+
+    @Override
+    public boolean recordsSpanLines() {
+        return true;
+    }
+
+
+    /**
+     * Scans records out of a byte window. Holds the reusable field buffer, so one instance is used per thread.
+     */
+    private static final class RecordScanner {
+
+        private final SymbolTable symbols;
+
+        private byte[] scratch = new byte[256];
+        private int scratchLength;
+
+        private final String[] fields = new String[FIELD_COUNT - 1];
+        private String[] featuredArtists;
+
+        RecordScanner(SymbolTable symbols) {
+            this.symbols = symbols;
+        }
+
+        /**
+         * Parses every complete record in the buffer.
+         * @param buffer     The bytes to scan, from index 0 to the buffer limit.
+         * @param lastWindow Whether the buffer ends at the end of the input.
+         * @param out        The list the parsed songs are appended to.
+         * @return The number of bytes consumed, which ends on a record boundary.
+         */
+        int scanWindow(ByteBuffer buffer, boolean lastWindow, List<Song> out) {
+            int position = 0;
+            int limit = buffer.limit();
+            while (position < limit) {
+                int next = scanRecord(buffer, position, limit, lastWindow, out);
+                if (next < 0) break;
+                position = next;
+            }
+            return position;
+        }
+
+        /**
+         * Parses one record starting at the given position.
+         * @return The position after the record terminator, or -1 if the record continues past the window.
+         */
+        private int scanRecord(ByteBuffer buffer, int start, int limit, boolean lastWindow, List<Song> out) {
+            int position = start;
+            int fieldIndex = 0;
+            featuredArtists = null;
+
+            while (true) {
+                scratchLength = 0;
+
+                if (position < limit && buffer.get(position) == QUOTE) {
+                    // Quoted field: copy until the closing quote, collapsing "" into "
+                    position++;
+                    while (true) {
+                        if (position >= limit) {
+                            if (lastWindow) throw new IllegalArgumentException("Unterminated quoted field at byte " + start);
+                            return -1;
+                        }
+                        byte b = buffer.get(position);
+                        if (b == QUOTE) {
+                            if (position + 1 >= limit && !lastWindow) return -1;
+                            if (position + 1 < limit && buffer.get(position + 1) == QUOTE) {
+                                append(QUOTE);
+                                position += 2;
+                                continue;
+                            }
+                            position++;
+                            break;
+                        }
+                        append(b);
+                        position++;
+                    }
+                } else {
+                    while (position < limit) {
+                        byte b = buffer.get(position);
+                        if (b == COMMA || b == LF || b == CR) break;
+                        append(b);
+                        position++;
+                    }
+                    if (position >= limit && !lastWindow) return -1;
+                }
+
+                storeField(fieldIndex++);
+
+                if (position >= limit) break;
+                byte delimiter = buffer.get(position);
+                if (delimiter == COMMA) {
+                    position++;
+                    continue;
+                }
+                if (delimiter == CR) {
+                    position++;
+                    if (position >= limit && !lastWindow) return -1;
+                    if (position < limit && buffer.get(position) == LF) position++;
+                } else if (delimiter == LF) {
+                    position++;
+                } else {
+                    throw new IllegalArgumentException("Unexpected character after quoted field at byte " + position);
+                }
+                break;
+            }
+
+            // Blank lines carry a single empty field and are skipped
+            if (fieldIndex == 1 && fields[0].isEmpty()) return position;
+
+            if (fieldIndex < FIELD_COUNT) {
+                throw new IllegalArgumentException("Song record at byte " + start + " has " + fieldIndex
+                        + " fields, expected " + FIELD_COUNT);
+            }
+
+            out.add(new Song(fields[0], fields[1], fields[2], fields[3], featuredArtists, symbols));
+            return position;
+        }
+
+        private void storeField(int fieldIndex) {
+            if (fieldIndex < FIELD_COUNT - 1) {
+                fields[fieldIndex] = new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+            } else if (fieldIndex == FIELD_COUNT - 1) {
+                featuredArtists = splitFeaturedArtists();
+            }
+        }
+
+        /**
+         * Splits the featured artists field on '#' directly from the field bytes.
+         */
+        private String[] splitFeaturedArtists() {
+            int count = 1;
+            for (int i = 0; i < scratchLength; i++) {
+                if (scratch[i] == FEATURED_SEPARATOR) count++;
+            }
+            String[] artists = new String[count];
+            int from = 0;
+            int index = 0;
+            for (int i = 0; i <= scratchLength; i++) {
+                if (i == scratchLength || scratch[i] == FEATURED_SEPARATOR) {
+                    artists[index++] = new String(scratch, from, i - from, StandardCharsets.UTF_8);
+                    from = i + 1;
+                }
+            }
+            return artists;
+        }
+
+        private void append(byte b) {
+            if (scratchLength == scratch.length) scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            scratch[scratchLength++] = b;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.crio.jukebox.repositories.log;
+
+import com.crio.jukebox.entities.ListeningHistory;
+import com.crio.jukebox.entities.ModificationAction;
+import com.crio.jukebox.entities.PlaybackMode;
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.IPlaylistRepository;
+import com.crio.jukebox.repositories.IUserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MutationLog records every save and delete of users and playlists in a WriteAheadLog, and replays the log to
+ * rebuild them after a restart.
+ * A created or saved playlist is logged with its songs and version; a playlist changed by a batch is logged as the
+ * operations that changed it, so the record does not grow with the playlist. A saved user is logged with its playback state and only the plays added
+ * to its listening history since it was last logged; its playlists are not logged with it, as they are rebuilt from
+ * the playlist records of their creator. The active song is logged once as a song record and referred to by number
+ * afterwards, so users can be recovered before the song catalog is loaded. The shuffled order of a session is not
+ * logged; a recovered user in shuffle mode starts a new order on the next NEXT or BACK.
+ * Nothing is logged until the log is opened, so the repositories can be filled by replay without logging again.
+ * The log grows with every mutation, not with the users and playlists that are left. A checkpoint rewrites it as one
+ * record per live playlist and user, preceded by the ID counters so deleted IDs are still not handed out again, and
+ * replaces the old file in one rename; open does so once the file is over a given size.
+ * Recording a mutation does not wait for the disk; it returns the record's sequence number, and a caller that must
+ * not go on before the mutation is durable passes it to awaitDurable once it has released its locks, so mutations
+ * made meanwhile by other threads share the same fsync.
+ */
+public class MutationLog {
+
+    private static final byte SONG = 1;
+    private static final byte USER_SAVED = 2;
+    private static final byte USER_DELETED = 3;
+    private static final byte PLAYLIST_SAVED = 4;
+    private static final byte PLAYLIST_DELETED = 5;
+    private static final byte PLAYLIST_MODIFIED = 6;
+    private static final byte ID_COUNTERS = 7;
+
+    // A checkpoint is written once and synced on close, so its records need not wait for the disk
+    private static final long CHECKPOINT_SYNC_INTERVAL_MILLIS = 1000;
+    private static final int CHECKPOINT_SYNC_EVERY_RECORDS = 1 << 16;
+
+    // Songs recovered from the log are interned into the catalog's table
+    private final SymbolTable symbols;
+
+    private volatile WriteAheadLog log;
+    // Set by open, for checkpoints
+    private Path path;
+    private long syncIntervalMillis;
+    private int syncEveryRecords;
+    private IUserRepository userRepository;
+    private IPlaylistRepository playlistRepository;
+    // Whether every mutation waits until it is durable, rather than being synced within the sync interval
+    private volatile boolean syncEveryMutation;
+
+    // Guarded by this
+    private final RecordBuffer buffer = new RecordBuffer();
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    // Number of each song already logged; songs are compared by identity, as a reloaded song is a new instance
+    private final Map<Song, Integer> songNumbers = new IdentityHashMap<>();
+    // Song records are numbered across the whole file, so numbering continues after the replayed ones
+    private int nextSongNumber;
+    // Plays of each user's listening history already logged
+    private final Map<String, Long> loggedPlays = new HashMap<>();
+
+    /**
+     * Constructs a MutationLog that interns recovered songs into a SymbolTable of its own.
+     */
+    public MutationLog() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Constructs a MutationLog.
+     * @param symbols The SymbolTable of the catalog that recovered songs are interned into.
+     */
+    public MutationLog(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Rebuilds users and playlists from the log file, then appends every later save and delete to it.
+     * @param path               The log file.
+     * @param syncIntervalMillis The longest a record waits before it is synced; 0 syncs every record before returning.
+     * @param syncEveryRecords   The number of records synced together without waiting longer.
+     * @param userRepository     The repository recovered users are saved to.
+     * @param playlistRepository The repository recovered playlists are saved to.
+     * @return The number of records replayed.
+     */
+    public long open(Path path, long syncIntervalMillis, int syncEveryRecords,
+            IUserRepository userRepository, IPlaylistRepository playlistRepository) throws IOException {
+        return open(path, syncIntervalMillis, syncEveryRecords, Long.MAX_VALUE, userRepository, playlistRepository);
+    }
+
+    /**
+     * Rebuilds users and playlists from the log file, checkpoints it if it has grown over the given size, then appends
+     * every later save and delete to it.
+     * @param path               The log file.
+     * @param syncIntervalMillis The longest a record waits before it is synced; 0 syncs every record before returning.
+     * @param syncEveryRecords   The number of records synced together without waiting longer.
+     * @param checkpointAtBytes  The file size above which the recovered users and playlists are checkpointed.
+     * @param userRepository     The repository recovered users are saved to.
+     * @param playlistRepository The repository recovered playlists are saved to.
+     * @return The number of records replayed.
+     */
+    public synchronized long open(Path path, long syncIntervalMillis, int syncEveryRecords, long checkpointAtBytes,
+            IUserRepository userRepository, IPlaylistRepository playlistRepository) throws IOException {
+        if (log != null) throw new IllegalStateException("Mutation log is already open");
+        Replay replay = new Replay(userRepository, playlistRepository, symbols);
+        long records = WriteAheadLog.replay(path, replay::apply);
+        // The replayed songs are new instances, so songs are logged again the first time they are used
+        nextSongNumber = replay.songs.size();
+        for (User user : userRepository.findAll()) {
+            loggedPlays.put(user.getId(), user.getListeningHistory().recordedCount());
+        }
+        this.path = path;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncEveryRecords = syncEveryRecords;
+        this.userRepository = userRepository;
+        this.playlistRepository = playlistRepository;
+        // Nothing else uses the repositories yet, so the recovered state can be checkpointed as it is
+        if (Files.exists(path) && Files.size(path) > checkpointAtBytes) rewrite();
+        log = new WriteAheadLog(path, syncIntervalMillis, syncEveryRecords);
+        syncEveryMutation = syncIntervalMillis == 0;
+        return records;
+    }
+
+    /**
+     * Replaces the log with the records of the users and playlists as they are now, which replay to the same state.
+     * No user or playlist may be changed meanwhile: a change made before this but logged after it would be in the
+     * checkpoint and applied again on replay. If the checkpoint cannot be written, the log is left as it was.
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (log == null) throw new IllegalStateException("Mutation log is not open");
+        WriteAheadLog current = log;
+        log = null;
+        try {
+            current.close();
+            rewrite();
+        } finally {
+            log = new WriteAheadLog(path, syncIntervalMillis, syncEveryRecords);
+        }
+    }
+
+    /**
+     * Blocks until a logged mutation is durable, if the log syncs every mutation; otherwise it is synced within the
+     * sync interval and this returns at once. Callers must not hold a lock that other mutations wait for.
+     * @param sequence The number returned when the mutation was logged; 0 if it was not logged.
+     */
+    public void awaitDurable(long sequence) {
+        WriteAheadLog current = log;
+        // A closed log has already made every record durable
+        if (sequence == 0 || current == null || !syncEveryMutation) return;
+        current.awaitDurable(sequence);
+    }
+
+    /**
+     * Blocks until every mutation logged so far is durable.
+     */
+    public void sync() throws IOException {
+        WriteAheadLog current = log;
+        if (current != null) current.sync();
+    }
+
+    /**
+     * Syncs and closes the log; later mutations are not logged.
+     */
+    public synchronized void close() throws IOException {
+        if (log == null) return;
+        try {
+            log.close();
+        } finally {
+            log = null;
+        }
+    }
+
+    public synchronized long userSaved(User user) {
+        if (log == null) return 0;
+        Song activeSong = user.getActiveSong().orElse(null);
+        int songNumber = activeSong == null ? -1 : songNumber(activeSong);
+
+        ListeningHistory history = user.getListeningHistory();
+        long recorded = history.recordedCount();
+        Long logged = loggedPlays.put(user.getId(), recorded);
+        int newPlays = (int) Math.min(recorded - (logged == null ? 0 : logged), history.size());
+
+        try {
+            out.writeByte(USER_SAVED);
+            out.writeUTF(user.getId());
+            writeNullable(user.getName());
+            writeNullable(user.getActivePlaylist().map(Playlist::getId).orElse(null));
+            out.writeInt(songNumber);
+            out.writeInt(user.getActiveSongIndex());
+            out.writeUTF(user.getPlaybackMode().name());
+            out.writeInt(newPlays);
+            // Oldest first, in the order they are recorded again on replay
+            for (int age = newPlays - 1; age >= 0; age--) {
+                out.writeInt(history.songIdAt(age));
+                out.writeLong(history.timestampAt(age));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append();
+    }
+
+    public synchronized long userDeleted(String userId) {
+        if (log == null) return 0;
+        loggedPlays.remove(userId);
+        try {
+            out.writeByte(USER_DELETED);
+            out.writeUTF(userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append();
+    }
+
+    public synchronized long playlistSaved(Playlist playlist) {
+        if (log == null) return 0;
+        try {
+            out.writeByte(PLAYLIST_SAVED);
+            out.writeUTF(playlist.getId());
+            writeNullable(playlist.getName());
+            writeNullable(playlist.getCreatorId());
+            out.writeInt(playlist.getVersion());
+            int songCount = playlist.getSongCount();
+            out.writeInt(songCount);
+            for (int i = 0; i < songCount; i++) out.writeUTF(playlist.getSongIdAt(i));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append();
+    }
+
+    /**
+     * Logs a batch applied to a playlist that is already logged.
+     * @param applied The operations that changed it, as returned by Playlist.apply.
+     */
+    public synchronized long playlistModified(Playlist playlist, PlaylistMutation applied) {
+        if (log == null) return 0;
+        try {
+            out.writeByte(PLAYLIST_MODIFIED);
+            out.writeUTF(playlist.getId());
+            out.writeInt(playlist.getVersion());
+            List<PlaylistMutation.Operation> operations = applied.getOperations();
+            out.writeInt(operations.size());
+            for (PlaylistMutation.Operation operation : operations) {
+                out.writeByte(operation.getAction().ordinal());
+                out.writeUTF(operation.getSongId());
+                if (operation.getAction() == ModificationAction.MOVE_SONG) out.writeInt(operation.getToIndex());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append();
+    }
+
+    public synchronized long playlistDeleted(String playlistId) {
+        if (log == null) return 0;
+        try {
+            out.writeByte(PLAYLIST_DELETED);
+            out.writeUTF(playlistId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return append();
+    }
+
+    // Caller holds this and the log is closed; writes the checkpoint next to the log and renames it over the log
+    private void rewrite() throws IOException {
+        Path checkpoint = path.resolveSibling(path.getFileName() + ".checkpoint");
+        Files.deleteIfExists(checkpoint);
+        // Songs and plays are numbered and counted from the start of the new file, unless the old file is kept
+        Map<Song, Integer> oldSongNumbers = new IdentityHashMap<>(songNumbers);
+        int oldNextSongNumber = nextSongNumber;
+        Map<String, Long> oldLoggedPlays = new HashMap<>(loggedPlays);
+        songNumbers.clear();
+        nextSongNumber = 0;
+        loggedPlays.clear();
+        try {
+            writeCheckpoint(checkpoint);
+            Files.move(checkpoint, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            songNumbers.clear();
+            songNumbers.putAll(oldSongNumbers);
+            nextSongNumber = oldNextSongNumber;
+            loggedPlays.clear();
+            loggedPlays.putAll(oldLoggedPlays);
+            Files.deleteIfExists(checkpoint);
+            throw e;
+        }
+        syncDirectory(path);
+    }
+
+    // Caller holds this
+    private void writeCheckpoint(Path checkpoint) throws IOException {
+        log = new WriteAheadLog(checkpoint, CHECKPOINT_SYNC_INTERVAL_MILLIS, CHECKPOINT_SYNC_EVERY_RECORDS);
+        try {
+            idCountersSaved();
+            List<Playlist> playlists = playlistRepository.findAll();
+            for (Playlist playlist : playlists) playlistSaved(playlist);
+            // A deleted playlist stays the active playlist of users who were playing it
+            Map<String, Playlist> deletedPlaylists = new LinkedHashMap<>();
+            List<User> users = userRepository.findAll();
+            for (User user : users) {
+                user.getActivePlaylist()
+                        .filter(playlist -> !playlistRepository.existsById(playlist.getId()))
+                        .ifPresent(playlist -> deletedPlaylists.put(playlist.getId(), playlist));
+            }
+            for (Playlist playlist : deletedPlaylists.values()) {
+                playlistSaved(playlist);
+                playlistDeleted(playlist.getId());
+            }
+            // Users come after the playlists, which replay adds to them on creation
+            for (User user : users) userSaved(user);
+        } finally {
+            WriteAheadLog written = log;
+            log = null;
+            written.close();
+        }
+    }
+
+    // Caller holds this
+    private void idCountersSaved() {
+        try {
+            out.writeByte(ID_COUNTERS);
+            out.writeInt(userRepository.lastAllocatedId());
+            out.writeInt(playlistRepository.lastAllocatedId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        append();
+    }
+
+    // Makes the rename durable where the file system allows a directory to be synced
+    private static void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory; the rename is still atomic there
+        }
+    }
+
+    // Caller holds this; logs a song record the first time the song is referred to
+    private int songNumber(Song song) {
+        Integer number = songNumbers.get(song);
+        if (number != null) return number;
+        number = nextSongNumber;
+        try {
+            out.writeByte(SONG);
+            out.writeUTF(song.getId());
+            writeNullable(song.getName());
+            writeNullable(song.getGenre());
+            writeNullable(song.getAlbumName());
+            writeNullable(song.getArtist());
+            String[] featuredArtists = song.getFeaturedArtists();
+            out.writeInt(featuredArtists == null ? -1 : featuredArtists.length);
+            if (featuredArtists != null) {
+                for (String artist : featuredArtists) writeNullable(artist);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        append();
+        songNumbers.put(song, number);
+        nextSongNumber++;
+        return number;
+    }
+
+    // Caller holds this; returns the sequence number of the record
+    private long append() {
+        try {
+            return log.append(buffer.bytes(), 0, buffer.size());
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    private void writeNullable(String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Applies the records of a log to the repositories.
+     */
+    private static final class Replay {
+        private static final ModificationAction[] ACTIONS = ModificationAction.values();
+
+        private final IUserRepository userRepository;
+        private final IPlaylistRepository playlistRepository;
+        private final List<Song> songs = new ArrayList<>();
+        // Deleted playlists stay the active playlist of users who were playing them
+        private final Map<String, Playlist> deletedPlaylists = new HashMap<>();
+
+        private final SymbolTable symbols;
+
+        Replay(IUserRepository userRepository, IPlaylistRepository playlistRepository, SymbolTable symbols) {
+            this.userRepository = userRepository;
+            this.playlistRepository = playlistRepository;
+            this.symbols = symbols;
+        }
+
+        void apply(DataInput in) throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case SONG:
+                    applySong(in);
+                    break;
+                case USER_SAVED:
+                    applyUserSaved(in);
+                    break;
+                case USER_DELETED:
+                    userRepository.deleteById(in.readUTF());
+                    break;
+                case PLAYLIST_SAVED:
+                    applyPlaylistSaved(in);
+                    break;
+                case PLAYLIST_DELETED:
+                    applyPlaylistDeleted(in.readUTF());
+                    break;
+                case PLAYLIST_MODIFIED:
+                    applyPlaylistModified(in);
+                    break;
+                case ID_COUNTERS:
+                    userRepository.reserveIdsThrough(in.readInt());
+                    playlistRepository.reserveIdsThrough(in.readInt());
+                    break;
+                default:
+                    throw new IOException("Unknown mutation log record type: " + type);
+            }
+        }
+
+        private void applySong(DataInput in) throws IOException {
+            String id = in.readUTF();
+            String name = readNullable(in);
+            String genre = readNullable(in);
+            String albumName = readNullable(in);
+            String artist = readNullable(in);
+            int featuredCount = in.readInt();
+            String[] featuredArtists = featuredCount < 0 ? null : new String[featuredCount];
+            for (int i = 0; i < featuredCount; i++) featuredArtists[i] = readNullable(in);
+            songs.add(new Song(id, name, genre, albumName, artist, featuredArtists, symbols));
+        }
+
+        private void applyUserSaved(DataInput in) throws IOException {
+            String id = in.readUTF();
+            String name = readNullable(in);
+            String activePlaylistId = readNullable(in);
+            int songNumber = in.readInt();
+            int activeSongIndex = in.readInt();
+            PlaybackMode playbackMode = PlaybackMode.valueOf(in.readUTF());
+
+            User user = userRepository.findById(id).orElse(null);
+            if (user == null) {
+                user = new User(id, name);
+                // The user's playlists were logged before it
+                for (Playlist playlist : playlistRepository.findByUserId(id)) user.addPlaylist(playlist);
+            }
+            user.setName(name);
+            Playlist activePlaylist = null;
+            if (activePlaylistId != null) {
+                activePlaylist = playlistRepository.findById(activePlaylistId)
+                        .orElseGet(() -> deletedPlaylists.get(activePlaylistId));
+            }
+            user.setActivePlaylist(activePlaylist);
+            user.setActiveSong(songNumber < 0 ? null : songs.get(songNumber), activeSongIndex);
+            user.setPlaybackMode(playbackMode);
+            user.setShuffleOrder(null);
+
+            ListeningHistory history = user.getListeningHistory();
+            int newPlays = in.readInt();
+            for (int i = 0; i < newPlays; i++) history.record(in.readInt(), in.readLong());
+            userRepository.save(user);
+        }
+
+        private void applyPlaylistSaved(DataInput in) throws IOException {
+            String id = in.readUTF();
+            String name = readNullable(in);
+            String creatorId = readNullable(in);
+            int version = in.readInt();
+            int songCount = in.readInt();
+            List<String> songIds = new ArrayList<>(songCount);
+            for (int i = 0; i < songCount; i++) songIds.add(in.readUTF());
+
+            Playlist playlist = playlistRepository.findById(id).orElse(null);
+            if (playlist != null) {
+                // Users hold the same instance, so it is updated in place
+                playlist.setName(name);
+                playlist.restoreSongs(songIds, version);
+                playlistRepository.save(playlist);
+                return;
+            }
+            playlist = new Playlist(id, name, creatorId);
+            playlist.restoreSongs(songIds, version);
+            playlistRepository.save(playlist);
+            if (creatorId != null) {
+                Playlist created = playlist;
+                userRepository.findById(creatorId).ifPresent(user -> user.addPlaylist(created));
+            }
+        }
+
+        private void applyPlaylistModified(DataInput in) throws IOException {
+            String id = in.readUTF();
+            int version = in.readInt();
+            int operationCount = in.readInt();
+            PlaylistMutation mutation = new PlaylistMutation();
+            for (int i = 0; i < operationCount; i++) {
+                int ordinal = in.readByte();
+                if (ordinal < 0 || ordinal >= ACTIONS.length) throw new IOException("Unknown playlist operation: " + ordinal);
+                ModificationAction action = ACTIONS[ordinal];
+                String songId = in.readUTF();
+                if (action == ModificationAction.ADD_SONG) mutation.addSongs(songId);
+                else if (action == ModificationAction.DELETE_SONG) mutation.deleteSongs(songId);
+                else mutation.moveSong(songId, in.readInt());
+            }
+
+            Playlist playlist = playlistRepository.findById(id).orElse(null);
+            if (playlist == null) throw new IOException("Mutation log modifies unknown playlist: " + id);
+            // The operations were logged after they were applied, so they apply again exactly as they did
+            playlist.apply(mutation);
+            playlist.restoreVersion(version);
+            playlistRepository.save(playlist);
+        }
+
+        private void applyPlaylistDeleted(String id) {
+            Playlist playlist = playlistRepository.findById(id).orElse(null);
+            if (playlist == null) return;
+            playlistRepository.deleteById(id);
+            deletedPlaylists.put(id, playlist);
+            if (playlist.getCreatorId() != null) {
+                userRepository.findById(playlist.getCreatorId()).ifPresent(user -> user.deletePlaylist(playlist));
+            }
+        }
+    }
+
+    // A ByteArrayOutputStream whose buffer is reused for every record
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(256);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
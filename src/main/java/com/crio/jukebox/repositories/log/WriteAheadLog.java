@@ -0,0 +1,379 @@
+package com.crio.jukebox.repositories.log;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog is an append-only file of records, written with group commit.
+ * Appending only copies the record into an in-memory batch; a single writer thread writes the whole batch with one
+ * write and makes it durable with one fsync. A batch is written once it holds syncEveryRecords records, or once its
+ * oldest record has waited syncIntervalMillis, so many appends share each fsync and a slow disk does not slow down
+ * the appenders. With syncIntervalMillis 0, every append asks for its batch to be written at once; append does not
+ * wait for it, so a caller that must not go on before its record is durable calls awaitDurable after releasing its
+ * own locks, and appenders that arrive during an fsync are committed together by the next one.
+ * Each record is framed by its length and a CRC32 of its bytes, so replay stops at a record torn by a crash.
+ */
+public final class WriteAheadLog implements Closeable {
+
+    // Appenders wait once this much is waiting to be written, which bounds the memory used when the disk falls behind
+    private static final int MAX_PENDING_BYTES = 16 << 20;
+    private static final int INITIAL_BATCH_SIZE = 64 << 10;
+    private static final int HEADER_BYTES = 8;
+
+    private final FileChannel channel;
+    private final long syncIntervalMillis;
+    private final int syncEveryRecords;
+    private final Thread writer;
+
+    // All fields below are guarded by this
+    private byte[] pending = new byte[INITIAL_BATCH_SIZE];
+    private int pendingBytes;
+    private int pendingRecords;
+    private long oldestPendingAt;
+    // Records appended and records made durable since the log was opened
+    private long appended;
+    private long durable;
+    private boolean syncRequested;
+    private boolean closed;
+    private IOException failure;
+
+    private final CRC32 crc = new CRC32();
+
+    // Only used by the writer thread
+    private byte[] writing = new byte[INITIAL_BATCH_SIZE];
+
+    /**
+     * Opens the log for appending, creating the file if it does not exist.
+     * @param path               The log file.
+     * @param syncIntervalMillis The longest a record waits before it is written and synced; 0 makes every append wait
+     *                           for its record to be durable.
+     * @param syncEveryRecords   The number of records that are written and synced together without waiting longer.
+     */
+    public WriteAheadLog(Path path, long syncIntervalMillis, int syncEveryRecords) throws IOException {
+        if (syncIntervalMillis < 0) throw new IllegalArgumentException("Sync interval must not be negative");
+        if (syncEveryRecords < 1) throw new IllegalArgumentException("Sync batch must be positive: " + syncEveryRecords);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncEveryRecords = syncEveryRecords;
+        this.writer = new Thread(this::writeBatches, "write-ahead-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends a record without waiting for it to be written. The record is durable once awaitDurable with the returned
+     * sequence number, or a later sync or close, returns.
+     * @return The sequence number of the record, counted from 1 since the log was opened.
+     * @throws UncheckedIOException If an earlier batch could not be written; nothing is appended after that.
+     */
+    public long append(byte[] record, int offset, int length) {
+        if (length < 1 || length > MAX_PENDING_BYTES - HEADER_BYTES) {
+            throw new IllegalArgumentException("Record length out of range: " + length);
+        }
+        boolean interrupted = false;
+        long sequence;
+        synchronized (this) {
+            while (pendingBytes > 0 && pendingBytes + HEADER_BYTES + length > MAX_PENDING_BYTES
+                    && failure == null && !closed) {
+                notifyAll();
+                interrupted |= waitUninterruptibly(0);
+            }
+            checkOpen();
+            if (pending.length - pendingBytes < HEADER_BYTES + length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingBytes + HEADER_BYTES + length));
+            }
+            writeInt(pending, pendingBytes, length);
+            writeInt(pending, pendingBytes + 4, checksum(record, offset, length));
+            System.arraycopy(record, offset, pending, pendingBytes + HEADER_BYTES, length);
+            pendingBytes += HEADER_BYTES + length;
+            sequence = ++appended;
+            if (pendingRecords++ == 0) oldestPendingAt = System.currentTimeMillis();
+
+            if (syncIntervalMillis == 0) {
+                // Records appended while the writer is busy wait in the batch and share its next fsync
+                syncRequested = true;
+                notifyAll();
+            } else if (pendingRecords == 1 || pendingRecords >= syncEveryRecords) {
+                // The writer starts timing the batch on its first record and writes it once it is full
+                notifyAll();
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return sequence;
+    }
+
+    /**
+     * Blocks until the record with the given sequence number, and every record before it, is durable. It asks for the
+     * pending batch to be written at once rather than waiting out the sync interval.
+     * @throws UncheckedIOException If the record could not be written.
+     */
+    public void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        synchronized (this) {
+            if (durable < sequence && !syncRequested) {
+                syncRequested = true;
+                notifyAll();
+            }
+            while (durable < sequence && failure == null) interrupted |= waitUninterruptibly(0);
+            if (durable < sequence) {
+                throw new UncheckedIOException("Write-ahead log could not be written", failure);
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Blocks until every record appended so far is durable.
+     */
+    public void sync() throws IOException {
+        boolean interrupted = false;
+        synchronized (this) {
+            long target = appended;
+            if (durable < target) {
+                syncRequested = true;
+                notifyAll();
+            }
+            while (durable < target && failure == null) interrupted |= waitUninterruptibly(0);
+            if (failure != null) throw failure;
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Makes every appended record durable and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the write-ahead log");
+        } finally {
+            channel.close();
+        }
+        synchronized (this) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    /**
+     * Reads every complete record of a log file in order. A torn record at the end, left by a crash while it was being
+     * written, is cut off the file, so records appended afterwards follow the last good one. A record is torn if it
+     * runs past the end of the file, if it is the last record and fails its CRC, or if it starts a run of zeros up to
+     * the end of the file. Any other bad record is corruption, and the file is left as it is.
+     * @param path   The log file; a missing file has no records.
+     * @param reader Called with the bytes of each record.
+     * @return The number of records read.
+     * @throws IOException If a record before the end of the file is corrupt.
+     */
+    public static long replay(Path path, RecordReader reader) throws IOException {
+        if (!Files.exists(path)) return 0;
+        long records = 0;
+        long validLength = 0;
+        CRC32 crc = new CRC32();
+        byte[] record = new byte[256];
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = file.size();
+            InputStream in = new BufferedInputStream(Channels.newInputStream(file), 1 << 16);
+            DataInputStream data = new DataInputStream(in);
+            RecordInput recordInput = new RecordInput();
+            while (validLength < fileSize) {
+                if (fileSize - validLength < HEADER_BYTES) break;
+                int length = data.readInt();
+                int checksum = data.readInt();
+                if (length < 1 || length > MAX_PENDING_BYTES) {
+                    if (zerosToEnd(file, validLength)) break;
+                    throw new IOException("Corrupt write-ahead log record at offset " + validLength + " of " + path
+                            + ": bad length " + length);
+                }
+                long frameEnd = validLength + HEADER_BYTES + length;
+                if (frameEnd > fileSize) break;
+                if (record.length < length) record = new byte[Math.max(record.length * 2, length)];
+                data.readFully(record, 0, length);
+                crc.reset();
+                crc.update(record, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    if (frameEnd == fileSize) break;
+                    throw new IOException("Corrupt write-ahead log record at offset " + validLength + " of " + path
+                            + ": bad checksum");
+                }
+
+                recordInput.reset(record, length);
+                reader.read(recordInput.data);
+                records++;
+                validLength = frameEnd;
+            }
+            if (fileSize > validLength) file.truncate(validLength);
+        }
+        return records;
+    }
+
+    // Whether every byte from position to the end of the file is zero, as in space the file system allocated for a
+    // write that a crash never completed
+    private static boolean zerosToEnd(FileChannel file, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        while (true) {
+            buffer.clear();
+            int read = file.read(buffer, position);
+            if (read < 0) return true;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) != 0) return false;
+            }
+            position += read;
+        }
+    }
+
+    private void writeBatches() {
+        while (true) {
+            byte[] batch;
+            int length;
+            long batchEnd;
+            synchronized (this) {
+                boolean interrupted = false;
+                while (!closed && !batchDue()) {
+                    long wait = pendingRecords == 0 ? 0
+                            : Math.max(1, oldestPendingAt + syncIntervalMillis - System.currentTimeMillis());
+                    interrupted |= waitUninterruptibly(wait);
+                }
+                if (interrupted) Thread.currentThread().interrupt();
+                if (pendingRecords == 0) {
+                    // Closed with nothing left to write
+                    syncRequested = false;
+                    notifyAll();
+                    return;
+                }
+                batch = pending;
+                length = pendingBytes;
+                batchEnd = appended;
+                pending = writing;
+                pendingBytes = 0;
+                pendingRecords = 0;
+                syncRequested = false;
+                // Appenders waiting for room can fill the other buffer while this batch is written
+                notifyAll();
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch, 0, length);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+
+            synchronized (this) {
+                writing = batch;
+                durable = batchEnd;
+                notifyAll();
+            }
+        }
+    }
+
+    // Caller holds this
+    private boolean batchDue() {
+        if (pendingRecords == 0) return false;
+        return syncRequested
+                || pendingRecords >= syncEveryRecords
+                || pendingBytes >= MAX_PENDING_BYTES / 2
+                || System.currentTimeMillis() - oldestPendingAt >= syncIntervalMillis;
+    }
+
+    // Caller holds this
+    private void checkOpen() {
+        if (failure != null) throw new UncheckedIOException("Write-ahead log could not be written", failure);
+        if (closed) throw new IllegalStateException("Write-ahead log is closed");
+    }
+
+    // Caller holds this; returns whether the thread was interrupted
+    private boolean waitUninterruptibly(long millis) {
+        try {
+            wait(millis);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    // Caller holds this
+    private int checksum(byte[] bytes, int offset, int length) {
+        crc.reset();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Reads one record during replay.
+     */
+    public interface RecordReader {
+        void read(DataInput record) throws IOException;
+    }
+
+    // Reuses one DataInputStream over the record buffer for every record
+    private static final class RecordInput {
+        private final ResettableInput bytes = new ResettableInput();
+        private final DataInputStream data = new DataInputStream(bytes);
+
+        void reset(byte[] record, int length) {
+            bytes.reset(record, length);
+        }
+    }
+
+    private static final class ResettableInput extends InputStream {
+        private byte[] buffer;
+        private int position;
+        private int limit;
+
+        void reset(byte[] buffer, int limit) {
+            this.buffer = buffer;
+            this.position = 0;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() {
+            return position < limit ? buffer[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (position >= limit) return -1;
+            int count = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.crio.jukebox.server;
+
+import com.crio.common.commands.BufferedOutputSink;
+import com.crio.common.commands.CommandLineReader;
+import com.crio.common.commands.CommandTokens;
+import com.crio.jukebox.commands.CommandInvoker;
+import com.crio.jukebox.commands.ICommand;
+import com.crio.jukebox.exceptions.NoSuchCommandException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * CommandServer serves the text command protocol of the input file over a loopback TCP socket.
+ * A client sends one command per line. For every line the server replies with a header line, "OK n" or "ERROR n",
+ * followed by the n bytes the command wrote to the output sink, or the error message, in UTF-8. Replies come back in the order the
+ * lines were sent, so clients may pipeline commands.
+ * Each connection is served on its own virtual thread on Java 21 and later, and at most maxConnections connections are
+ * open at once. Before Java 21 a connection holds a platform thread for as long as it is open, so at most
+ * MAX_PLATFORM_THREADS connections are served at once. Further clients wait in the accept backlog until one closes.
+ * A connection that fails with an I/O error is logged and closed.
+ * All connections dispatch into one shared CommandInvoker. Commands with a partition key lock their user's stripe
+ * under a shared lock, so different users run in parallel; global commands take the lock exclusively, as the
+ * barriers of ParallelCommandExecutor do.
+ */
+public class CommandServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(CommandServer.class.getName());
+
+    private static final int LOCK_STRIPES = 64;
+    // Every platform thread reserves its own stack, so a large connection limit must not become that many threads
+    static final int MAX_PLATFORM_THREADS = 256;
+    // Command lines are short, and thousands of connections each keep a window
+    private static final int CONNECTION_WINDOW_SIZE = 1024;
+
+    private final CommandInvoker commandInvoker;
+    private final BufferedOutputSink outputSink;
+    private final int maxConnections;
+    private Semaphore connectionPermits;
+
+    private final ReadWriteLock globalLock = new ReentrantReadWriteLock();
+    private final Lock[] userLocks = new Lock[LOCK_STRIPES];
+
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    private ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+    private Thread acceptThread;
+
+    /**
+     * @param commandInvoker The invoker shared by all connections.
+     * @param outputSink     The sink the commands write to; what a command writes is captured for its reply.
+     * @param maxConnections The maximum number of connections served at once; before Java 21 no more than
+     *                       MAX_PLATFORM_THREADS are.
+     */
+    public CommandServer(CommandInvoker commandInvoker, BufferedOutputSink outputSink, int maxConnections) {
+        if (maxConnections < 1) throw new IllegalArgumentException("Max connections must be positive: " + maxConnections);
+        this.commandInvoker = commandInvoker;
+        this.outputSink = outputSink;
+        this.maxConnections = maxConnections;
+        for (int i = 0; i < LOCK_STRIPES; i++) userLocks[i] = new ReentrantLock();
+    }
+
+    /**
+     * Binds the loopback address and starts accepting connections.
+     * @param port The port to listen on, or 0 for any free port.
+     * @return The port the server listens on.
+     */
+    public synchronized int start(int port) throws IOException {
+        if (serverSocket != null) throw new IllegalStateException("Server already started");
+        serverSocket = new ServerSocket(port, maxConnections, InetAddress.getLoopbackAddress());
+        connectionExecutor = newConnectionExecutor(maxConnections);
+        // A pool of platform threads serves only as many connections as it has threads
+        connectionPermits = new Semaphore(connectionExecutor instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) connectionExecutor).getMaximumPoolSize() : maxConnections);
+        acceptThread = new Thread(this::acceptConnections, "command-server-accept");
+        acceptThread.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until the server is closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = acceptThread;
+        }
+        if (thread != null) thread.join();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket == null) return;
+        serverSocket.close();
+        for (Socket socket : openSockets) socket.close();
+        connectionExecutor.shutdown();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            connectionPermits.acquireUninterruptibly();
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+            } catch (IOException e) {
+                connectionPermits.release();
+                if (serverSocket.isClosed()) return;
+                continue;
+            }
+            openSockets.add(socket);
+            connectionExecutor.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             CommandLineReader reader = new CommandLineReader(
+                     new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8), CONNECTION_WINDOW_SIZE);
+             OutputStream out = new BufferedOutputStream(connection.getOutputStream())) {
+
+            CommandTokens tokens = reader.tokens();
+            while (reader.readLine()) {
+                reply(out, tokens);
+                // Replies to pipelined commands are sent together
+                if (!reader.ready()) out.flush();
+            }
+        } catch (SocketException e) {
+            // The client went away or the server is closing
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Connection from " + socket.getRemoteSocketAddress() + " failed", e);
+        } finally {
+            openSockets.remove(socket);
+            connectionPermits.release();
+        }
+    }
+
+    private void reply(OutputStream out, CommandTokens tokens) throws IOException {
+        ICommand command;
+        try {
+            command = commandInvoker.getCommand(tokens);
+        } catch (NoSuchCommandException e) {
+            writeReply(out, "ERROR", e.getMessage().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        outputSink.beginCapture();
+        try {
+            execute(command, tokens);
+        } catch (RuntimeException e) {
+            outputSink.endCapture();
+            writeReply(out, "ERROR", String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        byte[] output = outputSink.endCapture();
+        // The sink encodes like the console; replies are always UTF-8
+        if (!outputSink.charset().equals(StandardCharsets.UTF_8)) {
+            output = new String(output, outputSink.charset()).getBytes(StandardCharsets.UTF_8);
+        }
+        writeReply(out, "OK", output);
+    }
+
+    private void execute(ICommand command, List<String> tokens) {
+        Optional<String> partitionKey;
+        try {
+            partitionKey = command.partitionKey(tokens);
+        } catch (RuntimeException e) {
+            // A malformed command runs alone and fails in execute
+            partitionKey = Optional.empty();
+        }
+
+        if (!partitionKey.isPresent()) {
+            globalLock.writeLock().lock();
+            try {
+                command.execute(tokens);
+            } finally {
+                globalLock.writeLock().unlock();
+            }
+            return;
+        }
+
+        Lock userLock = userLocks[(partitionKey.get().hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+        globalLock.readLock().lock();
+        userLock.lock();
+        try {
+            command.execute(tokens);
+        } finally {
+            userLock.unlock();
+            globalLock.readLock().unlock();
+        }
+    }
+
+    private static void writeReply(OutputStream out, String status, byte[] body) throws IOException {
+        out.write((status + " " + body.length + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+    }
+
+    static ExecutorService newConnectionExecutor(int maxThreads) {
+        try {
+            // Java 21 and later: one virtual thread per connection
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21: a pool of at most MAX_PLATFORM_THREADS platform threads that shrinks when connections close
+            int threads = Math.min(maxThreads, MAX_PLATFORM_THREADS);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "command-server-connection");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.crio.jukebox.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoadDriver measures a running CommandServer of either app with many concurrent local clients.
+ * Every client opens its own connection, waits until all clients are connected, then sends REQUESTS commands one at a
+ * time and waits for each reply. Client c sends the lines of INPUT_FILE in turn starting at line c, with "{user}"
+ * replaced by a user ID between 1 and USERS. The lines of SETUP_FILE, if given, are sent on one connection first,
+ * for example to load songs and create the users.
+ * It prints the sustained requests per second and the latency percentiles.
+ *
+ * Usage: LoadDriver PORT=7070 INPUT_FILE=load.txt [SETUP_FILE=setup.txt] [CLIENTS=10000] [REQUESTS=100] [USERS=n]
+ */
+public class LoadDriver {
+
+    private static final int CONNECT_ATTEMPTS = 50;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length == 2) options.put(option[0], option[1]);
+        }
+        int port = Integer.parseInt(required(options, "PORT"));
+        List<String> lines = Files.readAllLines(Paths.get(required(options, "INPUT_FILE")));
+        int clients = Integer.parseInt(options.getOrDefault("CLIENTS", "10000"));
+        int requests = Integer.parseInt(options.getOrDefault("REQUESTS", "100"));
+        int users = Integer.parseInt(options.getOrDefault("USERS", String.valueOf(clients)));
+        if (lines.isEmpty()) throw new IllegalArgumentException("INPUT_FILE has no commands");
+
+        if (options.containsKey("SETUP_FILE")) {
+            List<String> setup = Files.readAllLines(Paths.get(options.get("SETUP_FILE")));
+            try (Client client = Client.connect(port)) {
+                for (String line : setup) client.send(line);
+            }
+        }
+
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        ExecutorService executor = CommandServer.newConnectionExecutor(clients);
+        for (int c = 0; c < clients; c++) {
+            int clientIndex = c;
+            String user = String.valueOf(c % users + 1);
+            executor.execute(() -> {
+                long[] clientLatencies = new long[requests];
+                boolean counted = false;
+                try (Client client = Client.connect(port)) {
+                    connected.countDown();
+                    counted = true;
+                    start.await();
+                    for (int i = 0; i < requests; i++) {
+                        String line = lines.get((clientIndex + i) % lines.size()).replace("{user}", user);
+                        long sent = System.nanoTime();
+                        if (!client.send(line)) errors.incrementAndGet();
+                        clientLatencies[i] = System.nanoTime() - sent;
+                    }
+                    latencies[clientIndex] = clientLatencies;
+                } catch (IOException | InterruptedException e) {
+                    errors.incrementAndGet();
+                    if (!counted) connected.countDown();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        connected.await();
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        long[] all = Arrays.stream(latencies).filter(l -> l != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("Clients - %d%n", clients);
+        System.out.printf("Requests - %d%n", all.length);
+        System.out.printf("Errors - %d%n", errors.get());
+        System.out.printf("Requests/sec - %.0f%n", all.length / (elapsed / 1e9));
+        System.out.printf("Latency p50 - %.3f ms%n", percentile(all, 50) / 1e6);
+        System.out.printf("Latency p99 - %.3f ms%n", percentile(all, 99) / 1e6);
+        System.out.printf("Latency p99.9 - %.3f ms%n", percentile(all, 99.9) / 1e6);
+        System.out.printf("Latency max - %.3f ms%n", all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) throw new IllegalArgumentException(name + " must be provided");
+        return value;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final DataInputStream in;
+
+        private Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        }
+
+        static Client connect(int port) throws IOException, InterruptedException {
+            // The accept backlog overflows while thousands of clients connect at once, so retry with a pause
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                    socket.setTcpNoDelay(true);
+                    return new Client(socket);
+                } catch (ConnectException e) {
+                    if (attempt == CONNECT_ATTEMPTS) throw e;
+                    TimeUnit.MILLISECONDS.sleep(20L * attempt);
+                }
+            }
+        }
+
+        /**
+         * Sends one command and reads its reply.
+         * @return True if the server replied OK.
+         */
+        boolean send(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // The header is ASCII: "OK n" or "ERROR n"
+            StringBuilder header = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) throw new IOException("Connection closed by the server");
+                header.append((char) b);
+            }
+            String[] status = header.toString().split(" ");
+            in.readFully(new byte[Integer.parseInt(status[1])]);
+            return status[0].equals("OK");
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
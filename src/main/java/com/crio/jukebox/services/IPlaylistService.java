@@ -1,6 +1,10 @@
 package com.crio.jukebox.services;
 
+import com.crio.jukebox.dtos.PlaylistDeltaDto;
 import com.crio.jukebox.dtos.PlaylistDto;
+import com.crio.jukebox.dtos.PlaylistPageDto;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.exceptions.InvalidOperationException;
 import com.crio.jukebox.exceptions.PlaylistNotFoundException;
 import com.crio.jukebox.exceptions.SongNotFoundException;
 import com.crio.jukebox.exceptions.SongNotInPlaylistException;
@@ -20,4 +24,15 @@ public interface IPlaylistService {
     PlaylistDto deleteSongsFromPlaylist(String userId, String playlistId, String[] songIds)
             throws UserNotFoundException, PlaylistNotFoundException, SongNotInPlaylistException;
 
+    PlaylistDto modifyPlaylist(String userId, String playlistId, PlaylistMutation mutation)
+            throws UserNotFoundException, PlaylistNotFoundException, SongNotFoundException,
+            SongNotInPlaylistException, InvalidOperationException;
+
+    PlaylistDeltaDto modifyPlaylistDelta(String userId, String playlistId, PlaylistMutation mutation)
+            throws UserNotFoundException, PlaylistNotFoundException, SongNotFoundException,
+            SongNotInPlaylistException, InvalidOperationException;
+
+    PlaylistPageDto getPlaylistPage(String userId, String playlistId, int offset, int limit)
+            throws UserNotFoundException, PlaylistNotFoundException;
+
 }
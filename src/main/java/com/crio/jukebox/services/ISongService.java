@@ -0,0 +1,13 @@
+package com.crio.jukebox.services;
+
+import com.crio.jukebox.dtos.SongDto;
+import com.crio.jukebox.exceptions.SongNotFoundException;
+
+import java.util.List;
+
+public interface ISongService {
+
+    List<SongDto> searchSongs(String text, int limit);
+
+    List<SongDto> findSimilarSongs(String songId, int limit) throws SongNotFoundException;
+}
@@ -1,10 +1,14 @@
 package com.crio.jukebox.services;
 
 import com.crio.jukebox.dtos.CurrentSongDto;
+import com.crio.jukebox.dtos.PlayedSongDto;
 import com.crio.jukebox.dtos.UserDto;
+import com.crio.jukebox.entities.PlaybackMode;
 import com.crio.jukebox.entities.SongPlaybackControl;
 import com.crio.jukebox.exceptions.*;
 
+import java.util.List;
+
 public interface IUserService {
 
     UserDto createUser(String name);
@@ -17,4 +21,8 @@ public interface IUserService {
 
     CurrentSongDto playSongInPlaylist(String userId, SongPlaybackControl playback)
             throws UserNotFoundException, PlaylistNotFoundException, InvalidOperationException, SongNotFoundException;
+
+    void setPlaybackMode(String userId, PlaybackMode mode) throws UserNotFoundException;
+
+    List<PlayedSongDto> getRecentlyPlayed(String userId, int count) throws UserNotFoundException;
 }
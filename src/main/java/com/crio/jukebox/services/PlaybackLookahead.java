@@ -0,0 +1,159 @@
+package com.crio.jukebox.services;
+
+import com.crio.jukebox.dtos.CurrentSongDto;
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.repositories.ISongRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * PlaybackLookahead is the look-ahead buffer of one user's playback session.
+ * After each play it holds the songs up to depth positions before and after the current one, resolved from the
+ * song repository and rendered, so that NEXT and BACK only have to take an entry out of the buffer. Entries are
+ * resolved on the prefetch executor. The buffer is bound to one playlist at one version and to one catalog version;
+ * when any of them changes, the buffer is emptied and refilled around the new position.
+ * <p>
+ * The prefetch executor may run while a command writes the catalog, for example by LOAD-DATA, so it only reads the
+ * song repository under the read side of the catalog lock that the writers hold, and skips the round if a write holds
+ * it. Every write also changes the catalog version, and an entry is only used while the catalog version it was
+ * resolved under is current, so a song resolved before a reload is never played after it. A skipped or dropped entry
+ * costs nothing but the prefetch: NEXT and BACK then resolve the song themselves on the command thread.
+ */
+final class PlaybackLookahead {
+
+    static final class Entry {
+        private final Song song;
+        private final CurrentSongDto currentSong;
+
+        Entry(Song song, CurrentSongDto currentSong) {
+            this.song = song;
+            this.currentSong = currentSong;
+        }
+
+        Song song() {
+            return song;
+        }
+
+        CurrentSongDto currentSong() {
+            return currentSong;
+        }
+    }
+
+    private final ISongRepository songRepository;
+    private final Lock catalogReadLock;
+    private final Executor executor;
+    private final int depth;
+
+    // Guarded by this
+    private Playlist playlist;
+    private int playlistVersion;
+    private long catalogVersion;
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    PlaybackLookahead(ISongRepository songRepository, Lock catalogReadLock, Executor executor, int depth) {
+        this.songRepository = songRepository;
+        this.catalogReadLock = catalogReadLock;
+        this.executor = executor;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the prefetched entry for the song at the given position, if the buffer still matches the playlist.
+     */
+    synchronized Optional<Entry> take(Playlist playlist, int index) {
+        if (!matches(playlist)) return Optional.empty();
+        return Optional.ofNullable(entries.get(index));
+    }
+
+    /**
+     * Records the song now playing and schedules the missing entries around it.
+     * Positions are mapped to song IDs here, on the caller's thread, while the playlist cannot change underneath;
+     * only resolving and rendering the songs happens on the prefetch executor.
+     */
+    void playing(Playlist playlist, int index, Song song, CurrentSongDto currentSong) {
+        if (index < 0) return;
+        Map<Integer, String> missing = new HashMap<>();
+        int songCount = playlist.getSongCount();
+        int expectedPlaylistVersion;
+        long expectedCatalogVersion;
+        synchronized (this) {
+            if (!matches(playlist)) reset(playlist);
+            entries.put(index, new Entry(song, currentSong));
+            expectedPlaylistVersion = playlistVersion;
+            expectedCatalogVersion = catalogVersion;
+
+            // Evict entries that fell out of the window and collect the positions still to be resolved
+            int reach = Math.min(depth, songCount - 1);
+            Set<Integer> window = new HashSet<>();
+            window.add(index);
+            for (int offset = 1; offset <= reach; offset++) {
+                window.add(Math.floorMod(index + offset, songCount));
+                window.add(Math.floorMod(index - offset, songCount));
+            }
+            entries.keySet().retainAll(window);
+            for (Integer position : window) {
+                if (!entries.containsKey(position)) missing.put(position, playlist.getSongIdAt(position));
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        try {
+            executor.execute(() -> resolve(playlist, expectedPlaylistVersion, expectedCatalogVersion, missing));
+        } catch (RejectedExecutionException e) {
+            // Prefetching is best effort; NEXT and BACK fall back to resolving the song themselves
+        }
+    }
+
+    private void resolve(Playlist playlist, int expectedPlaylistVersion, long expectedCatalogVersion,
+            Map<Integer, String> missing) {
+        Map<Integer, Entry> resolved = new HashMap<>();
+        // A catalog write is running; whatever is read now would be dropped
+        if (!catalogReadLock.tryLock()) return;
+        try {
+            if (songRepository.getVersion() != expectedCatalogVersion) return;
+            for (Map.Entry<Integer, String> position : missing.entrySet()) {
+                Optional<Song> song = songRepository.findById(position.getValue());
+                if (!song.isPresent()) continue;
+                Song s = song.get();
+                CurrentSongDto currentSong = new CurrentSongDto(s.getName(), s.getAlbumName(), s.getFeaturedArtists());
+                // Render now so that the command only has to print it
+                currentSong.toString();
+                resolved.put(position.getKey(), new Entry(s, currentSong));
+            }
+        } finally {
+            catalogReadLock.unlock();
+        }
+
+        synchronized (this) {
+            // Drop the work if the playlist or catalog changed while it was being resolved
+            if (this.playlist != playlist || playlistVersion != expectedPlaylistVersion
+                    || catalogVersion != expectedCatalogVersion) {
+                return;
+            }
+            for (Map.Entry<Integer, Entry> entry : resolved.entrySet()) {
+                entries.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private boolean matches(Playlist playlist) {
+        return this.playlist == playlist
+                && playlistVersion == playlist.getVersion()
+                && catalogVersion == songRepository.getVersion();
+    }
+
+    private void reset(Playlist playlist) {
+        this.playlist = playlist;
+        this.playlistVersion = playlist.getVersion();
+        this.catalogVersion = songRepository.getVersion();
+        entries.clear();
+    }
+}
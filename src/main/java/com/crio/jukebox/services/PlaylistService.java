@@ -1,8 +1,12 @@
 package com.crio.jukebox.services;
 
+import com.crio.jukebox.dtos.PlaylistDeltaDto;
 import com.crio.jukebox.dtos.PlaylistDto;
+import com.crio.jukebox.dtos.PlaylistPageDto;
 import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
 import com.crio.jukebox.entities.User;
+import com.crio.jukebox.exceptions.InvalidOperationException;
 import com.crio.jukebox.exceptions.PlaylistNotFoundException;
 import com.crio.jukebox.exceptions.SongNotFoundException;
 import com.crio.jukebox.exceptions.SongNotInPlaylistException;
@@ -10,19 +14,39 @@ import com.crio.jukebox.exceptions.UserNotFoundException;
 import com.crio.jukebox.repositories.IPlaylistRepository;
 import com.crio.jukebox.repositories.ISongRepository;
 import com.crio.jukebox.repositories.IUserRepository;
-
+import com.crio.jukebox.repositories.SongCooccurrenceIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class PlaylistService implements IPlaylistService {
 
     private final IPlaylistRepository playlistRepository;
     private final IUserRepository userRepository;
     private final ISongRepository songRepository;
+    private final SongCooccurrenceIndex cooccurrenceIndex;
 
     public PlaylistService(IPlaylistRepository playlistRepository, IUserRepository userRepository, ISongRepository songRepository) {
+        this(playlistRepository, userRepository, songRepository, new SongCooccurrenceIndex());
+    }
+
+    /**
+     * @param cooccurrenceIndex Index of songs sharing playlists, kept up to date as playlists change.
+     */
+    public PlaylistService(IPlaylistRepository playlistRepository, IUserRepository userRepository,
+            ISongRepository songRepository, SongCooccurrenceIndex cooccurrenceIndex) {
         this.playlistRepository = playlistRepository;
         this.userRepository = userRepository;
         this.songRepository = songRepository;
+        this.cooccurrenceIndex = cooccurrenceIndex;
     }
 
 
@@ -48,21 +72,21 @@ public class PlaylistService implements IPlaylistService {
         // Find the user with the given userId or throw UserNotFoundException
         User user = getUserById(userId);
 
-        // Create a new playlist with the given name and user ID
-        Playlist newPlaylist = new Playlist(playlistName, userId);
+        // Check all the songs exist in the repository in one call or throw SongNotFoundException
+        validateSongsExist(Arrays.asList(songIds));
 
-        // Add each song with the provided song IDs to the new playlist
-        for (String songId : songIds) {
-            // Check if the song exists in the repository or throw SongNotFoundException
-            validateSongExists(songId);
-            newPlaylist.addSong(songId);
-        }
+        // Create a new playlist with the given name, user ID and songs
+        Playlist newPlaylist = new Playlist(null, playlistName, userId, Arrays.asList(songIds));
 
         // Save the new playlist to the playlist repository and update the user's playlist list
         newPlaylist = playlistRepository.save(newPlaylist);
         user.addPlaylist(newPlaylist);
         userRepository.save(user);
 
+        // Every pair of songs in the new playlist now shares one more playlist
+        Set<String> members = newPlaylist.getDistinctSongIds();
+        cooccurrenceIndex.addSongs(members, members);
+
         // Return the PlaylistDto representing the newly created playlist
         return new PlaylistDto(newPlaylist.getId(), playlistName, songIds);
     }
@@ -98,6 +122,10 @@ public class PlaylistService implements IPlaylistService {
 
         // Save the updated user to the user repository
         userRepository.save(user);
+
+        // Every pair of songs in the deleted playlist now shares one playlist less
+        Set<String> members = playlist.getDistinctSongIds();
+        cooccurrenceIndex.removeSongs(members, members);
     }
 
 
@@ -120,26 +148,12 @@ public class PlaylistService implements IPlaylistService {
         Objects.requireNonNull(playlistId, "Playlist ID must be provided");
         Objects.requireNonNull(songIds, "List of Song IDs must be provided");
 
-        // Find the user with the given userId or throw UserNotFoundException
-        User user = getUserById(userId);
-
-        // Find the playlist with the given playlistId or throw PlaylistNotFoundException
-        Playlist playlist = getPlaylistById(user, playlistId);
-
-        // Add each song with the provided song IDs to the playlist
-        for (String songId : songIds) {
-            // Check if the song exists in the repository or throw SongNotFoundException
-            validateSongExists(songId);
-            if (!playlist.checkIfSongExist(songId)) playlist.addSong(songId);
+        try {
+            return modifyPlaylist(userId, playlistId, new PlaylistMutation().addSongs(songIds));
+        } catch (SongNotInPlaylistException | InvalidOperationException e) {
+            // Additions alone never delete or move songs
+            throw new IllegalStateException(e);
         }
-
-        // Save the updated playlist to the playlist repository and update the user's playlist list
-        playlistRepository.save(playlist);
-        userRepository.save(user);
-
-        // Convert the updated songIds list to an array and return the updated PlaylistDto
-        songIds = playlist.getSongIdList().toArray(new String[0]);
-        return new PlaylistDto(playlist.getId(), playlist.getName(), songIds);
     }
 
 
@@ -162,46 +176,250 @@ public class PlaylistService implements IPlaylistService {
         Objects.requireNonNull(playlistId, "Playlist ID must be provided");
         Objects.requireNonNull(songIds, "List of Song IDs must be provided");
 
-        // Find the user with the given userId or throw UserNotFoundException
-        User user = getUserById(userId);
-
-        // Find the playlist with the given playlistId or throw PlaylistNotFoundException
-        Playlist playlist = getPlaylistById(user, playlistId);
-
-        // Delete each song with the provided song IDs from the playlist
-        for (String songId : songIds) {
-            // Check if the song exists in the playlist or throw SongNotFoundException
-            if (!playlist.checkIfSongExist(songId)) {
-                throw new SongNotInPlaylistException("Requested Song with ID: " + songId +
-                        " is not present in the playlist ID: " + playlistId);
-            }
-            playlist.deleteSong(songId);
+        try {
+            return modifyPlaylist(userId, playlistId, new PlaylistMutation().deleteSongs(songIds));
+        } catch (SongNotFoundException | InvalidOperationException e) {
+            // Deletions alone never add or move songs
+            throw new IllegalStateException(e);
         }
+    }
 
-        // Save the updated playlist to the playlist repository and update the user's playlist list
-        playlistRepository.save(playlist);
-        userRepository.save(user);
+
+    /**
+     * Applies a batch of add, delete and move operations to the playlist, all or nothing.
+     * The whole batch is validated first: the added songs are checked against the song repository in one call, and
+     * the deletions and moves are checked against the playlist as the earlier operations leave it. Only then is the
+     * playlist changed and saved, once.
+     *
+     * @param userId     The ID of the user.
+     * @param playlistId The ID of the playlist to be modified.
+     * @param mutation   The operations to apply, in order.
+     * @return The PlaylistDto representing the updated playlist.
+     * @throws UserNotFoundException       If the user with the specified ID is not found.
+     * @throws PlaylistNotFoundException   If the playlist with the specified ID is not found.
+     * @throws SongNotFoundException       If any of the songs to be added are not found.
+     * @throws SongNotInPlaylistException  If any of the songs to be deleted or moved are not in the playlist.
+     * @throws InvalidOperationException   If a song is moved to a position outside the playlist.
+     */
+    @Override
+    public PlaylistDto modifyPlaylist(String userId, String playlistId, PlaylistMutation mutation)
+            throws UserNotFoundException, PlaylistNotFoundException, SongNotFoundException,
+            SongNotInPlaylistException, InvalidOperationException {
+        Playlist playlist = findUserPlaylist(userId, playlistId);
+        applyBatch(playlist, mutation);
 
         // Convert the updated songIds list to an array and return the updated PlaylistDto
-        songIds = playlist.getSongIdList().toArray(new String[0]);
+        String[] songIds = playlist.getSongIdList().toArray(new String[0]);
         return new PlaylistDto(playlist.getId(), playlist.getName(), songIds);
     }
 
 
+    /**
+     * Applies a batch like modifyPlaylist, but returns only what changed instead of the whole playlist.
+     *
+     * @param userId     The ID of the user.
+     * @param playlistId The ID of the playlist to be modified.
+     * @param mutation   The operations to apply, in order.
+     * @return The PlaylistDeltaDto with the songs added, removed and moved, the new size and the playlist version.
+     * @throws UserNotFoundException       If the user with the specified ID is not found.
+     * @throws PlaylistNotFoundException   If the playlist with the specified ID is not found.
+     * @throws SongNotFoundException       If any of the songs to be added are not found.
+     * @throws SongNotInPlaylistException  If any of the songs to be deleted or moved are not in the playlist.
+     * @throws InvalidOperationException   If a song is moved to a position outside the playlist.
+     */
+    @Override
+    public PlaylistDeltaDto modifyPlaylistDelta(String userId, String playlistId, PlaylistMutation mutation)
+            throws UserNotFoundException, PlaylistNotFoundException, SongNotFoundException,
+            SongNotInPlaylistException, InvalidOperationException {
+        Playlist playlist = findUserPlaylist(userId, playlistId);
+        Changes changes = applyBatch(playlist, mutation);
+
+        return new PlaylistDeltaDto(playlist.getId(), changes.added.toArray(new String[0]),
+                changes.removed.toArray(new String[0]), changes.moved.toArray(new String[0]),
+                playlist.getSongCount(), playlist.getVersion());
+    }
+
+
+    /**
+     * Returns one page of the songs in the playlist.
+     *
+     * @param userId     The ID of the user.
+     * @param playlistId The ID of the playlist to be shown.
+     * @param offset     The number of songs to skip.
+     * @param limit      The maximum number of songs to return.
+     * @return The PlaylistPageDto with the requested songs, the playlist size and the playlist version.
+     * @throws UserNotFoundException     If the user with the specified ID is not found.
+     * @throws PlaylistNotFoundException If the playlist with the specified ID is not found.
+     */
+    @Override
+    public PlaylistPageDto getPlaylistPage(String userId, String playlistId, int offset, int limit)
+            throws UserNotFoundException, PlaylistNotFoundException {
+        // Validate the page is not negative
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+
+        Playlist playlist = findUserPlaylist(userId, playlistId);
+
+        // Copy only the requested positions
+        int songCount = playlist.getSongCount();
+        int end = (int) Math.min((long) offset + limit, songCount);
+        String[] songIds = new String[Math.max(0, end - offset)];
+        for (int i = 0; i < songIds.length; i++) songIds[i] = playlist.getSongIdAt(offset + i);
+
+        return new PlaylistPageDto(playlist.getId(), playlist.getName(), offset, songIds, songCount,
+                playlist.getVersion());
+    }
+
+
+    /**
+     * Validates, applies and saves a batch on the user's playlist.
+     */
+    private Changes applyBatch(Playlist playlist, PlaylistMutation mutation)
+            throws SongNotFoundException, SongNotInPlaylistException, InvalidOperationException {
+        Objects.requireNonNull(mutation, "Playlist mutation must be provided");
+
+        // Validate the whole batch before touching the playlist
+        validateSongsExist(mutation.getAddedSongIds());
+        validateMutation(playlist, mutation);
+
+        // Remember which of the songs touched by the batch were in the playlist before it
+        Set<String> touched = new LinkedHashSet<>();
+        for (PlaylistMutation.Operation operation : mutation.getOperations()) touched.add(operation.getSongId());
+        Set<String> wereMembers = new HashSet<>();
+        for (String songId : touched) {
+            if (playlist.checkIfSongExist(songId)) wereMembers.add(songId);
+        }
+
+        // Apply the batch and save the playlist once, with the operations that changed it so that only they are
+        // recorded. The user holds the same playlist instance, so it is unchanged.
+        PlaylistMutation applied = playlist.apply(mutation);
+        playlistRepository.saveModified(playlist, applied);
+        Changes changes = changesOf(applied);
+
+        updateCooccurrences(playlist, touched, wereMembers);
+        return changes;
+    }
+
+    /**
+     * Updates the co-occurrence counts for the songs that joined or left the playlist in a batch.
+     * The members are iterated through a view of the playlist rather than copied, so a batch changing c songs of a
+     * playlist of n songs costs O(c * n) and allocates nothing in proportion to n.
+     */
+    private void updateCooccurrences(Playlist playlist, Set<String> touched, Set<String> wereMembers) {
+        List<String> joined = new ArrayList<>();
+        List<String> left = new ArrayList<>();
+        for (String songId : touched) {
+            boolean isMember = playlist.checkIfSongExist(songId);
+            if (isMember && !wereMembers.contains(songId)) joined.add(songId);
+            if (!isMember && wereMembers.contains(songId)) left.add(songId);
+        }
+        if (joined.isEmpty() && left.isEmpty()) return;
+
+        Set<String> membersAfter = playlist.getDistinctSongIds();
+        if (!left.isEmpty()) {
+            // The members before the batch were those after it without the joined songs, plus the songs that left:
+            // pairs of a leaving song with a staying one, then pairs of two leaving songs
+            Iterable<String> stayed = () -> membersAfter.stream().filter(songId -> !joined.contains(songId)).iterator();
+            cooccurrenceIndex.removeSongs(left, stayed);
+            cooccurrenceIndex.removeSongs(left, left);
+        }
+        if (!joined.isEmpty()) cooccurrenceIndex.addSongs(joined, membersAfter);
+    }
+
+
 
     private User getUserById(String userId) throws UserNotFoundException {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User for given ID:" + userId + " not found!"));
     }
 
+    private Playlist findUserPlaylist(String userId, String playlistId)
+            throws UserNotFoundException, PlaylistNotFoundException {
+        // Validate if userId and playlistId are provided
+        Objects.requireNonNull(userId, "User ID must be provided");
+        Objects.requireNonNull(playlistId, "Playlist ID must be provided");
+
+        // Find the user, then the user's playlist, or throw UserNotFoundException or PlaylistNotFoundException
+        return getPlaylistById(getUserById(userId), playlistId);
+    }
+
     private Playlist getPlaylistById(User user, String playlistId) throws PlaylistNotFoundException {
         return user.getPlaylist(playlistId)
                 .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found for ID: " + playlistId));
     }
 
-    private void validateSongExists(String songId) throws SongNotFoundException {
-        if (!songRepository.existsById(songId)) {
-            throw new SongNotFoundException("Song not found for ID: " + songId);
+    private void validateSongsExist(Collection<String> songIds) throws SongNotFoundException {
+        if (songIds.isEmpty()) return;
+        List<String> missing = songRepository.findMissingIds(songIds);
+        if (!missing.isEmpty()) {
+            throw new SongNotFoundException("Song not found for ID: " + missing.get(0));
         }
     }
+
+    /**
+     * Replays the batch against per-song occurrence counts and the playlist size, without changing the playlist.
+     */
+    private void validateMutation(Playlist playlist, PlaylistMutation mutation)
+            throws SongNotInPlaylistException, InvalidOperationException {
+        Map<String, Integer> counts = new HashMap<>();
+        int size = playlist.getSongCount();
+
+        for (PlaylistMutation.Operation operation : mutation.getOperations()) {
+            String songId = operation.getSongId();
+            int count = counts.computeIfAbsent(songId, playlist::countSong);
+            switch (operation.getAction()) {
+                case ADD_SONG:
+                    if (count == 0) {
+                        counts.put(songId, 1);
+                        size++;
+                    }
+                    break;
+                case DELETE_SONG:
+                    if (count == 0) throw songNotInPlaylist(songId, playlist.getId());
+                    counts.put(songId, count - 1);
+                    size--;
+                    break;
+                case MOVE_SONG:
+                    if (count == 0) throw songNotInPlaylist(songId, playlist.getId());
+                    if (operation.getToIndex() < 0 || operation.getToIndex() >= size) {
+                        throw new InvalidOperationException("Cannot move Song with ID: " + songId +
+                                " to position " + operation.getToIndex() + " of the playlist ID: " + playlist.getId());
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sorts the operations that changed a playlist into the songs added, removed and moved, in the order they ran.
+     */
+    private static Changes changesOf(PlaylistMutation applied) {
+        Changes changes = new Changes();
+        for (PlaylistMutation.Operation operation : applied.getOperations()) {
+            switch (operation.getAction()) {
+                case ADD_SONG:
+                    changes.added.add(operation.getSongId());
+                    break;
+                case DELETE_SONG:
+                    changes.removed.add(operation.getSongId());
+                    break;
+                case MOVE_SONG:
+                    changes.moved.add(operation.getSongId());
+                    break;
+            }
+        }
+        return changes;
+    }
+
+    private static final class Changes {
+        private final List<String> added = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> moved = new ArrayList<>();
+    }
+
+    private static SongNotInPlaylistException songNotInPlaylist(String songId, String playlistId) {
+        return new SongNotInPlaylistException("Requested Song with ID: " + songId +
+                " is not present in the playlist ID: " + playlistId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.crio.jukebox.services;
+
+import com.crio.jukebox.dtos.SongDto;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.exceptions.SongNotFoundException;
+import com.crio.jukebox.repositories.ISongRepository;
+import com.crio.jukebox.repositories.SongCooccurrenceIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class SongService implements ISongService {
+
+    private final ISongRepository songRepository;
+    private final SongCooccurrenceIndex cooccurrenceIndex;
+
+    public SongService(ISongRepository songRepository) {
+        this(songRepository, new SongCooccurrenceIndex());
+    }
+
+    public SongService(ISongRepository songRepository, SongCooccurrenceIndex cooccurrenceIndex) {
+        this.songRepository = songRepository;
+        this.cooccurrenceIndex = cooccurrenceIndex;
+    }
+
+
+    /**
+     * Searches the catalog for songs whose name, album or artist match the given text.
+     * Matching is by whole word, by word prefix for type-ahead, and tolerates small spelling mistakes.
+     *
+     * @param text  The text to search for.
+     * @param limit The maximum number of songs to return.
+     * @return The SongDtos of the best matching songs, most relevant first.
+     */
+    @Override
+    public List<SongDto> searchSongs(String text, int limit) {
+
+        // Validate if the search text is provided
+        Objects.requireNonNull(text, "Search text must be provided");
+
+        return songRepository.search(text, limit).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ranks songs by how many playlists they share with the given song.
+     *
+     * @param songId The ID of the song.
+     * @param limit  The maximum number of songs to return.
+     * @return The SongDtos of the songs sharing the most playlists, most shared first.
+     * @throws SongNotFoundException If the song with the specified ID is not found.
+     */
+    @Override
+    public List<SongDto> findSimilarSongs(String songId, int limit) throws SongNotFoundException {
+
+        // Validate if the song ID is provided and the song exists
+        Objects.requireNonNull(songId, "Song ID must be provided");
+        if (!songRepository.existsById(songId)) {
+            throw new SongNotFoundException("Song for given ID: " + songId + " not found!");
+        }
+
+        // Songs removed from the catalog since they were added to playlists are not ranked, so they do not take
+        // the place of songs that still exist
+        List<SongDto> similar = new ArrayList<>();
+        for (String similarSongId : cooccurrenceIndex.findSimilar(songId, limit, songRepository::existsById)) {
+            songRepository.findById(similarSongId).ifPresent(song -> similar.add(toDto(song)));
+        }
+        return similar;
+    }
+
+    private SongDto toDto(Song song) {
+        return new SongDto(song.getId(), song.getName(), song.getAlbumName(), song.getArtist());
+    }
+}
@@ -1,14 +1,29 @@
 package com.crio.jukebox.services;
 
 import com.crio.jukebox.dtos.CurrentSongDto;
+import com.crio.jukebox.dtos.PlayedSongDto;
 import com.crio.jukebox.dtos.UserDto;
+import com.crio.jukebox.entities.ListeningHistory;
+import com.crio.jukebox.entities.PlaybackMode;
 import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.ShuffleOrder;
 import com.crio.jukebox.entities.Song;
 import com.crio.jukebox.entities.SongPlaybackControl;
 import com.crio.jukebox.entities.User;
 import com.crio.jukebox.exceptions.*;
 import com.crio.jukebox.repositories.ISongRepository;
 import com.crio.jukebox.repositories.IUserRepository;
+import com.crio.jukebox.repositories.IntIdStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class UserService implements IUserService {
 
@@ -16,9 +31,49 @@ public class UserService implements IUserService {
 
     private final ISongRepository songRepository;
 
+    private final Random random;
+
+    // Resolves upcoming songs in the background; null disables the look-ahead buffers
+    private final Executor prefetchExecutor;
+    private final int lookaheadDepth;
+    private final Lock catalogReadLock;
+    private final Map<String, PlaybackLookahead> lookaheads = new ConcurrentHashMap<>();
+
     public UserService(IUserRepository userRepository, ISongRepository songRepository) {
+        this(userRepository, songRepository, new Random());
+    }
+
+    public UserService(IUserRepository userRepository, ISongRepository songRepository, Random random) {
+        this(userRepository, songRepository, random, null, 0);
+    }
+
+    /**
+     * @param prefetchExecutor Executor that resolves and renders upcoming songs after each play. It must run them on
+     *                         the calling thread, or songRepository must allow reads during a write, as
+     *                         ConcurrentSongRepository does.
+     * @param lookaheadDepth   How many songs before and after the current one to keep ready for BACK and NEXT.
+     */
+    public UserService(IUserRepository userRepository, ISongRepository songRepository, Random random,
+            Executor prefetchExecutor, int lookaheadDepth) {
+        this(userRepository, songRepository, random, prefetchExecutor, lookaheadDepth,
+                new ReentrantReadWriteLock().readLock());
+    }
+
+    /**
+     * @param prefetchExecutor Executor that resolves and renders upcoming songs after each play, on any thread.
+     * @param lookaheadDepth   How many songs before and after the current one to keep ready for BACK and NEXT.
+     * @param catalogReadLock  The read side of the lock that every write to songRepository holds. The prefetcher
+     *                         only reads the repository while it holds this lock, and skips a round instead of
+     *                         waiting for it.
+     */
+    public UserService(IUserRepository userRepository, ISongRepository songRepository, Random random,
+            Executor prefetchExecutor, int lookaheadDepth, Lock catalogReadLock) {
         this.userRepository = userRepository;
         this.songRepository = songRepository;
+        this.random = random;
+        this.prefetchExecutor = prefetchExecutor;
+        this.lookaheadDepth = lookaheadDepth;
+        this.catalogReadLock = catalogReadLock;
     }
 
 
@@ -62,17 +117,23 @@ public class UserService implements IUserService {
         }
 
         // Get the ID of the first song in the playlist
-        String firstSongId = playlist.getSongIdList().get(0);
+        String firstSongId = playlist.getSongIdAt(0);
         // Find the song with the given firstSongId or throw SongNotFoundException
         Song song = getSongById(firstSongId);
 
         // Set the active playlist and song for the user
         user.setActivePlaylist(playlist);
-        user.setActiveSong(song);
+        user.setActiveSong(song, 0);
+        // A new session starts a new shuffled order from the first song
+        user.setShuffleOrder(user.getPlaybackMode() == PlaybackMode.SHUFFLE
+                ? new ShuffleOrder(playlist, firstSongId, random) : null);
+        recordPlay(user, song);
         userRepository.save(user);
 
-        // Return the CurrentSongDto with the details of the currently playing song
-        return new CurrentSongDto(song.getName(), song.getAlbumName(), song.getFeaturedArtists());
+        // Return the CurrentSongDto with the details of the currently playing song, and prefetch its neighbours
+        CurrentSongDto currentSong = new CurrentSongDto(song.getName(), song.getAlbumName(), song.getFeaturedArtists());
+        prefetch(user, playlist, 0, song, currentSong);
+        return currentSong;
     }
 
 
@@ -103,19 +164,28 @@ public class UserService implements IUserService {
                 .orElseThrow(() -> new PlaylistNotFoundException("No active playlist found for given user: " + userId));
 
         // Check if the specified song exists in the active playlist or throw SongNotFoundException
-        if (!playlist.checkIfSongExist(songId)) {
+        int songIndex = playlist.indexOfSong(songId);
+        if (songIndex < 0) {
             throw new SongNotInPlaylistException("Song for given ID:" + songId + " not found in Active Playlist ID: " + playlist.getId());
         }
 
         // Find the song with the given songId or throw SongNotFoundException
         Song song = getSongById(songId);
 
-        // Set the active song for the user and save the updated user to the repository
-        user.setActiveSong(song);
+        // Continue the shuffled order from the chosen song
+        if (user.getPlaybackMode() == PlaybackMode.SHUFFLE) {
+            shuffleOrderFor(user, playlist, song).jumpTo(songId);
+        }
+
+        // Set the active song and its position for the user and save the updated user to the repository
+        user.setActiveSong(song, songIndex);
+        recordPlay(user, song);
         userRepository.save(user);
 
-        // Return the CurrentSongDto with the details of the currently playing song
-        return new CurrentSongDto(song.getName(), song.getAlbumName(), song.getFeaturedArtists());
+        // Return the CurrentSongDto with the details of the currently playing song, and prefetch its neighbours
+        CurrentSongDto currentSong = new CurrentSongDto(song.getName(), song.getAlbumName(), song.getFeaturedArtists());
+        prefetch(user, playlist, songIndex, song, currentSong);
+        return currentSong;
     }
 
 
@@ -150,37 +220,166 @@ public class UserService implements IUserService {
         Song currentSong = user.getActiveSong()
                 .orElseThrow(() -> new InvalidOperationException("No active playing song found for given user: " + userId));
 
-        // Find the next or previous song in the playlist or throw SongNotFoundException
-        Song songToPlay = nextSongToPlay(playlist, currentSong, playback);
+        int nextIndex;
+        Song songToPlay;
+        CurrentSongDto songToPlayDto = null;
+        switch (user.getPlaybackMode()) {
+            case REPEAT_ONE:
+                // Keep playing the current song
+                nextIndex = currentSongIndex(playlist, currentSong, user.getActiveSongIndex());
+                songToPlay = currentSong;
+                break;
+            case SHUFFLE:
+                // Step through the session's shuffled order
+                ShuffleOrder order = shuffleOrderFor(user, playlist, currentSong);
+                String nextSongId = playback == SongPlaybackControl.NEXT ? order.next() : order.back();
+                songToPlay = nextSongId.equals(currentSong.getId()) ? currentSong : getSongById(nextSongId);
+                // The position is only needed outside shuffle, and is looked up again then
+                nextIndex = -1;
+                break;
+            default:
+                // Find the position of the next or previous song in the playlist
+                int position = nextSongIndex(playlist, currentSong, user.getActiveSongIndex(), playback);
+                nextIndex = position;
+                // Take the song at that position from the look-ahead buffer, or find it or throw SongNotFoundException
+                PlaybackLookahead.Entry prefetched = lookaheadFor(user)
+                        .flatMap(lookahead -> lookahead.take(playlist, position))
+                        .orElse(null);
+                if (prefetched != null) {
+                    songToPlay = prefetched.song();
+                    songToPlayDto = prefetched.currentSong();
+                } else {
+                    songToPlay = getSongById(playlist.getSongIdAt(nextIndex));
+                }
+                break;
+        }
 
-        // Set the active song for the user and save the updated user to the repository
-        user.setActiveSong(songToPlay);
+        // Set the active song and its position for the user and save the updated user to the repository
+        user.setActiveSong(songToPlay, nextIndex);
+        recordPlay(user, songToPlay);
         userRepository.save(user);
 
         // Return the CurrentSongDto with the details of the currently playing song after playback
-        return new CurrentSongDto(songToPlay.getName(), songToPlay.getAlbumName(), songToPlay.getFeaturedArtists());
+        if (songToPlayDto == null) {
+            songToPlayDto = new CurrentSongDto(songToPlay.getName(), songToPlay.getAlbumName(), songToPlay.getFeaturedArtists());
+        }
+        prefetch(user, playlist, nextIndex, songToPlay, songToPlayDto);
+        return songToPlayDto;
     }
 
 
-    private Song nextSongToPlay(Playlist currPlaylist, Song currSong, SongPlaybackControl playback)
-            throws SongNotFoundException {
+    /**
+     * Sets the playback mode of the user. Switching to shuffle starts a new shuffled order from the current song.
+     *
+     * @param userId The ID of the user.
+     * @param mode   The PlaybackMode to use for NEXT and BACK.
+     * @throws UserNotFoundException If the user with the specified ID is not found.
+     */
+    @Override
+    public void setPlaybackMode(String userId, PlaybackMode mode) throws UserNotFoundException {
+
+        // Validate if userId and mode are provided
+        if (userId == null || mode == null) {
+            throw new IllegalArgumentException("User ID and playback mode must be provided");
+        }
+
+        // Find the user with the given userId or throw UserNotFoundException
+        User user = getUserById(userId);
+
+        // Set the mode; the shuffled order is created on the first NEXT or BACK
+        user.setPlaybackMode(mode);
+        user.setShuffleOrder(null);
+        userRepository.save(user);
+    }
 
-        // Find the index of the currently playing song in the playlist
-        int currentSongIndex = currPlaylist.getSongIdList().indexOf(currSong.getId());
 
-        // Calculate the index of the next or previous song based on the playback control
-        int nextIndex;
-        if (playback == SongPlaybackControl.NEXT) {
-            nextIndex = (currentSongIndex + 1) % currPlaylist.getSongCount();
-        } else {
-            nextIndex = (currentSongIndex - 1 + currPlaylist.getSongCount()) % currPlaylist.getSongCount();
+    /**
+     * Returns the songs the user played most recently, latest first.
+     *
+     * @param userId The ID of the user.
+     * @param count  The maximum number of plays to return; at most the capacity of the listening history.
+     * @return The PlayedSongDto of each play whose song is still in the catalog.
+     * @throws UserNotFoundException If the user with the specified ID is not found.
+     */
+    @Override
+    public List<PlayedSongDto> getRecentlyPlayed(String userId, int count) throws UserNotFoundException {
+
+        // Validate if userId is provided and the count is not negative
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID must be provided");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Number of songs must not be negative");
         }
 
-        // Get the ID of the next or previous song in the playlist
-        String nextSongId = currPlaylist.getSongIdList().get(nextIndex);
+        // Find the user with the given userId or throw UserNotFoundException
+        User user = getUserById(userId);
+
+        // Walk the history from the latest play, resolving each song ID
+        ListeningHistory history = user.getListeningHistory();
+        int plays = Math.min(count, history.size());
+        List<PlayedSongDto> recentlyPlayed = new ArrayList<>(plays);
+        for (int age = 0; age < plays; age++) {
+            long playedAt = history.timestampAt(age);
+            songRepository.findById(history.songIdAt(age)).ifPresent(song ->
+                    recentlyPlayed.add(new PlayedSongDto(song.getId(), song.getName(), playedAt)));
+        }
+        return recentlyPlayed;
+    }
 
-        return getSongById(nextSongId);
 
+    private void recordPlay(User user, Song song) {
+        // Song IDs are positive integers; anything else cannot be stored in the primitive history
+        int songId = IntIdStore.parseId(song.getId());
+        if (songId < 0) return;
+        user.getListeningHistory().record(songId, System.currentTimeMillis());
+    }
+
+    private Optional<PlaybackLookahead> lookaheadFor(User user) {
+        if (prefetchExecutor == null || lookaheadDepth <= 0) return Optional.empty();
+        return Optional.of(lookaheads.computeIfAbsent(user.getId(),
+                id -> new PlaybackLookahead(songRepository, catalogReadLock, prefetchExecutor, lookaheadDepth)));
+    }
+
+    /**
+     * Refills the user's look-ahead buffer around the song now playing. Shuffled orders are drawn one step at a time,
+     * so there is nothing to prefetch in shuffle mode.
+     */
+    private void prefetch(User user, Playlist playlist, int index, Song song, CurrentSongDto currentSong) {
+        if (user.getPlaybackMode() == PlaybackMode.SHUFFLE) return;
+        lookaheadFor(user).ifPresent(lookahead -> lookahead.playing(playlist, index, song, currentSong));
+    }
+
+    private ShuffleOrder shuffleOrderFor(User user, Playlist playlist, Song currentSong) {
+        ShuffleOrder order = user.getShuffleOrder().orElse(null);
+        if (order == null || order.getPlaylist() != playlist) {
+            order = new ShuffleOrder(playlist, currentSong.getId(), random);
+            user.setShuffleOrder(order);
+        }
+        return order;
+    }
+
+    private int currentSongIndex(Playlist currPlaylist, Song currSong, int cursor) {
+
+        // Use the remembered position of the current song while it still points at that song. Only after the
+        // playlist has been modified around the cursor does the position have to be searched for again.
+        if (cursor < 0 || cursor >= currPlaylist.getSongCount()
+                || !currPlaylist.getSongIdAt(cursor).equals(currSong.getId())) {
+            return currPlaylist.indexOfSong(currSong.getId());
+        }
+        return cursor;
+    }
+
+    private int nextSongIndex(Playlist currPlaylist, Song currSong, int cursor, SongPlaybackControl playback) {
+
+        int currentSongIndex = currentSongIndex(currPlaylist, currSong, cursor);
+
+        // Calculate the index of the next or previous song based on the playback control
+        if (playback == SongPlaybackControl.NEXT) {
+            return (currentSongIndex + 1) % currPlaylist.getSongCount();
+        } else {
+            return (currentSongIndex - 1 + currPlaylist.getSongCount()) % currPlaylist.getSongCount();
+        }
     }
 
     private User getUserById(String userId) throws UserNotFoundException {
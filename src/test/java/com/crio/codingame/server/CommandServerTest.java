@@ -0,0 +1,198 @@
+package com.crio.codingame.server;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.crio.codingame.appConfig.ApplicationConfig;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CommandServerTest")
+public class CommandServerTest {
+
+    private static final Pattern QUESTION_ID = Pattern.compile("^Question \\[id=(\\d+), ");
+
+    private CommandServer server;
+    private int port;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new CommandServer(new ApplicationConfig().getCommandInvoker(), 16);
+        port = server.start(0);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        // Puts the console back as System.out
+        server.close();
+    }
+
+    // One client connection that reads the framed replies of the server
+    private final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final DataInputStream in;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(10_000);
+            out = socket.getOutputStream();
+            in = new DataInputStream(socket.getInputStream());
+        }
+
+        void send(String... lines) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (String line : lines) text.append(line).append('\n');
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        String[] receive() throws IOException {
+            StringBuilder header = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) throw new IOException("Connection closed before the reply header");
+                header.append((char) b);
+            }
+            String[] parts = header.toString().split(" ");
+            Assertions.assertEquals(2, parts.length, "Malformed header: " + header);
+            byte[] body = new byte[Integer.parseInt(parts[1])];
+            in.readFully(body);
+            return new String[]{parts[0], new String(body, StandardCharsets.UTF_8)};
+        }
+
+        String[] call(String line) throws IOException {
+            send(line);
+            return receive();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    @DisplayName("A command should be answered with OK and what it printed")
+    public void serve_ShouldFrameOutputWithOkHeader_GivenCommand() throws IOException {
+        //Arrange
+        String expected = "User [id=1, contests=[], name=Ravi, score=1500]\n";
+        try (Client client = new Client()) {
+            //Act
+            String[] reply = client.call("CREATE_USER Ravi");
+            //Assert
+            Assertions.assertEquals("OK", reply[0]);
+            Assertions.assertEquals(expected, reply[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("A command that throws should be answered with ERROR and the exception")
+    public void serve_ShouldFrameExceptionWithErrorHeader_GivenMalformedCommand() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            String[] reply = client.call("CREATE_QUESTION Q1 LOW ten");
+            String[] next = client.call("LIST_QUESTION");
+            //Assert
+            Assertions.assertEquals("ERROR", reply[0]);
+            Assertions.assertTrue(reply[1].startsWith("java.lang.NumberFormatException"), reply[1]);
+            Assertions.assertEquals("OK", next[0]);
+            Assertions.assertEquals("[]\n", next[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("An unknown command should be answered with ERROR and keep the connection open")
+    public void serve_ShouldReplyError_GivenUnknownCommand() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            String[] reply = client.call("DANCE 1 2");
+            String[] next = client.call("CREATE_USER Ravi");
+            //Assert
+            Assertions.assertEquals("ERROR", reply[0]);
+            Assertions.assertEquals("No such Command: DANCE", reply[1]);
+            Assertions.assertEquals("OK", next[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Pipelined commands should be answered in the order they were sent")
+    public void serve_ShouldReplyInOrder_GivenPipelinedCommands() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            client.send("CREATE_QUESTION Q1 LOW 10", "DANCE", "CREATE_QUESTION Q2 HIGH 100", "LIST_QUESTION HIGH");
+            List<String[]> replies = new ArrayList<>();
+            for (int i = 0; i < 4; i++) replies.add(client.receive());
+            //Assert
+            Assertions.assertEquals("Question [id=1, level=LOW, score=10, title=Q1]\n", replies.get(0)[1]);
+            Assertions.assertEquals("ERROR", replies.get(1)[0]);
+            Assertions.assertEquals("Question [id=2, level=HIGH, score=100, title=Q2]\n", replies.get(2)[1]);
+            Assertions.assertEquals("[Question [id=2, level=HIGH, score=100, title=Q2]]\n", replies.get(3)[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Two clients creating questions at once should each get their own questions back")
+    public void serve_ShouldKeepRepliesPerConnection_GivenTwoConcurrentClients() throws Exception {
+        //Arrange
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(2);
+        List<Future<List<String>>> created = new ArrayList<>();
+        for (String prefix : new String[]{"A", "B"}) {
+            created.add(clients.submit(() -> {
+                try (Client client = new Client()) {
+                    start.countDown();
+                    start.await();
+                    List<String> replies = new ArrayList<>();
+                    for (int i = 0; i < 50; i++) {
+                        String[] reply = client.call("CREATE_QUESTION " + prefix + i + " LOW " + i);
+                        Assertions.assertEquals("OK", reply[0], reply[1]);
+                        replies.add(reply[1]);
+                    }
+                    return replies;
+                }
+            }));
+        }
+        //Act
+        List<String> first = created.get(0).get(30, TimeUnit.SECONDS);
+        List<String> second = created.get(1).get(30, TimeUnit.SECONDS);
+        clients.shutdown();
+        //Assert
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            Assertions.assertTrue(first.get(i).endsWith(", score=" + i + ", title=A" + i + "]\n"), first.get(i));
+            Assertions.assertTrue(second.get(i).endsWith(", score=" + i + ", title=B" + i + "]\n"), second.get(i));
+            ids.add(questionId(first.get(i)));
+            ids.add(questionId(second.get(i)));
+        }
+        Assertions.assertEquals(100, ids.size());
+    }
+
+    private static String questionId(String reply) {
+        Matcher matcher = QUESTION_ID.matcher(reply);
+        Assertions.assertTrue(matcher.find(), reply);
+        return matcher.group(1);
+    }
+}
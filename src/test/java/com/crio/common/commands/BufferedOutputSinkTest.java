@@ -0,0 +1,66 @@
+package com.crio.common.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedOutputSinkTest {
+
+    @Test
+    void flush_ShouldWriteTheSameBytesAsPrintln() {
+        // Arrange
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        PrintStream console = new PrintStream(expected);
+        BufferedOutputSink outputSink = new BufferedOutputSink(new PrintStream(actual), 16);
+
+        // Act
+        for (Object value : new Object[]{"Songs Loaded successfully", 42, null, "\u00dcn\u00efc\u00f6d\u00e9 \u266a"}) {
+            console.println(value);
+            outputSink.println(value);
+        }
+        outputSink.printStream().print("from System.out");
+        console.print("from System.out");
+        outputSink.flush();
+
+        // Assert
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    void println_ShouldHoldOutputUntilTheBufferFills() {
+        // Arrange
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        BufferedOutputSink outputSink = new BufferedOutputSink(new PrintStream(console), 8);
+
+        // Act
+        outputSink.println("abc");
+        int heldBack = console.size();
+        outputSink.println("defgh");
+
+        // Assert
+        assertEquals(0, heldBack);
+        assertEquals("abc" + System.lineSeparator(), console.toString());
+    }
+
+    @Test
+    void endCapture_ShouldReturnWhatTheThreadWroteSinceBeginCapture() {
+        // Arrange
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        BufferedOutputSink outputSink = new BufferedOutputSink(new PrintStream(console));
+
+        // Act
+        outputSink.println("before");
+        outputSink.beginCapture();
+        outputSink.println("captured");
+        byte[] captured = outputSink.endCapture();
+        outputSink.flush();
+
+        // Assert
+        assertEquals("captured" + System.lineSeparator(), new String(captured, outputSink.charset()));
+        assertEquals("before" + System.lineSeparator(), console.toString());
+    }
+}
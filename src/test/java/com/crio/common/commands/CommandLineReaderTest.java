@@ -0,0 +1,53 @@
+package com.crio.common.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineReaderTest {
+
+    private static List<List<String>> readAll(String input, int windowSize) throws IOException {
+        List<List<String>> lines = new ArrayList<>();
+        CommandLineReader reader = new CommandLineReader(new StringReader(input), windowSize);
+        while (reader.readLine()) lines.add(reader.tokens().copy());
+        return lines;
+    }
+
+    @Test
+    void readLine_ShouldSplitLikeStringSplit() throws IOException {
+        // Arrange
+        String input = "PLAY-SONG 1 NEXT\n\nA  B \n   \nC";
+
+        // Act
+        List<List<String>> lines = readAll(input, 4);
+
+        // Assert
+        assertEquals(Arrays.asList(
+                Arrays.asList("PLAY-SONG", "1", "NEXT"),
+                Arrays.asList(""),
+                Arrays.asList("A", "", "B"),
+                Arrays.asList(),
+                Arrays.asList("C")), lines);
+    }
+
+    @Test
+    void readLine_ShouldAcceptEveryLineTerminator() throws IOException {
+        // Arrange
+        String input = "A 1\r\nB 2\rC 3\n";
+
+        // Act
+        List<List<String>> lines = readAll(input, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(
+                Arrays.asList("A", "1"),
+                Arrays.asList("B", "2"),
+                Arrays.asList("C", "3")), lines);
+    }
+}
@@ -71,9 +71,25 @@ public class AppTest {
 
         //Assert
         Assertions.assertEquals(expectedOutput,outputStreamCaptor.toString().trim());
- 
+
 	}
 
+    @Test
+    @DisplayName("Integration Test #2 - Parallel execution prints the sequential output")
+    void runTest2(){
+
+        //Arrange
+        App.run(new ArrayList<>(List.of("INPUT_FILE=jukebox-input.txt")));
+        String expectedOutput = outputStreamCaptor.toString();
+        outputStreamCaptor.reset();
+
+        //Act
+        App.run(new ArrayList<>(List.of("INPUT_FILE=jukebox-input.txt", "THREADS=4")));
+
+        //Assert
+        Assertions.assertEquals(expectedOutput,outputStreamCaptor.toString());
+    }
+
     @AfterEach
     public void tearDown() {
         System.setOut(standardOut);
@@ -0,0 +1,120 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.repositories.ConcurrentSongRepository;
+import com.crio.jukebox.repositories.ISongRepository;
+import com.crio.jukebox.repositories.SongRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * CatalogReadScalingBenchmark measures catalog read throughput as the number of reading threads grows.
+ * It compares ConcurrentSongRepository, whose reads take no lock, with SongRepository read under the read side of a
+ * ReentrantReadWriteLock, as the app guards its catalog. Every reader looks up random songs by numeric ID and, for
+ * one read in ten, every song of a random artist, for DURATION_MILLIS at each thread count from 1 to THREADS.
+ * For each repository and thread count it prints the total reads per second and the speedup over one thread.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath on a
+ * machine with at least THREADS cores, or the reads only share the cores there are.
+ *
+ * Usage: CatalogReadScalingBenchmark [SONGS=100000] [THREADS=cores] [DURATION_MILLIS=2000]
+ */
+public class CatalogReadScalingBenchmark {
+
+    private static final int ARTISTS = 5_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int songs = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long durationMillis = 2000;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("SONGS")) songs = Integer.parseInt(option[1]);
+            if (option[0].equals("THREADS")) threads = Integer.parseInt(option[1]);
+            if (option[0].equals("DURATION_MILLIS")) durationMillis = Long.parseLong(option[1]);
+        }
+        System.out.printf("%d songs, %d cores%n", songs, Runtime.getRuntime().availableProcessors());
+
+        ConcurrentSongRepository concurrentRepository = new ConcurrentSongRepository();
+        SongRepository songRepository = new SongRepository();
+        fill(concurrentRepository, songs);
+        fill(songRepository, songs);
+        Lock readLock = new ReentrantReadWriteLock().readLock();
+
+        // Warm up both at the highest thread count before measuring
+        measure(concurrentRepository, null, songs, threads, durationMillis);
+        measure(songRepository, readLock, songs, threads, durationMillis);
+
+        report("ConcurrentSongRepository", concurrentRepository, null, songs, threads, durationMillis);
+        report("SongRepository + read lock", songRepository, readLock, songs, threads, durationMillis);
+    }
+
+    private static void fill(ISongRepository songRepository, int songs) {
+        Random random = new Random(42);
+        for (int i = 0; i < songs; i++) {
+            String artist = "Artist " + random.nextInt(ARTISTS);
+            songRepository.save(new Song("Song " + i, "Pop", "Album " + i / 10, artist, new String[]{artist},
+                    songRepository.getSymbolTable()));
+        }
+    }
+
+    private static void report(String name, ISongRepository songRepository, Lock readLock, int songs, int threads,
+            long durationMillis) throws InterruptedException {
+        double single = 0;
+        for (int t = 1; t <= threads; t++) {
+            double readsPerSecond = measure(songRepository, readLock, songs, t, durationMillis);
+            if (t == 1) single = readsPerSecond;
+            System.out.printf("%s, %d threads - %.2f M reads/sec, %.2fx%n",
+                    name, t, readsPerSecond / 1e6, readsPerSecond / single);
+        }
+    }
+
+    private static double measure(ISongRepository songRepository, Lock readLock, int songs, int threads,
+            long durationMillis) throws InterruptedException {
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            Thread reader = new Thread(() -> {
+                Random random = new Random(seed);
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    for (int i = 0; i < 100; i++) {
+                        if (readLock != null) readLock.lock();
+                        try {
+                            if (i % 10 == 0) {
+                                songRepository.findByArtist("Artist " + random.nextInt(ARTISTS));
+                            } else if (!songRepository.findById(random.nextInt(songs) + 1).isPresent()) {
+                                throw new AssertionError("missing song");
+                            }
+                        } finally {
+                            if (readLock != null) readLock.unlock();
+                        }
+                        count++;
+                    }
+                }
+                reads.addAndGet(count);
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        long started = System.nanoTime();
+        deadline[0] = started + durationMillis * 1_000_000;
+        start.countDown();
+        for (Thread reader : readers) reader.join();
+        return reads.get() / ((System.nanoTime() - started) / 1e9);
+    }
+}
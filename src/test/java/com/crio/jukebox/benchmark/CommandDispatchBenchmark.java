@@ -0,0 +1,118 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.common.commands.CommandLineReader;
+import com.crio.common.commands.CommandTokens;
+import com.crio.jukebox.commands.CommandInvoker;
+import com.crio.jukebox.commands.ICommand;
+import com.crio.jukebox.exceptions.NoSuchCommandException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CommandDispatchBenchmark measures the read-and-dispatch path of App.run in isolation.
+ * It compares reading lines with BufferedReader, splitting them and looking the command up by name, against reading
+ * them with CommandLineReader and dispatching through the perfect-hash table. Every command name of the app is
+ * registered with a command that only counts its tokens, so the numbers exclude the commands' own work.
+ * For each path it prints lines per second and bytes allocated per line, as measured by the JVM for this thread.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath.
+ *
+ * Usage: CommandDispatchBenchmark [LINES=1000000] [ROUNDS=10]
+ */
+public class CommandDispatchBenchmark {
+
+    private static final String[] COMMAND_LINES = {
+            "PLAY-SONG 17 NEXT",
+            "PLAY-SONG 17 BACK",
+            "PLAY-SONG 3 12",
+            "PLAY-PLAYLIST 42 7",
+            "MODIFY-PLAYLIST ADD-SONG 5 9 1 2 3",
+            "MODIFY-PLAYLIST DELETE-SONG 5 9 3",
+            "SHOW-PLAYLIST 8 2 0 10",
+            "RECENTLY-PLAYED 11 5",
+            "CREATE-PLAYLIST 4 MY_PLAYLIST 1 4 5 6",
+            "SEARCH-SONG shape of you",
+    };
+
+    private static final String[] COMMAND_NAMES = {
+            "CREATE-USER", "CREATE-PLAYLIST", "DELETE-PLAYLIST", "MODIFY-PLAYLIST", "MODIFY-PLAYLIST-COMPACT",
+            "SHOW-PLAYLIST", "RECENTLY-PLAYED", "PLAY-PLAYLIST", "PLAY-SONG", "LOAD-DATA", "SAVE-DATA",
+            "SEARCH-SONG", "SIMILAR-SONGS",
+    };
+
+    private static long tokenCount;
+
+    public static void main(String[] args) throws Exception {
+        int lines = 1_000_000;
+        int rounds = 10;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("LINES")) lines = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        Random random = new Random(42);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < lines; i++) input.append(COMMAND_LINES[random.nextInt(COMMAND_LINES.length)]).append('\n');
+        String text = input.toString();
+
+        CommandInvoker commandInvoker = new CommandInvoker();
+        ICommand countTokens = new ICommand() {
+            @Override
+            public void execute(List<String> tokens) {
+                tokenCount += tokens.size();
+            }
+        };
+        for (String name : COMMAND_NAMES) commandInvoker.register(name, countTokens);
+
+        for (int round = 0; round < rounds; round++) {
+            boolean last = round == rounds - 1;
+            measure("split + HashMap", lines, last, () -> splitAndLookUp(text, commandInvoker));
+            measure("CommandLineReader + perfect hash", lines, last, () -> readAndDispatch(text, commandInvoker));
+        }
+        System.out.println("Tokens seen - " + tokenCount);
+    }
+
+    private static void splitAndLookUp(String text, CommandInvoker commandInvoker)
+            throws IOException, NoSuchCommandException {
+        BufferedReader reader = new BufferedReader(new StringReader(text));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            List<String> tokens = Arrays.asList(line.split(" "));
+            commandInvoker.executeCommand(tokens.get(0), tokens);
+        }
+    }
+
+    private static void readAndDispatch(String text, CommandInvoker commandInvoker)
+            throws IOException, NoSuchCommandException {
+        CommandLineReader reader = new CommandLineReader(new StringReader(text));
+        CommandTokens tokens = reader.tokens();
+        while (reader.readLine()) {
+            commandInvoker.executeCommand(tokens);
+        }
+    }
+
+    private static void measure(String name, int lines, boolean print, Run run) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (print) {
+            System.out.printf("%s - %.0f lines/sec, %.1f bytes/line%n",
+                    name, lines / (elapsed / 1e9), (double) allocated / lines);
+        }
+    }
+
+    private interface Run {
+        void run() throws Exception;
+    }
+}
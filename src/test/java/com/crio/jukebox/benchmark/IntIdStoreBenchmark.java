@@ -0,0 +1,98 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.UserRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * IntIdStoreBenchmark compares the int-id store behind the repositories with the HashMap keyed by String IDs it
+ * replaced. It fills a HashMap and a UserRepository with the same users, IDs 1 to ENTITIES, and looks up random IDs:
+ * through HashMap.get with the ID String, through findById with the ID String, which parses it, and through
+ * findById with the int. The query Strings are made once, so their hashes are cached as for a repeated key, and
+ * findById includes the repository's uncontended lock.
+ * For each it prints lookups per second, and the heap each structure adds on top of the users it holds.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath with a
+ * heap large enough for the users, e.g. -Xmx2g for a million.
+ *
+ * Usage: IntIdStoreBenchmark [ENTITIES=1000000] [LOOKUPS=10000000] [ROUNDS=5]
+ */
+public class IntIdStoreBenchmark {
+
+    private static long found;
+
+    public static void main(String[] args) {
+        int entities = 1_000_000;
+        int lookups = 10_000_000;
+        int rounds = 5;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("ENTITIES")) entities = Integer.parseInt(option[1]);
+            if (option[0].equals("LOOKUPS")) lookups = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        User[] users = new User[entities];
+        for (int i = 0; i < entities; i++) users[i] = new User(String.valueOf(i + 1), "User " + (i + 1));
+        Random random = new Random(42);
+        int[] intIds = new int[lookups];
+        String[] stringIds = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            intIds[i] = random.nextInt(entities) + 1;
+            stringIds[i] = String.valueOf(intIds[i]);
+        }
+
+        long before = usedHeap();
+        Map<String, User> hashMap = new HashMap<>();
+        for (User user : users) hashMap.put(user.getId(), user);
+        long hashMapBytes = usedHeap() - before;
+
+        before = usedHeap();
+        UserRepository userRepository = new UserRepository();
+        for (User user : users) userRepository.save(user);
+        long storeBytes = usedHeap() - before;
+
+        System.out.printf("%d entities - HashMap %.1f bytes/entry, IntIdStore %.1f bytes/entry%n",
+                entities, (double) hashMapBytes / entities, (double) storeBytes / entities);
+
+        for (int round = 0; round < rounds; round++) {
+            boolean last = round == rounds - 1;
+            measure("HashMap.get(String)", lookups, last, () -> {
+                for (String id : stringIds) {
+                    if (hashMap.get(id) != null) found++;
+                }
+            });
+            measure("findById(String)", lookups, last, () -> {
+                for (String id : stringIds) {
+                    if (userRepository.findById(id).isPresent()) found++;
+                }
+            });
+            measure("findById(int)", lookups, last, () -> {
+                for (int id : intIds) {
+                    if (userRepository.findById(id).isPresent()) found++;
+                }
+            });
+        }
+        if (found != (long) lookups * 3 * rounds) throw new AssertionError("found " + found);
+        // Keep the structures alive until after the footprint was measured
+        if (hashMap.size() != userRepository.count()) throw new AssertionError();
+    }
+
+    private static void measure(String name, int lookups, boolean print, Runnable run) {
+        long started = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - started;
+        if (print) {
+            System.out.printf("%s - %.1f M lookups/sec%n", name, lookups / (elapsed / 1e3));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,147 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.data.SongDataLoader;
+import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+/**
+ * LoadDataBenchmark compares the two ways SongDataLoader ingests a CSV catalog.
+ * loadData parses the whole file into a list and then saves it on one thread; loadDataStreaming reads chunks, parses
+ * them on a pool and saves them in file order as they come back. Both load the same synthetic catalog, with the
+ * repetition of a real one, into a fresh SongRepository.
+ * For each it prints rows per second, the peak heap in use after any collection during the load, and the heap the
+ * loaded catalog retains after a full collection. The peak includes the catalog, so peak minus retained is what each
+ * path holds on top of it while loading.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath with a
+ * heap large enough for the indexed catalog, e.g. -Xmx3g for half a million rows.
+ *
+ * Usage: LoadDataBenchmark [ROWS=500000] [THREADS=4] [ROUNDS=3]
+ */
+public class LoadDataBenchmark {
+
+    private static final int GENRES = 40;
+    private static final int ARTISTS = 50_000;
+    private static final int ALBUMS_PER_ARTIST = 4;
+
+    public static void main(String[] args) throws IOException {
+        int rows = 500_000;
+        int threads = 4;
+        int rounds = 3;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("ROWS")) rows = Integer.parseInt(option[1]);
+            if (option[0].equals("THREADS")) threads = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        Path csv = Files.createTempFile("songs", ".csv");
+        try {
+            writeCatalog(csv, rows);
+            System.out.printf("%d rows, %.1f MB of CSV, %d parser threads, %d cores%n", rows,
+                    Files.size(csv) / 1e6, threads, Runtime.getRuntime().availableProcessors());
+            int parserThreads = threads;
+            for (int round = 0; round < rounds; round++) {
+                boolean last = round == rounds - 1;
+                measure("loadData", rows, last, loader -> loader.loadData(csv.toString()));
+                measure("loadDataStreaming", rows, last, loader ->
+                        loader.loadDataStreaming(csv.toString(), parserThreads, SongDataLoader.DEFAULT_CHUNK_SIZE));
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private static void measure(String name, int rows, boolean print, Load load) throws IOException {
+        SongRepository songRepository = new SongRepository();
+        SongDataLoader loader = new SongDataLoader(songRepository,
+                new SongFromCsvStrategy(songRepository.getSymbolTable()));
+        long before = usedHeap();
+        AtomicLong peak = new AtomicLong(before);
+        NotificationListener listener = (notification, handback) -> {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+            GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage after = info.getMemoryUsageAfterGc().get(pool.getName());
+                if (pool.getType() == MemoryType.HEAP && after != null) used += after.getUsed();
+            }
+            peak.accumulateAndGet(used, Math::max);
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+
+        long started = System.nanoTime();
+        try {
+            load.load(loader);
+        } finally {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        long retained = usedHeap() - before;
+        if (songRepository.count() != rows) throw new AssertionError(name + " loaded " + songRepository.count());
+        if (print) {
+            System.out.printf("%s - %.0f rows/sec, %.0f MB peak heap, %.0f MB retained%n",
+                    name, rows / (elapsed / 1e9), (peak.get() - before) / 1e6, retained / 1e6);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void writeCatalog(Path csv, int rows) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                int artist = random.nextInt(ARTISTS);
+                writer.append("Song ").append(String.valueOf(i)).append(',')
+                        .append("Genre ").append(String.valueOf(artist % GENRES)).append(',')
+                        .append("Album ").append(String.valueOf(artist)).append('-')
+                        .append(String.valueOf(random.nextInt(ALBUMS_PER_ARTIST))).append(',')
+                        .append("Artist ").append(String.valueOf(artist)).append(',')
+                        .append("Artist ").append(String.valueOf(artist));
+                int guests = random.nextInt(3);
+                for (int g = 0; g < guests; g++) {
+                    writer.append("#Artist ").append(String.valueOf(random.nextInt(ARTISTS)));
+                }
+                writer.append('\n');
+            }
+        }
+    }
+
+    private interface Load {
+        void load(SongDataLoader loader) throws IOException;
+    }
+}
@@ -0,0 +1,112 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.commands.CommandInvoker;
+import com.crio.jukebox.config.ApplicationConfig;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * PlaylistCommandLatencyBenchmark measures the latency of the playlist commands as one user owns more playlists.
+ * For every size in PLAYLISTS it builds a fresh application, loads songs.csv, creates one user with that many
+ * playlists and runs COMMANDS rounds of PLAY-PLAYLIST, MODIFY-PLAYLIST ADD-SONG and DELETE-SONG, and DELETE-PLAYLIST
+ * followed by a CREATE-PLAYLIST that takes its place, each on a random playlist of the user. Commands go through the
+ * CommandInvoker as App.run dispatches them; their output is discarded.
+ * For each size and command it prints the mean microseconds per command, which stay flat while the user's playlists
+ * are found by ID rather than by a scan.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath in the
+ * project directory, where songs.csv is.
+ *
+ * Usage: PlaylistCommandLatencyBenchmark [PLAYLISTS=10,100,1000,10000] [COMMANDS=20000] [ROUNDS=3]
+ */
+public class PlaylistCommandLatencyBenchmark {
+
+    private static final String[] COMMANDS = {"PLAY-PLAYLIST", "ADD-SONG", "DELETE-SONG", "DELETE-PLAYLIST", "CREATE-PLAYLIST"};
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {10, 100, 1000, 10000};
+        int commands = 20_000;
+        int rounds = 3;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("PLAYLISTS")) sizes = Arrays.stream(option[1].split(",")).mapToInt(Integer::parseInt).toArray();
+            if (option[0].equals("COMMANDS")) commands = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        PrintStream console = System.out;
+        // The application's output sink writes to System.out as it is when the sink is created
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        try {
+            for (int round = 0; round < rounds; round++) {
+                boolean last = round == rounds - 1;
+                for (int size : sizes) {
+                    System.setOut(discard);
+                    long[] nanos = measure(size, commands);
+                    System.setOut(console);
+                    if (!last) continue;
+                    StringBuilder line = new StringBuilder().append(size).append(" playlists -");
+                    for (int c = 0; c < COMMANDS.length; c++) {
+                        line.append(String.format(" %s %.1f us", COMMANDS[c], nanos[c] / 1e3 / commands));
+                        if (c < COMMANDS.length - 1) line.append(',');
+                    }
+                    console.println(line);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    // Returns the total nanoseconds spent in each command
+    private static long[] measure(int size, int commands) throws Exception {
+        ApplicationConfig applicationConfig = new ApplicationConfig();
+        CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
+        run(commandInvoker, "LOAD-DATA songs.csv");
+        run(commandInvoker, "CREATE-USER Kiran");
+        // Playlist IDs are handed out from 1 in creation order
+        int[] playlistIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            run(commandInvoker, "CREATE-PLAYLIST 1 PLAYLIST_" + i + " 1 2 3");
+            playlistIds[i] = i + 1;
+        }
+        int nextPlaylistId = size + 1;
+
+        Random random = new Random(42);
+        long[] nanos = new long[COMMANDS.length];
+        for (int i = 0; i < commands; i++) {
+            int slot = random.nextInt(size);
+            int playlistId = playlistIds[slot];
+            nanos[0] += time(commandInvoker, "PLAY-PLAYLIST 1 " + playlistId);
+            nanos[1] += time(commandInvoker, "MODIFY-PLAYLIST ADD-SONG 1 " + playlistId + " 4");
+            nanos[2] += time(commandInvoker, "MODIFY-PLAYLIST DELETE-SONG 1 " + playlistId + " 4");
+            nanos[3] += time(commandInvoker, "DELETE-PLAYLIST 1 " + playlistId);
+            nanos[4] += time(commandInvoker, "CREATE-PLAYLIST 1 REPLACEMENT 1 2 3");
+            playlistIds[slot] = nextPlaylistId++;
+        }
+        applicationConfig.getOutputSink().flush();
+        return nanos;
+    }
+
+    private static long time(CommandInvoker commandInvoker, String line) throws Exception {
+        long started = System.nanoTime();
+        run(commandInvoker, line);
+        return System.nanoTime() - started;
+    }
+
+    private static void run(CommandInvoker commandInvoker, String line) throws Exception {
+        String[] tokens = line.split(" ");
+        commandInvoker.executeCommand(tokens[0], Arrays.asList(tokens));
+    }
+}
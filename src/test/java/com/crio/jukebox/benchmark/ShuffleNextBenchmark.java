@@ -0,0 +1,109 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.dtos.PlaylistDto;
+import com.crio.jukebox.entities.PlaybackMode;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SongPlaybackControl;
+import com.crio.jukebox.repositories.PlaylistRepository;
+import com.crio.jukebox.repositories.SongCooccurrenceIndex;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.UserRepository;
+import com.crio.jukebox.services.PlaylistService;
+import com.crio.jukebox.services.UserService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ShuffleNextBenchmark measures PLAY-SONG NEXT in shuffle mode through UserService.
+ * It plays a playlist of 100k songs in SHUFFLE mode and times NEXT twice: once on a playlist that does not change,
+ * and once with churn, where every CHURN_EVERY steps one song is deleted from the playlist and another is added
+ * through PlaylistService. A change makes the next draw rebuild the pool of unplayed songs, so the churn run shows
+ * what that rebuild costs. It prints NEXT steps per second for both runs.
+ * PlaylistService is given a co-occurrence index that records nothing: counting every pair in a 100k-song playlist
+ * would take 10^10 entries and is not what is being measured here.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath.
+ *
+ * Usage: ShuffleNextBenchmark [SONGS=100000] [STEPS=1000000] [CHURN_EVERY=1000] [ROUNDS=5]
+ */
+public class ShuffleNextBenchmark {
+
+    private static long songNameLength;
+
+    public static void main(String[] args) throws Exception {
+        int songs = 100_000;
+        int steps = 1_000_000;
+        int churnEvery = 1000;
+        int rounds = 5;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("SONGS")) songs = Integer.parseInt(option[1]);
+            if (option[0].equals("STEPS")) steps = Integer.parseInt(option[1]);
+            if (option[0].equals("CHURN_EVERY")) churnEvery = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            boolean last = round == rounds - 1;
+            measure("NEXT, unchanged playlist", songs, steps, 0, last);
+            measure("NEXT, churn every " + churnEvery + " steps", songs, steps, churnEvery, last);
+        }
+        System.out.println("Name characters seen - " + songNameLength);
+    }
+
+    private static void measure(String name, int songs, int steps, int churnEvery, boolean print) throws Exception {
+        // A catalog twice the playlist's size, so churn always has songs outside the playlist to add
+        SongRepository songRepository = new SongRepository();
+        for (int i = 0; i < songs * 2; i++) {
+            songRepository.save(new Song("Song " + i, "Pop", "Album " + i / 12, "Artist " + i / 120,
+                    new String[]{"Artist " + i / 120}, songRepository.getSymbolTable()));
+        }
+        UserRepository userRepository = new UserRepository();
+        PlaylistService playlistService = new PlaylistService(new PlaylistRepository(), userRepository, songRepository,
+                new NoCooccurrenceIndex());
+        UserService userService = new UserService(userRepository, songRepository, new Random(42));
+
+        String userId = userService.createUser("Listener").id();
+        List<String> inPlaylist = new ArrayList<>(songs);
+        List<String> outside = new ArrayList<>(songs);
+        for (int i = 1; i <= songs; i++) inPlaylist.add(String.valueOf(i));
+        for (int i = songs + 1; i <= songs * 2; i++) outside.add(String.valueOf(i));
+        PlaylistDto playlist = playlistService.createPlaylist(userId, "Shuffled", inPlaylist.toArray(new String[0]));
+        userService.playPlaylist(userId, playlist.playlistId());
+        userService.setPlaybackMode(userId, PlaybackMode.SHUFFLE);
+
+        Random random = new Random(7);
+        long started = System.nanoTime();
+        for (int step = 1; step <= steps; step++) {
+            songNameLength += userService.playSongInPlaylist(userId, SongPlaybackControl.NEXT).toString().length();
+            if (churnEvery > 0 && step % churnEvery == 0) {
+                // Swap a random playlist song with a random song outside it
+                int removedIndex = random.nextInt(inPlaylist.size());
+                int addedIndex = random.nextInt(outside.size());
+                String removed = inPlaylist.get(removedIndex);
+                String added = outside.get(addedIndex);
+                playlistService.modifyPlaylist(userId, playlist.playlistId(),
+                        new PlaylistMutation().deleteSongs(removed).addSongs(added));
+                inPlaylist.set(removedIndex, added);
+                outside.set(addedIndex, removed);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        if (print) System.out.printf("%s - %.0f steps/sec%n", name, steps / (elapsed / 1e9));
+    }
+
+    private static class NoCooccurrenceIndex extends SongCooccurrenceIndex {
+
+        @Override
+        public void addSongs(Collection<String> added, Iterable<String> members) {
+        }
+
+        @Override
+        public void removeSongs(Collection<String> removed, Iterable<String> members) {
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.data.SongDataLoader;
+import com.crio.jukebox.repositories.data.SongSnapshot;
+import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SnapshotRestoreBenchmark compares restoring the catalog from a binary snapshot with parsing it from CSV.
+ * It writes a synthetic catalog as CSV, loads it once and saves that catalog as a snapshot. Each round then reads both
+ * files into lists of songs, which is the cost of the format alone, and loads both into a fresh SongRepository
+ * through LOAD-DATA's paths, which adds the saves and indexing both share.
+ * For each it prints milliseconds and songs per second, and the CSV time divided by the snapshot time.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath with a
+ * heap large enough for the indexed catalog, e.g. -Xmx3g for half a million songs.
+ *
+ * Usage: SnapshotRestoreBenchmark [SONGS=500000] [ROUNDS=3]
+ */
+public class SnapshotRestoreBenchmark {
+
+    private static final int GENRES = 40;
+    private static final int ARTISTS = 50_000;
+    private static final int ALBUMS_PER_ARTIST = 4;
+
+    public static void main(String[] args) throws IOException {
+        int songs = 500_000;
+        int rounds = 3;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("SONGS")) songs = Integer.parseInt(option[1]);
+            if (option[0].equals("ROUNDS")) rounds = Integer.parseInt(option[1]);
+        }
+
+        Path csv = Files.createTempFile("songs", ".csv");
+        Path snapshot = Files.createTempFile("songs", ".snapshot");
+        try {
+            writeCatalog(csv, songs);
+            writeSnapshot(csv, snapshot);
+            System.out.printf("%d songs, %.1f MB of CSV, %.1f MB of snapshot%n",
+                    songs, Files.size(csv) / 1e6, Files.size(snapshot) / 1e6);
+
+            for (int round = 0; round < rounds; round++) {
+                boolean last = round == rounds - 1;
+                long csvRead = measure("read CSV", songs, last,
+                        () -> new SongFromCsvStrategy(new SymbolTable()).execute(csv.toString()).size());
+                long snapshotRead = measure("read snapshot", songs, last,
+                        () -> readSnapshot(snapshot));
+                long csvLoad = measure("LOAD-DATA CSV", songs, last, () -> load(csv));
+                long snapshotLoad = measure("LOAD-DATA snapshot", songs, last, () -> load(snapshot));
+                if (last) {
+                    System.out.printf("CSV / snapshot - %.1fx to read, %.1fx to load%n",
+                            (double) csvRead / snapshotRead, (double) csvLoad / snapshotLoad);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private static void writeSnapshot(Path csv, Path snapshot) throws IOException {
+        SongRepository catalog = new SongRepository();
+        SongDataLoader loader = new SongDataLoader(catalog, new SongFromCsvStrategy(catalog.getSymbolTable()));
+        loader.loadData(csv.toString());
+        loader.saveSnapshot(snapshot.toString());
+    }
+
+    private static int readSnapshot(Path snapshot) throws IOException {
+        List<Song> songs = SongSnapshot.read(snapshot.toString(), new SymbolTable());
+        return songs.size();
+    }
+
+    private static int load(Path file) {
+        SongRepository songRepository = new SongRepository();
+        new SongDataLoader(songRepository, new SongFromCsvStrategy(songRepository.getSymbolTable()))
+                .loadData(file.toString());
+        return (int) songRepository.count();
+    }
+
+    // Returns the elapsed nanoseconds
+    private static long measure(String name, int songs, boolean print, Restore restore) throws IOException {
+        for (int i = 0; i < 3; i++) System.gc();
+        long started = System.nanoTime();
+        int restored = restore.restore();
+        long elapsed = System.nanoTime() - started;
+        if (restored != songs) throw new AssertionError(name + " restored " + restored);
+        if (print) {
+            System.out.printf("%s - %d ms, %.0f songs/sec%n", name, elapsed / 1_000_000, songs / (elapsed / 1e9));
+        }
+        return elapsed;
+    }
+
+    private static void writeCatalog(Path csv, int songs) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < songs; i++) {
+                int artist = random.nextInt(ARTISTS);
+                writer.append("Song ").append(String.valueOf(i)).append(',')
+                        .append("Genre ").append(String.valueOf(artist % GENRES)).append(',')
+                        .append("Album ").append(String.valueOf(artist)).append('-')
+                        .append(String.valueOf(random.nextInt(ALBUMS_PER_ARTIST))).append(',')
+                        .append("Artist ").append(String.valueOf(artist)).append(',')
+                        .append("Artist ").append(String.valueOf(artist));
+                int guests = random.nextInt(3);
+                for (int g = 0; g < guests; g++) {
+                    writer.append("#Artist ").append(String.valueOf(random.nextInt(ARTISTS)));
+                }
+                writer.append('\n');
+            }
+        }
+    }
+
+    private interface Restore {
+        int restore() throws IOException;
+    }
+}
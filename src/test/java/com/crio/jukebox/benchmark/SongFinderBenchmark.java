@@ -0,0 +1,97 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.repositories.SongRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * SongFinderBenchmark compares the indexed finders of SongRepository with the stream scans they replaced.
+ * For each catalog size it loads synthetic songs, with artists, albums and genres shared by many songs, into a
+ * SongRepository and into a HashMap like the original repository's, then looks up random names, artists, albums and
+ * genres both ways. It prints the mean time per lookup of each finder.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath with a
+ * heap large enough for the largest catalog.
+ *
+ * Usage: SongFinderBenchmark [SONGS=10000,1000000,5000000] [LOOKUPS=2000]
+ */
+public class SongFinderBenchmark {
+
+    private static final int GENRES = 40;
+    private static final int ARTISTS = 50_000;
+    private static final int ALBUMS_PER_ARTIST = 4;
+
+    private static long resultCount;
+
+    public static void main(String[] args) {
+        int[] sizes = {10_000, 1_000_000, 5_000_000};
+        int lookups = 2000;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("SONGS")) {
+                String[] values = option[1].split(",");
+                sizes = new int[values.length];
+                for (int i = 0; i < values.length; i++) sizes[i] = Integer.parseInt(values[i]);
+            }
+            if (option[0].equals("LOOKUPS")) lookups = Integer.parseInt(option[1]);
+        }
+
+        for (int size : sizes) {
+            SongRepository songRepository = new SongRepository();
+            Random random = new Random(42);
+            for (int i = 0; i < size; i++) {
+                int artist = random.nextInt(ARTISTS);
+                songRepository.save(new Song("Song " + i, "Genre " + artist % GENRES,
+                        "Album " + artist + "-" + random.nextInt(ALBUMS_PER_ARTIST), "Artist " + artist,
+                        new String[]{"Artist " + artist}, songRepository.getSymbolTable()));
+            }
+            Map<String, Song> songMap = new HashMap<>();
+            for (Song song : songRepository.findAll()) songMap.put(song.getId(), song);
+
+            System.out.printf("%,d songs%n", size);
+            // A scan touches every song, so it gets fewer lookups to keep the run short
+            int scans = Math.max(1, (int) Math.min(lookups, 2_000_000_000L / size / 100));
+            compare("findByName", size, lookups, scans, i -> "Song " + i, songRepository::findByName,
+                    name -> scan(songMap, Song::getName, name));
+            compare("findByArtist", ARTISTS, lookups, scans, i -> "Artist " + i, songRepository::findByArtist,
+                    artist -> scan(songMap, Song::getArtist, artist));
+            compare("findByAlbum", ARTISTS, lookups, scans, i -> "Album " + i + "-" + i % ALBUMS_PER_ARTIST,
+                    songRepository::findByAlbum, album -> scan(songMap, Song::getAlbumName, album));
+            compare("findByGenre", GENRES, lookups, scans, i -> "Genre " + i, songRepository::findByGenre,
+                    genre -> scan(songMap, Song::getGenre, genre));
+        }
+        System.out.println("Results seen - " + resultCount);
+    }
+
+    // The finders of the original repository
+    private static List<Song> scan(Map<String, Song> songMap, Function<Song, String> attribute, String value) {
+        return songMap.values().stream()
+                .filter(song -> attribute.apply(song).equals(value))
+                .collect(Collectors.toList());
+    }
+
+    private static void compare(String name, int keys, int lookups, int scans, Function<Integer, String> key,
+            Function<String, List<Song>> indexed, Function<String, List<Song>> scan) {
+        // Warm up both, then measure
+        double indexedMicros = 0;
+        double scanMicros = 0;
+        for (int round = 0; round < 2; round++) {
+            indexedMicros = time(keys, lookups, key, indexed);
+            scanMicros = time(keys, scans, key, scan);
+        }
+        System.out.printf("  %-13s indexed %,10.2f us/lookup   scan %,12.2f us/lookup%n", name, indexedMicros, scanMicros);
+    }
+
+    private static double time(int keys, int lookups, Function<Integer, String> key, Function<String, List<Song>> finder) {
+        Random random = new Random(7);
+        long started = System.nanoTime();
+        for (int i = 0; i < lookups; i++) resultCount += finder.apply(key.apply(random.nextInt(keys))).size();
+        return (System.nanoTime() - started) / 1e3 / lookups;
+    }
+}
@@ -0,0 +1,82 @@
+package com.crio.jukebox.benchmark;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SongHeapBenchmark measures the heap a loaded catalog retains per song.
+ * It parses synthetic CSV records with the repetition of a real catalog: a few dozen genres, and artists and albums
+ * shared by many songs, with one to three featured artists each. The same records are kept once as parsed, every
+ * song holding the Strings split from its own row, and once interned through a SymbolTable, as the loaders do.
+ * For each it prints the bytes retained per song after a full collection, including the table itself.
+ *
+ * It lives with the tests so that it is not packaged with the application; run it from the test classpath with a
+ * heap large enough for the catalog, e.g. -Xmx1g for a million songs.
+ *
+ * Usage: SongHeapBenchmark [SONGS=1000000]
+ */
+public class SongHeapBenchmark {
+
+    private static final int GENRES = 40;
+    private static final int ARTISTS = 50_000;
+    private static final int ALBUMS_PER_ARTIST = 4;
+
+    public static void main(String[] args) {
+        int songs = 1_000_000;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option[0].equals("SONGS")) songs = Integer.parseInt(option[1]);
+        }
+
+        // Run each twice, so that the second run of both sees a warmed-up JVM
+        for (int round = 0; round < 2; round++) {
+            boolean last = round == 1;
+            measure("as parsed", songs, last, false);
+            measure("SymbolTable", songs, last, true);
+        }
+    }
+
+    private static void measure(String name, int songs, boolean print, boolean intern) {
+        long before = usedHeap();
+        SymbolTable symbols = intern ? new SymbolTable() : null;
+        List<Song> catalog = new ArrayList<>(songs);
+        Random random = new Random(42);
+        for (int i = 0; i < songs; i++) {
+            String[] tokens = record(i, random).split(",");
+            String[] featured = tokens[4].split("#");
+            catalog.add(intern
+                    ? new Song(String.valueOf(i + 1), tokens[0], tokens[1], tokens[2], tokens[3], featured, symbols)
+                    : new Song(String.valueOf(i + 1), tokens[0], tokens[1], tokens[2], tokens[3], featured));
+        }
+        long retained = usedHeap() - before;
+        if (print) {
+            System.out.printf("%s - %.1f bytes/song retained, %d distinct symbols%n",
+                    name, (double) retained / songs, symbols == null ? 0 : symbols.size());
+        }
+        // Keep both alive until after the measurement
+        if (catalog.size() != songs || (symbols != null && symbols.size() == 0)) throw new AssertionError();
+    }
+
+    private static String record(int i, Random random) {
+        int artist = random.nextInt(ARTISTS);
+        StringBuilder record = new StringBuilder()
+                .append("Song ").append(i).append(',')
+                .append("Genre ").append(artist % GENRES).append(',')
+                .append("Album ").append(artist).append('-').append(random.nextInt(ALBUMS_PER_ARTIST)).append(',')
+                .append("Artist ").append(artist).append(',')
+                .append("Artist ").append(artist);
+        int guests = random.nextInt(3);
+        for (int g = 0; g < guests; g++) record.append("#Artist ").append(random.nextInt(ARTISTS));
+        return record.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
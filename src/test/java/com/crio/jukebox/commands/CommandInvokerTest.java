@@ -0,0 +1,37 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.CommandLineReader;
+import com.crio.jukebox.exceptions.NoSuchCommandException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandInvokerTest {
+
+    @Test
+    void executeCommand_ShouldDispatchByTheFirstToken() throws Exception {
+        // Arrange
+        List<String> executed = new ArrayList<>();
+        CommandInvoker commandInvoker = new CommandInvoker();
+        commandInvoker.register("PLAY-SONG", tokens -> executed.add("play " + tokens.get(1)));
+        commandInvoker.register("PLAY-PLAYLIST", tokens -> executed.add("playlist " + tokens.get(1)));
+        CommandLineReader reader = new CommandLineReader(new StringReader("PLAY-PLAYLIST 1\nPLAY-SONG 2\nPLAY 3\n"));
+
+        // Act
+        reader.readLine();
+        commandInvoker.executeCommand(reader.tokens());
+        reader.readLine();
+        commandInvoker.executeCommand(reader.tokens());
+        reader.readLine();
+
+        // Assert
+        assertEquals(Arrays.asList("playlist 1", "play 2"), executed);
+        assertThrows(NoSuchCommandException.class,
+                () -> commandInvoker.executeCommand(reader.tokens()));
+    }
+}
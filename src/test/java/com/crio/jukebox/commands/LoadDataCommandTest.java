@@ -0,0 +1,81 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.data.SongDataLoader;
+import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoadDataCommandTest {
+    private static final String STREAM_USAGE = "Usage: LOAD-DATA {file} STREAM [threads]";
+
+    private final List<Object> printed = new ArrayList<>();
+    private SongRepository songRepository;
+    private LoadDataCommand command;
+    private Path csv;
+
+    @BeforeEach
+    void setup() throws IOException {
+        songRepository = new SongRepository();
+        SongDataLoader songDataLoader = new SongDataLoader(songRepository, new SongFromCsvStrategy(songRepository.getSymbolTable()));
+        command = new LoadDataCommand(songDataLoader, new IOutputSink() {
+            @Override
+            public void print(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void println(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+        csv = Files.createTempFile("songs", ".csv");
+        Files.write(csv, Arrays.asList(
+                "South of the Border,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Cardi.B",
+                "Cross Me,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#PnB Rock"));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    @DisplayName("execute method should print the STREAM usage and load nothing given a bad thread count")
+    public void execute_ShouldPrintUsage_GivenInvalidThreadCount() {
+        //Act
+        command.execute(Arrays.asList("LOAD-DATA", csv.toString(), "STREAM", "four"));
+        command.execute(Arrays.asList("LOAD-DATA", csv.toString(), "STREAM", "0"));
+        command.execute(Arrays.asList("LOAD-DATA", csv.toString(), "STREAM", "-2"));
+        command.execute(Arrays.asList("LOAD-DATA", csv.toString(), "STREAM", "2", "3"));
+        //Assert
+        Assertions.assertEquals(Arrays.asList(STREAM_USAGE, STREAM_USAGE, STREAM_USAGE, STREAM_USAGE), printed);
+        Assertions.assertEquals(0, songRepository.count());
+    }
+
+    @Test
+    @DisplayName("execute method should stream the file given a positive thread count")
+    public void execute_ShouldLoadSongs_GivenPositiveThreadCount() {
+        //Act
+        command.execute(Arrays.asList("LOAD-DATA", csv.toString(), "STREAM", "2"));
+        //Assert
+        Assertions.assertEquals(Arrays.asList("Songs Loaded successfully"), printed);
+        Assertions.assertEquals(2, songRepository.count());
+    }
+}
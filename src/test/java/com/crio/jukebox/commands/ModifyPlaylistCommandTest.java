@@ -0,0 +1,88 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.PlaylistRepository;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.UserRepository;
+import com.crio.jukebox.services.PlaylistService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ModifyPlaylistCommandTest {
+    private static final String MOVE_SONG_USAGE = "Usage: MODIFY-PLAYLIST MOVE-SONG {user_id} {playlist_id} {song_id} {position}";
+
+    private final List<Object> printed = new ArrayList<>();
+    private ModifyPlaylistCommand command;
+
+    @BeforeEach
+    void setup() throws Exception {
+        SongRepository songRepository = new SongRepository();
+        for (int i = 1; i <= 3; i++) {
+            songRepository.save(new Song("Song " + i, "Pop", "Album", "Artist", new String[]{"Artist"}, songRepository.getSymbolTable()));
+        }
+        UserRepository userRepository = new UserRepository();
+        userRepository.save(new User("1", "Kiran"));
+        PlaylistService playlistService = new PlaylistService(new PlaylistRepository(), userRepository, songRepository);
+        playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"});
+        command = new ModifyPlaylistCommand(playlistService, new IOutputSink() {
+            @Override
+            public void print(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void println(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("execute method should print the MOVE-SONG usage given a missing or non-numeric position")
+    public void execute_ShouldPrintUsage_GivenInvalidMoveSongPosition() {
+        //Act
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "MOVE-SONG", "1", "1", "3"));
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "MOVE-SONG", "1", "1", "3", "first"));
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "MOVE-SONG", "1", "1", "3", "0", "1"));
+        //Assert
+        Assertions.assertEquals(Arrays.asList(MOVE_SONG_USAGE, MOVE_SONG_USAGE, MOVE_SONG_USAGE), printed);
+    }
+
+    @Test
+    @DisplayName("execute method should move the song given a numeric position")
+    public void execute_ShouldMoveSong_GivenNumericPosition() {
+        //Act
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "MOVE-SONG", "1", "1", "3", "0"));
+        //Assert
+        Assertions.assertEquals(1, printed.size());
+        Assertions.assertTrue(printed.get(0).toString().contains("Song IDs - 3 1 2"), printed.get(0).toString());
+    }
+
+    @Test
+    @DisplayName("execute method should print the move message given a song that is not in the playlist")
+    public void execute_ShouldPrintMoveMessage_GivenSongNotInPlaylist() {
+        //Arrange
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "DELETE-SONG", "1", "1", "3"));
+        printed.clear();
+        //Act
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "MOVE-SONG", "1", "1", "3", "0"));
+        command.execute(Arrays.asList("MODIFY-PLAYLIST", "DELETE-SONG", "1", "1", "3"));
+        //Assert
+        Assertions.assertEquals(Arrays.asList(
+                "Requested Song for Move is not present in the playlist. Please try again.",
+                "Some Requested Songs for Deletion are not present in the playlist. Please try again."), printed);
+    }
+}
@@ -0,0 +1,63 @@
+package com.crio.jukebox.commands;
+
+import com.crio.common.commands.IOutputSink;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.crio.jukebox.dtos.SongDto;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.services.SongService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchSongCommandTest {
+
+    private final List<Object> printed = new ArrayList<>();
+    private SearchSongCommand command;
+
+    @BeforeEach
+    void setup() {
+        SongRepository songRepository = new SongRepository();
+        songRepository.save(new Song("Shape of You", "Pop", "Divide", "Ed Sheeran", new String[]{"Ed Sheeran"}, songRepository.getSymbolTable()));
+        songRepository.save(new Song("Perfect", "Pop", "Divide", "Ed Sheeran", new String[]{"Ed Sheeran"}, songRepository.getSymbolTable()));
+        command = new SearchSongCommand(new SongService(songRepository), new IOutputSink() {
+            @Override
+            public void print(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void println(Object value) {
+                printed.add(value);
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("execute method should print the matching songs to the output sink")
+    public void execute_ShouldPrintSongsToSink_GivenMatchingText() {
+        //Act
+        command.execute(Arrays.asList("SEARCH-SONG", "Perfect"));
+        //Assert
+        Assertions.assertEquals(Collections.singletonList(new SongDto("2", "Perfect", "Divide", "Ed Sheeran")), printed);
+    }
+
+    @Test
+    @DisplayName("execute method should print No Songs Found given text that matches nothing")
+    public void execute_ShouldPrintNoSongsFound_GivenUnmatchedText() {
+        //Act
+        command.execute(Arrays.asList("SEARCH-SONG", "Yesterday"));
+        //Assert
+        Assertions.assertEquals(Collections.singletonList("No Songs Found"), printed);
+    }
+}
@@ -0,0 +1,168 @@
+package com.crio.jukebox.entities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedIdListTest {
+
+    private IndexedIdList idList;
+
+    @BeforeEach
+    void setup() {
+        idList = new IndexedIdList(List.of("1", "4", "5", "6"));
+    }
+
+    @Test
+    void get_ShouldKeepInsertionOrder_AfterRemovals() {
+        // Arrange
+        idList.add("7");
+
+        // Act
+        idList.remove("4");
+        idList.remove("6");
+
+        // Assert
+        assertEquals(List.of("1", "5", "7"), new ArrayList<>(idList));
+        assertEquals("7", idList.get(2));
+        assertEquals(2, idList.indexOf("7"));
+    }
+
+    @Test
+    void contains_ShouldReturnFalse_WhenSongRemoved() {
+        // Act
+        idList.remove("5");
+
+        // Assert
+        assertFalse(idList.contains("5"));
+        assertTrue(idList.contains("6"));
+    }
+
+    @Test
+    void remove_ShouldDropFirstOccurrence_WhenSongIsDuplicated() {
+        // Arrange
+        idList.add("1");
+
+        // Act
+        idList.remove("1");
+
+        // Assert
+        assertEquals(List.of("4", "5", "6", "1"), new ArrayList<>(idList));
+        assertEquals(3, idList.indexOf("1"));
+    }
+
+    @Test
+    void get_ShouldStayConsistent_AfterManyAddsAndRemoves() {
+        // Arrange
+        List<String> expected = new ArrayList<>(idList);
+        for (int i = 100; i < 1100; i++) {
+            idList.add(String.valueOf(i));
+            expected.add(String.valueOf(i));
+            if (i % 3 == 0) {
+                idList.remove(String.valueOf(i - 50));
+                expected.remove(String.valueOf(i - 50));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), idList.size());
+        for (int i = 0; i < expected.size(); i += 37) assertEquals(expected.get(i), idList.get(i));
+    }
+
+    @Test
+    void add_ShouldInsertAtPosition_GivenIndexInsideTheList() {
+        // Act
+        idList.remove("5");
+        idList.add(1, "5");
+        idList.add(0, "9");
+        idList.add(idList.size(), "10");
+
+        // Assert
+        assertEquals(List.of("9", "1", "5", "4", "6", "10"), new ArrayList<>(idList));
+        assertEquals(2, idList.indexOf("5"));
+        assertThrows(IndexOutOfBoundsException.class, () -> idList.add(7, "11"));
+    }
+
+    @Test
+    void set_ShouldReplaceSongAndKeepMembership() {
+        // Act
+        String previous = idList.set(1, "1");
+
+        // Assert
+        assertEquals("4", previous);
+        assertFalse(idList.contains("4"));
+        assertEquals(2, idList.occurrencesOf("1"));
+        assertEquals(List.of("1", "1", "5", "6"), new ArrayList<>(idList));
+        idList.remove("1");
+        assertEquals(0, idList.indexOf("1"));
+    }
+
+    @Test
+    void iteratorRemove_ShouldRemoveReturnedSongs_WhileIterating() {
+        // Arrange
+        for (int i = 100; i < 200; i++) idList.add(String.valueOf(i));
+
+        // Act
+        Iterator<String> iterator = idList.iterator();
+        List<String> kept = new ArrayList<>();
+        while (iterator.hasNext()) {
+            String songId = iterator.next();
+            if (Integer.parseInt(songId) % 4 != 0) iterator.remove();
+            else kept.add(songId);
+        }
+
+        // Assert
+        assertEquals(kept, new ArrayList<>(idList));
+        assertThrows(IllegalStateException.class, () -> idList.iterator().remove());
+    }
+
+    @Test
+    void listOperations_ShouldMatchArrayList_GivenRandomPositionalChanges() {
+        // Arrange
+        Random random = new Random(11);
+        List<String> expected = new ArrayList<>(idList);
+
+        // Act
+        for (int step = 0; step < 5000; step++) {
+            String songId = String.valueOf(random.nextInt(40));
+            int operation = random.nextInt(5);
+            if (operation == 0 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                idList.add(index, songId);
+                expected.add(index, songId);
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, songId), idList.set(index, songId));
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), idList.remove(index));
+            } else if (operation == 3) {
+                assertEquals(expected.remove(songId), idList.remove(songId));
+            } else {
+                // A move: remove a song and insert it elsewhere
+                String moved = expected.get(random.nextInt(expected.size()));
+                int index = random.nextInt(expected.size());
+                expected.remove(moved);
+                expected.add(index, moved);
+                idList.remove(moved);
+                idList.add(index, moved);
+            }
+        }
+
+        // Assert
+        assertEquals(expected, new ArrayList<>(idList));
+        for (int i = 0; i < 40; i++) {
+            String songId = String.valueOf(i);
+            assertEquals(expected.indexOf(songId), idList.indexOf(songId));
+            assertEquals(expected.contains(songId), idList.contains(songId));
+            assertEquals(Collections.frequency(expected, songId), idList.occurrencesOf(songId));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.crio.jukebox.entities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListeningHistoryTest {
+
+    private ListeningHistory history;
+
+    @BeforeEach
+    void setup() {
+        history = new ListeningHistory(3);
+    }
+
+    @Test
+    void songIdAt_ShouldReturnLatestPlayFirst() {
+        // Arrange
+        history.record(5, 100L);
+        history.record(7, 200L);
+
+        // Act
+        int latest = history.songIdAt(0);
+
+        // Assert
+        assertEquals(7, latest);
+        assertEquals(5, history.songIdAt(1));
+        assertEquals(100L, history.timestampAt(1));
+    }
+
+    @Test
+    void record_ShouldOverwriteOldestPlay_WhenFull() {
+        // Act
+        for (int songId = 1; songId <= 5; songId++) history.record(songId, songId * 10L);
+
+        // Assert
+        assertEquals(3, history.size());
+        assertEquals(5, history.songIdAt(0));
+        assertEquals(3, history.songIdAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.songIdAt(3));
+    }
+}
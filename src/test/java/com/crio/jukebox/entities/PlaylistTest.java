@@ -3,6 +3,7 @@ package com.crio.jukebox.entities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,4 +38,36 @@ class PlaylistTest {
         // Assert
         assertFalse(isPresent);
     }
-}
\ No newline at end of file
+
+    @Test
+    void apply_ShouldMoveSongsInPlaceAndBumpVersionOnce_GivenBatchWithMoves() {
+        // Arrange
+        int version = playlist.getVersion();
+        PlaylistMutation mutation = new PlaylistMutation()
+                .addSongs("400", "123")
+                .moveSong("400", 0)
+                .deleteSongs("213")
+                .moveSong("123", 2);
+
+        // Act
+        PlaylistMutation applied = playlist.apply(mutation);
+
+        // Assert
+        assertEquals(List.of("400", "312", "123"), new ArrayList<>(playlist.getSongIdList()));
+        assertEquals(4, applied.getOperations().size());
+        assertEquals(version + 1, playlist.getVersion());
+    }
+
+    @Test
+    void apply_ShouldKeepVersion_GivenBatchThatChangesNothing() {
+        // Arrange
+        int version = playlist.getVersion();
+
+        // Act
+        PlaylistMutation applied = playlist.apply(new PlaylistMutation().addSongs("123"));
+
+        // Assert
+        assertTrue(applied.isEmpty());
+        assertEquals(version, playlist.getVersion());
+    }
+}
@@ -0,0 +1,112 @@
+package com.crio.jukebox.entities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShuffleOrderTest {
+
+    private Playlist playlist;
+    private ShuffleOrder shuffleOrder;
+
+    @BeforeEach
+    void setup() {
+        List<String> songIdList = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) songIdList.add(String.valueOf(i));
+        playlist = new Playlist("1", "TestPlaylist", "1", songIdList);
+        shuffleOrder = new ShuffleOrder(playlist, "1", new Random(42));
+    }
+
+    @Test
+    void next_ShouldPlayEverySongOnce_BeforeTheCycleEnds() {
+        // Arrange
+        Set<String> played = new HashSet<>();
+        played.add("1");
+
+        // Act
+        for (int i = 1; i < 50; i++) played.add(shuffleOrder.next());
+
+        // Assert
+        assertEquals(50, played.size());
+    }
+
+    @Test
+    void back_ShouldReplayTheShuffledOrder_InReverse() {
+        // Arrange
+        String second = shuffleOrder.next();
+        String third = shuffleOrder.next();
+
+        // Act
+        String backOnce = shuffleOrder.back();
+        String backTwice = shuffleOrder.back();
+
+        // Assert
+        assertEquals(second, backOnce);
+        assertEquals("1", backTwice);
+        assertEquals(second, shuffleOrder.next());
+        assertEquals(third, shuffleOrder.next());
+    }
+
+    @Test
+    void next_ShouldFollowPlaylistChanges_WithinTheCycle() {
+        // Arrange
+        shuffleOrder.next();
+        playlist.deleteSong("50");
+        playlist.addSong("51");
+        Set<String> played = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 48; i++) played.add(shuffleOrder.next());
+
+        // Assert
+        assertFalse(played.contains("50"));
+        assertTrue(played.contains("51"));
+        assertEquals(48, played.size());
+    }
+
+    @Test
+    void jumpTo_ShouldContinueFromThePlayedSong_AfterPlaylistChanges() {
+        // Arrange
+        String second = shuffleOrder.next();
+        String third = shuffleOrder.next();
+        String fourth = shuffleOrder.next();
+        playlist.deleteSong(third);
+
+        // Act
+        shuffleOrder.jumpTo(second);
+        String afterSecond = shuffleOrder.next();
+        shuffleOrder.jumpTo("1");
+        String beforeFirst = shuffleOrder.back();
+
+        // Assert
+        assertEquals(fourth, afterSecond);
+        assertNotEquals(third, beforeFirst);
+        assertNotEquals(second, beforeFirst);
+        assertEquals("1", shuffleOrder.next());
+    }
+
+    @Test
+    void jumpTo_ShouldTakeAnUnplayedSongOutOfTheCycle() {
+        // Arrange
+        String second = shuffleOrder.next();
+        String unplayed = second.equals("25") ? "26" : "25";
+        Set<String> played = new HashSet<>();
+        played.add("1");
+        played.add(second);
+
+        // Act
+        shuffleOrder.jumpTo(unplayed);
+        played.add(unplayed);
+        for (int i = 3; i < 50; i++) played.add(shuffleOrder.next());
+
+        // Assert
+        assertEquals(50, played.size());
+    }
+}
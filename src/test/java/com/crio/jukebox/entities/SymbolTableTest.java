@@ -0,0 +1,82 @@
+package com.crio.jukebox.entities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SymbolTableTest {
+
+    private SymbolTable symbolTable;
+
+    @BeforeEach
+    void setup() {
+        symbolTable = new SymbolTable();
+    }
+
+    @Test
+    @DisplayName("intern should Return the first instance for equal Strings")
+    void intern_ShouldReturnFirstInstance_WhenValuesAreEqual() {
+        // Arrange
+        String first = symbolTable.intern(new String("Pop"));
+
+        // Act
+        String second = symbolTable.intern(new String("Pop"));
+
+        // Assert
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, symbolTable.size());
+        Assertions.assertNull(symbolTable.intern(null));
+    }
+
+    @Test
+    @DisplayName("Songs should share one instance of a repeated attribute")
+    void song_ShouldShareInternedGenre() {
+        // Arrange
+        Song first = new Song("1", "Song1", "Pop", "Album", "Artist", new String[]{"Artist"}, symbolTable);
+        Song second = new Song("2", "Song2", new String("Pop"), "Album", "Artist", new String[]{"Artist"}, symbolTable);
+
+        // Assert
+        Assertions.assertSame(first.getGenre(), second.getGenre());
+    }
+
+    @Test
+    @DisplayName("getFeaturedArtists should Return the same array of interned Strings on every call")
+    void getFeaturedArtists_ShouldReturnCachedArray() {
+        // Arrange
+        Song song = new Song("1", "Song1", "Pop", "Album", "Artist", new String[]{"Artist", "Guest"}, symbolTable);
+
+        // Act
+        String[] first = song.getFeaturedArtists();
+        String[] second = song.getFeaturedArtists();
+
+        // Assert
+        Assertions.assertSame(first, second);
+        Assertions.assertArrayEquals(new String[]{"Artist", "Guest"}, first);
+        Assertions.assertSame(symbolTable.intern(new String("Guest")), first[1]);
+    }
+
+    @Test
+    @DisplayName("size should Shrink once interned Strings are no longer referenced")
+    void size_ShouldShrink_WhenSymbolsAreNoLongerReferenced() throws InterruptedException {
+        // Arrange
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String symbol = symbolTable.intern(new String("Album " + i));
+            if (i % 10 == 0) kept.add(symbol);
+        }
+
+        // Act
+        for (int attempt = 0; attempt < 50 && symbolTable.size() > kept.size(); attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // Assert
+        Assertions.assertEquals(kept.size(), symbolTable.size());
+        for (String symbol : kept) Assertions.assertSame(symbol, symbolTable.intern(new String(symbol)));
+    }
+}
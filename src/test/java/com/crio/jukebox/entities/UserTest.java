@@ -47,4 +47,37 @@ class UserTest {
         //Assert
         assertFalse(isPresent);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getPlaylist should Return Empty after the Playlist is Deleted")
+    void getPlaylist_ShouldReturnEmpty_WhenPlaylistDeleted() {
+
+        // Arrange
+        Playlist givenPlaylist = user.getPlaylist("2").orElseThrow(IllegalStateException::new);
+
+        //Act
+        user.deletePlaylist(givenPlaylist);
+
+        //Assert
+        assertFalse(user.getPlaylist("2").isPresent());
+        assertEquals(2, user.getListOfPlaylist().size());
+        assertEquals("3", user.getListOfPlaylist().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("getListOfPlaylist should keep creation order for positional access after deletes")
+    void getListOfPlaylist_ShouldKeepCreationOrder_WhenPlaylistsDeleted() {
+
+        // Arrange
+        User userX = new User("7", "TesterX");
+        for (int i = 1; i <= 1000; i++) userX.addPlaylist(new Playlist(String.valueOf(i), "Playlist" + i, userX.getId()));
+
+        //Act
+        for (int i = 2; i <= 1000; i += 2) userX.deletePlaylist(new Playlist(String.valueOf(i), "Playlist" + i, userX.getId()));
+
+        //Assert
+        List<Playlist> playlistList = userX.getListOfPlaylist();
+        assertEquals(500, playlistList.size());
+        for (int i = 0; i < 500; i++) assertEquals(String.valueOf(2 * i + 1), playlistList.get(i).getId());
+    }
+}
@@ -0,0 +1,168 @@
+package com.crio.jukebox.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.crio.jukebox.entities.Song;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentSongRepositoryTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int SONGS_PER_WRITER = 2000;
+    private static final String[] GENRES = {"Pop", "Rock", "Jazz", "Electronic Dance Music"};
+
+    @Test
+    @DisplayName("save method should allocate unique IDs and keep indexes consistent under concurrent writers and readers")
+    public void save_ShouldStayConsistent_GivenConcurrentWritersAndReaders() throws Exception {
+        //Arrange
+        ConcurrentSongRepository songRepository = new ConcurrentSongRepository();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<List<String>>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        //Act
+        for (int w = 0; w < WRITERS; w++) {
+            final int writer = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < SONGS_PER_WRITER; i++) {
+                    String genre = GENRES[i % GENRES.length];
+                    Song song = songRepository.save(new Song("Song " + writer + "-" + i, genre, "Album " + writer,
+                            "Artist " + writer, new String[]{"Artist " + writer, "Guest " + (i % 10)}, songRepository.getSymbolTable()));
+                    ids.add(song.getId());
+                    // Delete every fifth song again to exercise index removal
+                    if (i % 5 == 0) songRepository.deleteById(song.getId());
+                }
+                return ids;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    for (String genre : GENRES) {
+                        for (Song song : songRepository.findByGenre(genre)) Assertions.assertEquals(genre, song.getGenre());
+                    }
+                    for (Song song : songRepository.findByFeaturedArtist("Guest 3")) {
+                        Assertions.assertTrue(song.getName().endsWith("3"));
+                    }
+                    songRepository.search("song", 10);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+
+        Set<String> allIds = new HashSet<>();
+        for (Future<List<String>> writer : writers) allIds.addAll(writer.get(60, TimeUnit.SECONDS));
+        writing.set(false);
+        for (Future<?> reader : readers) reader.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        //Assert
+        int expectedCount = WRITERS * SONGS_PER_WRITER * 4 / 5;
+        Assertions.assertEquals(WRITERS * SONGS_PER_WRITER, allIds.size());
+        Assertions.assertEquals(expectedCount, songRepository.count());
+        int indexed = 0;
+        for (String genre : GENRES) indexed += songRepository.findByGenre(genre).size();
+        Assertions.assertEquals(expectedCount, indexed);
+    }
+
+    @Test
+    @DisplayName("save method should reject IDs that are not positive integers, like SongRepository")
+    public void save_ShouldThrowIllegalArgumentException_GivenNonNumericId() {
+        //Arrange
+        ISongRepository[] repositories = {new SongRepository(), new ConcurrentSongRepository()};
+        for (ISongRepository songRepository : repositories) {
+            //Act and Assert
+            for (String id : new String[]{"S1", "01", "0", "-3"}) {
+                Assertions.assertThrows(IllegalArgumentException.class, () -> songRepository.save(
+                        new Song(id, "Song", "Pop", "Album", "Artist", new String[]{"Artist"}, songRepository.getSymbolTable())));
+            }
+            Assertions.assertEquals(0, songRepository.count());
+        }
+    }
+
+    @Test
+    @DisplayName("save method should change the version only after a completed change, like deleteById")
+    public void save_ShouldBumpVersionOnlyAfterChange() {
+        //Arrange
+        ISongRepository[] repositories = {new SongRepository(), new ConcurrentSongRepository()};
+        for (ISongRepository songRepository : repositories) {
+            long initial = songRepository.getVersion();
+            //Act
+            Assertions.assertThrows(IllegalArgumentException.class, () -> songRepository.save(
+                    new Song("S1", "Song", "Pop", "Album", "Artist", null, songRepository.getSymbolTable())));
+            long afterRejected = songRepository.getVersion();
+            Song saved = songRepository.save(new Song("Song", "Pop", "Album", "Artist", null, songRepository.getSymbolTable()));
+            long afterSave = songRepository.getVersion();
+            songRepository.deleteById(saved.getId());
+            //Assert
+            Assertions.assertEquals(initial, afterRejected);
+            Assertions.assertEquals(initial + 1, afterSave);
+            Assertions.assertEquals(initial + 2, songRepository.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("save method should move an updated song to its new attributes and keep the ones it shares")
+    public void save_ShouldReindexUpdatedSong_GivenSharedAndChangedAttributes() {
+        //Arrange
+        ConcurrentSongRepository songRepository = new ConcurrentSongRepository();
+        Song song = songRepository.save(new Song("Blue Sky", "Pop", "Album", "Artist", new String[]{"Artist", "Guest"},
+                songRepository.getSymbolTable()));
+
+        //Act
+        songRepository.save(new Song(song.getId(), "Blue Moon", "Rock", "Album", "Artist", new String[]{"Artist"},
+                songRepository.getSymbolTable()));
+
+        //Assert
+        Assertions.assertEquals(1, songRepository.findByArtist("Artist").size());
+        Assertions.assertEquals(1, songRepository.findByAlbum("Album").size());
+        Assertions.assertEquals(1, songRepository.findByGenre("Rock").size());
+        Assertions.assertTrue(songRepository.findByGenre("Pop").isEmpty());
+        Assertions.assertEquals(1, songRepository.findByFeaturedArtist("Artist").size());
+        Assertions.assertTrue(songRepository.findByFeaturedArtist("Guest").isEmpty());
+        Assertions.assertEquals("Blue Moon", songRepository.search("blue", 10).get(0).getName());
+        Assertions.assertEquals(1, songRepository.search("moon", 10).size());
+        Assertions.assertTrue(songRepository.search("sky", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findAll method should return songs in ID order, like SongRepository")
+    public void findAll_ShouldReturnSongsInIdOrder() {
+        //Arrange
+        ISongRepository[] repositories = {new SongRepository(), new ConcurrentSongRepository()};
+        for (ISongRepository songRepository : repositories) {
+            for (int id : new int[]{12, 3, 100, 7}) {
+                songRepository.save(new Song(String.valueOf(id), "Song " + id, "Pop", "Album", "Artist", null,
+                        songRepository.getSymbolTable()));
+            }
+
+            //Act
+            List<Song> songs = songRepository.findAll();
+
+            //Assert
+            List<String> ids = new ArrayList<>();
+            for (Song song : songs) ids.add(song.getId());
+            Assertions.assertEquals(Arrays.asList("3", "7", "12", "100"), ids);
+        }
+    }
+}
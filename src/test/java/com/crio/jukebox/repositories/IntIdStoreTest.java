@@ -0,0 +1,110 @@
+package com.crio.jukebox.repositories;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IntIdStoreTest {
+    private IntIdStore<String> store;
+
+    @BeforeEach
+    void setup(){
+        store = new IntIdStore<>();
+        store.put(store.nextId(), "one");
+        store.put(store.nextId(), "two");
+    }
+
+    @Test
+    @DisplayName("nextId method should never reuse the ID of a removed entity")
+    public void nextId_ShouldNotReuseRemovedId(){
+        //Arrange
+        store.remove(2);
+        //Act
+        int nextId = store.nextId();
+        //Assert
+        Assertions.assertEquals(3,nextId);
+        Assertions.assertEquals(1,store.size());
+    }
+
+    @Test
+    @DisplayName("put method should grow the store and reserve externally assigned IDs")
+    public void put_ShouldReserveId_GivenLargeId(){
+        //Act
+        store.put(100, "hundred");
+        store.put(4, "four");
+        store.remove(4);
+        //Assert
+        Assertions.assertEquals("hundred",store.get(100));
+        Assertions.assertEquals(3,store.nextId());
+        for (int id = 5; id <= 99; id++) Assertions.assertEquals(id,store.nextId());
+        Assertions.assertEquals(101,store.nextId());
+    }
+
+    @Test
+    @DisplayName("nextId method should stay dense after an outlier ID and fail once no ID is left")
+    public void nextId_ShouldSkipOnlyReservedIds_GivenMaxIdInUse(){
+        //Arrange
+        store.put(Integer.MAX_VALUE - 1, "almost max");
+        store.put(Integer.MAX_VALUE, "max");
+        //Act
+        int nextId = store.nextId();
+        //Assert
+        Assertions.assertEquals(3,nextId);
+        IntIdStore<String> full = new IntIdStore<>();
+        full.put(Integer.MAX_VALUE - 1, "almost max");
+        for (int id = 1; id < Integer.MAX_VALUE - 1; id++) full.reserve(id);
+        Assertions.assertEquals(Integer.MAX_VALUE,full.nextId());
+        Assertions.assertThrows(IllegalStateException.class,full::nextId);
+    }
+
+    @Test
+    @DisplayName("put method should keep IDs far beyond the stored range and list them in ID order")
+    public void put_ShouldKeepOutlierIds_GivenHugeId(){
+        //Act
+        store.put(2_000_000_000, "huge");
+        store.put(Integer.MAX_VALUE, "max");
+        store.put(3, "three");
+        //Assert
+        Assertions.assertEquals("huge",store.get(2_000_000_000));
+        Assertions.assertEquals("max",store.get(Integer.MAX_VALUE));
+        Assertions.assertEquals(Arrays.asList("one","two","three","huge","max"),store.values());
+        Assertions.assertEquals("huge",store.remove(2_000_000_000));
+        Assertions.assertNull(store.get(2_000_000_000));
+        Assertions.assertEquals(4,store.size());
+    }
+
+    @Test
+    @DisplayName("put method should find every entity once the stored range grows over earlier outliers")
+    public void put_ShouldKeepEntities_GivenRangeGrowsOverOutliers(){
+        //Arrange
+        store.put(200, "200");
+        store.put(60, "60");
+        //Act
+        for (int id = 3; id <= 150; id++) {
+            if (id != 60) store.put(id, String.valueOf(id));
+        }
+        store.put(60, "sixty");
+        //Assert
+        Assertions.assertEquals(151,store.size());
+        Assertions.assertEquals("sixty",store.get(60));
+        Assertions.assertEquals("200",store.get(200));
+        List<String> values = store.values();
+        Assertions.assertEquals("one",values.get(0));
+        Assertions.assertEquals("sixty",values.get(59));
+        Assertions.assertEquals("200",values.get(150));
+    }
+
+    @Test
+    @DisplayName("parseId method should only accept canonical positive integers")
+    public void parseId_ShouldRejectNonCanonicalIds(){
+        //Assert
+        Assertions.assertEquals(42,IntIdStore.parseId("42"));
+        Assertions.assertEquals(-1,IntIdStore.parseId("042"));
+        Assertions.assertEquals(-1,IntIdStore.parseId("NEXT"));
+        Assertions.assertEquals(-1,IntIdStore.parseId("99999999999"));
+    }
+}
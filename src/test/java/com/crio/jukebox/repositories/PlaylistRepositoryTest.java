@@ -0,0 +1,59 @@
+package com.crio.jukebox.repositories;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.crio.jukebox.entities.Playlist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PlaylistRepositoryTest {
+    private PlaylistRepository playlistRepository;
+
+    @BeforeEach
+    void setup(){
+        playlistRepository = new PlaylistRepository();
+        playlistRepository.save(new Playlist("Playlist 1","1"));
+        playlistRepository.save(new Playlist("Playlist 2","2"));
+        playlistRepository.save(new Playlist("Playlist 3","1"));
+        playlistRepository.save(new Playlist("Playlist 4","1"));
+    }
+
+    @Test
+    @DisplayName("findByUserId method should return a page of the user's playlists in creation order")
+    public void findByUserId_ShouldReturnPage_GivenOffsetAndLimit(){
+        //Act
+        List<Playlist> page = playlistRepository.findByUserId("1",1,5);
+        //Assert
+        Assertions.assertEquals(List.of("3","4"),page.stream().map(Playlist::getId).collect(Collectors.toList()));
+        Assertions.assertTrue(playlistRepository.findByUserId("1",3,5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findByUserId method should not return deleted playlists")
+    public void findByUserId_ShouldSkipDeletedPlaylists(){
+        //Act
+        playlistRepository.deleteById("3");
+        //Assert
+        Assertions.assertEquals(List.of("1","4"),
+                playlistRepository.findByUserId("1").stream().map(Playlist::getId).collect(Collectors.toList()));
+        Assertions.assertTrue(playlistRepository.findByUserId("3").isEmpty());
+    }
+
+    @Test
+    @DisplayName("findByUserId method should return a deep page in creation order after deletes")
+    public void findByUserId_ShouldReturnDeepPage_GivenLargeLibrary(){
+        //Arrange
+        for (int i = 0; i < 10000; i++) playlistRepository.save(new Playlist("Mix " + i,"5"));
+        List<Playlist> all = playlistRepository.findByUserId("5");
+        for (int i = 0; i < 5000; i++) playlistRepository.deleteById(all.get(2 * i).getId());
+        //Act
+        List<Playlist> page = playlistRepository.findByUserId("5",4990,20);
+        //Assert
+        Assertions.assertEquals(10, page.size());
+        for (int i = 0; i < 10; i++) Assertions.assertEquals(all.get(2 * (4990 + i) + 1), page.get(i));
+    }
+}
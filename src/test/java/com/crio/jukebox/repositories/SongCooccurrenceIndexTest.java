@@ -0,0 +1,51 @@
+package com.crio.jukebox.repositories;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SongCooccurrenceIndexTest {
+    private SongCooccurrenceIndex cooccurrenceIndex;
+
+    @BeforeEach
+    void setup(){
+        cooccurrenceIndex = new SongCooccurrenceIndex();
+        List<String> first = Arrays.asList("1","2","3");
+        List<String> second = Arrays.asList("1","3","4");
+        cooccurrenceIndex.addSongs(first,first);
+        cooccurrenceIndex.addSongs(second,second);
+    }
+
+    @Test
+    @DisplayName("findSimilar method should rank songs by the number of shared playlists")
+    public void findSimilar_ShouldRankBySharedPlaylists(){
+        //Act
+        List<String> similar = cooccurrenceIndex.findSimilar("1",2);
+        //Assert
+        Assertions.assertEquals(Arrays.asList("3","2"),similar);
+    }
+
+    @Test
+    @DisplayName("removeSongs method should decrement the counts of the songs left behind")
+    public void removeSongs_ShouldDecrementCounts(){
+        //Act
+        cooccurrenceIndex.removeSongs(Arrays.asList("3"),Arrays.asList("1","3","4"));
+        //Assert
+        Assertions.assertEquals(1,cooccurrenceIndex.count("1","3"));
+        Assertions.assertEquals(0,cooccurrenceIndex.count("4","3"));
+        Assertions.assertEquals(Arrays.asList("1","2"),cooccurrenceIndex.findSimilar("3",5));
+    }
+
+    @Test
+    @DisplayName("findSimilar method should rank only the songs the filter accepts")
+    public void findSimilar_ShouldSkipExcludedSongs_GivenFilter(){
+        //Act
+        List<String> similar = cooccurrenceIndex.findSimilar("1",2,songId -> songId != 3);
+        //Assert
+        Assertions.assertEquals(Arrays.asList("2","4"),similar);
+    }
+}
@@ -0,0 +1,198 @@
+package com.crio.jukebox.repositories;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SongRepositoryTest {
+    private SongRepository songRepository;
+
+    @BeforeEach
+    void setup(){
+        SymbolTable symbols = new SymbolTable();
+        final Map<String,Song> songMap = new HashMap<String,Song>(){
+            {
+                put("1",new Song("1", "South of the Border", "Pop", "No.6 Collaborations Project", "Ed Sheeran", new String[]{"Ed Sheeran", "Cardi.B"}, symbols));
+                put("2",new Song("2", "Cross Me", "Pop", "No.6 Collaborations Project", "Ed Sheeran", new String[]{"Ed Sheeran", "PnB Rock"}, symbols));
+                put("3",new Song("3", "Give Life Back To Music", "Electronic Dance Music", "Random Access Memories", "Daft Punk", new String[]{"Daft Punk", "Nile Rodgers"}, symbols));
+            }
+        };
+        songRepository = new SongRepository(songMap);
+    }
+
+    @Test
+    @DisplayName("findByAlbum method should return Songs indexed from the initial map")
+    public void findByAlbum_ShouldReturnSongs_GivenAlbum(){
+        //Arrange
+        int expectedCount = 2;
+        //Act
+        List<Song> actualSongs = songRepository.findByAlbum("No.6 Collaborations Project");
+        //Assert
+        Assertions.assertEquals(expectedCount,actualSongs.size());
+    }
+
+    @Test
+    @DisplayName("findByGenre method should include newly saved Songs")
+    public void findByGenre_ShouldIncludeSavedSong(){
+        //Arrange
+        Song newSong = songRepository.save(new Song("Lose Yourself to Dance", "Electronic Dance Music", "Random Access Memories", "Daft Punk", new String[]{"Daft Punk"}, songRepository.getSymbolTable()));
+        //Act
+        List<Song> actualSongs = songRepository.findByGenre("Electronic Dance Music");
+        //Assert
+        Assertions.assertEquals(2,actualSongs.size());
+        Assertions.assertTrue(actualSongs.contains(newSong));
+    }
+
+    @Test
+    @DisplayName("findByArtist method should exclude deleted Songs")
+    public void findByArtist_ShouldExcludeDeletedSong(){
+        //Arrange
+        songRepository.deleteById("1");
+        //Act
+        List<Song> actualSongs = songRepository.findByArtist("Ed Sheeran");
+        //Assert
+        Assertions.assertEquals(1,actualSongs.size());
+        Assertions.assertEquals("2",actualSongs.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("findByName method should follow an updated Song")
+    public void findByName_ShouldFollowUpdatedSong(){
+        //Arrange
+        songRepository.save(new Song("2", "Cross Me (Remix)", "Pop", "No.6 Collaborations Project", "Ed Sheeran", new String[]{"Ed Sheeran"}, songRepository.getSymbolTable()));
+        //Act
+        List<Song> oldName = songRepository.findByName("Cross Me");
+        List<Song> newName = songRepository.findByName("Cross Me (Remix)");
+        //Assert
+        Assertions.assertTrue(oldName.isEmpty());
+        Assertions.assertEquals(1,newName.size());
+    }
+
+    @Test
+    @DisplayName("findByName method should return Empty List if no Songs Found")
+    public void findByName_ShouldReturnEmptyList(){
+        //Act
+        List<Song> actualSongs = songRepository.findByName("Unknown");
+        //Assert
+        Assertions.assertTrue(actualSongs.isEmpty());
+    }
+
+    @Test
+    @DisplayName("findByNaturalKey method should return Songs sharing name, album and artist in ID order")
+    public void findByNaturalKey_ShouldReturnSongsInIdOrder_GivenSharedKey(){
+        //Arrange
+        songRepository.save(new Song("10", "Cross Me", "Rock", "No.6 Collaborations Project", "Ed Sheeran", new String[]{"Ed Sheeran"}, songRepository.getSymbolTable()));
+        songRepository.save(new Song("5", "Cross Me", "Pop", "No.6 Collaborations Project", "Ed Sheeran", new String[]{"Ed Sheeran"}, songRepository.getSymbolTable()));
+        songRepository.deleteById("2");
+        songRepository.save(new Song("3", "Give Life Back To Music", "Pop", "Another Album", "Daft Punk", new String[]{"Daft Punk"}, songRepository.getSymbolTable()));
+        //Act
+        List<Song> crossMe = songRepository.findByNaturalKey("Cross Me", "No.6 Collaborations Project", "Ed Sheeran");
+        List<Song> oldKey = songRepository.findByNaturalKey("Give Life Back To Music", "Random Access Memories", "Daft Punk");
+        //Assert
+        Assertions.assertEquals("5",crossMe.get(0).getId());
+        Assertions.assertEquals("10",crossMe.get(1).getId());
+        Assertions.assertEquals(2,crossMe.size());
+        Assertions.assertTrue(oldKey.isEmpty());
+    }
+
+    @Test
+    @DisplayName("findByFeaturedArtist method should return Songs featuring the Artist")
+    public void findByFeaturedArtist_ShouldReturnSongs(){
+        //Act
+        List<Song> actualSongs = songRepository.findByFeaturedArtist("Ed Sheeran");
+        //Assert
+        Assertions.assertEquals(2,actualSongs.size());
+    }
+
+    @Test
+    @DisplayName("findByAllFeaturedArtists method should return Songs featuring every Artist")
+    public void findByAllFeaturedArtists_ShouldIntersect(){
+        //Act
+        List<Song> actualSongs = songRepository.findByAllFeaturedArtists("Ed Sheeran", "PnB Rock");
+        //Assert
+        Assertions.assertEquals(1,actualSongs.size());
+        Assertions.assertEquals("2",actualSongs.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("findByAnyFeaturedArtist method should return Songs featuring any Artist")
+    public void findByAnyFeaturedArtist_ShouldUnion(){
+        //Act
+        List<Song> actualSongs = songRepository.findByAnyFeaturedArtist("Cardi.B", "Nile Rodgers", "Ed Sheeran");
+        //Assert
+        Assertions.assertEquals(3,actualSongs.size());
+    }
+
+    @Test
+    @DisplayName("search method should match Songs by prefix and misspelt words")
+    public void search_ShouldReturnRankedSongs_GivenPartialText(){
+        //Act
+        List<Song> byPrefix = songRepository.search("giv", 10);
+        List<Song> byTypo = songRepository.search("sheran", 10);
+        //Assert
+        Assertions.assertEquals("3",byPrefix.get(0).getId());
+        Assertions.assertEquals(2,byTypo.size());
+    }
+
+    @Test
+    @DisplayName("search method should match misspelt words whose trigrams are shared by many terms")
+    public void search_ShouldReturnClosestSong_GivenTypoSharingCommonTrigrams(){
+        //Arrange
+        for (int i = 0; i < 1100; i++) {
+            songRepository.save(new Song("The" + i, "Pop", "Album", "Artist", new String[]{"Artist"}, songRepository.getSymbolTable()));
+        }
+        //Act
+        List<Song> actualSongs = songRepository.search("thee50", 1);
+        //Assert
+        Assertions.assertEquals("The50",actualSongs.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("search method should read a bounded number of postings for a term shared by many Songs")
+    public void search_ShouldBoundPostingsRead_GivenHighFrequencyTerm(){
+        //Arrange
+        SongSearchIndex searchIndex = new SongSearchIndex();
+        for (int i = 0; i < 3000; i++) {
+            searchIndex.add(new Song(String.valueOf(i + 1), "Track " + i, "Pop", "Love Songs", "Artist", null, new SymbolTable()));
+        }
+        for (int i = 0; i < 10; i++) {
+            searchIndex.add(new Song(String.valueOf(5001 + i), "Love " + i, "Pop", "Album", "Artist", null, new SymbolTable()));
+        }
+        //Act
+        Map<String, Double> candidates = searchIndex.score("love", 10);
+        List<String> actualIds = searchIndex.search("love", 10);
+        //Assert
+        Assertions.assertTrue(candidates.size() <= SongSearchIndex.MAX_POSTINGS_PER_TERM);
+        Assertions.assertEquals(10, actualIds.size());
+        // Name matches are read before the album matches the cut-off drops
+        for (String id : actualIds) Assertions.assertTrue(Integer.parseInt(id) > 5000);
+    }
+
+    @Test
+    @DisplayName("search method should not return deleted Songs")
+    public void search_ShouldExcludeDeletedSong(){
+        //Arrange
+        songRepository.deleteById("3");
+        //Act
+        List<Song> actualSongs = songRepository.search("daft punk", 10);
+        //Assert
+        Assertions.assertTrue(actualSongs.isEmpty());
+    }
+
+    @Test
+    @DisplayName("findMissingIds method should return each unknown ID once, in the order given")
+    public void findMissingIds_ShouldReturnUnknownIds(){
+        //Act
+        List<String> missing = songRepository.findMissingIds(List.of("1","9","x","3","9"));
+        //Assert
+        Assertions.assertEquals(List.of("9","x"),missing);
+    }
+}
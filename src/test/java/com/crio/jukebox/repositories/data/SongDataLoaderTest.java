@@ -0,0 +1,199 @@
+package com.crio.jukebox.repositories.data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.crio.jukebox.dtos.CatalogReloadDto;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.data.strategies.SongFromCsvStrategy;
+import com.crio.jukebox.repositories.data.strategies.SongFromMappedCsvStrategy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SongDataLoaderTest {
+    private static final String SOUTH = "South of the Border,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Cardi.B";
+    private static final String CROSS = "Cross Me,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#PnB Rock";
+    private static final String GIVE = "Give Life Back To Music,Electronic Dance Music,Random Access Memories,Daft Punk,Daft Punk#Nile Rodgers";
+
+    private SongRepository songRepository;
+    private SongDataLoader songDataLoader;
+    private Path csv;
+
+    @BeforeEach
+    void setup() throws IOException {
+        songRepository = new SongRepository();
+        songDataLoader = new SongDataLoader(songRepository, new SongFromCsvStrategy(songRepository.getSymbolTable()));
+        csv = Files.createTempFile("songs", ".csv");
+        Files.write(csv, Arrays.asList(SOUTH, CROSS));
+        songDataLoader.loadData(csv.toString());
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    @DisplayName("loadData method should intern song attributes into the SymbolTable of the repository loaded")
+    public void loadData_ShouldInternIntoRepositorySymbolTable_GivenTwoRepositories() throws IOException {
+        //Arrange
+        SongRepository other = new SongRepository();
+        int symbolsBefore = songRepository.getSymbolTable().size();
+        Files.write(csv, Collections.singletonList(GIVE));
+        //Act
+        new SongDataLoader(other, new SongFromCsvStrategy(other.getSymbolTable())).loadData(csv.toString());
+        //Assert
+        Song loaded = other.findById("1").orElseThrow(AssertionError::new);
+        Assertions.assertEquals("Electronic Dance Music", loaded.getGenre());
+        Assertions.assertSame(other.getSymbolTable().intern(new String("Electronic Dance Music")), loaded.getGenre());
+        Assertions.assertEquals(symbolsBefore, songRepository.getSymbolTable().size());
+    }
+
+    @Test
+    @DisplayName("reloadData method should insert new songs, update changed ones in place and delete missing ones")
+    public void reloadData_ShouldApplyDifferences_GivenChangedCatalog() throws IOException {
+        //Arrange
+        Files.write(csv, Arrays.asList(
+                "South of the Border,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Camilla Cabello", GIVE));
+        //Act
+        CatalogReloadDto changes = songDataLoader.reloadData(csv.toString());
+        //Assert
+        Assertions.assertEquals(new CatalogReloadDto(1, 1, 1, 0), changes);
+        Song updated = songRepository.findById("1").orElseThrow(AssertionError::new);
+        Assertions.assertArrayEquals(new String[]{"Ed Sheeran", "Camilla Cabello"}, updated.getFeaturedArtists());
+        Assertions.assertFalse(songRepository.findById("2").isPresent());
+        Assertions.assertEquals(1, songRepository.findByName("Give Life Back To Music").size());
+    }
+
+    @Test
+    @DisplayName("reloadData method should leave songs that did not change untouched")
+    public void reloadData_ShouldReportUnchanged_GivenSameCatalog() throws IOException {
+        //Arrange
+        long versionBefore = songRepository.getVersion();
+        //Act
+        CatalogReloadDto changes = songDataLoader.reloadData(csv.toString());
+        //Assert
+        Assertions.assertEquals(new CatalogReloadDto(0, 0, 0, 2), changes);
+        Assertions.assertEquals(versionBefore, songRepository.getVersion());
+    }
+
+    @Test
+    @DisplayName("reloadData method should match duplicate rows one to one and delete the songs no row matches")
+    public void reloadData_ShouldMatchEachSong_GivenDuplicateRows() throws IOException {
+        //Arrange
+        Files.write(csv, Arrays.asList(SOUTH, SOUTH, CROSS, SOUTH));
+        songDataLoader.reloadData(csv.toString());
+        //Act
+        CatalogReloadDto sameFile = songDataLoader.reloadData(csv.toString());
+        Files.write(csv, Arrays.asList(CROSS, SOUTH));
+        CatalogReloadDto fewerRows = songDataLoader.reloadData(csv.toString());
+        //Assert
+        Assertions.assertEquals(new CatalogReloadDto(0, 0, 0, 4), sameFile);
+        Assertions.assertEquals(new CatalogReloadDto(0, 0, 2, 2), fewerRows);
+        Assertions.assertEquals(2, songRepository.count());
+        // The song with the lowest ID keeps the key
+        Assertions.assertEquals("South of the Border", songRepository.findById("1").map(Song::getName).orElse(null));
+        Assertions.assertEquals(1, songRepository.findByName("South of the Border").size());
+    }
+
+    @Test
+    @DisplayName("reloadData method should throw and keep the catalog when the file cannot be read")
+    public void reloadData_ShouldThrowAndChangeNothing_GivenMissingFile(){
+        //Arrange
+        String missingFile = csv.resolveSibling("no-such-file-" + System.nanoTime() + ".csv").toString();
+        //Act and Assert
+        Assertions.assertThrows(IOException.class, () -> songDataLoader.reloadData(missingFile));
+        Assertions.assertEquals(2, songRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("loadData method should not load a snapshot over songs with the same IDs")
+    public void loadData_ShouldRejectSnapshot_GivenSongsAlreadyLoaded() throws IOException {
+        //Arrange
+        Path snapshot = Files.createTempFile("songs", ".snapshot");
+        songDataLoader.saveSnapshot(snapshot.toString());
+        songRepository.save(new Song("1", "Renamed", "Pop", "No.6 Collaborations Project", "Ed Sheeran", null, songRepository.getSymbolTable()));
+        //Act
+        try {
+            songDataLoader.loadData(snapshot.toString());
+        } finally {
+            Files.delete(snapshot);
+        }
+        //Assert
+        Assertions.assertEquals("Renamed", songRepository.findById("1").map(Song::getName).orElse(null));
+    }
+
+    @Test
+    @DisplayName("loadDataStreaming method should save songs in file order for any chunk size, even with chunks waiting")
+    public void loadDataStreaming_ShouldMatchLoadData_GivenAnyChunkSize() throws IOException {
+        //Arrange
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) lines.add("Song " + i + ",Pop,Album " + (i % 7) + ",Artist " + (i % 5) + ",Artist");
+        Files.write(csv, lines);
+        SongRepository expected = new SongRepository();
+        new SongDataLoader(expected, new SongFromCsvStrategy()).loadData(csv.toString());
+        for (int chunkSize : new int[]{1, 3, 7, 199, 200, 201}) {
+            for (int parallelism : new int[]{1, 3}) {
+                SongRepository actual = new SongRepository();
+                //Act
+                long saved = new SongDataLoader(actual, new SongFromCsvStrategy())
+                        .loadDataStreaming(csv.toString(), parallelism, chunkSize);
+                //Assert
+                Assertions.assertEquals(200, saved);
+                for (Song song : expected.findAll()) {
+                    Assertions.assertEquals(song.getName(), actual.findById(song.getId()).map(Song::getName).orElse(null),
+                            "chunk size " + chunkSize + ", parallelism " + parallelism);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("loadDataStreaming method should keep the songs before a bad record and report its line")
+    public void loadDataStreaming_ShouldReportLine_GivenBadRecord() throws IOException {
+        //Arrange
+        Files.write(csv, Arrays.asList(SOUTH, CROSS, GIVE, "Broken record without fields", SOUTH));
+        SongRepository repository = new SongRepository();
+        //Act
+        IOException error = Assertions.assertThrows(IOException.class, () -> new SongDataLoader(repository,
+                new SongFromCsvStrategy()).loadDataStreaming(csv.toString(), 2, 2));
+        //Assert
+        Assertions.assertTrue(error.getMessage().startsWith("Song record at line 4 "), error.getMessage());
+        Assertions.assertEquals(3, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("loadDataStreaming method should keep quoted line breaks inside one record")
+    public void loadDataStreaming_ShouldSplitOnRecords_GivenQuotedMultiLineRecords() throws IOException {
+        //Arrange
+        Files.write(csv, ("\"Two\r\nLines\",Pop,\"Album, Live\",Artist,Artist\r\n"
+                + "\r\n"
+                + "\"Say \"\"Hi\"\"\",Rock,Album,Artist,Artist#\"Guest\"\n"
+                + SOUTH).getBytes(StandardCharsets.UTF_8));
+        SongFromMappedCsvStrategy strategy = new SongFromMappedCsvStrategy();
+        List<Song> expected = strategy.execute(csv.toString());
+        SongRepository repository = new SongRepository();
+        //Act
+        long saved = new SongDataLoader(repository, strategy).loadDataStreaming(csv.toString(), 2, 1);
+        //Assert
+        Assertions.assertEquals(3, saved);
+        for (int i = 0; i < expected.size(); i++) {
+            Song song = repository.findById(String.valueOf(i + 1)).orElseThrow(AssertionError::new);
+            Assertions.assertEquals(expected.get(i).getName(), song.getName());
+            Assertions.assertEquals(expected.get(i).getAlbumName(), song.getAlbumName());
+            Assertions.assertArrayEquals(expected.get(i).getFeaturedArtists(), song.getFeaturedArtists());
+        }
+        Assertions.assertEquals("Two\r\nLines", repository.findById("1").map(Song::getName).orElse(null));
+    }
+}
@@ -0,0 +1,129 @@
+package com.crio.jukebox.repositories.data;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+import com.crio.jukebox.repositories.SongRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SongSnapshotTest {
+    private SongRepository songRepository;
+    private Path snapshot;
+
+    @BeforeEach
+    void setup() throws IOException {
+        songRepository = new SongRepository();
+        songRepository.save(new Song("South of the Border", "Pop", "No.6 Collaborations Project", "Ed Sheeran",
+                new String[]{"Ed Sheeran", "Cardi.B"}, songRepository.getSymbolTable()));
+        songRepository.save(new Song("Untitled Demo", null, null, "Unknown Artist", null, songRepository.getSymbolTable()));
+        snapshot = Files.createTempFile("songs", ".snapshot");
+        SongSnapshot.write(songRepository, snapshot.toString());
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    @DisplayName("read method should return the written songs with their IDs, including null attributes")
+    public void read_ShouldReturnWrittenSongs_GivenSnapshot() throws IOException {
+        //Act
+        List<Song> songs = SongSnapshot.read(snapshot.toString(), new SymbolTable());
+        //Assert
+        Assertions.assertTrue(SongSnapshot.isSnapshot(snapshot.toString()));
+        Assertions.assertEquals(2, songs.size());
+        Song first = songs.get(0);
+        Assertions.assertEquals("1", first.getId());
+        Assertions.assertEquals("No.6 Collaborations Project", first.getAlbumName());
+        Assertions.assertArrayEquals(new String[]{"Ed Sheeran", "Cardi.B"}, first.getFeaturedArtists());
+        Song second = songs.get(1);
+        Assertions.assertEquals("2", second.getId());
+        Assertions.assertEquals("Untitled Demo", second.getName());
+        Assertions.assertNull(second.getGenre());
+        Assertions.assertNull(second.getAlbumName());
+        Assertions.assertNull(second.getFeaturedArtists());
+    }
+
+    @Test
+    @DisplayName("write method should store only the strings the songs use")
+    public void write_ShouldSkipUnusedSymbols_GivenDeletedSong() throws IOException {
+        //Arrange
+        songRepository.save(new Song("Zzz Only Here", "Zzz Genre", "Zzz Album", "Zzz Artist", new String[]{"Zzz"}, songRepository.getSymbolTable()));
+        songRepository.deleteById("3");
+        //Act
+        SongSnapshot.write(songRepository, snapshot.toString());
+        //Assert
+        String contents = new String(Files.readAllBytes(snapshot), StandardCharsets.ISO_8859_1);
+        Assertions.assertFalse(contents.contains("Zzz"));
+    }
+
+    @Test
+    @DisplayName("read method should reject a file with another magic number or version")
+    public void read_ShouldThrowException_GivenWrongMagicOrVersion() throws IOException {
+        //Arrange
+        byte[] bytes = Files.readAllBytes(snapshot);
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 0x01;
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[7] = (byte) (SongSnapshot.VERSION + 1);
+        //Act
+        Files.write(snapshot, wrongMagic);
+        boolean magicRecognised = SongSnapshot.isSnapshot(snapshot.toString());
+        IOException magicError = Assertions.assertThrows(IOException.class, () -> SongSnapshot.read(snapshot.toString(), new SymbolTable()));
+        Files.write(snapshot, wrongVersion);
+        IOException versionError = Assertions.assertThrows(IOException.class, () -> SongSnapshot.read(snapshot.toString(), new SymbolTable()));
+        //Assert
+        Assertions.assertFalse(magicRecognised);
+        Assertions.assertTrue(magicError.getMessage().startsWith("Not a song snapshot"));
+        Assertions.assertTrue(versionError.getMessage().startsWith("Unsupported song snapshot version"));
+    }
+
+    @Test
+    @DisplayName("read method should detect a corrupted byte through the checksum")
+    public void read_ShouldThrowException_GivenCorruptedByte() throws IOException {
+        //Arrange
+        byte[] bytes = Files.readAllBytes(snapshot);
+        int nameAt = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("Untitled Demo");
+        bytes[nameAt] = 'u';
+        Files.write(snapshot, bytes);
+        //Act
+        IOException error = Assertions.assertThrows(IOException.class, () -> SongSnapshot.read(snapshot.toString(), new SymbolTable()));
+        //Assert
+        Assertions.assertTrue(error.getMessage().startsWith("Song snapshot checksum mismatch"));
+    }
+
+    @Test
+    @DisplayName("read method should reject a truncated file and a corrupt count")
+    public void read_ShouldThrowException_GivenTruncatedFile() throws IOException {
+        //Arrange
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Path hugeCount = Files.createTempFile("songs", ".snapshot");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(hugeCount))) {
+            out.writeInt(SongSnapshot.MAGIC);
+            out.writeInt(SongSnapshot.VERSION);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        //Act
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 3));
+        //Assert
+        Assertions.assertThrows(IOException.class, () -> SongSnapshot.read(snapshot.toString(), new SymbolTable()));
+        try {
+            Assertions.assertThrows(IOException.class, () -> SongSnapshot.read(hugeCount.toString(), new SymbolTable()));
+        } finally {
+            Files.delete(hugeCount);
+        }
+    }
+}
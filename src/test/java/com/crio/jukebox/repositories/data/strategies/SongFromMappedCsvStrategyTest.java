@@ -0,0 +1,102 @@
+package com.crio.jukebox.repositories.data.strategies;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.crio.jukebox.entities.Song;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SongFromMappedCsvStrategyTest {
+
+    // Window sizes smaller than a record, smaller than a line break and larger than the whole file
+    private static final int[] WINDOW_SIZES = {1, 3, 7, 13, 64, 100, 1000};
+
+    private final SongFromMappedCsvStrategy strategy = new SongFromMappedCsvStrategy();
+
+    @Test
+    @DisplayName("execute method should parse the same songs whatever the window size, given the sample catalog")
+    public void execute_ShouldReturnSameSongs_GivenAnyWindowSizeOnSongsCsv(){
+        //Arrange
+        List<Song> expected = new SongFromCsvStrategy().execute("songs.csv");
+        for (int windowSize : WINDOW_SIZES) {
+            //Act
+            List<Song> actual = new SongFromMappedCsvStrategy(windowSize).execute("songs.csv");
+            //Assert
+            assertSameSongs(expected, actual, windowSize);
+        }
+    }
+
+    @Test
+    @DisplayName("execute method should parse the same songs whatever the window size, given quoted multi-line records")
+    public void execute_ShouldReturnSameSongs_GivenAnyWindowSizeOnQuotedMultiLineCsv() throws IOException {
+        //Arrange
+        Path csv = Files.createTempFile("songs", ".csv");
+        try {
+            Files.write(csv, ("\"Two\r\nLines\",Pop,\"Album, Live\",Artist,Artist\r\n"
+                    + "\r\n"
+                    + "\"Say \"\"Hi\"\"\",Rock,Album,Artist,Artist#\"Guest\"\n"
+                    + "Caf\u00e9 \u266b,Jazz,\"Long\nAlbum\nName\",Ren\u00e9e,Ren\u00e9e#Zo\u00eb\n"
+                    + "South of the Border,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Cardi.B").getBytes(StandardCharsets.UTF_8));
+            List<Song> expected = new SongFromMappedCsvStrategy().execute(csv.toString());
+            Assertions.assertEquals(4, expected.size());
+            Assertions.assertEquals("Two\r\nLines", expected.get(0).getName());
+            Assertions.assertEquals("Say \"Hi\"", expected.get(1).getName());
+            Assertions.assertEquals("Long\nAlbum\nName", expected.get(2).getAlbumName());
+            Assertions.assertArrayEquals(new String[]{"Ren\u00e9e", "Zo\u00eb"}, expected.get(2).getFeaturedArtists());
+            for (int windowSize : WINDOW_SIZES) {
+                //Act
+                List<Song> actual = new SongFromMappedCsvStrategy(windowSize).execute(csv.toString());
+                //Assert
+                assertSameSongs(expected, actual, windowSize);
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private static void assertSameSongs(List<Song> expected, List<Song> actual, int windowSize) {
+        String message = "Window size " + windowSize;
+        Assertions.assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getName(), actual.get(i).getName(), message);
+            Assertions.assertEquals(expected.get(i).getGenre(), actual.get(i).getGenre(), message);
+            Assertions.assertEquals(expected.get(i).getAlbumName(), actual.get(i).getAlbumName(), message);
+            Assertions.assertEquals(expected.get(i).getArtist(), actual.get(i).getArtist(), message);
+            Assertions.assertArrayEquals(expected.get(i).getFeaturedArtists(), actual.get(i).getFeaturedArtists(), message);
+        }
+    }
+
+    @Test
+    @DisplayName("parseRecord method should split plain fields and featured artists")
+    public void parseRecord_ShouldReturnSong_GivenPlainRecord(){
+        //Act
+        Song song = strategy.parseRecord("I Dont'Care,Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Justin Bieber");
+        //Assert
+        Assertions.assertEquals("I Dont'Care",song.getName());
+        Assertions.assertEquals("No.6 Collaborations Project",song.getAlbumName());
+        Assertions.assertArrayEquals(new String[]{"Ed Sheeran", "Justin Bieber"},song.getFeaturedArtists());
+    }
+
+    @Test
+    @DisplayName("parseRecord method should keep commas and escaped quotes inside quoted fields")
+    public void parseRecord_ShouldUnquoteFields_GivenQuotedRecord(){
+        //Act
+        Song song = strategy.parseRecord("\"Say \"\"Hi\"\"\",Pop,\"Hits, Vol. 1\",Artist,Artist");
+        //Assert
+        Assertions.assertEquals("Say \"Hi\"",song.getName());
+        Assertions.assertEquals("Hits, Vol. 1",song.getAlbumName());
+    }
+
+    @Test
+    @DisplayName("parseRecord method should reject records with missing fields")
+    public void parseRecord_ShouldThrowException_GivenMissingFields(){
+        //Act and Assert
+        Assertions.assertThrows(IllegalArgumentException.class,() -> strategy.parseRecord("Name,Pop,Album"));
+    }
+}
@@ -0,0 +1,302 @@
+package com.crio.jukebox.repositories.log;
+
+import com.crio.jukebox.entities.PlaybackMode;
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SymbolTable;
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.LoggedPlaylistRepository;
+import com.crio.jukebox.repositories.LoggedUserRepository;
+import com.crio.jukebox.repositories.PlaylistRepository;
+import com.crio.jukebox.repositories.UserRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationLogTest {
+
+    private Path path;
+
+    @BeforeEach
+    void setup() throws IOException {
+        path = Files.createTempFile("mutation", ".log");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void open_ShouldRecoverUsersAndPlaylistsSavedBeforeClose() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        PlaylistRepository playlists = new PlaylistRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        LoggedPlaylistRepository playlistRepository = new LoggedPlaylistRepository(playlists, mutationLog);
+        mutationLog.open(path, 10, 16, users, playlists);
+
+        User user = new User("1", "Kiran");
+        userRepository.save(user);
+        Playlist playlist = playlistRepository.save(new Playlist(null, "Road", "1", Arrays.asList("3", "4", "5")));
+        user.addPlaylist(playlist);
+        playlist.deleteSong("4");
+        playlistRepository.save(playlist);
+        Song song = new Song("5", "Give Life Back To Music", "Electronic", "Random Access Memories", "Daft Punk",
+                new String[]{"Nile Rodgers"}, new SymbolTable());
+        user.setActivePlaylist(playlist);
+        user.setActiveSong(song, 1);
+        user.setPlaybackMode(PlaybackMode.REPEAT_ALL);
+        user.getListeningHistory().record(3, 1000L);
+        user.getListeningHistory().record(5, 2000L);
+        userRepository.save(user);
+        mutationLog.close();
+
+        // Act
+        MutationLog recovered = new MutationLog();
+        UserRepository recoveredUsers = new UserRepository();
+        PlaylistRepository recoveredPlaylists = new PlaylistRepository();
+        long records = recovered.open(path, 10, 16, recoveredUsers, recoveredPlaylists);
+        recovered.close();
+
+        // Assert
+        assertEquals(5, records);
+        User recoveredUser = recoveredUsers.findById("1").orElseThrow(AssertionError::new);
+        Playlist recoveredPlaylist = recoveredUser.getPlaylist(playlist.getId()).orElseThrow(AssertionError::new);
+        assertEquals(Arrays.asList("3", "5"), recoveredPlaylist.getSongIdList());
+        assertEquals(playlist.getVersion(), recoveredPlaylist.getVersion());
+        assertSame(recoveredPlaylist, recoveredUser.getActivePlaylist().orElse(null));
+        assertEquals("Give Life Back To Music", recoveredUser.getActiveSong().map(Song::getName).orElse(null));
+        assertEquals(1, recoveredUser.getActiveSongIndex());
+        assertEquals(PlaybackMode.REPEAT_ALL, recoveredUser.getPlaybackMode());
+        assertEquals(5, recoveredUser.getListeningHistory().songIdAt(0));
+        assertEquals(1000L, recoveredUser.getListeningHistory().timestampAt(1));
+    }
+
+    @Test
+    void open_ShouldDropATornRecordAndAppendAfterTheLastGoodOne() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        mutationLog.open(path, 0, 1, users, new PlaylistRepository());
+        userRepository.save(new User("1", "Kiran"));
+        userRepository.save(new User("2", "Shankar"));
+        mutationLog.close();
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            file.truncate(file.size() - 3);
+        }
+
+        // Act
+        MutationLog recovered = new MutationLog();
+        UserRepository recoveredUsers = new UserRepository();
+        long records = recovered.open(path, 0, 1, recoveredUsers, new PlaylistRepository());
+        new LoggedUserRepository(recoveredUsers, recovered).save(new User("3", "Yakshit"));
+        recovered.close();
+        UserRepository reopenedUsers = new UserRepository();
+        MutationLog reopened = new MutationLog();
+        reopened.open(path, 0, 1, reopenedUsers, new PlaylistRepository());
+        reopened.close();
+
+        // Assert
+        assertEquals(1, records);
+        assertTrue(reopenedUsers.findById("1").isPresent());
+        assertFalse(reopenedUsers.findById("2").isPresent());
+        assertTrue(reopenedUsers.findById("3").isPresent());
+    }
+
+    @Test
+    void open_ShouldRejectACorruptRecordBeforeTheEndAndKeepTheFile() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        mutationLog.open(path, 0, 1, users, new PlaylistRepository());
+        userRepository.save(new User("1", "Kiran"));
+        userRepository.save(new User("2", "Shankar"));
+        mutationLog.close();
+        long size = Files.size(path);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            // The first byte after the first record's header
+            file.write(ByteBuffer.wrap(new byte[]{(byte) 0x7f}), 8);
+        }
+
+        // Act
+        MutationLog recovered = new MutationLog();
+        IOException e = assertThrows(IOException.class,
+                () -> recovered.open(path, 0, 1, new UserRepository(), new PlaylistRepository()));
+
+        // Assert
+        assertTrue(e.getMessage().contains("offset 0"));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void save_ShouldRecoverEverySaveMadeConcurrentlyWhenEveryMutationIsSynced() throws Exception {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        mutationLog.open(path, 0, 1, users, new PlaylistRepository());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t * 50 + 1;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < first + 50; i++) userRepository.save(new User(String.valueOf(i), "User " + i));
+            }));
+        }
+
+        // Act
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        // Durable without close, as every save waited for its record
+        UserRepository recoveredUsers = new UserRepository();
+        long records = WriteAheadLog.replay(path, record -> { });
+        mutationLog.close();
+        MutationLog recovered = new MutationLog();
+        recovered.open(path, 0, 1, recoveredUsers, new PlaylistRepository());
+        recovered.close();
+
+        // Assert
+        assertEquals(200, records);
+        assertEquals(200, recoveredUsers.count());
+    }
+
+    @Test
+    void playlistModified_ShouldLogTheBatchAndReplayItToTheSameSongsAndVersion() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        PlaylistRepository playlists = new PlaylistRepository();
+        LoggedPlaylistRepository playlistRepository = new LoggedPlaylistRepository(playlists, mutationLog);
+        mutationLog.open(path, 10, 16, new UserRepository(), playlists);
+        List<String> songIds = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) songIds.add(String.valueOf(i));
+        Playlist playlist = playlistRepository.save(new Playlist(null, "Long", "1", songIds));
+        mutationLog.sync();
+        long sizeAfterCreate = Files.size(path);
+
+        // Act
+        PlaylistMutation applied = playlist.apply(new PlaylistMutation()
+                .addSongs("10001", "5").deleteSongs("7").moveSong("10001", 0));
+        playlistRepository.saveModified(playlist, applied);
+        mutationLog.close();
+        long batchBytes = Files.size(path) - sizeAfterCreate;
+        PlaylistRepository recoveredPlaylists = new PlaylistRepository();
+        MutationLog recovered = new MutationLog();
+        recovered.open(path, 10, 16, new UserRepository(), recoveredPlaylists);
+        recovered.close();
+
+        // Assert
+        assertTrue(batchBytes < 100, "batch record took " + batchBytes + " bytes");
+        Playlist recoveredPlaylist = recoveredPlaylists.findById(playlist.getId()).orElseThrow(AssertionError::new);
+        assertEquals(playlist.getSongIdList(), recoveredPlaylist.getSongIdList());
+        assertEquals(playlist.getVersion(), recoveredPlaylist.getVersion());
+    }
+
+    @Test
+    void checkpoint_ShouldShrinkTheLogAndReplayToTheSameState() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        PlaylistRepository playlists = new PlaylistRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        LoggedPlaylistRepository playlistRepository = new LoggedPlaylistRepository(playlists, mutationLog);
+        mutationLog.open(path, 10, 16, users, playlists);
+        User user = userRepository.save(new User(null, "Kiran"));
+        User gone = userRepository.save(new User(null, "Shankar"));
+        Playlist kept = playlistRepository.save(new Playlist(null, "Kept", user.getId(), Arrays.asList("1", "2")));
+        Playlist playing = playlistRepository.save(new Playlist(null, "Playing", user.getId(), Arrays.asList("3")));
+        Playlist last = playlistRepository.save(new Playlist(null, "Last", user.getId(), Arrays.asList("4")));
+        user.addPlaylist(kept);
+        user.addPlaylist(playing);
+        user.addPlaylist(last);
+        for (int i = 0; i < 200; i++) {
+            PlaylistMutation applied = kept.apply(new PlaylistMutation().addSongs("5").deleteSongs("5"));
+            playlistRepository.saveModified(kept, applied);
+        }
+        user.setActivePlaylist(playing);
+        userRepository.save(user);
+        user.deletePlaylist(playing);
+        playlistRepository.delete(playing);
+        user.deletePlaylist(last);
+        playlistRepository.delete(last);
+        userRepository.delete(gone);
+        mutationLog.sync();
+        long sizeBefore = Files.size(path);
+
+        // Act
+        mutationLog.checkpoint();
+        long sizeAfter = Files.size(path);
+        Playlist added = playlistRepository.save(new Playlist(null, "Added", user.getId(), Arrays.asList("6")));
+        user.addPlaylist(added);
+        mutationLog.close();
+        MutationLog recovered = new MutationLog();
+        UserRepository recoveredUsers = new UserRepository();
+        PlaylistRepository recoveredPlaylists = new PlaylistRepository();
+        recovered.open(path, 10, 16, recoveredUsers, recoveredPlaylists);
+        recovered.close();
+
+        // Assert
+        assertTrue(sizeAfter < sizeBefore / 10, sizeBefore + " bytes before, " + sizeAfter + " after");
+        User recoveredUser = recoveredUsers.findById(user.getId()).orElseThrow(AssertionError::new);
+        assertFalse(recoveredUsers.findById(gone.getId()).isPresent());
+        Playlist recoveredKept = recoveredUser.getPlaylist(kept.getId()).orElseThrow(AssertionError::new);
+        assertEquals(Arrays.asList("1", "2"), recoveredKept.getSongIdList());
+        assertEquals(kept.getVersion(), recoveredKept.getVersion());
+        assertTrue(recoveredUser.getPlaylist(added.getId()).isPresent());
+        assertFalse(recoveredPlaylists.findById(playing.getId()).isPresent());
+        assertEquals(playing.getId(), recoveredUser.getActivePlaylist().map(Playlist::getId).orElse(null));
+        // IDs of deleted users and playlists are not handed out again
+        assertEquals("3", recoveredUsers.save(new User(null, "Yakshit")).getId());
+        assertEquals("5", recoveredPlaylists.save(new Playlist(null, "New", user.getId(), Arrays.asList("7"))).getId());
+    }
+
+    @Test
+    void open_ShouldCheckpointTheRecoveredStateGivenALogOverTheSize() throws IOException {
+        // Arrange
+        MutationLog mutationLog = new MutationLog();
+        UserRepository users = new UserRepository();
+        LoggedUserRepository userRepository = new LoggedUserRepository(users, mutationLog);
+        mutationLog.open(path, 10, 16, users, new PlaylistRepository());
+        User user = userRepository.save(new User(null, "Kiran"));
+        for (int i = 0; i < 100; i++) {
+            user.setName("Kiran " + i);
+            userRepository.save(user);
+        }
+        mutationLog.close();
+        long sizeBefore = Files.size(path);
+
+        // Act
+        MutationLog reopened = new MutationLog();
+        long records = reopened.open(path, 10, 16, sizeBefore - 1, new UserRepository(), new PlaylistRepository());
+        reopened.close();
+        long sizeAfter = Files.size(path);
+        MutationLog recovered = new MutationLog();
+        UserRepository recoveredUsers = new UserRepository();
+        long recoveredRecords = recovered.open(path, 10, 16, recoveredUsers, new PlaylistRepository());
+        recovered.close();
+
+        // Assert
+        assertEquals(101, records);
+        assertTrue(sizeAfter < sizeBefore / 10, sizeBefore + " bytes before, " + sizeAfter + " after");
+        // The ID counters and the one user
+        assertEquals(2, recoveredRecords);
+        assertEquals("Kiran 99", recoveredUsers.findById(user.getId()).map(User::getName).orElse(null));
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".checkpoint")));
+    }
+}
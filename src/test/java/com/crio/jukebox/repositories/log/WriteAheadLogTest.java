@@ -0,0 +1,168 @@
+package com.crio.jukebox.repositories.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    // Each record is framed by a 4-byte length and a 4-byte CRC32
+    private static final int HEADER_BYTES = 8;
+
+    private Path path;
+
+    @BeforeEach
+    void setup() throws IOException {
+        path = Files.createTempFile("write-ahead", ".log");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private void writeRecords(String... records) throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(path, 10, 16)) {
+            for (String record : records) {
+                byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+                log.append(bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> records = new ArrayList<>();
+        WriteAheadLog.replay(path, record -> {
+            byte[] bytes = new byte[3];
+            record.readFully(bytes);
+            records.add(new String(bytes, StandardCharsets.UTF_8));
+        });
+        return records;
+    }
+
+    private void writeAt(long position, byte[] bytes) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    @Test
+    void replay_ShouldReadEveryRecordInOrder() throws IOException {
+        // Arrange
+        writeRecords("one", "two", "six");
+
+        // Act
+        List<String> records = replay();
+
+        // Assert
+        assertEquals(Arrays.asList("one", "two", "six"), records);
+    }
+
+    @Test
+    void replay_ShouldTruncateARecordThatRunsPastTheEnd() throws IOException {
+        // Arrange
+        writeRecords("one", "two");
+        long firstRecordEnd = HEADER_BYTES + 3;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            file.truncate(file.size() - 1);
+        }
+
+        // Act
+        List<String> records = replay();
+
+        // Assert
+        assertEquals(Arrays.asList("one"), records);
+        assertEquals(firstRecordEnd, Files.size(path));
+    }
+
+    @Test
+    void replay_ShouldTruncateALastRecordThatFailsItsChecksum() throws IOException {
+        // Arrange
+        writeRecords("one", "two");
+        long size = Files.size(path);
+        writeAt(size - 1, new byte[]{'X'});
+
+        // Act
+        List<String> records = replay();
+
+        // Assert
+        assertEquals(Arrays.asList("one"), records);
+        assertEquals(size - HEADER_BYTES - 3, Files.size(path));
+    }
+
+    @Test
+    void replay_ShouldRefuseACorruptRecordBeforeTheEndAndKeepTheFile() throws IOException {
+        // Arrange
+        writeRecords("one", "two", "six");
+        long size = Files.size(path);
+        long secondRecord = HEADER_BYTES + 3;
+        writeAt(secondRecord + HEADER_BYTES, new byte[]{'X'});
+
+        // Act
+        IOException e = assertThrows(IOException.class, this::replay);
+
+        // Assert
+        assertTrue(e.getMessage().contains("offset " + secondRecord), e.getMessage());
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void replay_ShouldTruncateZerosToTheEndAndAppendAfterTheLastGoodRecord() throws IOException {
+        // Arrange
+        writeRecords("one");
+        long size = Files.size(path);
+        // Space allocated for a write that a crash never completed
+        writeAt(size, new byte[100]);
+
+        // Act
+        List<String> records = replay();
+        writeRecords("two");
+
+        // Assert
+        assertEquals(Arrays.asList("one"), records);
+        assertEquals(Arrays.asList("one", "two"), replay());
+    }
+
+    @Test
+    void replay_ShouldRefuseZerosFollowedByData() throws IOException {
+        // Arrange
+        writeRecords("one");
+        long size = Files.size(path);
+        byte[] zerosThenData = new byte[100];
+        zerosThenData[99] = 1;
+        writeAt(size, zerosThenData);
+
+        // Act
+        IOException e = assertThrows(IOException.class, this::replay);
+
+        // Assert
+        assertTrue(e.getMessage().contains("offset " + size), e.getMessage());
+        assertEquals(size + 100, Files.size(path));
+    }
+
+    @Test
+    void replay_ShouldReadNothingGivenAMissingFile() throws IOException {
+        // Arrange
+        Files.delete(path);
+
+        // Act
+        long records = WriteAheadLog.replay(path, record -> fail("no record expected"));
+
+        // Assert
+        assertEquals(0, records);
+        assertFalse(Files.exists(path));
+    }
+}
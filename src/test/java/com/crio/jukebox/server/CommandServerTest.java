@@ -0,0 +1,246 @@
+package com.crio.jukebox.server;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.crio.common.commands.BufferedOutputSink;
+import com.crio.jukebox.config.ApplicationConfig;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CommandServerTest {
+    private static final String[] SONG_NAMES = {"South of the Border", "Cross Me", "Give Life Back To Music"};
+
+    private PrintStream console;
+    private BufferedOutputSink outputSink;
+    private CommandServer server;
+    private int port;
+    private Path csv;
+
+    @BeforeEach
+    void setup() throws IOException {
+        ApplicationConfig applicationConfig = new ApplicationConfig();
+        outputSink = applicationConfig.getOutputSink();
+        // As App.serve does, so that commands printing to System.out are captured too
+        console = System.out;
+        System.setOut(outputSink.printStream());
+        server = new CommandServer(applicationConfig.getCommandInvoker(), outputSink, 16);
+        port = server.start(0);
+        csv = Files.createTempFile("songs", ".csv");
+        Files.write(csv, Arrays.asList(
+                SONG_NAMES[0] + ",Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#Cardi.B",
+                SONG_NAMES[1] + ",Pop,No.6 Collaborations Project,Ed Sheeran,Ed Sheeran#PnB Rock",
+                SONG_NAMES[2] + ",Electronic Dance Music,Random Access Memories,Daft Punk,Daft Punk#Nile Rodgers"));
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        server.close();
+        outputSink.flush();
+        System.setOut(console);
+        Files.deleteIfExists(csv);
+    }
+
+    /**
+     * One client connection that reads the framed replies of the server.
+     */
+    private final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final DataInputStream in;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(10_000);
+            out = socket.getOutputStream();
+            in = new DataInputStream(socket.getInputStream());
+        }
+
+        void send(String... lines) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (String line : lines) text.append(line).append('\n');
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        Reply receive() throws IOException {
+            String header = readHeader(in);
+            String[] parts = header.split(" ");
+            Assertions.assertEquals(2, parts.length, "Malformed header: " + header);
+            byte[] body = new byte[Integer.parseInt(parts[1])];
+            in.readFully(body);
+            return new Reply(parts[0], new String(body, StandardCharsets.UTF_8));
+        }
+
+        Reply call(String line) throws IOException {
+            send(line);
+            return receive();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static final class Reply {
+        private final String status;
+        private final String body;
+
+        Reply(String status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static String readHeader(InputStream in) throws IOException {
+        StringBuilder header = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) throw new IOException("Connection closed before the reply header");
+            header.append((char) b);
+        }
+        return header.toString();
+    }
+
+    @Test
+    @DisplayName("A command should be answered with OK and the byte length of its output")
+    public void serve_ShouldFrameOutputWithOkHeader_GivenCommand() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            client.send("CREATE-USER Kiran");
+            //Act
+            String header = readHeader(client.in);
+            byte[] body = new byte[Integer.parseInt(header.substring("OK ".length()))];
+            client.in.readFully(body);
+            //Assert
+            Assertions.assertEquals("OK " + "1 Kiran\n".length(), header);
+            Assertions.assertEquals("1 Kiran\n", new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("A command that throws should be answered with ERROR and the exception")
+    public void serve_ShouldFrameExceptionWithErrorHeader_GivenMalformedCommand() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            Reply reply = client.call("PLAY-PLAYLIST");
+            Reply next = client.call("CREATE-USER Kiran");
+            //Assert
+            Assertions.assertEquals("ERROR", reply.status);
+            Assertions.assertTrue(reply.body.contains("Exception"), reply.body);
+            Assertions.assertEquals("OK", next.status);
+            Assertions.assertEquals("1 Kiran\n", next.body);
+        }
+    }
+
+    @Test
+    @DisplayName("An unknown command should be answered with ERROR and keep the connection open")
+    public void serve_ShouldReplyError_GivenUnknownCommand() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            Reply reply = client.call("DANCE 1 2");
+            Reply next = client.call("CREATE-USER Kiran");
+            //Assert
+            Assertions.assertEquals("ERROR", reply.status);
+            Assertions.assertTrue(reply.body.contains("DANCE"), reply.body);
+            Assertions.assertEquals("OK", next.status);
+        }
+    }
+
+    @Test
+    @DisplayName("Pipelined commands should be answered in the order they were sent")
+    public void serve_ShouldReplyInOrder_GivenPipelinedCommands() throws IOException {
+        //Arrange
+        try (Client client = new Client()) {
+            //Act
+            client.send("CREATE-USER Kiran", "DANCE", "CREATE-USER Shruthi", "CREATE-USER Ravi");
+            List<Reply> replies = new ArrayList<>();
+            for (int i = 0; i < 4; i++) replies.add(client.receive());
+            //Assert
+            Assertions.assertEquals("1 Kiran\n", replies.get(0).body);
+            Assertions.assertEquals("ERROR", replies.get(1).status);
+            Assertions.assertEquals("2 Shruthi\n", replies.get(2).body);
+            Assertions.assertEquals("3 Ravi\n", replies.get(3).body);
+        }
+    }
+
+    @Test
+    @DisplayName("Two users on their own connections should each see their own playback")
+    public void serve_ShouldKeepRepliesPerUser_GivenTwoConcurrentClients() throws Exception {
+        //Arrange
+        try (Client setup = new Client()) {
+            Assertions.assertEquals("OK", setup.call("LOAD-DATA " + csv).status);
+            for (String name : new String[]{"Kiran", "Shruthi"}) {
+                Assertions.assertEquals("OK", setup.call("CREATE-USER " + name).status);
+            }
+            Assertions.assertEquals("OK", setup.call("CREATE-PLAYLIST 1 MINE 1 2 3").status);
+            Assertions.assertEquals("OK", setup.call("CREATE-PLAYLIST 2 MINE 3 2 1").status);
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(2);
+        List<Future<List<String>>> played = new ArrayList<>();
+        for (String userId : new String[]{"1", "2"}) {
+            // Playlist IDs are global, so each user plays the playlist with their own ID
+            played.add(clients.submit(() -> {
+                try (Client client = new Client()) {
+                    start.countDown();
+                    start.await();
+                    List<String> songs = new ArrayList<>();
+                    songs.add(client.call("PLAY-PLAYLIST " + userId + " " + userId).body);
+                    for (int i = 0; i < 50; i++) {
+                        songs.add(client.call("PLAY-SONG " + userId + " NEXT").body);
+                    }
+                    return songs;
+                }
+            }));
+        }
+        //Act
+        List<String> first = played.get(0).get(30, TimeUnit.SECONDS);
+        List<String> second = played.get(1).get(30, TimeUnit.SECONDS);
+        clients.shutdown();
+        //Assert
+        for (int i = 0; i <= 50; i++) {
+            Assertions.assertTrue(first.get(i).contains("Song - " + SONG_NAMES[i % 3] + "\n"), first.get(i));
+            Assertions.assertTrue(second.get(i).contains("Song - " + SONG_NAMES[2 - i % 3] + "\n"), second.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("A connection limit far above the thread cap should not become that many platform threads")
+    public void newConnectionExecutor_ShouldCapPlatformThreads_GivenLargeConnectionLimit() {
+        //Act
+        ExecutorService executor = CommandServer.newConnectionExecutor(10_000);
+        //Assert
+        try {
+            if (executor instanceof ThreadPoolExecutor) {
+                Assertions.assertEquals(CommandServer.MAX_PLATFORM_THREADS, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.crio.jukebox.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.SongPlaybackControl;
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.repositories.PlaylistRepository;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.UserRepository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PlaybackLookaheadTest {
+    private static final int SONGS = 12;
+
+    /**
+     * One catalog with its services, so that the same commands can be replayed with and without prefetching.
+     */
+    private static final class Jukebox {
+        private final SongRepository songRepository = new SongRepository();
+        private final UserRepository userRepository = new UserRepository();
+        private final PlaylistService playlistService;
+        private final UserService userService;
+
+        Jukebox(Executor prefetchExecutor) {
+            for (int i = 1; i <= SONGS; i++) {
+                songRepository.save(new Song("Song " + i, "Pop", "Album " + i, "Artist", new String[]{"Artist"}, songRepository.getSymbolTable()));
+            }
+            userRepository.save(new User("1", "Kiran"));
+            playlistService = new PlaylistService(new PlaylistRepository(), userRepository, songRepository);
+            userService = new UserService(userRepository, songRepository, new Random(7), prefetchExecutor, 3);
+        }
+
+        String run(Command command) {
+            try {
+                return command.run(this);
+            } catch (Exception e) {
+                return e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+        }
+    }
+
+    private interface Command {
+        String run(Jukebox jukebox) throws Exception;
+    }
+
+    private static Command randomCommand(Random random, int step) {
+        String songId = String.valueOf(1 + random.nextInt(SONGS));
+        switch (random.nextInt(8)) {
+            case 0:
+                return jukebox -> jukebox.playlistService.modifyPlaylist("1", "1", new PlaylistMutation().addSongs(songId)).toString();
+            case 1:
+                return jukebox -> jukebox.playlistService.modifyPlaylist("1", "1", new PlaylistMutation().deleteSongs(songId)).toString();
+            case 2:
+                // Reload the song with new details under the same ID
+                return jukebox -> jukebox.songRepository.save(
+                        new Song(songId, "Song " + songId + " v" + step, "Pop", "Album " + step, "Artist", new String[]{"Artist"}, jukebox.songRepository.getSymbolTable())).getName();
+            case 3:
+                return jukebox -> jukebox.userService.playSongInPlaylist("1", songId).toString();
+            case 4:
+                String playlistId = random.nextBoolean() ? "1" : "2";
+                return jukebox -> jukebox.userService.playPlaylist("1", playlistId).toString();
+            case 5:
+            case 6:
+                return jukebox -> jukebox.userService.playSongInPlaylist("1", SongPlaybackControl.BACK).toString();
+            default:
+                return jukebox -> jukebox.userService.playSongInPlaylist("1", SongPlaybackControl.NEXT).toString();
+        }
+    }
+
+    @Test
+    @DisplayName("NEXT and BACK with a look-ahead buffer should play the same songs as without one")
+    public void playSongInPlaylist_ShouldMatchUnbufferedService_GivenRandomSequences() {
+        for (int seed = 0; seed < 50; seed++) {
+            //Arrange
+            Jukebox buffered = new Jukebox(Runnable::run);
+            Jukebox unbuffered = new Jukebox(null);
+            Command setup = jukebox -> {
+                jukebox.playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3", "4", "5", "6", "7"});
+                jukebox.playlistService.createPlaylist("1", "Second", new String[]{"8", "9", "10"});
+                return jukebox.userService.playPlaylist("1", "1").toString();
+            };
+            Assertions.assertEquals(unbuffered.run(setup), buffered.run(setup));
+            Random random = new Random(seed);
+            for (int step = 0; step < 300; step++) {
+                Command command = randomCommand(random, step);
+                //Act
+                String expected = unbuffered.run(command);
+                String actual = buffered.run(command);
+                //Assert
+                Assertions.assertEquals(expected, actual, "Seed " + seed + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("NEXT should ignore songs prefetched before the catalog changed")
+    public void playSongInPlaylist_ShouldDropPrefetchedSongs_GivenCatalogChangedBeforeTheyArrive() throws Exception {
+        //Arrange
+        List<Runnable> pending = new ArrayList<>();
+        Jukebox jukebox = new Jukebox(pending::add);
+        jukebox.playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"});
+        jukebox.userService.playPlaylist("1", "1");
+        jukebox.songRepository.save(new Song("2", "Song 2 reloaded", "Pop", "Album 2", "Artist", new String[]{"Artist"}, jukebox.songRepository.getSymbolTable()));
+        //Act
+        pending.forEach(Runnable::run);
+        String next = jukebox.userService.playSongInPlaylist("1", SongPlaybackControl.NEXT).songName();
+        //Assert
+        Assertions.assertEquals("Song 2 reloaded", next);
+    }
+
+    @Test
+    @DisplayName("take method should return the prefetched song only while the playlist version is unchanged")
+    public void take_ShouldReturnEmpty_GivenPlaylistModified() throws Exception {
+        //Arrange
+        Jukebox jukebox = new Jukebox(Runnable::run);
+        jukebox.playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"});
+        jukebox.userService.playPlaylist("1", "1");
+        PlaybackLookahead lookahead = new PlaybackLookahead(jukebox.songRepository, new ReentrantReadWriteLock().readLock(), Runnable::run, 1);
+        Playlist playlist = jukebox.userRepository.findById("1").get().getActivePlaylist().get();
+        Song first = jukebox.songRepository.findById("1").get();
+        lookahead.playing(playlist, 0, first, null);
+        //Act
+        boolean prefetched = lookahead.take(playlist, 1).isPresent();
+        jukebox.playlistService.modifyPlaylist("1", "1", new PlaylistMutation().addSongs("4"));
+        boolean prefetchedAfterModify = lookahead.take(playlist, 1).isPresent();
+        //Assert
+        Assertions.assertTrue(prefetched);
+        Assertions.assertFalse(prefetchedAfterModify);
+    }
+
+    @Test
+    @DisplayName("playing method should not read the catalog while another thread holds the catalog write lock")
+    public void playing_ShouldSkipPrefetch_GivenCatalogWriteInProgress() throws Exception {
+        //Arrange
+        Jukebox jukebox = new Jukebox(null);
+        jukebox.playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"});
+        ReadWriteLock catalogLock = new ReentrantReadWriteLock();
+        List<Runnable> pending = new ArrayList<>();
+        PlaybackLookahead lookahead = new PlaybackLookahead(jukebox.songRepository, catalogLock.readLock(), pending::add, 1);
+        Playlist playlist = jukebox.userRepository.findById("1").get().getPlaylist("1").get();
+        lookahead.playing(playlist, 0, jukebox.songRepository.findById("1").get(), null);
+        //Act
+        // The prefetch runs on another thread while this one holds the write lock
+        catalogLock.writeLock().lock();
+        try {
+            Thread prefetcher = new Thread(() -> pending.forEach(Runnable::run));
+            prefetcher.start();
+            prefetcher.join();
+        } finally {
+            catalogLock.writeLock().unlock();
+        }
+        boolean prefetchedDuringWrite = lookahead.take(playlist, 1).isPresent();
+        pending.forEach(Runnable::run);
+        boolean prefetchedAfterWrite = lookahead.take(playlist, 1).isPresent();
+        //Assert
+        Assertions.assertFalse(prefetchedDuringWrite);
+        Assertions.assertTrue(prefetchedAfterWrite);
+    }
+}
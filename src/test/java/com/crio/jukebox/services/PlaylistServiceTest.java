@@ -0,0 +1,160 @@
+package com.crio.jukebox.services;
+
+import java.util.Set;
+
+import com.crio.jukebox.dtos.PlaylistDeltaDto;
+import com.crio.jukebox.dtos.PlaylistPageDto;
+import com.crio.jukebox.entities.Playlist;
+import com.crio.jukebox.entities.PlaylistMutation;
+import com.crio.jukebox.entities.Song;
+import com.crio.jukebox.entities.User;
+import com.crio.jukebox.exceptions.InvalidOperationException;
+import com.crio.jukebox.exceptions.SongNotFoundException;
+import com.crio.jukebox.exceptions.SongNotInPlaylistException;
+import com.crio.jukebox.repositories.PlaylistRepository;
+import com.crio.jukebox.repositories.SongCooccurrenceIndex;
+import com.crio.jukebox.repositories.SongRepository;
+import com.crio.jukebox.repositories.UserRepository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PlaylistServiceTest {
+    private PlaylistRepository playlistRepository;
+    private SongCooccurrenceIndex cooccurrenceIndex;
+    private PlaylistService playlistService;
+
+    @BeforeEach
+    void setup(){
+        SongRepository songRepository = new SongRepository();
+        for (int i = 1; i <= 8; i++) {
+            songRepository.save(new Song("Song " + i, "Pop", "Album", "Artist", new String[]{"Artist"}, songRepository.getSymbolTable()));
+        }
+        UserRepository userRepository = new UserRepository();
+        userRepository.save(new User("1", "Kiran"));
+        playlistRepository = new PlaylistRepository();
+        cooccurrenceIndex = new SongCooccurrenceIndex();
+        playlistService = new PlaylistService(playlistRepository, userRepository, songRepository, cooccurrenceIndex);
+    }
+
+    @Test
+    @DisplayName("modifyPlaylist method should leave the co-occurrence counts as if they were rebuilt from the playlists")
+    public void modifyPlaylist_ShouldUpdateCooccurrences_GivenMixedBatch() throws Exception {
+        //Arrange
+        String first = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3", "4"}).playlistId();
+        playlistService.createPlaylist("1", "Second", new String[]{"1", "3", "5"});
+        //Act
+        playlistService.modifyPlaylist("1", first, new PlaylistMutation()
+                .addSongs("5", "6").deleteSongs("2", "5", "3").moveSong("6", 0).addSongs("7"));
+        //Assert
+        SongCooccurrenceIndex rebuilt = new SongCooccurrenceIndex();
+        for (Playlist playlist : playlistRepository.findAll()) {
+            Set<String> members = playlist.getDistinctSongIds();
+            rebuilt.addSongs(members, members);
+        }
+        for (int song = 1; song <= 8; song++) {
+            for (int other = 1; other <= 8; other++) {
+                Assertions.assertEquals(rebuilt.count(String.valueOf(song), String.valueOf(other)),
+                        cooccurrenceIndex.count(String.valueOf(song), String.valueOf(other)), song + " and " + other);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("modifyPlaylist method should leave the playlist unchanged when any operation of the batch fails")
+    public void modifyPlaylist_ShouldLeavePlaylistUnchanged_GivenFailingBatch() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"}).playlistId();
+        PlaylistPageDto before = playlistService.getPlaylistPage("1", playlistId, 0, 10);
+        //Act
+        Assertions.assertThrows(SongNotFoundException.class, () -> playlistService.modifyPlaylist("1", playlistId,
+                new PlaylistMutation().deleteSongs("1").addSongs("4", "99")));
+        Assertions.assertThrows(SongNotInPlaylistException.class, () -> playlistService.modifyPlaylist("1", playlistId,
+                new PlaylistMutation().addSongs("4").deleteSongs("2", "5")));
+        Assertions.assertThrows(InvalidOperationException.class, () -> playlistService.modifyPlaylist("1", playlistId,
+                new PlaylistMutation().addSongs("4").moveSong("1", 4)));
+        //Assert
+        PlaylistPageDto after = playlistService.getPlaylistPage("1", playlistId, 0, 10);
+        Assertions.assertArrayEquals(before.songIdList(), after.songIdList());
+        Assertions.assertEquals(before.version(), after.version());
+        Assertions.assertEquals(0, cooccurrenceIndex.count("1", "4"));
+    }
+
+    @Test
+    @DisplayName("modifyPlaylistDelta method should report only the songs that were added, removed and moved")
+    public void modifyPlaylistDelta_ShouldReportChanges_GivenMixedBatch() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3", "4"}).playlistId();
+        int versionBefore = playlistService.getPlaylistPage("1", playlistId, 0, 0).version();
+        //Act
+        PlaylistDeltaDto delta = playlistService.modifyPlaylistDelta("1", playlistId, new PlaylistMutation()
+                .addSongs("2", "5").deleteSongs("3").moveSong("5", 0));
+        //Assert
+        Assertions.assertArrayEquals(new String[]{"5"}, delta.addedSongIds());
+        Assertions.assertArrayEquals(new String[]{"3"}, delta.removedSongIds());
+        Assertions.assertArrayEquals(new String[]{"5"}, delta.movedSongIds());
+        Assertions.assertEquals(4, delta.songCount());
+        Assertions.assertTrue(delta.version() > versionBefore);
+        Assertions.assertArrayEquals(new String[]{"5", "1", "2", "4"},
+                playlistService.getPlaylistPage("1", playlistId, 0, 10).songIdList());
+    }
+
+    @Test
+    @DisplayName("modifyPlaylistDelta method should report nothing when the added songs are already in the playlist")
+    public void modifyPlaylistDelta_ShouldReportNoChanges_GivenSongsAlreadyPresent() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2"}).playlistId();
+        int versionBefore = playlistService.getPlaylistPage("1", playlistId, 0, 0).version();
+        //Act
+        PlaylistDeltaDto delta = playlistService.modifyPlaylistDelta("1", playlistId, new PlaylistMutation().addSongs("2", "1"));
+        //Assert
+        Assertions.assertEquals(0, delta.addedSongIds().length);
+        Assertions.assertEquals(0, delta.removedSongIds().length);
+        Assertions.assertEquals(0, delta.movedSongIds().length);
+        Assertions.assertEquals(2, delta.songCount());
+        Assertions.assertEquals(versionBefore, delta.version());
+    }
+
+    @Test
+    @DisplayName("getPlaylistPage method should return the songs from the offset up to the limit")
+    public void getPlaylistPage_ShouldReturnRequestedSongs_GivenOffsetAndLimit() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3", "4", "5"}).playlistId();
+        //Act
+        PlaylistPageDto middle = playlistService.getPlaylistPage("1", playlistId, 1, 2);
+        PlaylistPageDto tail = playlistService.getPlaylistPage("1", playlistId, 3, Integer.MAX_VALUE);
+        //Assert
+        Assertions.assertArrayEquals(new String[]{"2", "3"}, middle.songIdList());
+        Assertions.assertEquals(1, middle.offset());
+        Assertions.assertEquals(5, middle.songCount());
+        Assertions.assertArrayEquals(new String[]{"4", "5"}, tail.songIdList());
+    }
+
+    @Test
+    @DisplayName("getPlaylistPage method should return no songs when the page starts past the end or the limit is zero")
+    public void getPlaylistPage_ShouldReturnEmptyPage_GivenOffsetPastEndOrZeroLimit() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"}).playlistId();
+        //Act
+        PlaylistPageDto pastEnd = playlistService.getPlaylistPage("1", playlistId, 7, 2);
+        PlaylistPageDto atEnd = playlistService.getPlaylistPage("1", playlistId, 3, 2);
+        PlaylistPageDto zeroLimit = playlistService.getPlaylistPage("1", playlistId, 1, 0);
+        //Assert
+        Assertions.assertEquals(0, pastEnd.songIdList().length);
+        Assertions.assertEquals(3, pastEnd.songCount());
+        Assertions.assertEquals(0, atEnd.songIdList().length);
+        Assertions.assertEquals(0, zeroLimit.songIdList().length);
+    }
+
+    @Test
+    @DisplayName("getPlaylistPage method should throw IllegalArgumentException given a negative offset or limit")
+    public void getPlaylistPage_ShouldThrowIllegalArgumentException_GivenNegativeArguments() throws Exception {
+        //Arrange
+        String playlistId = playlistService.createPlaylist("1", "First", new String[]{"1", "2", "3"}).playlistId();
+        //Act and Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> playlistService.getPlaylistPage("1", playlistId, -1, 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> playlistService.getPlaylistPage("1", playlistId, 0, -1));
+    }
+}